@@ -42,6 +42,14 @@ public class ArchTaskExecutor extends TaskExecutor {
     private static final @NonNull Executor sIOThreadExecutor =
             command -> getInstance().executeOnDiskIO(command);
 
+    private static final @NonNull Executor sUiBlockingIOThreadExecutor =
+            command -> getInstance().executeOnDiskIO(command,
+                    PriorityTaskScheduler.LANE_UI_BLOCKING);
+
+    private static final @NonNull Executor sBackgroundIOThreadExecutor =
+            command -> getInstance().executeOnDiskIO(command,
+                    PriorityTaskScheduler.LANE_BACKGROUND);
+
     private ArchTaskExecutor() {
         mDefaultTaskExecutor = new DefaultTaskExecutor();
         mDelegate = mDefaultTaskExecutor;
@@ -83,6 +91,12 @@ public class ArchTaskExecutor extends TaskExecutor {
         mDelegate.executeOnDiskIO(runnable);
     }
 
+    @Override
+    public void executeOnDiskIO(@NonNull Runnable runnable,
+            @PriorityTaskScheduler.Lane int lane) {
+        mDelegate.executeOnDiskIO(runnable, lane);
+    }
+
     @Override
     public void postToMainThread(@NonNull Runnable runnable) {
         mDelegate.postToMainThread(runnable);
@@ -96,6 +110,23 @@ public class ArchTaskExecutor extends TaskExecutor {
         return sIOThreadExecutor;
     }
 
+    /**
+     * Returns an executor running tasks in the disk IO thread pool, in the given priority lane.
+     *
+     * @param lane The lane of the tasks, one of the {@link PriorityTaskScheduler} lanes.
+     * @return The executor.
+     */
+    public static @NonNull Executor getIOThreadExecutor(@PriorityTaskScheduler.Lane int lane) {
+        switch (lane) {
+            case PriorityTaskScheduler.LANE_UI_BLOCKING:
+                return sUiBlockingIOThreadExecutor;
+            case PriorityTaskScheduler.LANE_BACKGROUND:
+                return sBackgroundIOThreadExecutor;
+            default:
+                return sIOThreadExecutor;
+        }
+    }
+
     @Override
     public boolean isMainThread() {
         return mDelegate.isMainThread();
@@ -27,38 +27,67 @@ import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The default task executor, running disk IO tasks on a {@link PriorityTaskScheduler}.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
 public class DefaultTaskExecutor extends TaskExecutor {
 
+    private static final int DISK_IO_THREAD_COUNT = 4;
+
     private final Object mLock = new Object();
 
-    private final ExecutorService mDiskIO = Executors.newFixedThreadPool(4, new ThreadFactory() {
-        private static final String THREAD_NAME_STEM = "arch_disk_io_";
+    private final PriorityTaskScheduler mDiskIO;
 
-        private final AtomicInteger mThreadId = new AtomicInteger(0);
+    private volatile @Nullable Handler mMainHandler;
 
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r);
-            t.setName(THREAD_NAME_STEM + mThreadId.getAndIncrement());
-            return t;
-        }
-    });
+    public DefaultTaskExecutor() {
+        this(new PriorityTaskScheduler(DISK_IO_THREAD_COUNT, new ThreadFactory() {
+            private static final String THREAD_NAME_STEM = "arch_disk_io_";
 
-    private volatile @Nullable Handler mMainHandler;
+            private final AtomicInteger mThreadId = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r);
+                t.setName(THREAD_NAME_STEM + mThreadId.getAndIncrement());
+                return t;
+            }
+        }));
+    }
+
+    /**
+     * Creates a task executor running disk IO tasks on the given scheduler.
+     *
+     * @param diskIO The scheduler of disk IO tasks.
+     */
+    public DefaultTaskExecutor(@NonNull PriorityTaskScheduler diskIO) {
+        mDiskIO = diskIO;
+    }
+
+    /**
+     * Returns the scheduler of disk IO tasks, to monitor its lanes.
+     *
+     * @return The scheduler of disk IO tasks.
+     */
+    public @NonNull PriorityTaskScheduler getDiskIOScheduler() {
+        return mDiskIO;
+    }
 
     @Override
     public void executeOnDiskIO(@NonNull Runnable runnable) {
         mDiskIO.execute(runnable);
     }
 
+    @Override
+    public void executeOnDiskIO(@NonNull Runnable runnable,
+            @PriorityTaskScheduler.Lane int lane) {
+        mDiskIO.execute(runnable, lane);
+    }
+
     @Override
     public void postToMainThread(@NonNull Runnable runnable) {
         if (mMainHandler == null) {
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.arch.core.executor;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.RestrictTo;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An executor running tasks in priority lanes on a fixed number of threads.
+ * <p>
+ * Each thread has a home lane, the threads being spread over the lanes so that each lane has at
+ * least one. A thread runs the oldest task of its home lane first, and only steals the oldest task
+ * of another lane, in priority order, when its home lane is empty. Threads of the
+ * {@link #LANE_UI_BLOCKING} lane never run {@link #LANE_BACKGROUND} tasks, so that a burst of
+ * background tasks can't occupy all the threads, while background tasks still make progress when
+ * higher priority lanes are busy.
+ * <p>
+ * The queue depth, wait time and number of stolen tasks of each lane are available to monitor
+ * the scheduler.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+public class PriorityTaskScheduler implements Executor {
+
+    /**
+     * The lane of tasks blocking the UI, such as reads of data about to be displayed.
+     */
+    public static final int LANE_UI_BLOCKING = 0;
+
+    /**
+     * The lane of tasks without a specific priority.
+     */
+    public static final int LANE_DEFAULT = 1;
+
+    /**
+     * The lane of tasks which can be delayed, such as background syncs.
+     */
+    public static final int LANE_BACKGROUND = 2;
+
+    static final int LANE_COUNT = 3;
+
+    @IntDef({LANE_UI_BLOCKING, LANE_DEFAULT, LANE_BACKGROUND})
+    @Retention(RetentionPolicy.SOURCE)
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public @interface Lane {
+    }
+
+    private final Object mLock = new Object();
+
+    private final ThreadFactory mThreadFactory;
+
+    private final int mThreadCount;
+
+    private final ArrayDeque<Task>[] mLanes;
+
+    private final LaneStats[] mStats;
+
+    private boolean mStarted;
+
+    private boolean mShutdown;
+
+    /**
+     * Creates a scheduler running tasks on the given number of threads, at least one per lane.
+     *
+     * @param threadCount   The number of threads.
+     * @param threadFactory The factory creating the threads.
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityTaskScheduler(int threadCount, @NonNull ThreadFactory threadFactory) {
+        mThreadFactory = threadFactory;
+        mThreadCount = Math.max(threadCount, LANE_COUNT);
+        mLanes = new ArrayDeque[LANE_COUNT];
+        mStats = new LaneStats[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++) {
+            mLanes[i] = new ArrayDeque<>();
+            mStats[i] = new LaneStats();
+        }
+    }
+
+    /**
+     * Executes the given task in the {@link #LANE_DEFAULT} lane.
+     *
+     * @param runnable The runnable to run.
+     */
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        execute(runnable, LANE_DEFAULT);
+    }
+
+    /**
+     * Executes the given task in the given lane.
+     *
+     * @param runnable The runnable to run.
+     * @param lane     The lane of the task.
+     * @throws RejectedExecutionException if the scheduler was shut down.
+     */
+    public void execute(@NonNull Runnable runnable, @Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            if (mShutdown) {
+                throw new RejectedExecutionException("The scheduler was shut down");
+            }
+            if (!mStarted) {
+                mStarted = true;
+                for (int i = 0; i < mThreadCount; i++) {
+                    mThreadFactory.newThread(new Worker(i % LANE_COUNT)).start();
+                }
+            }
+            mLanes[lane].addLast(new Task(runnable, System.nanoTime()));
+            // Not all the threads may run this task, so let them all check.
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops accepting tasks. The threads stop once all the queued tasks are run.
+     */
+    public void shutdown() {
+        synchronized (mLock) {
+            mShutdown = true;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of tasks of the given lane waiting for a thread.
+     *
+     * @param lane The lane.
+     * @return The number of queued tasks.
+     */
+    public int getQueueDepth(@Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            return mLanes[lane].size();
+        }
+    }
+
+    /**
+     * Returns the number of tasks of the given lane which started running.
+     *
+     * @param lane The lane.
+     * @return The number of started tasks.
+     */
+    public long getStartedTaskCount(@Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            return mStats[lane].mStartedCount;
+        }
+    }
+
+    /**
+     * Returns the number of tasks of the given lane which were run by a thread of another lane.
+     *
+     * @param lane The lane.
+     * @return The number of stolen tasks.
+     */
+    public long getStolenTaskCount(@Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            return mStats[lane].mStolenCount;
+        }
+    }
+
+    /**
+     * Returns the average time tasks of the given lane waited for a thread.
+     *
+     * @param lane The lane.
+     * @return The average wait time in nanoseconds, 0 if no task started.
+     */
+    public long getAverageWaitTimeNanos(@Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            LaneStats stats = mStats[lane];
+            return stats.mStartedCount == 0 ? 0 : stats.mTotalWaitNanos / stats.mStartedCount;
+        }
+    }
+
+    /**
+     * Returns the longest time a task of the given lane waited for a thread.
+     *
+     * @param lane The lane.
+     * @return The maximum wait time in nanoseconds, 0 if no task started.
+     */
+    public long getMaxWaitTimeNanos(@Lane int lane) {
+        checkLane(lane);
+        synchronized (mLock) {
+            return mStats[lane].mMaxWaitNanos;
+        }
+    }
+
+    /**
+     * Returns a factory of virtual threads when the runtime supports them, to back the scheduler
+     * with virtual threads rather than platform threads.
+     *
+     * @param name The name of the threads.
+     * @return The factory, or null if virtual threads are not supported.
+     */
+    public static @Nullable ThreadFactory createVirtualThreadFactory(@NonNull String name) {
+        try {
+            // Thread.ofVirtual() was added in Java 21, and is not available on Android.
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, name, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void checkLane(int lane) {
+        if (lane < 0 || lane >= LANE_COUNT) {
+            throw new IllegalArgumentException("Invalid lane " + lane);
+        }
+    }
+
+    /**
+     * Returns the next task for a thread of the given home lane, or null if there is none.
+     */
+    private @Nullable Task pollLocked(int homeLane) {
+        Task task = mLanes[homeLane].pollFirst();
+        int lane = homeLane;
+        for (int i = 0; task == null && i < LANE_COUNT; i++) {
+            if (i != homeLane && canSteal(homeLane, i)) {
+                task = mLanes[i].pollFirst();
+                lane = i;
+            }
+        }
+        if (task == null) {
+            return null;
+        }
+        LaneStats stats = mStats[lane];
+        long waitNanos = System.nanoTime() - task.mEnqueueTimeNanos;
+        stats.mStartedCount++;
+        stats.mTotalWaitNanos += waitNanos;
+        stats.mMaxWaitNanos = Math.max(stats.mMaxWaitNanos, waitNanos);
+        if (lane != homeLane) {
+            stats.mStolenCount++;
+        }
+        return task;
+    }
+
+    private static boolean canSteal(int homeLane, int lane) {
+        return homeLane != LANE_UI_BLOCKING || lane != LANE_BACKGROUND;
+    }
+
+    private final class Worker implements Runnable {
+        private final int mHomeLane;
+
+        Worker(int homeLane) {
+            mHomeLane = homeLane;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Task task;
+                synchronized (mLock) {
+                    while ((task = pollLocked(mHomeLane)) == null) {
+                        if (mShutdown) {
+                            return;
+                        }
+                        try {
+                            mLock.wait();
+                        } catch (InterruptedException e) {
+                            // Keep running queued tasks until the scheduler is shut down.
+                        }
+                    }
+                }
+                boolean completed = false;
+                try {
+                    task.mRunnable.run();
+                    completed = true;
+                } finally {
+                    if (!completed) {
+                        // The exception terminates this thread, so replace it to keep the same
+                        // number of threads.
+                        mThreadFactory.newThread(new Worker(mHomeLane)).start();
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Task {
+        final Runnable mRunnable;
+        final long mEnqueueTimeNanos;
+
+        Task(Runnable runnable, long enqueueTimeNanos) {
+            mRunnable = runnable;
+            mEnqueueTimeNanos = enqueueTimeNanos;
+        }
+    }
+
+    private static final class LaneStats {
+        long mStartedCount;
+        long mStolenCount;
+        long mTotalWaitNanos;
+        long mMaxWaitNanos;
+    }
+}
@@ -36,6 +36,19 @@ public abstract class TaskExecutor {
      */
     public abstract void executeOnDiskIO(@NonNull Runnable runnable);
 
+    /**
+     * Executes the given task in the disk IO thread pool, in the given priority lane.
+     * <p>
+     * Task executors without priority lanes ignore the lane.
+     *
+     * @param runnable The runnable to run in the disk IO thread pool.
+     * @param lane     The lane of the task, one of the {@link PriorityTaskScheduler} lanes.
+     */
+    public void executeOnDiskIO(@NonNull Runnable runnable,
+            @PriorityTaskScheduler.Lane int lane) {
+        executeOnDiskIO(runnable);
+    }
+
     /**
      * Posts the given task to the main thread.
      *
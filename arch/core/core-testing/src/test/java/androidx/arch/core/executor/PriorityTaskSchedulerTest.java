@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.arch.core.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class PriorityTaskSchedulerTest {
+    private static final ThreadFactory THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        // Tasks throwing exceptions are expected in tests.
+        thread.setUncaughtExceptionHandler((t, e) -> { });
+        return thread;
+    };
+
+    private final PriorityTaskScheduler mScheduler = new PriorityTaskScheduler(3, THREAD_FACTORY);
+
+    @After
+    public void tearDown() {
+        mScheduler.shutdown();
+    }
+
+    @Test
+    public void uiBlockingTaskNotQueuedBehindBackgroundTasks() throws InterruptedException {
+        CountDownLatch blockBackground = new CountDownLatch(1);
+        CountDownLatch backgroundStarted = new CountDownLatch(2);
+        for (int i = 0; i < 10; i++) {
+            mScheduler.execute(() -> {
+                backgroundStarted.countDown();
+                await(blockBackground);
+            }, PriorityTaskScheduler.LANE_BACKGROUND);
+        }
+        assertTrue(backgroundStarted.await(1, TimeUnit.SECONDS));
+
+        // All the threads but the UI blocking lane one are blocked by background tasks.
+        CountDownLatch uiBlockingDone = new CountDownLatch(1);
+        mScheduler.execute(uiBlockingDone::countDown, PriorityTaskScheduler.LANE_UI_BLOCKING);
+
+        assertTrue(uiBlockingDone.await(1, TimeUnit.SECONDS));
+        assertEquals(1, mScheduler.getStartedTaskCount(PriorityTaskScheduler.LANE_UI_BLOCKING));
+        assertEquals(8, mScheduler.getQueueDepth(PriorityTaskScheduler.LANE_BACKGROUND));
+        blockBackground.countDown();
+    }
+
+    @Test
+    public void idleThreadsStealTasksOfOtherLanes() throws InterruptedException {
+        int taskCount = 30;
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            mScheduler.execute(() -> {
+                started.countDown();
+                await(block);
+                done.countDown();
+            }, PriorityTaskScheduler.LANE_DEFAULT);
+        }
+
+        // The threads of the other lanes run default tasks as well.
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(taskCount - 3, mScheduler.getQueueDepth(PriorityTaskScheduler.LANE_DEFAULT));
+        block.countDown();
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(taskCount, mScheduler.getStartedTaskCount(PriorityTaskScheduler.LANE_DEFAULT));
+        assertTrue(mScheduler.getStolenTaskCount(PriorityTaskScheduler.LANE_DEFAULT) >= 2);
+        assertEquals(0, mScheduler.getQueueDepth(PriorityTaskScheduler.LANE_DEFAULT));
+        assertTrue(mScheduler.getMaxWaitTimeNanos(PriorityTaskScheduler.LANE_DEFAULT)
+                >= mScheduler.getAverageWaitTimeNanos(PriorityTaskScheduler.LANE_DEFAULT));
+    }
+
+    @Test
+    public void throwingTaskDoesNotReduceThreads() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            mScheduler.execute(() -> {
+                throw new IllegalStateException();
+            });
+        }
+
+        // All the threads are needed for these tasks to complete.
+        CountDownLatch started = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            mScheduler.execute(() -> {
+                started.countDown();
+                await(started);
+            });
+        }
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void executeAfterShutdown_throwsException() {
+        mScheduler.shutdown();
+        try {
+            mScheduler.execute(() -> { });
+            fail("Tasks should be rejected after shutdown");
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+
+    @Test
+    public void executeInInvalidLane_throwsException() {
+        try {
+            mScheduler.execute(() -> { }, 3);
+            fail("Invalid lanes should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -16,10 +16,12 @@
 package androidx.asynclayoutinflater.view;
 
 import android.os.Build;
+import android.os.CancellationSignal;
 import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 
+import androidx.asynclayoutinflater.appcompat.AsyncAppCompatFactory;
 import androidx.asynclayoutinflater.test.R;
 import androidx.test.ext.junit.rules.ActivityScenarioRule;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
@@ -35,8 +37,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 @MediumTest
@@ -134,4 +140,116 @@ public class AsyncLayoutInflaterTest {
         Assert.assertNotSame(callbackThread.get(), Looper.getMainLooper().getThread());
         Assert.assertEquals(callbackThread.get().getName(), BG_THREAD_NAME);
     }
+
+    @Test
+    public void inflate_withMultipleThreads() throws Exception {
+        AtomicReference<AsyncLayoutInflater> inflater = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(activity -> inflater.set(
+                new AsyncLayoutInflater.Builder(activity)
+                        .setAsyncLayoutFactory(new AsyncAppCompatFactory())
+                        .setThreadCount(3)
+                        .build()));
+        CountDownLatch latch = new CountDownLatch(6);
+        testActivityRule.getScenario().onActivity(activity -> {
+            for (int i = 0; i < 6; i++) {
+                inflater.get().inflate(R.layout.test_button, null, (view, resId, parent) ->
+                        latch.countDown());
+            }
+        });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        AtomicReference<AsyncLayoutInflater.Metrics> metrics = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(
+                activity -> metrics.set(inflater.get().getMetrics()));
+        Assert.assertEquals(6, metrics.get().getInflateCount());
+        Assert.assertTrue(metrics.get().getInflateTimeNanos() > 0);
+    }
+
+    @Test
+    public void inflate_cancelledBeforeEnqueued() throws Exception {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+        AtomicReference<View> callbackView = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(activity -> mAsyncLayoutInflaterAppCompat.inflate(
+                R.layout.test_button, null, AsyncLayoutInflater.DEFAULT_PRIORITY,
+                cancellationSignal, /* callbackExecutor= */ null, (view, resId, parent) ->
+                        callbackView.set(view)));
+        // Wait for a later request, which would run after the cancelled one
+        SettableFuture<View> asyncInflatedViewFuture = SettableFuture.create();
+        mAsyncLayoutInflaterAppCompat.inflate(R.layout.test_button, null,
+                (view, resId, parent) -> asyncInflatedViewFuture.set(view));
+        asyncInflatedViewFuture.get();
+
+        Assert.assertNull(callbackView.get());
+        AtomicReference<AsyncLayoutInflater.Metrics> metrics = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(
+                activity -> metrics.set(mAsyncLayoutInflaterAppCompat.getMetrics()));
+        Assert.assertTrue(metrics.get().getCancelledCount() >= 1);
+    }
+
+    @Test
+    public void inflate_higherPriorityFirst() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        Executor directExecutor = Runnable::run;
+        testActivityRule.getScenario().onActivity(activity -> {
+            // Keep the inflate thread busy, so that the next requests are queued
+            mAsyncLayoutInflaterAppCompat.inflate(R.layout.test_button, null,
+                    Integer.MAX_VALUE, null, directExecutor, (view, resId, parent) -> {
+                        try {
+                            blocked.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        done.countDown();
+                    });
+            for (int priority : new int[] {1, 2}) {
+                mAsyncLayoutInflaterAppCompat.inflate(R.layout.test_button, null, priority,
+                        null, directExecutor, (view, resId, parent) -> {
+                            synchronized (order) {
+                                order.add(priority);
+                            }
+                            done.countDown();
+                        });
+            }
+        });
+        blocked.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        synchronized (order) {
+            Assert.assertEquals(2, (int) order.get(0));
+            Assert.assertEquals(1, (int) order.get(1));
+        }
+    }
+
+    @Test
+    public void preInflate() throws Exception {
+        AtomicReference<AsyncLayoutInflater> inflater = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(activity -> {
+            inflater.set(new AsyncLayoutInflater.Builder(activity)
+                    .setAsyncLayoutFactory(new AsyncAppCompatFactory())
+                    .setMaxPreInflatedViews(2)
+                    .build());
+            inflater.get().preInflate(R.layout.test_button, null, 3);
+        });
+        // Pre-inflated views are added on the UI thread after regular requests are handled
+        SettableFuture<View> asyncInflatedViewFuture = SettableFuture.create();
+        testActivityRule.getScenario().onActivity(activity -> inflater.get().inflate(
+                R.layout.test_button, null, Integer.MIN_VALUE, null, null,
+                (view, resId, parent) -> asyncInflatedViewFuture.set(view)));
+        asyncInflatedViewFuture.get();
+
+        List<View> views = new ArrayList<>();
+        AtomicReference<AsyncLayoutInflater.Metrics> metrics = new AtomicReference<>();
+        testActivityRule.getScenario().onActivity(activity -> {
+            for (int i = 0; i < 3; i++) {
+                views.add(inflater.get().getPreInflatedView(R.layout.test_button));
+            }
+            metrics.set(inflater.get().getMetrics());
+        });
+        Assert.assertNotNull(views.get(0));
+        Assert.assertNotNull(views.get(1));
+        Assert.assertNull(views.get(2));
+        Assert.assertEquals(2, metrics.get().getPreInflatedViewHitCount());
+        Assert.assertEquals(1, metrics.get().getPreInflatedViewMissCount());
+    }
 }
@@ -17,15 +17,19 @@
 package androidx.asynclayoutinflater.view;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.IntRange;
 import androidx.annotation.LayoutRes;
 import androidx.annotation.UiThread;
 import androidx.core.util.Pools.SynchronizedPool;
@@ -33,8 +37,13 @@ import androidx.core.util.Pools.SynchronizedPool;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayDeque;
 import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>Helper class for inflating layouts asynchronously. To use, construct
@@ -65,25 +74,80 @@ import java.util.concurrent.Executor;
  * <p>This inflater does not support setting a {@link LayoutInflater.Factory}
  * nor {@link LayoutInflater.Factory2}. Similarly it does not support inflating
  * layouts that contain fragments.
+ *
+ * <p>By default, all the instances share a single background thread. Use a
+ * {@link Builder} to inflate on several threads, for example when inflating
+ * the item layouts of a new screen. Requests with a higher priority are
+ * inflated first, and requests can be cancelled until their callback is invoked.
+ *
+ * <p>Views can also be inflated ahead of time with
+ * {@link #preInflate(int, ViewGroup, int)}, and later retrieved on the UI
+ * thread with {@link #getPreInflatedView(int)}, for example from
+ * <code>RecyclerView.Adapter.onCreateViewHolder</code>.
  */
 public final class AsyncLayoutInflater {
     private static final String TAG = "AsyncLayoutInflater";
+    private static final String THREAD_NAME = "AsyncLayoutInflator";
+
+    /**
+     * The priority of requests which don't specify one.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * The default maximum number of pre-inflated views held per layout.
+     */
+    public static final int DEFAULT_MAX_PRE_INFLATED_VIEWS = 5;
+
+    // Pre-inflation only uses idle inflate threads
+    private static final int PRE_INFLATE_PRIORITY = Integer.MIN_VALUE;
+
+    private static final long KEEP_ALIVE_SECONDS = 10;
+
+    private static final SynchronizedPool<InflateRequest> sRequestPool =
+            new SynchronizedPool<>(10);
+
+    // Orders requests with the same priority
+    private static final AtomicLong sNextSequence = new AtomicLong();
+
     LayoutInflater mInflater;
     Handler mHandler;
-    InflateThread mInflateThread;
+    ThreadPoolExecutor mInflateExecutor;
+
+    private final int mMaxPreInflatedViews;
+
+    // Only accessed on the UI thread
+    private final SparseArray<ArrayDeque<View>> mPreInflatedViews = new SparseArray<>();
+    private final SparseIntArray mPendingPreInflations = new SparseIntArray();
+
+    final AtomicLong mInflateCount = new AtomicLong();
+    final AtomicLong mInflateTimeNanos = new AtomicLong();
+    final AtomicLong mQueueWaitTimeNanos = new AtomicLong();
+    final AtomicLong mCancelledCount = new AtomicLong();
+    private long mPreInflatedViewHitCount;
+    private long mPreInflatedViewMissCount;
 
     public AsyncLayoutInflater(@NonNull Context context) {
-        mInflater = new BasicInflater(context);
-        mHandler = new Handler(Looper.myLooper(), mHandlerCallback);
-        mInflateThread = InflateThread.getInstance();
+        this(context, null, DefaultExecutorHolder.INSTANCE, DEFAULT_MAX_PRE_INFLATED_VIEWS);
     }
 
     public AsyncLayoutInflater(@NonNull Context context,
             @NonNull AsyncLayoutFactory asyncLayoutFactory) {
+        this(context, asyncLayoutFactory, DefaultExecutorHolder.INSTANCE,
+                DEFAULT_MAX_PRE_INFLATED_VIEWS);
+    }
+
+    AsyncLayoutInflater(@NonNull Context context,
+            @Nullable AsyncLayoutFactory asyncLayoutFactory,
+            @NonNull ThreadPoolExecutor inflateExecutor,
+            int maxPreInflatedViews) {
         mInflater = new BasicInflater(context);
-        mInflater.setFactory2(asyncLayoutFactory);
+        if (asyncLayoutFactory != null) {
+            mInflater.setFactory2(asyncLayoutFactory);
+        }
         mHandler = new Handler(Looper.myLooper(), mHandlerCallback);
-        mInflateThread = InflateThread.getInstance();
+        mInflateExecutor = inflateExecutor;
+        mMaxPreInflatedViews = maxPreInflatedViews;
     }
 
     /**
@@ -92,7 +156,8 @@ public final class AsyncLayoutInflater {
     @UiThread
     public void inflate(@LayoutRes int resid, @Nullable ViewGroup parent,
             @NonNull OnInflateFinishedListener callback) {
-        inflateInternal(resid, parent, callback, mInflater, /* callbackExecutor= */ null);
+        inflateInternal(resid, parent, callback, mInflater, /* callbackExecutor= */ null,
+                DEFAULT_PRIORITY, /* cancellationSignal= */ null);
     }
 
     /**
@@ -102,45 +167,222 @@ public final class AsyncLayoutInflater {
     @UiThread
     public void inflate(@LayoutRes int resid, @Nullable ViewGroup parent,
             @Nullable Executor callbackExecutor, @NonNull OnInflateFinishedListener callback) {
-        inflateInternal(resid, parent, callback, mInflater, callbackExecutor);
+        inflateInternal(resid, parent, callback, mInflater, callbackExecutor, DEFAULT_PRIORITY,
+                /* cancellationSignal= */ null);
+    }
+
+    /**
+     * Triggers inflation on a background thread, with the given priority. Requests with a
+     * higher priority are inflated before pending requests with a lower priority, and requests
+     * with the same priority are inflated in order.
+     *
+     * <p>If the request is cancelled with the given {@link CancellationSignal} before the
+     * {@link OnInflateFinishedListener} is invoked, the listener is not invoked, and the layout
+     * is not inflated if inflation did not start yet.
+     *
+     * @param resid              the layout to inflate
+     * @param parent             the parent used to generate the layout params
+     * @param priority           the priority of this request, {@link #DEFAULT_PRIORITY} if unsure
+     * @param cancellationSignal the signal to cancel this request with, if any
+     * @param callbackExecutor   the executor to invoke the callback on, or {@code null} for the
+     *                           UI thread
+     * @param callback           the callback invoked with the inflated view
+     */
+    @UiThread
+    public void inflate(@LayoutRes int resid, @Nullable ViewGroup parent, int priority,
+            @Nullable CancellationSignal cancellationSignal, @Nullable Executor callbackExecutor,
+            @NonNull OnInflateFinishedListener callback) {
+        inflateInternal(resid, parent, callback, mInflater, callbackExecutor, priority,
+                cancellationSignal);
     }
 
     private void inflateInternal(@LayoutRes int resid, @Nullable ViewGroup parent,
             @NonNull OnInflateFinishedListener callback, LayoutInflater inflater,
-            Executor callbackExecutor) {
+            Executor callbackExecutor, int priority,
+            @Nullable CancellationSignal cancellationSignal) {
         if (callback == null) {
             throw new NullPointerException("callback argument may not be null!");
         }
-        InflateRequest request = mInflateThread.obtainRequest();
+        InflateRequest request = obtainRequest();
         request.mInflater = inflater;
         request.mHandler = mHandler;
         request.resid = resid;
         request.parent = parent;
         request.callback = callback;
         request.mExecutor = callbackExecutor;
-        mInflateThread.enqueue(request);
+        request.mPriority = priority;
+        if (cancellationSignal != null) {
+            request.mRecyclable = false;
+            cancellationSignal.setOnCancelListener(() -> {
+                request.mCancelled = true;
+                if (mInflateExecutor.remove(request)) {
+                    mCancelledCount.incrementAndGet();
+                }
+            });
+            if (request.mCancelled) {
+                // Cancelled before being enqueued
+                mCancelledCount.incrementAndGet();
+                return;
+            }
+        }
+        enqueue(request);
+    }
+
+    /**
+     * Inflates views of the given layout on a background thread, to be retrieved later with
+     * {@link #getPreInflatedView(int)}.
+     *
+     * <p>Pre-inflation requests are only inflated when no other request is pending. At most
+     * the maximum number of pre-inflated views configured with
+     * {@link Builder#setMaxPreInflatedViews(int)} are held for each layout, including the views
+     * still being inflated. Views which can't be inflated on a background thread are dropped.
+     *
+     * @param resid  the layout to inflate
+     * @param parent the parent used to generate the layout params
+     * @param count  the number of views to hold for the layout
+     */
+    @UiThread
+    public void preInflate(@LayoutRes int resid, @Nullable ViewGroup parent,
+            @IntRange(from = 0) int count) {
+        ArrayDeque<View> views = mPreInflatedViews.get(resid);
+        int held = (views == null ? 0 : views.size()) + mPendingPreInflations.get(resid);
+        int missing = Math.min(count, mMaxPreInflatedViews) - held;
+        for (int i = 0; i < missing; i++) {
+            InflateRequest request = obtainRequest();
+            request.mInflater = mInflater;
+            request.mHandler = mHandler;
+            request.resid = resid;
+            request.parent = parent;
+            request.mPriority = PRE_INFLATE_PRIORITY;
+            request.mPreInflate = true;
+            enqueue(request);
+        }
+        if (missing > 0) {
+            mPendingPreInflations.put(resid, mPendingPreInflations.get(resid) + missing);
+        }
+    }
+
+    /**
+     * Returns a view previously inflated with {@link #preInflate(int, ViewGroup, int)}, and
+     * removes it from the pre-inflated views.
+     *
+     * @param resid the layout of the view
+     * @return a pre-inflated view, or {@code null} if none is available, in which case the
+     * caller is expected to inflate the layout itself
+     */
+    @UiThread
+    public @Nullable View getPreInflatedView(@LayoutRes int resid) {
+        ArrayDeque<View> views = mPreInflatedViews.get(resid);
+        View view = views == null ? null : views.poll();
+        if (view != null) {
+            mPreInflatedViewHitCount++;
+        } else {
+            mPreInflatedViewMissCount++;
+        }
+        return view;
+    }
+
+    /**
+     * Drops all the pre-inflated views. Pending pre-inflation requests are not cancelled.
+     */
+    @UiThread
+    public void clearPreInflatedViews() {
+        mPreInflatedViews.clear();
+    }
+
+    /**
+     * Returns a snapshot of the metrics of this inflater.
+     */
+    @UiThread
+    public @NonNull Metrics getMetrics() {
+        return new Metrics(mInflateCount.get(), mInflateTimeNanos.get(),
+                mQueueWaitTimeNanos.get(), mCancelledCount.get(), mPreInflatedViewHitCount,
+                mPreInflatedViewMissCount);
+    }
+
+    private void enqueue(InflateRequest request) {
+        request.mOwner = this;
+        request.mSequence = sNextSequence.getAndIncrement();
+        request.mEnqueueTimeNanos = System.nanoTime();
+        mInflateExecutor.execute(request);
     }
 
     private Handler.Callback mHandlerCallback = new Handler.Callback() {
         @Override
         public boolean handleMessage(Message msg) {
             InflateRequest request = (InflateRequest) msg.obj;
+            if (request.mPreInflate) {
+                onPreInflated(request);
+                return true;
+            }
+            if (request.mCancelled) {
+                mCancelledCount.incrementAndGet();
+                releaseRequest(request);
+                return true;
+            }
             if (request.view == null) {
                 request.view = request.mInflater.inflate(request.resid, request.parent, false);
             }
 
             if (request.mExecutor != null) {
-                request.mExecutor.execute(() -> triggerCallbacks(request, mInflateThread));
+                request.mExecutor.execute(() -> triggerCallbacks(request));
             } else {
-                triggerCallbacks(request, mInflateThread);
+                triggerCallbacks(request);
             }
             return true;
         }
     };
 
-    static void triggerCallbacks(InflateRequest request, InflateThread mInflateThread) {
-        request.callback.onInflateFinished(request.view, request.resid, request.parent);
-        mInflateThread.releaseRequest(request);
+    void onPreInflated(InflateRequest request) {
+        int resid = request.resid;
+        mPendingPreInflations.put(resid, mPendingPreInflations.get(resid) - 1);
+        // Unlike regular requests, don't fall back to inflating on the UI thread.
+        if (request.view != null) {
+            ArrayDeque<View> views = mPreInflatedViews.get(resid);
+            if (views == null) {
+                views = new ArrayDeque<>();
+                mPreInflatedViews.put(resid, views);
+            }
+            if (views.size() < mMaxPreInflatedViews) {
+                views.add(request.view);
+            }
+        }
+        releaseRequest(request);
+    }
+
+    static void triggerCallbacks(InflateRequest request) {
+        if (request.mCancelled) {
+            request.mOwner.mCancelledCount.incrementAndGet();
+        } else {
+            request.callback.onInflateFinished(request.view, request.resid, request.parent);
+        }
+        releaseRequest(request);
+    }
+
+    static InflateRequest obtainRequest() {
+        InflateRequest obj = sRequestPool.acquire();
+        if (obj == null) {
+            obj = new InflateRequest();
+        }
+        return obj;
+    }
+
+    static void releaseRequest(InflateRequest obj) {
+        if (!obj.mRecyclable) {
+            // Might still be referenced by its CancellationSignal
+            return;
+        }
+        obj.mOwner = null;
+        obj.callback = null;
+        obj.mInflater = null;
+        obj.mHandler = null;
+        obj.parent = null;
+        obj.resid = 0;
+        obj.view = null;
+        obj.mExecutor = null;
+        obj.mPriority = DEFAULT_PRIORITY;
+        obj.mPreInflate = false;
+        sRequestPool.release(obj);
     }
 
     public interface OnInflateFinishedListener {
@@ -148,7 +390,142 @@ public final class AsyncLayoutInflater {
                 @Nullable ViewGroup parent);
     }
 
-    private static class InflateRequest {
+    /**
+     * Builder of {@link AsyncLayoutInflater} instances.
+     */
+    public static final class Builder {
+        private final Context mContext;
+        private @Nullable AsyncLayoutFactory mAsyncLayoutFactory;
+        private int mThreadCount = 1;
+        private int mMaxPreInflatedViews = DEFAULT_MAX_PRE_INFLATED_VIEWS;
+
+        /**
+         * @param context the context used to inflate layouts
+         */
+        public Builder(@NonNull Context context) {
+            mContext = context;
+        }
+
+        /**
+         * Sets the factory used to create views during inflation.
+         */
+        public @NonNull Builder setAsyncLayoutFactory(@NonNull AsyncLayoutFactory factory) {
+            mAsyncLayoutFactory = factory;
+            return this;
+        }
+
+        /**
+         * Sets the number of background threads used to inflate layouts, 1 by default.
+         *
+         * <p>With a single thread, the thread is shared with all the other inflaters using a
+         * single thread. Otherwise, the built inflater uses its own threads, which are stopped
+         * when idle.
+         */
+        public @NonNull Builder setThreadCount(@IntRange(from = 1) int threadCount) {
+            if (threadCount < 1) {
+                throw new IllegalArgumentException("threadCount must be at least 1");
+            }
+            mThreadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pre-inflated views held for each layout,
+         * {@link #DEFAULT_MAX_PRE_INFLATED_VIEWS} by default.
+         */
+        public @NonNull Builder setMaxPreInflatedViews(@IntRange(from = 0) int maxViews) {
+            if (maxViews < 0) {
+                throw new IllegalArgumentException("maxViews must not be negative");
+            }
+            mMaxPreInflatedViews = maxViews;
+            return this;
+        }
+
+        /**
+         * Builds the {@link AsyncLayoutInflater}, whose callbacks are invoked on the calling
+         * thread by default.
+         */
+        @UiThread
+        public @NonNull AsyncLayoutInflater build() {
+            ThreadPoolExecutor executor = mThreadCount == 1
+                    ? DefaultExecutorHolder.INSTANCE
+                    : createInflateExecutor(mThreadCount);
+            return new AsyncLayoutInflater(mContext, mAsyncLayoutFactory, executor,
+                    mMaxPreInflatedViews);
+        }
+    }
+
+    /**
+     * Metrics of an {@link AsyncLayoutInflater}, see {@link AsyncLayoutInflater#getMetrics()}.
+     */
+    public static final class Metrics {
+        private final long mInflateCount;
+        private final long mInflateTimeNanos;
+        private final long mQueueWaitTimeNanos;
+        private final long mCancelledCount;
+        private final long mPreInflatedViewHitCount;
+        private final long mPreInflatedViewMissCount;
+
+        Metrics(long inflateCount, long inflateTimeNanos, long queueWaitTimeNanos,
+                long cancelledCount, long preInflatedViewHitCount,
+                long preInflatedViewMissCount) {
+            mInflateCount = inflateCount;
+            mInflateTimeNanos = inflateTimeNanos;
+            mQueueWaitTimeNanos = queueWaitTimeNanos;
+            mCancelledCount = cancelledCount;
+            mPreInflatedViewHitCount = preInflatedViewHitCount;
+            mPreInflatedViewMissCount = preInflatedViewMissCount;
+        }
+
+        /**
+         * Returns the number of layouts inflated on a background thread, including failed
+         * attempts.
+         */
+        public long getInflateCount() {
+            return mInflateCount;
+        }
+
+        /**
+         * Returns the total time spent inflating layouts on background threads.
+         */
+        public long getInflateTimeNanos() {
+            return mInflateTimeNanos;
+        }
+
+        /**
+         * Returns the total time requests waited before a background thread started inflating
+         * them.
+         */
+        public long getQueueWaitTimeNanos() {
+            return mQueueWaitTimeNanos;
+        }
+
+        /**
+         * Returns the number of requests cancelled before their callback was invoked.
+         */
+        public long getCancelledCount() {
+            return mCancelledCount;
+        }
+
+        /**
+         * Returns the number of calls to {@link AsyncLayoutInflater#getPreInflatedView(int)}
+         * which returned a view.
+         */
+        public long getPreInflatedViewHitCount() {
+            return mPreInflatedViewHitCount;
+        }
+
+        /**
+         * Returns the number of calls to {@link AsyncLayoutInflater#getPreInflatedView(int)}
+         * which returned {@code null}.
+         */
+        public long getPreInflatedViewMissCount() {
+            return mPreInflatedViewMissCount;
+        }
+    }
+
+    private static class InflateRequest implements Runnable, Comparable<InflateRequest> {
+        AsyncLayoutInflater mOwner;
         LayoutInflater mInflater;
         Handler mHandler;
         ViewGroup parent;
@@ -156,9 +533,51 @@ public final class AsyncLayoutInflater {
         View view;
         OnInflateFinishedListener callback;
         Executor mExecutor;
+        int mPriority;
+        long mSequence;
+        long mEnqueueTimeNanos;
+        boolean mPreInflate;
+        boolean mRecyclable = true;
+        volatile boolean mCancelled;
 
         InflateRequest() {
         }
+
+        @Override
+        public int compareTo(InflateRequest other) {
+            if (mPriority != other.mPriority) {
+                return mPriority > other.mPriority ? -1 : 1;
+            }
+            return Long.compare(mSequence, other.mSequence);
+        }
+
+        @Override
+        public void run() {
+            AsyncLayoutInflater owner = mOwner;
+            if (mCancelled) {
+                owner.mCancelledCount.incrementAndGet();
+                releaseRequest(this);
+                return;
+            }
+            long startTimeNanos = System.nanoTime();
+            owner.mQueueWaitTimeNanos.addAndGet(startTimeNanos - mEnqueueTimeNanos);
+            try {
+                view = mInflater.inflate(resid, parent, false);
+            } catch (RuntimeException ex) {
+                // Probably a Looper failure, retry on the UI thread
+                Log.w(TAG, "Failed to inflate resource in the background! Retrying on the UI"
+                        + " thread", ex);
+            }
+            owner.mInflateCount.incrementAndGet();
+            owner.mInflateTimeNanos.addAndGet(System.nanoTime() - startTimeNanos);
+
+            // Trigger callback on bg thread if async inflation was successful.
+            if (!mPreInflate && view != null && mExecutor != null) {
+                mExecutor.execute(() -> triggerCallbacks(this));
+            } else {
+                Message.obtain(mHandler, 0, this).sendToTarget();
+            }
+        }
     }
 
     private static class BasicInflater extends LayoutInflater {
@@ -192,83 +611,23 @@ public final class AsyncLayoutInflater {
         }
     }
 
-    private static class InflateThread extends Thread {
-        private static final InflateThread sInstance;
-
-        static {
-            sInstance = new InflateThread();
-            sInstance.setName("AsyncLayoutInflator");
-            sInstance.start();
-        }
-
-        public static InflateThread getInstance() {
-            return sInstance;
-        }
-
-        private ArrayBlockingQueue<InflateRequest> mQueue = new ArrayBlockingQueue<>(10);
-        private SynchronizedPool<InflateRequest> mRequestPool = new SynchronizedPool<>(10);
-
-        // Extracted to its own method to ensure locals have a constrained liveness
-        // scope by the GC. This is needed to avoid keeping previous request references
-        // alive for an indeterminate amount of time, see b/33158143 for details
-        public void runInner() {
-            InflateRequest request;
-            try {
-                request = mQueue.take();
-            } catch (InterruptedException ex) {
-                // Odd, just continue
-                Log.w(TAG, ex);
-                return;
-            }
-
-            try {
-                request.view = request.mInflater.inflate(request.resid, request.parent, false);
-            } catch (RuntimeException ex) {
-                // Probably a Looper failure, retry on the UI thread
-                Log.w(TAG, "Failed to inflate resource in the background! Retrying on the UI"
-                        + " thread", ex);
-            }
-
-            // Trigger callback on bg thread if async inflation was successful.
-            if (request.view != null && request.mExecutor != null) {
-                request.mExecutor.execute(() -> triggerCallbacks(request, this));
-            } else {
-                Message.obtain(request.mHandler, 0, request).sendToTarget();
-            }
-        }
-
-        @Override
-        public void run() {
-            while (true) {
-                runInner();
-            }
-        }
-
-        public InflateRequest obtainRequest() {
-            InflateRequest obj = mRequestPool.acquire();
-            if (obj == null) {
-                obj = new InflateRequest();
-            }
-            return obj;
-        }
-
-        public void releaseRequest(InflateRequest obj) {
-            obj.callback = null;
-            obj.mInflater = null;
-            obj.mHandler = null;
-            obj.parent = null;
-            obj.resid = 0;
-            obj.view = null;
-            obj.mExecutor = null;
-            mRequestPool.release(obj);
-        }
+    static ThreadPoolExecutor createInflateExecutor(int threadCount) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                // Unbounded, so that enqueuing never blocks the UI thread
+                new PriorityBlockingQueue<Runnable>(),
+                runnable -> new Thread(runnable, threadCount == 1
+                        ? THREAD_NAME
+                        : THREAD_NAME + "-" + threadIndex.incrementAndGet()));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
-        public void enqueue(InflateRequest request) {
-            try {
-                mQueue.put(request);
-            } catch (InterruptedException e) {
-                throw new RuntimeException("Failed to enqueue async inflate request", e);
-            }
-        }
+    private static class DefaultExecutorHolder {
+        static final ThreadPoolExecutor INSTANCE = createInflateExecutor(1);
     }
 }
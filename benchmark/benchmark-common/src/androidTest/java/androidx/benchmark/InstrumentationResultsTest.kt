@@ -113,6 +113,26 @@ class InstrumentationResultsTest {
         )
     }
 
+    @Test
+    fun ideSummary_defaultAllocationMetrics() {
+        val summary =
+            InstrumentationResults.ideSummary(
+                testName = "foo",
+                measurements =
+                    Measurements(
+                        singleMetrics =
+                            listOf(
+                                MetricResult("timeNs", listOf(1000.0)),
+                                MetricResult("allocationCount", listOf(10.0)),
+                                MetricResult("allocationBytes", listOf(400.0)),
+                                MetricResult("gcCount", listOf(0.0))
+                            ),
+                        sampledMetrics = emptyList()
+                    )
+            )
+        assertEquals("        1,000   ns          10 allocs    foo", summary.summaryV2)
+    }
+
     private fun createAbsoluteTracePaths(@Suppress("SameParameterValue") count: Int) =
         List(count) { File(Outputs.dirUsableByAppAndShell, "iter$it.trace").absolutePath }
 
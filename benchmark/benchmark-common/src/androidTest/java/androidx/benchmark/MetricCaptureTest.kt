@@ -29,13 +29,31 @@ import org.junit.runner.RunWith
 @RunWith(AndroidJUnit4::class)
 class MetricCaptureTest {
     @Test
-    fun allocationCountCapture_simple() {
-        AllocationCountCapture().verifyMedian(100..110) { allocate(100) }
+    fun allocationCapture_names() {
+        assertEquals(
+            listOf("allocationCount", "allocationBytes", "gcCount"),
+            AllocationCapture().names
+        )
+    }
+
+    @Test
+    fun allocationCapture_simple() {
+        AllocationCapture().verifyMedian(100..110, metricName = "allocationCount") {
+            allocate(100)
+        }
+    }
+
+    @Test
+    fun allocationCapture_bytes() {
+        // every object is at least as large as its header
+        AllocationCapture().verifyMedian(8_000..100_000, metricName = "allocationBytes") {
+            allocate(1000)
+        }
     }
 
     @Test
-    fun allocationCountCapture_pauseResume() {
-        AllocationCountCapture().verifyMedian(100..110) {
+    fun allocationCapture_pauseResume() {
+        AllocationCapture().verifyMedian(100..110, metricName = "allocationCount") {
             allocate(100)
 
             capturePaused()
@@ -97,17 +115,21 @@ class MetricCaptureTest {
  *
  * This is done to reduce variance, e.g. from random background allocations
  */
-private fun MetricCapture.verifyMedian(expected: IntRange, block: MetricCapture.() -> Unit) {
-    assertEquals(1, names.size)
-    val longArray = longArrayOf(0L)
+private fun MetricCapture.verifyMedian(
+    expected: IntRange,
+    metricName: String = names.single(),
+    block: MetricCapture.() -> Unit
+) {
+    val index = names.indexOf(metricName)
+    val longArray = LongArray(names.size)
     val results =
         List(200) {
             captureStart(System.nanoTime())
             block()
             captureStop(System.nanoTime(), longArray, 0)
-            longArray[0] * 1.0
+            longArray[index] * 1.0
         }
-    val median = MetricResult(names[0], results).median.toInt()
+    val median = MetricResult(metricName, results).median.toInt()
     if (median !in expected) {
         throw AssertionError(
             "observed median $median, expected $expected, saw: " + results.joinToString()
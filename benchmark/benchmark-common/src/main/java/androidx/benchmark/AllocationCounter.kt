@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.benchmark
+
+import android.os.Debug
+import java.lang.reflect.Method
+
+/**
+ * Source of cumulative allocation and garbage collection counters, used by [AllocationCapture].
+ *
+ * [read] writes one cumulative value per entry of [names], so that a metric is computed as the
+ * difference between two reads.
+ */
+internal abstract class AllocationCounter(val names: List<String>) {
+    /** Called on the measurement thread, at the start of each measurement. */
+    abstract fun start()
+
+    /** Called on the measurement thread, at the end of each measurement. */
+    abstract fun stop()
+
+    /** Writes the current cumulative counter values in [output], one per entry in [names]. */
+    abstract fun read(output: LongArray)
+
+    /**
+     * Values attributed to a single [read] itself, one per entry in [names], to be subtracted from
+     * the difference between two reads.
+     */
+    open val readOverhead: LongArray = LongArray(names.size)
+
+    companion object {
+        const val ALLOCATION_COUNT = "allocationCount"
+        const val ALLOCATION_BYTES = "allocationBytes"
+        const val GC_COUNT = "gcCount"
+
+        /**
+         * Returns the counter for the current runtime: [Debug] allocation counting on ART, or
+         * management beans on other JVMs (e.g. host side tests), or null if neither is available.
+         */
+        fun createOrNull(): AllocationCounter? {
+            return if (System.getProperty("java.vm.name") == "Dalvik") {
+                ArtAllocationCounter()
+            } else {
+                JvmAllocationCounter.createOrNull()
+            }
+        }
+    }
+}
+
+/**
+ * Counts allocations and collections of all threads with [Debug] allocation counting.
+ *
+ * Note that starting allocation counting resets the global counters.
+ */
+@Suppress("DEPRECATION")
+internal class ArtAllocationCounter :
+    AllocationCounter(names = listOf(ALLOCATION_COUNT, ALLOCATION_BYTES, GC_COUNT)) {
+    override fun start() {
+        Debug.startAllocCounting()
+    }
+
+    override fun stop() {
+        Debug.stopAllocCounting()
+    }
+
+    override fun read(output: LongArray) {
+        output[0] = Debug.getGlobalAllocCount().toLong()
+        output[1] = Debug.getGlobalAllocSize().toLong()
+        output[2] = Debug.getGlobalGcInvocationCount().toLong()
+    }
+}
+
+/**
+ * Counts bytes allocated by the measurement thread, and collections of all garbage collectors,
+ * through the `java.lang.management` beans of the JVM.
+ *
+ * These beans are not part of the Android SDK, so they are accessed reflectively. Object counts
+ * are not available from the beans, and are not reported.
+ */
+internal class JvmAllocationCounter
+private constructor(
+    private val threadMxBean: Any,
+    private val getThreadAllocatedBytes: Method,
+    private val gcMxBeans: List<Any>,
+    private val getCollectionCount: Method,
+) : AllocationCounter(names = listOf(ALLOCATION_BYTES, GC_COUNT)) {
+    private var threadId = Thread.currentThread().id
+
+    /** Reflective calls box their arguments and results, which must not be attributed. */
+    override val readOverhead: LongArray
+
+    init {
+        val first = LongArray(2)
+        val second = LongArray(2)
+        read(first)
+        read(second)
+        readOverhead = longArrayOf((second[0] - first[0]).coerceAtLeast(0), 0)
+    }
+
+    override fun start() {
+        // capture may be initialized on a different thread than the measurement thread
+        threadId = Thread.currentThread().id
+    }
+
+    override fun stop() {}
+
+    override fun read(output: LongArray) {
+        output[0] = getThreadAllocatedBytes.invoke(threadMxBean, threadId) as Long
+        var gcCount = 0L
+        for (bean in gcMxBeans) {
+            // -1 if the collection count is undefined for this collector
+            gcCount += (getCollectionCount.invoke(bean) as Long).coerceAtLeast(0)
+        }
+        output[1] = gcCount
+    }
+
+    companion object {
+        fun createOrNull(): JvmAllocationCounter? {
+            return try {
+                val managementFactory = Class.forName("java.lang.management.ManagementFactory")
+                val threadMxBean = managementFactory.getMethod("getThreadMXBean").invoke(null)
+                val sunThreadMxBean = Class.forName("com.sun.management.ThreadMXBean")
+                if (!sunThreadMxBean.isInstance(threadMxBean)) return null
+                val getThreadAllocatedBytes =
+                    sunThreadMxBean.getMethod("getThreadAllocatedBytes", Long::class.java)
+                val allocatedBytes =
+                    getThreadAllocatedBytes.invoke(threadMxBean, Thread.currentThread().id) as Long
+                // -1 if allocated memory measurement is unsupported, or disabled
+                if (allocatedBytes < 0) return null
+
+                val gcMxBeans =
+                    (managementFactory.getMethod("getGarbageCollectorMXBeans").invoke(null)
+                            as List<*>)
+                        .filterNotNull()
+                val getCollectionCount =
+                    Class.forName("java.lang.management.GarbageCollectorMXBean")
+                        .getMethod("getCollectionCount")
+                JvmAllocationCounter(
+                    threadMxBean!!,
+                    getThreadAllocatedBytes,
+                    gcMxBeans,
+                    getCollectionCount
+                )
+            } catch (e: ReflectiveOperationException) {
+                null
+            } catch (e: LinkageError) {
+                null
+            }
+        }
+    }
+}
@@ -162,6 +162,14 @@ object InstrumentationResults {
 
     private var ideWarningPrefix = ""
 
+    /** Metrics of the default allocation phase, of which only the count is shown in one line. */
+    private val DEFAULT_ALLOCATION_METRICS =
+        setOf(
+            AllocationCounter.ALLOCATION_COUNT,
+            AllocationCounter.ALLOCATION_BYTES,
+            AllocationCounter.GC_COUNT
+        )
+
     @TestOnly
     fun clearIdeWarningPrefix() {
         println("clear ide warning")
@@ -206,14 +214,13 @@ object InstrumentationResults {
         if (measurements != null) {
             require(measurements.isNotEmpty()) { "Require non-empty list of metric results." }
             val setOfMetrics = measurements.singleMetrics.map { it.name }.toSet()
-            // specialized single line codepath for microbenchmarks with only 2 default metrics
+            // specialized single line codepath for microbenchmarks with only default metrics
             if (
                 iterationTracePaths == null &&
                     testName != null &&
                     message == null &&
                     measurements.sampledMetrics.isEmpty() &&
-                    (setOfMetrics == setOf("timeNs", "allocationCount") ||
-                        setOfMetrics == setOf("timeNs"))
+                    (setOfMetrics - DEFAULT_ALLOCATION_METRICS) == setOf("timeNs")
             ) {
                 val nanos = measurements.singleMetrics.single { it.name == "timeNs" }.min
                 val allocs =
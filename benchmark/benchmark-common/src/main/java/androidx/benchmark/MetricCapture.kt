@@ -109,29 +109,72 @@ class TimeCapture @JvmOverloads constructor(name: String = "timeNs") :
     }
 }
 
-@Suppress("DEPRECATION")
-internal class AllocationCountCapture : MetricCapture(names = listOf("allocationCount")) {
-    private var currentPausedStarted = 0
-    private var currentTotalPaused = 0
+/**
+ * Allocation metric, which reports allocations and garbage collections per iteration.
+ *
+ * On Android, reports the number of allocated objects (`allocationCount`), the number of allocated
+ * bytes (`allocationBytes`) and the number of garbage collections (`gcCount`), counted across all
+ * threads with [Debug] allocation counting.
+ *
+ * On other JVMs, such as when running JVM-hosted microbenchmarks, reports the number of bytes
+ * allocated by the measurement thread (`allocationBytes`) and the number of garbage collections
+ * (`gcCount`), read from the platform management beans. Object counts are not available there, and
+ * no metric is reported if the JVM does not support measuring allocated memory.
+ *
+ * Allocation counting has a significant runtime overhead, so this metric should generally not be
+ * combined with [TimeCapture] in the same [MicrobenchmarkConfig].
+ */
+@ExperimentalBenchmarkConfigApi
+class AllocationCapture
+private constructor(private val counter: AllocationCounter?) :
+    MetricCapture(names = counter?.names ?: emptyList()) {
+    constructor() : this(AllocationCounter.createOrNull())
+
+    private val startValues = LongArray(names.size)
+    private val pausedValues = LongArray(names.size)
+    private val currentValues = LongArray(names.size)
+    private val totalPaused = LongArray(names.size)
+    private var readCount = 0
 
     override fun captureStart(timeNs: Long) {
-        currentTotalPaused = 0
-        Debug.startAllocCounting()
+        counter ?: return
+        totalPaused.fill(0)
+        readCount = 1
+        counter.start()
+        counter.read(startValues)
     }
 
     override fun captureStop(timeNs: Long, output: LongArray, offset: Int) {
-        Debug.stopAllocCounting()
-        output[offset] = (Debug.getGlobalAllocCount() - currentTotalPaused).toLong()
+        counter ?: return
+        counter.read(currentValues)
+        readCount++
+        counter.stop()
+        val readOverhead = counter.readOverhead
+        for (i in names.indices) {
+            // all but the last read happen within the measured region
+            val value =
+                currentValues[i] -
+                    startValues[i] -
+                    totalPaused[i] -
+                    readOverhead[i] * (readCount - 1)
+            output[offset + i] = value.coerceAtLeast(0)
+        }
     }
 
     override fun capturePaused() {
+        counter ?: return
         // Note - can't start/stop allocation counting to pause/resume, since that would clear
         // the current counter (and is likely more disruptive than just querying count)
-        currentPausedStarted = Debug.getGlobalAllocCount()
+        counter.read(pausedValues)
+        readCount++
     }
 
     override fun captureResumed() {
-        currentTotalPaused += Debug.getGlobalAllocCount() - currentPausedStarted
+        counter ?: return
+        counter.read(currentValues)
+        for (i in names.indices) {
+            totalPaused[i] += currentValues[i] - pausedValues[i]
+        }
     }
 }
 
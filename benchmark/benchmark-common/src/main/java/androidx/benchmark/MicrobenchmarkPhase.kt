@@ -291,7 +291,7 @@ internal class MicrobenchmarkPhase(
                 label = "Benchmark Allocations",
                 measurementCount = 5,
                 loopMode = loopMode,
-                metrics = arrayOf(AllocationCountCapture())
+                metrics = arrayOf(AllocationCapture())
             )
     }
 
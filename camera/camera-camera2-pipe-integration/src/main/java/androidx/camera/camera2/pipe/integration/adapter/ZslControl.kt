@@ -22,6 +22,7 @@ import android.hardware.camera2.CameraDevice
 import android.hardware.camera2.params.InputConfiguration
 import android.hardware.camera2.params.StreamConfigurationMap
 import android.os.Build
+import android.os.SystemClock
 import android.util.Size
 import androidx.annotation.RequiresApi
 import androidx.annotation.VisibleForTesting
@@ -39,6 +40,7 @@ import androidx.camera.core.impl.CameraCaptureCallback
 import androidx.camera.core.impl.DeferrableSurface
 import androidx.camera.core.impl.ImmediateSurface
 import androidx.camera.core.impl.SessionConfig
+import androidx.camera.core.impl.Timebase
 import androidx.camera.core.impl.utils.executor.CameraXExecutors
 import androidx.camera.core.internal.utils.ZslRingBuffer
 import javax.inject.Inject
@@ -104,7 +106,7 @@ public interface ZslControl {
     public fun isZslDisabledByFlashMode(): Boolean
 
     /**
-     * Dequeues [ImageProxy] from ring buffer.
+     * Dequeues [ImageProxy] from ring buffer, the one closest to the time of the capture request.
      *
      * @return [ImageProxy].
      */
@@ -120,9 +122,16 @@ public class ZslControlImpl @Inject constructor(private val cameraProperties: Ca
         checkNotNull(cameraMetadata[CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP])
     }
 
+    private val timebase =
+        when (cameraMetadata[CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE]) {
+            CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE_REALTIME -> Timebase.REALTIME
+            else -> Timebase.UPTIME
+        }
+
     @VisibleForTesting
     internal val zslRingBuffer =
         ZslRingBuffer(RING_BUFFER_CAPACITY) { imageProxy -> imageProxy.close() }
+            .apply { setMaxFrameAgeNs(MAX_FRAME_AGE_NS) }
 
     private var isZslDisabledByUseCaseConfig = false
     private var isZslDisabledByFlashMode = false
@@ -244,12 +253,23 @@ public class ZslControlImpl @Inject constructor(private val cameraProperties: Ca
     }
 
     override fun dequeueImageFromBuffer(): ImageProxy? {
-        return try {
-            zslRingBuffer.dequeue()
-        } catch (e: NoSuchElementException) {
+        val captureTimestampNs =
+            if (timebase == Timebase.REALTIME) SystemClock.elapsedRealtimeNanos()
+            else System.nanoTime()
+        return dequeueImageFromBuffer(captureTimestampNs)
+    }
+
+    /**
+     * Dequeues the buffered [ImageProxy] whose timestamp is the closest to [captureTimestampNs], in
+     * the time base of the camera.
+     */
+    @VisibleForTesting
+    internal fun dequeueImageFromBuffer(captureTimestampNs: Long): ImageProxy? {
+        val imageProxy = zslRingBuffer.dequeueClosestTo(captureTimestampNs)
+        if (imageProxy == null) {
             Log.warn { "ZslControlImpl#dequeueImageFromBuffer: No such element" }
-            null
         }
+        return imageProxy
     }
 
     override fun clearZslConfig() {
@@ -291,6 +311,9 @@ public class ZslControlImpl @Inject constructor(private val cameraProperties: Ca
         @VisibleForTesting internal const val RING_BUFFER_CAPACITY = 3
 
         @VisibleForTesting internal const val MAX_IMAGES = RING_BUFFER_CAPACITY * 3
+
+        /** Frames older than this, relative to the latest frame, are too stale for ZSL. */
+        @VisibleForTesting internal const val MAX_FRAME_AGE_NS = 500_000_000L
     }
 }
 
@@ -25,12 +25,19 @@ import android.hardware.camera2.params.StreamConfigurationMap
 import android.os.Build
 import android.util.Size
 import androidx.camera.camera2.pipe.CameraId
+import androidx.camera.camera2.pipe.integration.adapter.ZslControlImpl.Companion.MAX_FRAME_AGE_NS
 import androidx.camera.camera2.pipe.integration.adapter.ZslControlImpl.Companion.MAX_IMAGES
 import androidx.camera.camera2.pipe.integration.adapter.ZslControlImpl.Companion.RING_BUFFER_CAPACITY
 import androidx.camera.camera2.pipe.integration.impl.CameraProperties
 import androidx.camera.camera2.pipe.integration.testing.FakeCameraProperties
 import androidx.camera.camera2.pipe.testing.FakeCameraMetadata
+import androidx.camera.core.impl.CameraCaptureMetaData.AeState
+import androidx.camera.core.impl.CameraCaptureMetaData.AfState
+import androidx.camera.core.impl.CameraCaptureMetaData.AwbState
+import androidx.camera.core.impl.CameraCaptureResult
 import androidx.camera.core.impl.SessionConfig
+import androidx.camera.core.internal.CameraCaptureResultImageInfo
+import androidx.camera.testing.impl.fakes.FakeImageProxy
 import com.google.common.truth.Truth.assertThat
 import org.junit.Before
 import org.junit.Test
@@ -253,6 +260,51 @@ class ZslControlImplTest {
         assertThat(sessionConfigBuilder.build().templateType).isEqualTo(TEMPLATE_ZERO_SHUTTER_LAG)
     }
 
+    @Test
+    fun dequeueImageFromBuffer_returnsFrameClosestToCaptureTimestamp() {
+        zslControlImpl = createZslControlImpl()
+        val imageProxies = listOf(1000L, 2000L, 3000L).map { createImageProxy(it) }
+        imageProxies.forEach { zslControlImpl.zslRingBuffer.enqueue(it) }
+
+        assertThat(zslControlImpl.dequeueImageFromBuffer(2100)).isSameInstanceAs(imageProxies[1])
+        assertThat(zslControlImpl.dequeueImageFromBuffer(5000)).isSameInstanceAs(imageProxies[2])
+        assertThat(zslControlImpl.dequeueImageFromBuffer(5000)).isSameInstanceAs(imageProxies[0])
+        assertThat(zslControlImpl.dequeueImageFromBuffer(5000)).isNull()
+    }
+
+    @Test
+    fun enqueueFrames_framesOlderThanMaxAgeAreClosed() {
+        zslControlImpl = createZslControlImpl()
+        val staleImageProxy = createImageProxy(1000)
+        val imageProxy = createImageProxy(1000 + MAX_FRAME_AGE_NS + 1)
+
+        zslControlImpl.zslRingBuffer.enqueue(staleImageProxy)
+        zslControlImpl.zslRingBuffer.enqueue(imageProxy)
+
+        assertThat(staleImageProxy.isClosed).isTrue()
+        assertThat(zslControlImpl.zslRingBuffer.evictedByAgeCount).isEqualTo(1)
+        assertThat(zslControlImpl.dequeueImageFromBuffer(0)).isSameInstanceAs(imageProxy)
+    }
+
+    private fun createZslControlImpl() =
+        ZslControlImpl(
+            createCameraProperties(
+                hasCapabilities = true,
+                isYuvReprocessingSupported = false,
+                isPrivateReprocessingSupported = true,
+                isJpegValidOutputFormat = true
+            )
+        )
+
+    private fun createImageProxy(timestamp: Long): FakeImageProxy {
+        val cameraCaptureResult: CameraCaptureResult = mock()
+        whenever(cameraCaptureResult.aeState).thenReturn(AeState.CONVERGED)
+        whenever(cameraCaptureResult.afState).thenReturn(AfState.LOCKED_FOCUSED)
+        whenever(cameraCaptureResult.awbState).thenReturn(AwbState.CONVERGED)
+        whenever(cameraCaptureResult.timestamp).thenReturn(timestamp)
+        return FakeImageProxy(CameraCaptureResultImageInfo(cameraCaptureResult))
+    }
+
     private fun createCameraProperties(
         hasCapabilities: Boolean,
         isYuvReprocessingSupported: Boolean,
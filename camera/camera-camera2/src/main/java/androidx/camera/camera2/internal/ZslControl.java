@@ -84,7 +84,8 @@ interface ZslControl {
     boolean isZslDisabledByFlashMode();
 
     /**
-     * Dequeues {@link ImageProxy} from ring buffer.
+     * Dequeues {@link ImageProxy} from ring buffer, the one closest to the time of the capture
+     * request.
      *
      * @return {@link ImageProxy}.
      */
@@ -19,6 +19,7 @@ package androidx.camera.camera2.internal;
 import static android.graphics.ImageFormat.PRIVATE;
 import static android.hardware.camera2.CameraDevice.TEMPLATE_PREVIEW;
 import static android.hardware.camera2.CameraMetadata.REQUEST_AVAILABLE_CAPABILITIES_PRIVATE_REPROCESSING;
+import static android.hardware.camera2.CameraMetadata.SENSOR_INFO_TIMESTAMP_SOURCE_REALTIME;
 
 import static androidx.camera.camera2.internal.ZslUtil.isCapabilitySupported;
 
@@ -29,6 +30,7 @@ import android.hardware.camera2.params.InputConfiguration;
 import android.hardware.camera2.params.StreamConfigurationMap;
 import android.media.Image;
 import android.media.ImageWriter;
+import android.os.SystemClock;
 import android.util.Size;
 import android.view.Surface;
 
@@ -46,6 +48,7 @@ import androidx.camera.core.SafeCloseImageReaderProxy;
 import androidx.camera.core.impl.DeferrableSurface;
 import androidx.camera.core.impl.ImmediateSurface;
 import androidx.camera.core.impl.SessionConfig;
+import androidx.camera.core.impl.Timebase;
 import androidx.camera.core.impl.annotation.ExecutedBy;
 import androidx.camera.core.impl.utils.CompareSizesByArea;
 import androidx.camera.core.impl.utils.executor.CameraXExecutors;
@@ -58,7 +61,6 @@ import org.jspecify.annotations.Nullable;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -77,8 +79,13 @@ final class ZslControlImpl implements ZslControl {
     @VisibleForTesting
     static final int MAX_IMAGES = RING_BUFFER_CAPACITY * 3;
 
+    /** Frames older than this, relative to the latest frame, are too stale for a ZSL capture. */
+    @VisibleForTesting
+    static final long MAX_FRAME_AGE_NS = 500_000_000L;
+
     private final @NonNull CameraCharacteristicsCompat mCameraCharacteristicsCompat;
     private final @NonNull Executor mExecutor;
+    private final @NonNull Timebase mTimebase;
 
     @VisibleForTesting
     @SuppressWarnings("WeakerAccess")
@@ -106,9 +113,12 @@ final class ZslControlImpl implements ZslControl {
 
         mShouldZslDisabledByQuirks = DeviceQuirks.get(ZslDisablerQuirk.class) != null;
 
+        mTimebase = getTimebase(mCameraCharacteristicsCompat);
+
         mImageRingBuffer = new ZslRingBuffer(
                 RING_BUFFER_CAPACITY,
                 ImageProxy::close);
+        mImageRingBuffer.setMaxFrameAgeNs(MAX_FRAME_AGE_NS);
     }
 
     @Override
@@ -241,10 +251,19 @@ final class ZslControlImpl implements ZslControl {
 
     @Override
     public @Nullable ImageProxy dequeueImageFromBuffer() {
-        ImageProxy imageProxy = null;
-        try {
-            imageProxy = mImageRingBuffer.dequeue();
-        } catch (NoSuchElementException e) {
+        long captureTimestampNs = mTimebase == Timebase.REALTIME
+                ? SystemClock.elapsedRealtimeNanos() : System.nanoTime();
+        return dequeueImageFromBuffer(captureTimestampNs);
+    }
+
+    /**
+     * Dequeues the buffered {@link ImageProxy} whose timestamp is the closest to the given capture
+     * timestamp, in the time base of the camera.
+     */
+    @VisibleForTesting
+    @Nullable ImageProxy dequeueImageFromBuffer(long captureTimestampNs) {
+        ImageProxy imageProxy = mImageRingBuffer.dequeueClosestTo(captureTimestampNs);
+        if (imageProxy == null) {
             Logger.e(TAG, "dequeueImageFromBuffer no such element");
         }
 
@@ -325,6 +344,14 @@ final class ZslControlImpl implements ZslControl {
         return inputSizeMap;
     }
 
+    private static @NonNull Timebase getTimebase(
+            @NonNull CameraCharacteristicsCompat cameraCharacteristicsCompat) {
+        Integer timeSource = cameraCharacteristicsCompat.get(
+                CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE);
+        return timeSource != null && timeSource == SENSOR_INFO_TIMESTAMP_SOURCE_REALTIME
+                ? Timebase.REALTIME : Timebase.UPTIME;
+    }
+
     private boolean isJpegValidOutputForInputFormat(
             @NonNull CameraCharacteristicsCompat cameraCharacteristicsCompat,
             int inputFormat) {
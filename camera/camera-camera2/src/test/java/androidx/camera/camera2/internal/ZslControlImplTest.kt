@@ -26,11 +26,18 @@ import android.hardware.camera2.CameraDevice.TEMPLATE_ZERO_SHUTTER_LAG
 import android.hardware.camera2.params.StreamConfigurationMap
 import android.os.Build
 import android.util.Size
+import androidx.camera.camera2.internal.ZslControlImpl.MAX_FRAME_AGE_NS
 import androidx.camera.camera2.internal.ZslControlImpl.MAX_IMAGES
 import androidx.camera.camera2.internal.ZslControlImpl.RING_BUFFER_CAPACITY
 import androidx.camera.camera2.internal.compat.CameraCharacteristicsCompat
+import androidx.camera.core.impl.CameraCaptureMetaData.AeState
+import androidx.camera.core.impl.CameraCaptureMetaData.AfState
+import androidx.camera.core.impl.CameraCaptureMetaData.AwbState
+import androidx.camera.core.impl.CameraCaptureResult
 import androidx.camera.core.impl.SessionConfig
 import androidx.camera.core.impl.utils.executor.CameraXExecutors
+import androidx.camera.core.internal.CameraCaptureResultImageInfo
+import androidx.camera.testing.impl.fakes.FakeImageProxy
 import com.google.common.truth.Truth.assertThat
 import org.junit.Before
 import org.junit.Test
@@ -267,6 +274,52 @@ class ZslControlImplTest {
         assertThat(sessionConfigBuilder.build().templateType).isEqualTo(TEMPLATE_ZERO_SHUTTER_LAG)
     }
 
+    @Test
+    fun dequeueImageFromBuffer_returnsFrameClosestToCaptureTimestamp() {
+        zslControl = createZslControl()
+        val imageProxies = listOf(1000L, 2000L, 3000L).map { createImageProxy(it) }
+        imageProxies.forEach { zslControl.mImageRingBuffer.enqueue(it) }
+
+        assertThat(zslControl.dequeueImageFromBuffer(2100)).isSameInstanceAs(imageProxies[1])
+        assertThat(zslControl.dequeueImageFromBuffer(5000)).isSameInstanceAs(imageProxies[2])
+        assertThat(zslControl.dequeueImageFromBuffer(5000)).isSameInstanceAs(imageProxies[0])
+        assertThat(zslControl.dequeueImageFromBuffer(5000)).isNull()
+    }
+
+    @Test
+    fun enqueueFrames_framesOlderThanMaxAgeAreClosed() {
+        zslControl = createZslControl()
+        val staleImageProxy = createImageProxy(1000)
+        val imageProxy = createImageProxy(1000 + MAX_FRAME_AGE_NS + 1)
+
+        zslControl.mImageRingBuffer.enqueue(staleImageProxy)
+        zslControl.mImageRingBuffer.enqueue(imageProxy)
+
+        assertThat(staleImageProxy.isClosed).isTrue()
+        assertThat(zslControl.mImageRingBuffer.evictedByAgeCount).isEqualTo(1)
+        assertThat(zslControl.dequeueImageFromBuffer(0)).isSameInstanceAs(imageProxy)
+    }
+
+    private fun createZslControl() =
+        ZslControlImpl(
+            createCameraCharacteristicsCompat(
+                hasCapabilities = true,
+                isYuvReprocessingSupported = false,
+                isPrivateReprocessingSupported = true,
+                isJpegValidOutputFormat = true
+            ),
+            CameraXExecutors.mainThreadExecutor()
+        )
+
+    private fun createImageProxy(timestamp: Long): FakeImageProxy {
+        val cameraCaptureResult = mock(CameraCaptureResult::class.java)
+        Mockito.`when`(cameraCaptureResult.aeState).thenReturn(AeState.CONVERGED)
+        Mockito.`when`(cameraCaptureResult.afState).thenReturn(AfState.LOCKED_FOCUSED)
+        Mockito.`when`(cameraCaptureResult.awbState).thenReturn(AwbState.CONVERGED)
+        Mockito.`when`(cameraCaptureResult.timestamp).thenReturn(timestamp)
+        return FakeImageProxy(CameraCaptureResultImageInfo(cameraCaptureResult))
+    }
+
     private fun createCameraCharacteristicsCompat(
         hasCapabilities: Boolean,
         isYuvReprocessingSupported: Boolean,
@@ -97,4 +97,70 @@ class ZslRingBufferTest {
         verify(onRemoveCallback, times(3)).onRemove(any())
         assertThat(ringBuffer.dequeue()).isEqualTo(imageProxy1)
     }
+
+    @Test
+    fun enqueue_framesOlderThanMaxAgeAreRemoved() {
+        @Suppress("UNCHECKED_CAST")
+        val onRemoveCallback = mock(OnRemoveCallback::class.java) as OnRemoveCallback<ImageProxy>
+        val ringBuffer = ZslRingBuffer(5, onRemoveCallback)
+        ringBuffer.setMaxFrameAgeNs(100)
+
+        val imageProxy1 = createImageProxy(1000)
+        val imageProxy2 = createImageProxy(1050)
+        ringBuffer.enqueue(imageProxy1)
+        ringBuffer.enqueue(imageProxy2)
+        ringBuffer.enqueue(createImageProxy(1120))
+
+        verify(onRemoveCallback).onRemove(imageProxy1)
+        verify(onRemoveCallback, times(1)).onRemove(any())
+        assertThat(ringBuffer.size()).isEqualTo(2)
+        assertThat(ringBuffer.evictedByAgeCount).isEqualTo(1)
+        assertThat(ringBuffer.evictedByCapacityCount).isEqualTo(0)
+        assertThat(ringBuffer.dequeue()).isEqualTo(imageProxy2)
+    }
+
+    @Test
+    fun dequeueClosestTo_returnsFrameWithClosestTimestamp() {
+        @Suppress("UNCHECKED_CAST")
+        val onRemoveCallback = mock(OnRemoveCallback::class.java) as OnRemoveCallback<ImageProxy>
+        val ringBuffer = ZslRingBuffer(5, onRemoveCallback)
+        val imageProxies = listOf(100L, 200L, 300L, 400L).map { createImageProxy(it) }
+        // Frames may arrive out of order.
+        imageProxies.reversed().forEach { ringBuffer.enqueue(it) }
+
+        assertThat(ringBuffer.dequeueClosestTo(240)).isEqualTo(imageProxies[1])
+        assertThat(ringBuffer.dequeueClosestTo(250)).isEqualTo(imageProxies[2])
+        assertThat(ringBuffer.dequeueClosestTo(1000)).isEqualTo(imageProxies[3])
+        assertThat(ringBuffer.dequeueClosestTo(0)).isEqualTo(imageProxies[0])
+        assertThat(ringBuffer.dequeueClosestTo(0)).isNull()
+        assertThat(ringBuffer.isEmpty).isTrue()
+    }
+
+    @Test
+    fun metrics_countRejectedAndEvictedFrames() {
+        @Suppress("UNCHECKED_CAST")
+        val onRemoveCallback = mock(OnRemoveCallback::class.java) as OnRemoveCallback<ImageProxy>
+        val ringBuffer = ZslRingBuffer(2, onRemoveCallback)
+
+        repeat(5) { ringBuffer.enqueue(createImageProxy(it * 10L)) }
+        ringBuffer.enqueue(createImageProxy(100, AeState.SEARCHING))
+
+        assertThat(ringBuffer.size()).isEqualTo(2)
+        assertThat(ringBuffer.evictedByCapacityCount).isEqualTo(3)
+        assertThat(ringBuffer.rejectedFrameCount).isEqualTo(1)
+        assertThat(ringBuffer.evictedByAgeCount).isEqualTo(0)
+        verify(onRemoveCallback, times(4)).onRemove(any())
+    }
+
+    private fun createImageProxy(
+        timestamp: Long,
+        aeState: AeState = AeState.CONVERGED
+    ): ImageProxy {
+        val cameraCaptureResult = mock(CameraCaptureResult::class.java)
+        `when`(cameraCaptureResult.aeState).thenReturn(aeState)
+        `when`(cameraCaptureResult.afState).thenReturn(AfState.LOCKED_FOCUSED)
+        `when`(cameraCaptureResult.awbState).thenReturn(AwbState.CONVERGED)
+        `when`(cameraCaptureResult.timestamp).thenReturn(timestamp)
+        return FakeImageProxy(CameraCaptureResultImageInfo(cameraCaptureResult))
+    }
 }
@@ -16,6 +16,7 @@
 
 package androidx.camera.core.internal.utils;
 
+import androidx.annotation.GuardedBy;
 import androidx.camera.core.ImageInfo;
 import androidx.camera.core.ImageProxy;
 import androidx.camera.core.impl.CameraCaptureMetaData.AeState;
@@ -25,6 +26,11 @@ import androidx.camera.core.impl.CameraCaptureResult;
 import androidx.camera.core.impl.CameraCaptureResults;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Used for storing frames for ZSL capture.
@@ -36,21 +42,203 @@ import org.jspecify.annotations.NonNull;
  * - AE Converged
  * - AWB Converged
  * </p>
+ *
+ * <p>Frames are kept sorted by timestamp. The oldest frame is evicted when the buffer is full,
+ * and frames older than the max frame age, relative to the latest frame, are evicted as new
+ * frames are enqueued. The frame closest to a capture timestamp is found with a binary search,
+ * but inserting or removing a frame shifts the ones after it, so both are linear in the size of
+ * the buffer. This is cheap for the few frames a ZSL buffer holds.
+ * </p>
  */
-public final class ZslRingBuffer extends ArrayRingBuffer<ImageProxy> {
+public final class ZslRingBuffer implements RingBuffer<ImageProxy> {
+
+    private final int mRingBufferCapacity;
+
+    private final Object mLock = new Object();
+
+    /** The buffered frames, sorted by timestamp. */
+    @GuardedBy("mLock")
+    private final List<ImageProxy> mBuffer;
+
+    @GuardedBy("mLock")
+    private long mMaxFrameAgeNs = Long.MAX_VALUE;
+
+    @GuardedBy("mLock")
+    private long mRejectedFrameCount;
+
+    @GuardedBy("mLock")
+    private long mEvictedByCapacityCount;
+
+    @GuardedBy("mLock")
+    private long mEvictedByAgeCount;
+
+    final @NonNull OnRemoveCallback<ImageProxy> mOnRemoveCallback;
 
     public ZslRingBuffer(int ringBufferCapacity,
             @NonNull OnRemoveCallback<ImageProxy> onRemoveCallback) {
-        super(ringBufferCapacity, onRemoveCallback);
+        mRingBufferCapacity = ringBufferCapacity;
+        mBuffer = new ArrayList<>(ringBufferCapacity + 1);
+        mOnRemoveCallback = onRemoveCallback;
+    }
+
+    /**
+     * Sets the max age of buffered frames, relative to the timestamp of the latest frame. Older
+     * frames are evicted when the next frame is enqueued.
+     *
+     * @param maxFrameAgeNs the max age in nanoseconds, {@link Long#MAX_VALUE} to keep frames
+     *                      until the buffer is full.
+     */
+    public void setMaxFrameAgeNs(long maxFrameAgeNs) {
+        synchronized (mLock) {
+            mMaxFrameAgeNs = maxFrameAgeNs;
+        }
     }
 
     @Override
     public void enqueue(@NonNull ImageProxy imageProxy) {
-        if (isValidZslFrame(imageProxy.getImageInfo())) {
-            super.enqueue(imageProxy);
-        } else {
+        if (!isValidZslFrame(imageProxy.getImageInfo())) {
+            synchronized (mLock) {
+                mRejectedFrameCount++;
+            }
             mOnRemoveCallback.onRemove(imageProxy);
+            return;
+        }
+
+        List<ImageProxy> removed = null;
+        synchronized (mLock) {
+            long timestamp = imageProxy.getImageInfo().getTimestamp();
+            mBuffer.add(insertionIndexOf(timestamp), imageProxy);
+
+            long latestTimestamp = getTimestamp(mBuffer.get(mBuffer.size() - 1));
+            while (!mBuffer.isEmpty()
+                    && latestTimestamp - getTimestamp(mBuffer.get(0)) > mMaxFrameAgeNs) {
+                removed = addTo(removed, mBuffer.remove(0));
+                mEvictedByAgeCount++;
+            }
+            while (mBuffer.size() > mRingBufferCapacity) {
+                removed = addTo(removed, mBuffer.remove(0));
+                mEvictedByCapacityCount++;
+            }
+        }
+
+        if (removed != null) {
+            for (ImageProxy removedImageProxy : removed) {
+                mOnRemoveCallback.onRemove(removedImageProxy);
+            }
+        }
+    }
+
+    /**
+     * Dequeues the oldest frame.
+     *
+     * @throws NoSuchElementException if the buffer is empty.
+     */
+    @Override
+    public @NonNull ImageProxy dequeue() {
+        synchronized (mLock) {
+            if (mBuffer.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return mBuffer.remove(0);
+        }
+    }
+
+    /**
+     * Dequeues the frame whose timestamp is the closest to the given capture timestamp, the
+     * latest one if two frames are as close.
+     *
+     * @param timestampNs the timestamp of the capture, in the time base of the frames.
+     * @return the closest frame, or null if the buffer is empty.
+     */
+    public @Nullable ImageProxy dequeueClosestTo(long timestampNs) {
+        synchronized (mLock) {
+            if (mBuffer.isEmpty()) {
+                return null;
+            }
+            int index = insertionIndexOf(timestampNs);
+            if (index == mBuffer.size()
+                    || (index > 0 && timestampNs - getTimestamp(mBuffer.get(index - 1))
+                    < getTimestamp(mBuffer.get(index)) - timestampNs)) {
+                index--;
+            }
+            return mBuffer.remove(index);
+        }
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return mRingBufferCapacity;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (mLock) {
+            return mBuffer.isEmpty();
+        }
+    }
+
+    /** Returns the number of buffered frames. */
+    public int size() {
+        synchronized (mLock) {
+            return mBuffer.size();
+        }
+    }
+
+    /** Returns the number of frames which were not buffered because of their 3A states. */
+    public long getRejectedFrameCount() {
+        synchronized (mLock) {
+            return mRejectedFrameCount;
+        }
+    }
+
+    /** Returns the number of frames evicted to make room for newer frames. */
+    public long getEvictedByCapacityCount() {
+        synchronized (mLock) {
+            return mEvictedByCapacityCount;
+        }
+    }
+
+    /** Returns the number of frames evicted because they were older than the max frame age. */
+    public long getEvictedByAgeCount() {
+        synchronized (mLock) {
+            return mEvictedByAgeCount;
+        }
+    }
+
+    /**
+     * Returns the index after the frames whose timestamp is lower than the given one, or after
+     * all the frames if none is later. Frames usually arrive in order, so this is checked first.
+     */
+    @GuardedBy("mLock")
+    private int insertionIndexOf(long timestamp) {
+        int size = mBuffer.size();
+        if (size == 0 || getTimestamp(mBuffer.get(size - 1)) <= timestamp) {
+            return size;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getTimestamp(mBuffer.get(mid)) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long getTimestamp(@NonNull ImageProxy imageProxy) {
+        return imageProxy.getImageInfo().getTimestamp();
+    }
+
+    private static @NonNull List<ImageProxy> addTo(@Nullable List<ImageProxy> list,
+            @NonNull ImageProxy imageProxy) {
+        if (list == null) {
+            list = new ArrayList<>(1);
         }
+        list.add(imageProxy);
+        return list;
     }
 
     private boolean isValidZslFrame(@NonNull ImageInfo imageInfo) {
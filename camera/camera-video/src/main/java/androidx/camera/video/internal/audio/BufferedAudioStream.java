@@ -24,6 +24,7 @@ import static androidx.core.util.Preconditions.checkState;
 import android.annotation.SuppressLint;
 
 import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
 import androidx.camera.core.Logger;
 import androidx.camera.core.impl.annotation.ExecutedBy;
 import androidx.camera.core.impl.utils.executor.CameraXExecutors;
@@ -32,13 +33,12 @@ import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import java.nio.ByteBuffer;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The class implements a buffered AudioStream.
@@ -49,24 +49,42 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * to prevent memory from being overused. When the queue's size exceeds the limit, the oldest
  * cached data will be discarded.
  *
+ * <p>The queue is a ring of reusable direct buffers, which are allocated the first time they are
+ * used, or when the read buffer size grows, so that collecting audio data doesn't allocate memory
+ * for every read of the internal audio stream. The numbers of discarded reads and of reads
+ * waiting for audio data are available with {@link #getDroppedPacketCount()} and
+ * {@link #getUnderrunCount()}.
+ *
  * <p>This class is not thread safe, it should be used on the same thread.
  */
 public class BufferedAudioStream implements AudioStream {
 
     private static final String TAG = "BufferedAudioStream";
     private static final int DEFAULT_BUFFER_SIZE_IN_FRAME = 1024;
-    private static final int DEFAULT_QUEUE_SIZE = 500;
+    @VisibleForTesting
+    static final int DEFAULT_QUEUE_SIZE = 500;
     private static final int DATA_WAITING_TIME_MILLIS = 1;
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocateDirect(0);
 
     private final AtomicBoolean mIsStarted = new AtomicBoolean(false);
     private final AtomicBoolean mIsReleased = new AtomicBoolean(false);
-    @GuardedBy("mLock")
-    private final Queue<AudioData> mAudioDataQueue = new ConcurrentLinkedQueue<>();
     private final Executor mProducerExecutor = CameraXExecutors.newSequentialExecutor(
             CameraXExecutors.audioExecutor());
     private final Object mLock = new Object();
+    private final AtomicLong mDroppedPacketCount = new AtomicLong();
+    private final AtomicLong mUnderrunCount = new AtomicLong();
+    private final AtomicLong mBufferAllocationCount = new AtomicLong();
+
+    /**
+     * The ring of audio data. The queued audio data are the {@code mQueueSize} slots starting at
+     * {@code mQueueHead}, the first one may be partially read. The slot following them is never
+     * visible to {@link #read(ByteBuffer)}, so the producer fills it without holding the lock.
+     */
+    private final AudioData[] mAudioDataRing;
+    @GuardedBy("mLock")
+    private int mQueueHead = 0;
     @GuardedBy("mLock")
-    private @Nullable AudioData mAudioDataNotFullyRead = null;
+    private int mQueueSize = 0;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////
     //                      Members only accessed on mProducerExecutor                            //
@@ -89,6 +107,11 @@ public class BufferedAudioStream implements AudioStream {
 
         mQueueMaxSize = DEFAULT_QUEUE_SIZE;
         mBufferSize = DEFAULT_BUFFER_SIZE_IN_FRAME * mBytesPerFrame;
+
+        mAudioDataRing = new AudioData[mQueueMaxSize + 1];
+        for (int i = 0; i < mAudioDataRing.length; i++) {
+            mAudioDataRing[i] = new AudioData(mBytesPerFrame, mSampleRate);
+        }
     }
 
     @Override
@@ -129,10 +152,7 @@ public class BufferedAudioStream implements AudioStream {
         mProducerExecutor.execute(() -> {
             mIsCollectingAudioData.set(false);
             mAudioStream.stop();
-            synchronized (mLock) {
-                mAudioDataNotFullyRead = null;
-                mAudioDataQueue.clear();
-            }
+            clearQueue();
         });
     }
 
@@ -145,10 +165,7 @@ public class BufferedAudioStream implements AudioStream {
         mProducerExecutor.execute(() -> {
             mIsCollectingAudioData.set(false);
             mAudioStream.release();
-            synchronized (mLock) {
-                mAudioDataNotFullyRead = null;
-                mAudioDataQueue.clear();
-            }
+            clearQueue();
         });
     }
 
@@ -163,20 +180,17 @@ public class BufferedAudioStream implements AudioStream {
 
         // Block the thread till the audio data is actually read.
         boolean isWaitingForData;
+        boolean isUnderrun = false;
         PacketInfo packetInfo = PacketInfo.of(0, 0);
         do {
             synchronized (mLock) {
-                AudioData audioData = mAudioDataNotFullyRead;
-                mAudioDataNotFullyRead = null;
-                if (audioData == null) {
-                    audioData = mAudioDataQueue.poll();
-                }
-
-                if (audioData != null) {
+                if (mQueueSize > 0) {
+                    AudioData audioData = mAudioDataRing[mQueueHead];
                     packetInfo = audioData.read(byteBuffer);
 
-                    if (audioData.getRemainingBufferSizeInBytes() > 0) {
-                        mAudioDataNotFullyRead = audioData;
+                    if (audioData.getRemainingBufferSizeInBytes() <= 0) {
+                        mQueueHead = (mQueueHead + 1) % mAudioDataRing.length;
+                        mQueueSize--;
                     }
                 }
             }
@@ -187,6 +201,10 @@ public class BufferedAudioStream implements AudioStream {
 
             // Sleep to prevent busy accessing to variables.
             if (isWaitingForData) {
+                if (!isUnderrun) {
+                    isUnderrun = true;
+                    mUnderrunCount.incrementAndGet();
+                }
                 try {
                     Thread.sleep(DATA_WAITING_TIME_MILLIS);
                 } catch (InterruptedException e) {
@@ -209,6 +227,35 @@ public class BufferedAudioStream implements AudioStream {
         mProducerExecutor.execute(() -> mAudioStream.setCallback(callback, executor));
     }
 
+    /**
+     * Returns the number of reads of the internal audio stream which were discarded because the
+     * queue was full.
+     */
+    public long getDroppedPacketCount() {
+        return mDroppedPacketCount.get();
+    }
+
+    /**
+     * Returns the number of calls to {@link #read(ByteBuffer)} which had to wait for audio data.
+     */
+    public long getUnderrunCount() {
+        return mUnderrunCount.get();
+    }
+
+    /**
+     * Returns the number of buffers allocated to collect audio data.
+     */
+    public long getBufferAllocationCount() {
+        return mBufferAllocationCount.get();
+    }
+
+    private void clearQueue() {
+        synchronized (mLock) {
+            mQueueHead = 0;
+            mQueueSize = 0;
+        }
+    }
+
     private void checkNotReleasedOrThrow() {
         checkState(!mIsReleased.get(), "AudioStream has been released.");
     }
@@ -250,22 +297,35 @@ public class BufferedAudioStream implements AudioStream {
             return;
         }
 
-        // Read audio data.
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(mBufferSize);
+        // Read audio data into the free slot, which follows the queued audio data.
+        int tail;
+        synchronized (mLock) {
+            tail = (mQueueHead + mQueueSize) % mAudioDataRing.length;
+        }
+        AudioData audioData = mAudioDataRing[tail];
+        ByteBuffer byteBuffer = audioData.prepareBuffer(mBufferSize);
+        if (audioData.isBufferAllocated()) {
+            mBufferAllocationCount.incrementAndGet();
+        }
         PacketInfo packetInfo = mAudioStream.read(byteBuffer);
-        AudioData audioData = new AudioData(byteBuffer, packetInfo, mBytesPerFrame, mSampleRate);
+        audioData.setPacketInfo(packetInfo);
 
         // Push audio data to the queue.
-        int queueMaxSize = mQueueMaxSize;
+        boolean isDropped = false;
         synchronized (mLock) {
-            mAudioDataQueue.offer(audioData);
+            mQueueSize++;
 
             // Pop audio data when the queue size exceeds the limit.
-            while (mAudioDataQueue.size() > queueMaxSize) {
-                mAudioDataQueue.poll();
-                Logger.w(TAG, "Drop audio data due to full of queue.");
+            if (mQueueSize > mQueueMaxSize) {
+                mQueueHead = (mQueueHead + 1) % mAudioDataRing.length;
+                mQueueSize--;
+                isDropped = true;
             }
         }
+        if (isDropped) {
+            mDroppedPacketCount.incrementAndGet();
+            Logger.w(TAG, "Drop audio data due to full of queue.");
+        }
 
         // Start next data collection.
         if (mIsCollectingAudioData.get()) {
@@ -273,29 +333,53 @@ public class BufferedAudioStream implements AudioStream {
         }
     }
 
+    /**
+     * A reusable slot of the audio data ring.
+     */
     private static class AudioData {
 
         private final int mBytesPerFrame;
         private final int mSampleRate;
-        private final ByteBuffer mByteBuffer;
+        private ByteBuffer mByteBuffer;
+        private boolean mIsBufferAllocated;
         private long mTimestampNs;
 
-        AudioData(@NonNull ByteBuffer byteBuffer, @NonNull PacketInfo packetInfo,
-                int bytesPerFrame, int sampleRate) {
+        AudioData(int bytesPerFrame, int sampleRate) {
+            mBytesPerFrame = bytesPerFrame;
+            mSampleRate = sampleRate;
+            mByteBuffer = EMPTY_BUFFER;
+        }
+
+        /**
+         * Returns the buffer to read the given size of audio data into, which is only allocated
+         * when the current one is too small.
+         */
+        @NonNull ByteBuffer prepareBuffer(int bufferSize) {
+            mIsBufferAllocated = mByteBuffer.capacity() < bufferSize;
+            if (mIsBufferAllocated) {
+                mByteBuffer = ByteBuffer.allocateDirect(bufferSize);
+            }
+            mByteBuffer.clear();
+            mByteBuffer.limit(bufferSize);
+            return mByteBuffer;
+        }
+
+        boolean isBufferAllocated() {
+            return mIsBufferAllocated;
+        }
+
+        void setPacketInfo(@NonNull PacketInfo packetInfo) {
             // Make the buffer ready for reading.
-            byteBuffer.rewind();
+            mByteBuffer.rewind();
 
             // Check if byte buffer match with packet info.
-            int bufferSize = byteBuffer.limit() - byteBuffer.position();
+            int bufferSize = mByteBuffer.limit() - mByteBuffer.position();
             if (bufferSize != packetInfo.getSizeInBytes()) {
                 throw new IllegalStateException(
                         "Byte buffer size is not match with packet info: " + bufferSize + " != "
                                 + packetInfo.getSizeInBytes());
             }
 
-            mBytesPerFrame = bytesPerFrame;
-            mSampleRate = sampleRate;
-            mByteBuffer = byteBuffer;
             mTimestampNs = packetInfo.getTimestampNs();
         }
 
@@ -22,8 +22,13 @@ import android.os.Build
 import androidx.camera.core.impl.utils.executor.CameraXExecutors
 import androidx.camera.testing.impl.mocks.helpers.CallTimes
 import androidx.camera.testing.impl.mocks.helpers.CallTimesAtLeast
+import androidx.camera.video.internal.audio.AudioUtils.frameCountToDurationNs
 import com.google.common.truth.Truth.assertThat
 import java.nio.ByteBuffer
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeUnit.MILLISECONDS
 import org.junit.After
 import org.junit.Assert.assertThrows
 import org.junit.Before
@@ -47,6 +52,15 @@ class BufferedAudioStreamTest {
         private const val SOURCE_BYTE_BUFFER_CAPACITY = 16
         private const val SOURCE_TIMESTAMP_OFFSET = 1L
         private const val DESTINATION_BYTE_BUFFER_CAPACITY = 16
+
+        private const val PCM_SAMPLE_RATE = 48000
+        private const val PCM_CHANNEL_COUNT = 2
+        private const val PCM_BYTES_PER_FRAME = 4
+        private const val PCM_FRAMES_PER_PACKET = 1024
+        // An hour of 48 kHz audio in packets of 1024 frames.
+        private const val PCM_PACKETS_PER_HOUR = 3600 * PCM_SAMPLE_RATE / PCM_FRAMES_PER_PACKET
+        // The queue size of BufferedAudioStream, and the slot being written by the producer.
+        private const val PCM_RING_SIZE = BufferedAudioStream.DEFAULT_QUEUE_SIZE + 1
     }
 
     private lateinit var byteBuffer: ByteBuffer
@@ -183,6 +197,97 @@ class BufferedAudioStreamTest {
         bufferedAudioStream.stop()
     }
 
+    @Test
+    fun canReadAnHourOfAudioWithContinuousTimestamps() {
+        // Arrange.
+        val pcmAudioStream = PcmAudioStream(PCM_PACKETS_PER_HOUR)
+        val pcmBufferedAudioStream = createPcmBufferedAudioStream(pcmAudioStream)
+        val readBuffer = ByteBuffer.allocateDirect(PCM_FRAMES_PER_PACKET * PCM_BYTES_PER_FRAME)
+        val lastFrameIndex = PCM_PACKETS_PER_HOUR.toLong() * PCM_FRAMES_PER_PACKET - 1
+
+        // Act.
+        pcmBufferedAudioStream.start()
+        var consumedFrames = 0L
+        var nextFrameIndex = 0L
+        try {
+            do {
+                readBuffer.clear()
+                val packetInfo = pcmBufferedAudioStream.read(readBuffer)
+                val frameCount = packetInfo.sizeInBytes / PCM_BYTES_PER_FRAME
+                if (frameCount == 0) {
+                    continue
+                }
+                val firstFrameIndex = readBuffer.getInt(readBuffer.position()).toLong()
+                val endFrameIndex = firstFrameIndex + frameCount
+
+                // Assert: the frames are contiguous and the timestamp is the one of the first.
+                assertThat(firstFrameIndex).isAtLeast(nextFrameIndex)
+                assertThat(readBuffer.getInt(readBuffer.limit() - PCM_BYTES_PER_FRAME).toLong())
+                    .isEqualTo(endFrameIndex - 1)
+                // Timestamps of partially read packets may be rounded down by up to a frame.
+                val timestampNs = frameCountToDurationNs(firstFrameIndex, PCM_SAMPLE_RATE)
+                assertThat(packetInfo.timestampNs).isAtMost(timestampNs)
+                assertThat(packetInfo.timestampNs)
+                    .isAtLeast(timestampNs - frameCountToDurationNs(1, PCM_SAMPLE_RATE))
+                consumedFrames += frameCount
+                nextFrameIndex = endFrameIndex
+            } while (nextFrameIndex <= lastFrameIndex)
+        } finally {
+            pcmAudioStream.endOfStream.countDown()
+            pcmBufferedAudioStream.release()
+        }
+
+        // Assert.
+        val droppedFrames = pcmBufferedAudioStream.droppedPacketCount * PCM_FRAMES_PER_PACKET
+        assertThat(consumedFrames).isAtMost(lastFrameIndex + 1)
+        assertThat(consumedFrames + droppedFrames).isAtLeast(lastFrameIndex + 1)
+        assertThat(pcmBufferedAudioStream.bufferAllocationCount).isAtMost(PCM_RING_SIZE.toLong())
+    }
+
+    @Test
+    fun dropOldestPacketsWhenNotRead() {
+        // Arrange.
+        val packetCount = PCM_RING_SIZE * 2
+        val pcmAudioStream = PcmAudioStream(packetCount)
+        val pcmBufferedAudioStream = createPcmBufferedAudioStream(pcmAudioStream)
+        val readBuffer = ByteBuffer.allocateDirect(PCM_FRAMES_PER_PACKET * PCM_BYTES_PER_FRAME)
+
+        try {
+            // Act.
+            pcmBufferedAudioStream.start()
+            assertThat(pcmAudioStream.endOfStreamReached.await(COMMON_TIMEOUT_MS, MILLISECONDS))
+                .isTrue()
+            val packetInfo = pcmBufferedAudioStream.read(readBuffer)
+
+            // Assert: the queue holds the latest packets, the other ones were dropped.
+            val droppedPacketCount = packetCount - (PCM_RING_SIZE - 1)
+            val firstFrameIndex = droppedPacketCount.toLong() * PCM_FRAMES_PER_PACKET
+            assertThat(pcmBufferedAudioStream.droppedPacketCount)
+                .isEqualTo(droppedPacketCount.toLong())
+            assertThat(pcmBufferedAudioStream.underrunCount).isEqualTo(0)
+            assertThat(pcmBufferedAudioStream.bufferAllocationCount)
+                .isEqualTo(PCM_RING_SIZE.toLong())
+            assertThat(readBuffer.getInt(readBuffer.position()).toLong())
+                .isEqualTo(firstFrameIndex)
+            assertThat(packetInfo.timestampNs)
+                .isEqualTo(frameCountToDurationNs(firstFrameIndex, PCM_SAMPLE_RATE))
+        } finally {
+            pcmAudioStream.endOfStream.countDown()
+            pcmBufferedAudioStream.release()
+        }
+    }
+
+    private fun createPcmBufferedAudioStream(audioStream: AudioStream): BufferedAudioStream {
+        val audioSettings =
+            AudioSettings.builder()
+                .setAudioSource(AUDIO_SOURCE)
+                .setSampleRate(PCM_SAMPLE_RATE)
+                .setChannelCount(PCM_CHANNEL_COUNT)
+                .setAudioFormat(AUDIO_FORMAT)
+                .build()
+        return BufferedAudioStream(audioStream, audioSettings)
+    }
+
     private fun AudioStream.verifyMultipleReads(verifyTimes: Int, byteBuffer: ByteBuffer) {
         repeat(verifyTimes) { index ->
             // Since the audio data producer and consumer are not on the same thread, waiting for
@@ -211,3 +316,40 @@ class BufferedAudioStreamTest {
         FakeAudioStream.AudioData(byteBuffer, timestampNs)
     }
 }
+
+/**
+ * A 16-bit stereo PCM [AudioStream] producing packets as fast as they are read, without recording
+ * them, whose frames contain their index and whose timestamps are the ones of a 48 kHz stream.
+ *
+ * After the given number of packets, reads wait for [endOfStream] and return empty packets.
+ */
+private class PcmAudioStream(private val packetCount: Int) : AudioStream {
+    val endOfStreamReached = CountDownLatch(1)
+    val endOfStream = CountDownLatch(1)
+    private var frameIndex = 0L
+    private var packetIndex = 0
+
+    override fun start() {}
+
+    override fun stop() {}
+
+    override fun release() {}
+
+    override fun read(byteBuffer: ByteBuffer): AudioStream.PacketInfo {
+        if (packetIndex++ >= packetCount) {
+            endOfStreamReached.countDown()
+            endOfStream.await(10, TimeUnit.SECONDS)
+            byteBuffer.limit(byteBuffer.position())
+            return AudioStream.PacketInfo.of(0, frameCountToDurationNs(frameIndex, 48000))
+        }
+        val timestampNs = frameCountToDurationNs(frameIndex, 48000)
+        val position = byteBuffer.position()
+        val frameCount = byteBuffer.remaining() / 4
+        repeat(frameCount) { byteBuffer.putInt(frameIndex++.toInt()) }
+        byteBuffer.limit(byteBuffer.position())
+        byteBuffer.position(position)
+        return AudioStream.PacketInfo.of(frameCount * 4, timestampNs)
+    }
+
+    override fun setCallback(callback: AudioStream.AudioStreamCallback?, executor: Executor?) {}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.car.app.serialization
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.car.app.annotations.ExperimentalCarApi
+import androidx.car.app.model.CarIcon
+import androidx.car.app.model.GridItem
+import androidx.car.app.model.GridSection
+import androidx.car.app.model.GridTemplate
+import androidx.car.app.model.Header
+import androidx.car.app.model.ItemList
+import androidx.car.app.model.ListTemplate
+import androidx.car.app.model.Row
+import androidx.car.app.model.RowSection
+import androidx.car.app.model.SectionedItemTemplate
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures bundling and unbundling templates with a growing number of items, as done each time a
+ * screen sends a new template to the host.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class BundlerBenchmark(private val itemCount: Int) {
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    @Test
+    fun listTemplate_toBundle() {
+        val template = createListTemplate()
+        benchmarkRule.measureRepeated { Bundleable.create(template) }
+    }
+
+    @Test
+    fun listTemplate_fromBundle() {
+        val bundleable = Bundleable.create(createListTemplate())
+        benchmarkRule.measureRepeated { bundleable.get() }
+    }
+
+    @Test
+    fun gridTemplate_toBundle() {
+        val template = createGridTemplate()
+        benchmarkRule.measureRepeated { Bundleable.create(template) }
+    }
+
+    @Test
+    fun gridTemplate_fromBundle() {
+        val bundleable = Bundleable.create(createGridTemplate())
+        benchmarkRule.measureRepeated { bundleable.get() }
+    }
+
+    @Test
+    fun sectionedItemTemplate_toBundle() {
+        val template = createSectionedItemTemplate()
+        benchmarkRule.measureRepeated { Bundleable.create(template) }
+    }
+
+    @Test
+    fun sectionedItemTemplate_fromBundle() {
+        val bundleable = Bundleable.create(createSectionedItemTemplate())
+        benchmarkRule.measureRepeated { bundleable.get() }
+    }
+
+    private fun createListTemplate(): ListTemplate {
+        val itemList = ItemList.Builder()
+        for (i in 0 until itemCount) {
+            itemList.addItem(createRow(i))
+        }
+        return ListTemplate.Builder()
+            .setHeader(Header.Builder().setTitle("List").build())
+            .setSingleList(itemList.build())
+            .build()
+    }
+
+    private fun createGridTemplate(): GridTemplate {
+        val itemList = ItemList.Builder()
+        for (i in 0 until itemCount) {
+            itemList.addItem(createGridItem(i))
+        }
+        return GridTemplate.Builder()
+            .setHeader(Header.Builder().setTitle("Grid").build())
+            .setSingleList(itemList.build())
+            .build()
+    }
+
+    @OptIn(ExperimentalCarApi::class)
+    private fun createSectionedItemTemplate(): SectionedItemTemplate {
+        val rowSection = RowSection.Builder().setTitle("Rows")
+        val gridSection = GridSection.Builder().setTitle("Grid items")
+        for (i in 0 until itemCount / 2) {
+            rowSection.addItem(createRow(i))
+            gridSection.addItem(createGridItem(i))
+        }
+        return SectionedItemTemplate.Builder()
+            .setHeader(Header.Builder().setTitle("Sections").build())
+            .addSection(rowSection.build())
+            .addSection(gridSection.build())
+            .build()
+    }
+
+    private fun createRow(index: Int): Row =
+        Row.Builder()
+            .setTitle("Row $index")
+            .addText("Secondary text of row $index")
+            .setImage(CarIcon.APP_ICON)
+            .build()
+
+    private fun createGridItem(index: Int): GridItem =
+        GridItem.Builder().setTitle("Item $index").setImage(CarIcon.APP_ICON).build()
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "itemCount={0}")
+        fun data() = listOf(10, 100)
+    }
+}
@@ -51,6 +51,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class to serialize and deserialize objects to/from {@link Bundle}s.
@@ -113,6 +114,15 @@ public final class Bundler {
     private static final int IBINDER = 9;
     private static final int PERSON = 10;
 
+    /**
+     * The reflection data of the custom classes serialized or deserialized so far, as looking it up
+     * for each object is expensive when templates are sent often.
+     */
+    private static final ConcurrentHashMap<Class<?>, ObjectClassInfo> OBJECT_CLASS_INFOS =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ObjectClassInfo> OBJECT_CLASS_INFOS_BY_NAME =
+            new ConcurrentHashMap<>();
+
     /**
      * Serializes an object into a {@link Bundle} for sending over IPC.
      *
@@ -376,26 +386,25 @@ public final class Bundler {
     }
 
     private static Bundle serializeObject(Object obj, Trace trace) throws BundlerException {
-        String className = obj.getClass().getName();
-        if (!obj.getClass().isAnnotationPresent(CarProtocol.class)) {
+        ObjectClassInfo classInfo = getObjectClassInfo(obj.getClass());
+        String className = classInfo.mClassName;
+        if (!classInfo.mIsCarProtocol) {
             throw new TracedBundlerException(
                     "Invalid class not marked as CarProtocol: " + className, trace);
         }
-        try {
-            obj.getClass().getDeclaredConstructor();
-        } catch (NoSuchMethodException e) {
+        if (classInfo.mConstructor == null) {
             throw new TracedBundlerException(
                     "Class to deserialize is missing a no args constructor: " + className, trace,
-                    e);
+                    classInfo.newMissingConstructorException());
         }
-        List<Field> fields = getFields(obj.getClass());
-        Bundle bundle = new Bundle(fields.size() + 2);
+        Field[] fields = classInfo.mFields;
+        Bundle bundle = new Bundle(fields.length + 2);
 
         bundle.putInt(TAG_CLASS_TYPE, OBJECT);
         bundle.putString(TAG_CLASS_NAME, className);
-        for (Field field : fields) {
-            field.setAccessible(true);
-            String fieldName = getFieldName(field);
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            String fieldName = classInfo.mFieldNames[i];
 
             Object value = null;
             try {
@@ -582,24 +591,24 @@ public final class Bundler {
         }
 
         try {
-            Class<?> clazz = Class.forName(className);
-            if (!clazz.isAnnotationPresent(CarProtocol.class)) {
+            ObjectClassInfo classInfo = getObjectClassInfo(className);
+            if (!classInfo.mIsCarProtocol) {
                 throw new TracedBundlerException(
                         "Invalid class not marked as CarProtocol: " + className, trace);
             }
-            Constructor<?> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
+            Constructor<?> constructor = classInfo.mConstructor;
+            if (constructor == null) {
+                throw classInfo.newMissingConstructorException();
+            }
             Object obj = constructor.newInstance();
 
-            for (Field field : getFields(clazz)) {
-                field.setAccessible(true);
-                String fieldName = getFieldName(field);
-
-                Object value = bundle.get(fieldName);
-                if (value == null) {
+            Field[] fields = classInfo.mFields;
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                Object value = bundle.get(classInfo.mFieldNames[i]);
+                if (value == null && classInfo.mDejetifiedFieldNames[i] != null) {
                     // If we don't find the field in the bundle, try dejetifying it.
-                    value = bundle.get(
-                            fieldName.replaceAll(ICON_COMPAT_ANDROIDX, ICON_COMPAT_SUPPORT));
+                    value = bundle.get(classInfo.mDejetifiedFieldNames[i]);
                 }
 
                 if (value instanceof Bundle) {
@@ -635,6 +644,31 @@ public final class Bundler {
         return className + fieldName;
     }
 
+    /** Returns the reflection data of the given custom class. */
+    @VisibleForTesting
+    static ObjectClassInfo getObjectClassInfo(Class<?> clazz) {
+        ObjectClassInfo classInfo = OBJECT_CLASS_INFOS.get(clazz);
+        if (classInfo == null) {
+            classInfo = new ObjectClassInfo(clazz);
+            ObjectClassInfo previous = OBJECT_CLASS_INFOS.putIfAbsent(clazz, classInfo);
+            if (previous != null) {
+                classInfo = previous;
+            }
+        }
+        return classInfo;
+    }
+
+    /** Returns the reflection data of the custom class with the given name. */
+    private static ObjectClassInfo getObjectClassInfo(String className)
+            throws ClassNotFoundException {
+        ObjectClassInfo classInfo = OBJECT_CLASS_INFOS_BY_NAME.get(className);
+        if (classInfo == null) {
+            classInfo = getObjectClassInfo(Class.forName(className));
+            OBJECT_CLASS_INFOS_BY_NAME.put(className, classInfo);
+        }
+        return classInfo;
+    }
+
     private static List<Field> getFields(@Nullable Class<?> clazz) {
         List<Field> fields = new ArrayList<>();
         if (clazz == null || clazz == Object.class) {
@@ -740,6 +774,68 @@ public final class Bundler {
                 || obj instanceof String;
     }
 
+    /**
+     * The reflection data needed to serialize and deserialize a custom class, looked up once per
+     * class.
+     */
+    @VisibleForTesting
+    static final class ObjectClassInfo {
+        final String mClassName;
+        final boolean mIsCarProtocol;
+        final @Nullable Constructor<?> mConstructor;
+        final Field[] mFields;
+        /** The keys of the fields in the bundle. */
+        final String[] mFieldNames;
+        /** The keys of the fields in bundles sent by hosts using the support library. */
+        final @Nullable String[] mDejetifiedFieldNames;
+
+        ObjectClassInfo(Class<?> clazz) {
+            mClassName = clazz.getName();
+            mIsCarProtocol = clazz.isAnnotationPresent(CarProtocol.class);
+            if (!mIsCarProtocol) {
+                // Classes that can't be serialized are not inspected further.
+                mConstructor = null;
+                mFields = new Field[0];
+                mFieldNames = new String[0];
+                mDejetifiedFieldNames = new String[0];
+                return;
+            }
+
+            Constructor<?> constructor = null;
+            try {
+                constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                // Only the absence of the constructor is cached, see
+                // newMissingConstructorException.
+            }
+            mConstructor = constructor;
+
+            List<Field> fields = getFields(clazz);
+            mFields = fields.toArray(new Field[0]);
+            mFieldNames = new String[mFields.length];
+            mDejetifiedFieldNames = new String[mFields.length];
+            for (int i = 0; i < mFields.length; i++) {
+                Field field = mFields[i];
+                field.setAccessible(true);
+                mFieldNames[i] = getFieldName(field);
+                String dejetifiedFieldName =
+                        mFieldNames[i].replaceAll(ICON_COMPAT_ANDROIDX, ICON_COMPAT_SUPPORT);
+                if (!dejetifiedFieldName.equals(mFieldNames[i])) {
+                    mDejetifiedFieldNames[i] = dejetifiedFieldName;
+                }
+            }
+        }
+
+        /**
+         * Returns a new exception for a class without a no args constructor, so that its stack
+         * trace points at the current operation rather than at the first lookup of the class.
+         */
+        NoSuchMethodException newMissingConstructorException() {
+            return new NoSuchMethodException(mClassName + ".<init>()");
+        }
+    }
+
     /** Represents a named frame in the serialization stack tracked by a {@link Trace} instance. */
     private static class Frame {
         private final Object mObj;
@@ -787,13 +883,16 @@ public final class Bundler {
 
         private String @Nullable [] mIndents; // memoized blank lines used for indentation
         private final ArrayDeque<Frame> mFrames;
+        // Checked once per operation rather than for each frame, as it reads a system property.
+        private final boolean mIsVerbose;
 
         static Trace create() {
-            return new Trace(null, "", new ArrayDeque<>());
+            return new Trace(null, "", new ArrayDeque<>(),
+                    Log.isLoggable(TAG_BUNDLER, Log.VERBOSE));
         }
 
         static Trace fromParent(@Nullable Object obj, String display, Trace parent) {
-            return new Trace(obj, display, parent.mFrames);
+            return new Trace(obj, display, parent.mFrames, parent.mIsVerbose);
         }
 
         @SuppressWarnings("deprecation")
@@ -858,12 +957,14 @@ public final class Bundler {
         }
 
         @SuppressWarnings("method.invocation.invalid")
-        private Trace(@Nullable Object obj, String display, ArrayDeque<Frame> frames) {
+        private Trace(@Nullable Object obj, String display, ArrayDeque<Frame> frames,
+                boolean isVerbose) {
             mFrames = frames;
+            mIsVerbose = isVerbose;
             if (obj != null) { // not the root
                 Frame frame = new Frame(obj, display);
                 frames.addFirst(frame);
-                if (Log.isLoggable(TAG_BUNDLER, Log.VERBOSE)) {
+                if (isVerbose) {
                     Log.v(TAG_BUNDLER, getIndent(frames.size()) + frame.toTraceString());
                 }
             }
@@ -587,6 +587,20 @@ public class BundlerTest {
                 () -> Bundler.toBundle(new TestClassMissingCarProtocolAnnotation(1)));
     }
 
+    @Test
+    public void objectSerialization_repeated_usesCachedClassInfo() throws BundlerException {
+        CarLocation location = CarLocation.create(4.3, 9.6);
+
+        Bundle first = Bundler.toBundle(location);
+        Bundler.ObjectClassInfo classInfo = Bundler.getObjectClassInfo(CarLocation.class);
+        Bundle second = Bundler.toBundle(location);
+
+        assertThat(Bundler.getObjectClassInfo(CarLocation.class)).isSameInstanceAs(classInfo);
+        assertThat(second.keySet()).isEqualTo(first.keySet());
+        assertThat(Bundler.fromBundle(first)).isEqualTo(location);
+        assertThat(Bundler.fromBundle(second)).isEqualTo(location);
+    }
+
     //TODO(rampara): Investigate why default constructor is still found when running with
     // robolectric.
 //    @Test
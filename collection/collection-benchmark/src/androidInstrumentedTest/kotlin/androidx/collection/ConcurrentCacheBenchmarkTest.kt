@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import kotlin.random.Random
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import org.junit.runners.Parameterized.Parameters
+
+/**
+ * Measures the throughput of a cache shared by multiple threads, each reading a skewed
+ * distribution of keys and creating the missing values.
+ */
+@RunWith(Parameterized::class)
+class ConcurrentCacheBenchmarkTest(private val cacheType: String, private val threads: Int) {
+    private val executor: ExecutorService = Executors.newFixedThreadPool(threads)
+    private val keys = Array(threads) { thread -> createSkewedKeyList(thread) }
+
+    @get:Rule val benchmark = BenchmarkRule()
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun readMostly() {
+        val cache = createCache()
+        benchmark.measureRepeated {
+            val done = CountDownLatch(threads)
+            for (thread in 0 until threads) {
+                val threadKeys = keys[thread]
+                executor.execute {
+                    for (key in threadKeys) {
+                        cache(key)
+                    }
+                    done.countDown()
+                }
+            }
+            done.await()
+        }
+    }
+
+    private fun createCache(): (Int) -> String? =
+        when (cacheType) {
+            "LruCache" -> {
+                val cache = lruCache<Int, String>(CacheSize, create = { key -> "value of $key" })
+                cache::get
+            }
+            "ConcurrentSieveCache" -> {
+                val cache =
+                    ConcurrentSieveCache<Int, String>(
+                        CacheSize,
+                        createValueFromKey = { key -> "value of $key" }
+                    )
+                cache::get
+            }
+            else -> throw IllegalArgumentException("Unknown cache type $cacheType")
+        }
+
+    companion object {
+        private const val CacheSize = 1000
+        private const val KeySpace = 10 * CacheSize
+        private const val ReadsPerThread = 2000
+
+        // Most reads target a small set of hot keys, the remaining ones cause misses and evictions
+        private fun createSkewedKeyList(seed: Int): IntArray {
+            val random = Random(seed)
+            return IntArray(ReadsPerThread) {
+                val x = random.nextDouble()
+                (x * x * x * KeySpace).toInt()
+            }
+        }
+
+        @JvmStatic
+        @Parameters(name = "cache={0},threads={1}")
+        fun parameters() =
+            buildParameters<Any>(
+                listOf("LruCache", "ConcurrentSieveCache"),
+                listOf(1, 2, 4, 8, 16, 32),
+            )
+    }
+}
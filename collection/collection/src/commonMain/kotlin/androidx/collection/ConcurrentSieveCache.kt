@@ -0,0 +1,418 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+@file:Suppress("KotlinRedundantDiagnosticSuppress", "NOTHING_TO_INLINE")
+
+package androidx.collection
+
+import androidx.annotation.IntRange
+import androidx.collection.internal.Lock
+import androidx.collection.internal.requirePrecondition
+import androidx.collection.internal.synchronized
+import kotlin.js.JsName
+
+private const val MaxSize = Int.MAX_VALUE.toLong() - 1
+private const val MaxConcurrencyLevel = 64L
+private const val DefaultConcurrencyLevel = 16
+
+// The segment index is taken from the top-most bits of the hash, which are only used for
+// probing by very large segments
+private const val SegmentShift = 26
+
+/**
+ * [ConcurrentSieveCache] is a thread-safe in-memory cache that holds strong references to a
+ * limited number of values determined by the cache's [maxSize] and the size of each value. Like
+ * [SieveCache], values are evicted using the
+ * [SIEVE algorithm](https://cachemon.github.io/SIEVE-website/) when a value is added to a full
+ * cache.
+ *
+ * To let multiple threads access the cache concurrently, the entries are spread over a fixed
+ * number of segments, selected from the hash code of their keys. Each segment is a [SieveCache]
+ * guarded by its own lock, and holds at most its share of [maxSize]. Threads accessing keys that
+ * belong to different segments never contend with each other. Contrary to [LruCache], reading a
+ * value only marks the entry as visited and never re-orders entries, which keeps the time spent
+ * holding a segment lock to a minimum.
+ *
+ * Because each segment is trimmed independently, eviction is only approximately global: a value
+ * may be evicted from a full segment while other segments still have room. Using more segments
+ * reduces contention but increases this effect, in particular for small values of [maxSize].
+ *
+ * By default, the size of the cache is measured in number of entries. The caller can choose the
+ * size and size unit of the values by passing their own [sizeOf] lambda, invoked whenever the cache
+ * needs to query the size of a value.
+ *
+ * The [createValueFromKey] lambda can be used to compute values on demand from a key when querying
+ * for an entry that does not exist in the cache. It is invoked without holding any lock.
+ *
+ * When a cached value is removed, either directly by the caller or via the eviction mechanism,
+ * [onEntryRemoved] is invoked once the segment lock has been released: other threads may access
+ * the cache while this lambda is executing, and the lambda may safely access the cache.
+ *
+ * @param maxSize For caches that do not override [sizeOf], this is the maximum number of entries in
+ *   the cache. For all other caches, this is the maximum sum of the sizes of the entries in this
+ *   cache. The maximum size must be strictly greater than 0 and must be less than or equal to
+ *   `Int.MAX_VALUE - 1`.
+ * @param concurrencyLevel The desired number of segments. The actual number of segments is
+ *   rounded up to the next power of two, but never exceeds [maxSize]. The concurrency level must
+ *   be between 1 and 64.
+ * @param sizeOf Returns the size of the entry for the specified key and value. The size of an entry
+ *   cannot change after it was added to the cache, and must be >= 0.
+ * @param createValueFromKey Called after a cache miss to compute a value for the specified key.
+ *   Returning null from this lambda indicates that no value can be computed. If a value for the key
+ *   was added to the cache while this lambda was executing, the created value is discarded and
+ *   released with [onEntryRemoved].
+ * @param onEntryRemoved Called for entries that have been removed by the user of the cache, or
+ *   automatically evicted. The lambda is supplied with multiple parameters. The `key` of the entry
+ *   being removed or evicted. The original value (`oldValue`) of the entry if the entry is being
+ *   evicted or replaced. The new value (`newValue`) for the key, if it exists. If non-null, the
+ *   removal was caused by a `put()` or a `set()`, otherwise it was caused by an eviction or a
+ *   removal. A boolean (`evicted`) set to `true` if the entry was evicted to make space in the
+ *   cache, or set to `false` if the removal happened on demand or while replacing an existing value
+ *   with [put].
+ * @constructor Creates a new [ConcurrentSieveCache].
+ */
+public class ConcurrentSieveCache<K : Any, V : Any>
+public constructor(
+    @IntRange(from = 1, to = MaxSize) maxSize: Int,
+    @IntRange(from = 1, to = MaxConcurrencyLevel) concurrencyLevel: Int = DefaultConcurrencyLevel,
+    private val sizeOf: (key: K, value: V) -> Int = { _, _ -> 1 },
+    private val createValueFromKey: (key: K) -> V? = { null },
+    private val onEntryRemoved: (key: K, oldValue: V, newValue: V?, evicted: Boolean) -> Unit =
+        { _, _, _, _ ->
+        }
+) {
+    private val segments: Array<Segment<K, V>>
+    private val segmentMask: Int
+
+    private val maxSizeLock = Lock()
+    private var _maxSize: Int = maxSize
+
+    init {
+        requirePrecondition(maxSize > 0) { "maxSize must be > 0" }
+        requirePrecondition(concurrencyLevel in 1..MaxConcurrencyLevel) {
+            "concurrencyLevel must be between 1 and $MaxConcurrencyLevel"
+        }
+
+        var segmentCount = 1
+        while (segmentCount < concurrencyLevel) segmentCount = segmentCount shl 1
+        while (segmentCount > maxSize) segmentCount = segmentCount shr 1
+
+        segmentMask = segmentCount - 1
+        segments =
+            Array(segmentCount) { index ->
+                Segment(segmentMaxSize(maxSize, segmentCount, index), sizeOf)
+            }
+    }
+
+    /**
+     * Size of the cache in the unit defined by the implementation of [sizeOf] (by default, the
+     * number of elements). The returned value is a sum of the sizes of all segments, and may not
+     * reflect concurrent modifications.
+     *
+     * @see maxSize
+     */
+    public val size: Int
+        get() = sumOfSegments { cache.size }
+
+    /**
+     * Return the maximum size of the cache before adding new elements causes existing elements to
+     * be evicted. The unit of [maxSize] is defined by the implementation of [sizeOf]. Using the
+     * default implementation of [sizeOf], [maxSize] indicates the a maximum number of elements.
+     *
+     * @see size
+     */
+    public val maxSize: Int
+        get() = maxSizeLock.synchronized { _maxSize }
+
+    /**
+     * Returns the number of elements held in the cache. The returned value is a sum of the number
+     * of elements of all segments, and may not reflect concurrent modifications.
+     */
+    @JsName("jsCount")
+    public val count: Int
+        get() = sumOfSegments { cache.count }
+
+    /** Returns the number of segments the entries of this cache are spread over. */
+    public val segmentCount: Int
+        get() = segments.size
+
+    /** Indicates whether this cache is empty. */
+    public fun isEmpty(): Boolean = count == 0
+
+    /** Returns `true` if this cache is not empty. */
+    public fun isNotEmpty(): Boolean = count != 0
+
+    /**
+     * Returns the value for [key] if it exists in the cache or can be created by
+     * [createValueFromKey]. Return null if a value is not present in the cache and cannot be
+     * created.
+     */
+    public operator fun get(key: K): V? {
+        val segment = segmentFor(key)
+        val cachedValue =
+            segment.withLock {
+                val value = cache[key]
+                if (value != null) hitCount++ else missCount++
+                value
+            }
+        if (cachedValue != null) return cachedValue
+
+        // The value is created without holding the segment lock, other threads may have added a
+        // value for the same key in the meantime
+        val createdValue = createValueFromKey(key) ?: return null
+        val previousValue =
+            segment.withLock {
+                createCount++
+                val value = cache[key]
+                if (value == null) cache[key] = createdValue
+                value
+            }
+
+        if (previousValue != null) {
+            // There was a conflict, keep the existing value and release the created one
+            onEntryRemoved(key, createdValue, previousValue, false)
+            return previousValue
+        }
+        return createdValue
+    }
+
+    /**
+     * Adds [value] to the cache using the specific [key]. See [put] for more details about the
+     * behavior of the insertion.
+     */
+    public inline operator fun set(key: K, value: V) {
+        put(key, value)
+    }
+
+    /**
+     * Adds [value] to the cache using the specific [key]. If [key] is already present in the cache,
+     * the association is modified and the previously associated value is replaced with [value]. If
+     * an existing value is replaced, [onEntryRemoved] will be invoked with the `evicted` parameter
+     * set to `false`.
+     *
+     * When [value] is added to the cache, [sizeOf] is invoked to query its size. If the total size
+     * of the segment that holds [key], including the new value's size, is greater than the
+     * segment's share of [maxSize], existing entries of that segment will be evicted. On each
+     * removal due to an eviction, [onEntryRemoved] will be invoked with the `evicted` parameter set
+     * to `true`.
+     *
+     * Return the previous value associated with the [key], or `null` if the key was not present in
+     * the cache.
+     */
+    public fun put(key: K, value: V): V? =
+        segmentFor(key).withLock {
+            putCount++
+            cache.put(key, value)
+        }
+
+    /**
+     * Removes the specified [key] and its associated value from the cache. If the [key] was present
+     * in the cache, this function returns the value that was present before removal, otherwise it
+     * returns `null`. On successful removal, [onEntryRemoved] will be invoked with the `evicted`
+     * parameter set to `false`.
+     */
+    public fun remove(key: K): V? = segmentFor(key).withLock { cache.remove(key) }
+
+    /**
+     * Removes the specified [key] and its associated value from the cache if the associated value
+     * equals [value]. Returns true if the entry was removed. On successful removal,
+     * [onEntryRemoved] will be invoked with the `evicted` parameter set to `false`.
+     */
+    public fun remove(key: K, value: V): Boolean =
+        segmentFor(key).withLock { cache.remove(key, value) }
+
+    /**
+     * Returns true if the specified [key] is present in the cache. Contrary to [get], this function
+     * does not mark the entry as visited.
+     */
+    public operator fun contains(key: K): Boolean = containsKey(key)
+
+    /**
+     * Returns true if the specified [key] is present in the cache. Contrary to [get], this function
+     * does not mark the entry as visited.
+     */
+    public fun containsKey(key: K): Boolean = segmentFor(key).withLock { cache.containsKey(key) }
+
+    /**
+     * Removes all the entries from this cache. Upon each removal, [onEntryRemoved] is invoked with
+     * the `evicted` parameter set to `true`.
+     */
+    public fun evictAll() {
+        for (segment in segments) {
+            segment.withLock { cache.evictAll() }
+        }
+    }
+
+    /**
+     * Sets the maximum size of the cache to [maxSize], in the unit defined by the implementation of
+     * [sizeOf]. The size must be strictly greater than 0. The number of segments does not change,
+     * and each segment is resized to its share of [maxSize]. If the current total size of the
+     * entries of a segment is greater than its new maximum size, entries will be removed until the
+     * total size is less than or equal to that maximum size. Upon each removal, [onEntryRemoved] is
+     * invoked with the `evicted` parameter set to `true`.
+     */
+    public fun resize(@IntRange(from = 1, to = MaxSize) maxSize: Int) {
+        requirePrecondition(maxSize > 0) { "maxSize must be > 0" }
+        maxSizeLock.synchronized { _maxSize = maxSize }
+        for (index in segments.indices) {
+            val segmentMaxSize = segmentMaxSize(maxSize, segments.size, index)
+            segments[index].withLock { cache.resize(segmentMaxSize) }
+        }
+    }
+
+    /**
+     * Remove entries until the total size of the remaining entries of each segment is less than or
+     * equal to that segment's share of [maxSize]. The size of the entries is defined by the
+     * implementation of [sizeOf]. Upon each removal, [onEntryRemoved] is invoked with the `evicted`
+     * parameter set to `true`.
+     *
+     * If [maxSize] is set to -1 (or any negative value), all entries are removed.
+     */
+    public fun trimToSize(maxSize: Int) {
+        for (index in segments.indices) {
+            val segmentMaxSize =
+                if (maxSize < 0) -1 else segmentMaxSize(maxSize, segments.size, index)
+            segments[index].withLock { cache.trimToSize(segmentMaxSize) }
+        }
+    }
+
+    /**
+     * Returns a copy of the current content of the cache. The segments are copied one after the
+     * other, and the returned map may therefore not reflect concurrent modifications.
+     *
+     * **NOTE**: Taking a snapshot of the cache does *not* mark entries as recently visited, and
+     * therefore does not affect which entries get evicted first.
+     */
+    public fun snapshot(): ScatterMap<K, V> {
+        val snapshot = MutableScatterMap<K, V>()
+        for (segment in segments) {
+            segment.withLock { cache.forEach { key, value -> snapshot[key] = value } }
+        }
+        return snapshot
+    }
+
+    /** Returns the number of times [get] returned a value that was already present in the cache. */
+    public fun hitCount(): Int = sumOfSegments { hitCount }
+
+    /** Returns the number of times [get] returned null or required a new value to be created. */
+    public fun missCount(): Int = sumOfSegments { missCount }
+
+    /** Returns the number of times [createValueFromKey] returned a value. */
+    public fun createCount(): Int = sumOfSegments { createCount }
+
+    /** Returns the number of times [put] was called. */
+    public fun putCount(): Int = sumOfSegments { putCount }
+
+    /** Returns the number of values that have been evicted. */
+    public fun evictionCount(): Int = sumOfSegments { evictionCount }
+
+    override fun toString(): String {
+        val hitCount = hitCount()
+        val accesses = hitCount + missCount()
+        val hitPercent = if (accesses != 0) 100 * hitCount / accesses else 0
+        return "ConcurrentSieveCache[maxSize=$maxSize,segments=${segments.size}," +
+            "hits=$hitCount,misses=${accesses - hitCount},hitRate=$hitPercent%]"
+    }
+
+    private inline fun segmentFor(key: K): Segment<K, V> =
+        segments[(hash(key) ushr SegmentShift) and segmentMask]
+
+    private fun segmentMaxSize(maxSize: Int, segmentCount: Int, index: Int): Int {
+        val share = maxSize / segmentCount
+        // Spread the remainder over the first segments so that the shares add up to maxSize
+        return if (index < maxSize - share * segmentCount) share + 1 else share
+    }
+
+    private inline fun sumOfSegments(block: Segment<K, V>.() -> Int): Int {
+        var sum = 0
+        for (segment in segments) {
+            sum += segment.lock.synchronized { segment.block() }
+        }
+        return sum
+    }
+
+    /**
+     * Runs [block] while holding the lock of this segment, then invokes [onEntryRemoved] for every
+     * entry that [block] removed from the segment, once the lock has been released.
+     */
+    private inline fun <R> Segment<K, V>.withLock(block: Segment<K, V>.() -> R): R {
+        var removals: ObjectList<Any?>? = null
+        val result =
+            lock.synchronized {
+                val result = block()
+                removals = takeRemovals()
+                result
+            }
+        removals?.let { dispatchRemovals(it) }
+        return result
+    }
+
+    private fun dispatchRemovals(removals: ObjectList<Any?>) {
+        var index = 0
+        while (index < removals.size) {
+            @Suppress("UNCHECKED_CAST")
+            onEntryRemoved(
+                removals[index] as K,
+                removals[index + 1] as V,
+                removals[index + 2] as V?,
+                removals[index + 3] as Boolean
+            )
+            index += RemovalStride
+        }
+    }
+}
+
+// Number of slots used by a pending removal: key, old value, new value and evicted flag
+private const val RemovalStride = 4
+
+/**
+ * A segment of a [ConcurrentSieveCache]. All the fields of a segment must only be accessed while
+ * holding its [lock].
+ */
+private class Segment<K : Any, V : Any>(maxSize: Int, sizeOf: (key: K, value: V) -> Int) {
+    val lock = Lock()
+
+    var hitCount = 0
+    var missCount = 0
+    var createCount = 0
+    var putCount = 0
+    var evictionCount = 0
+
+    // Removals are recorded while the lock is held, and dispatched after releasing it
+    private var removals: MutableObjectList<Any?>? = null
+
+    val cache: SieveCache<K, V> =
+        SieveCache(
+            maxSize = maxSize,
+            initialCapacity = 0,
+            sizeOf = sizeOf,
+            onEntryRemoved = { key, oldValue, newValue, evicted ->
+                if (evicted) evictionCount++
+                val pending =
+                    removals ?: MutableObjectList<Any?>(RemovalStride).also { removals = it }
+                pending.add(key)
+                pending.add(oldValue)
+                pending.add(newValue)
+                pending.add(evicted)
+            }
+        )
+
+    fun takeRemovals(): ObjectList<Any?>? {
+        val pending = removals
+        removals = null
+        return pending
+    }
+}
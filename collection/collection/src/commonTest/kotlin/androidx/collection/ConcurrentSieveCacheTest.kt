@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class ConcurrentSieveCacheTest {
+    @Test
+    fun sizeMustBeGreaterThan0() {
+        assertFailsWith<IllegalArgumentException> { ConcurrentSieveCache<String, String>(-1) }
+        assertFailsWith<IllegalArgumentException> { ConcurrentSieveCache<String, String>(0) }
+    }
+
+    @Test
+    fun concurrencyLevelMustBeInRange() {
+        assertFailsWith<IllegalArgumentException> { ConcurrentSieveCache<String, String>(10, 0) }
+        assertFailsWith<IllegalArgumentException> { ConcurrentSieveCache<String, String>(10, 65) }
+    }
+
+    @Test
+    fun segmentCount() {
+        assertEquals(16, ConcurrentSieveCache<String, String>(100).segmentCount)
+        assertEquals(8, ConcurrentSieveCache<String, String>(100, 5).segmentCount)
+        assertEquals(1, ConcurrentSieveCache<String, String>(100, 1).segmentCount)
+        // Every segment must be able to hold at least one entry
+        assertEquals(2, ConcurrentSieveCache<String, String>(3, 16).segmentCount)
+    }
+
+    @Test
+    fun emptyCache() {
+        val cache = ConcurrentSieveCache<String, String>(4)
+        assertEquals(0, cache.size)
+        assertEquals(4, cache.maxSize)
+        assertEquals(0, cache.count)
+        assertTrue(cache.isEmpty())
+    }
+
+    @Test
+    fun addEntry() {
+        val cache = ConcurrentSieveCache<String, String>(16)
+        cache["Hello"] = "World"
+
+        assertEquals(1, cache.size)
+        assertEquals(1, cache.count)
+        assertTrue(cache.isNotEmpty())
+        assertEquals("World", cache["Hello"])
+        assertTrue("Hello" in cache)
+        assertEquals(1, cache.putCount())
+        assertEquals(1, cache.hitCount())
+    }
+
+    @Test
+    fun replaceEntry() {
+        val removed = mutableListOf<String>()
+        val cache =
+            ConcurrentSieveCache<String, String>(
+                16,
+                onEntryRemoved = { key, oldValue, newValue, evicted ->
+                    removed += "$key=$oldValue>$newValue:$evicted"
+                }
+            )
+        assertNull(cache.put("Hello", "World"))
+        assertEquals("World", cache.put("Hello", "Monde"))
+
+        assertEquals("Monde", cache["Hello"])
+        assertEquals(listOf("Hello=World>Monde:false"), removed)
+    }
+
+    @Test
+    fun removeEntry() {
+        val removed = mutableListOf<String>()
+        val cache =
+            ConcurrentSieveCache<String, String>(
+                16,
+                onEntryRemoved = { key, oldValue, _, evicted ->
+                    removed += "$key=$oldValue:$evicted"
+                }
+            )
+        cache["Hello"] = "World"
+        cache["Bonjour"] = "Monde"
+
+        assertEquals("World", cache.remove("Hello"))
+        assertNull(cache.remove("Hello"))
+        assertFalse(cache.remove("Bonjour", "World"))
+        assertTrue(cache.remove("Bonjour", "Monde"))
+
+        assertEquals(0, cache.count)
+        assertEquals(listOf("Hello=World:false", "Bonjour=Monde:false"), removed)
+    }
+
+    @Test
+    fun createValueFromKey() {
+        val cache = ConcurrentSieveCache<String, String>(16, createValueFromKey = { "$it-value" })
+
+        assertEquals("Hello-value", cache["Hello"])
+        assertEquals("Hello-value", cache["Hello"])
+        assertEquals(1, cache.count)
+        assertEquals(1, cache.createCount())
+        assertEquals(1, cache.missCount())
+        assertEquals(1, cache.hitCount())
+    }
+
+    @Test
+    fun missingValue() {
+        val cache = ConcurrentSieveCache<String, String>(16)
+
+        assertNull(cache["Hello"])
+        assertEquals(0, cache.count)
+        assertEquals(0, cache.createCount())
+        assertEquals(1, cache.missCount())
+    }
+
+    @Test
+    fun evictionStaysWithinMaxSize() {
+        val evicted = mutableListOf<Int>()
+        val cache =
+            ConcurrentSieveCache<Int, Int>(
+                16,
+                4,
+                onEntryRemoved = { key, _, _, wasEvicted -> if (wasEvicted) evicted += key }
+            )
+        for (i in 0 until 100) {
+            cache[i] = i
+        }
+
+        assertTrue(cache.size <= 16)
+        assertEquals(100 - cache.count, evicted.size)
+        assertEquals(evicted.size, cache.evictionCount())
+        for (key in evicted) {
+            assertFalse(key in cache)
+        }
+    }
+
+    @Test
+    fun customSize() {
+        val cache =
+            ConcurrentSieveCache<String, String>(10, 1, sizeOf = { _, value -> value.length })
+        cache["a"] = "12345"
+        cache["b"] = "1234"
+        assertEquals(9, cache.size)
+
+        cache["c"] = "12"
+        assertTrue(cache.size <= 10)
+        assertEquals(1, cache.evictionCount())
+    }
+
+    @Test
+    fun visitedEntriesSurviveEviction() {
+        val cache = ConcurrentSieveCache<Int, Int>(4, 1)
+        for (i in 0 until 4) {
+            cache[i] = i
+        }
+        // Mark the oldest entry as visited, the next eviction must pick another entry
+        assertEquals(0, cache[0])
+        cache[4] = 4
+
+        assertTrue(0 in cache)
+        assertFalse(1 in cache)
+    }
+
+    @Test
+    fun evictAll() {
+        var evictions = 0
+        val cache =
+            ConcurrentSieveCache<Int, Int>(
+                32,
+                onEntryRemoved = { _, _, _, evicted -> if (evicted) evictions++ }
+            )
+        for (i in 0 until 20) {
+            cache[i] = i
+        }
+        val count = cache.count
+        cache.evictAll()
+
+        assertEquals(0, cache.count)
+        assertEquals(0, cache.size)
+        assertEquals(count, evictions)
+    }
+
+    @Test
+    fun resize() {
+        val cache = ConcurrentSieveCache<Int, Int>(64, 4)
+        for (i in 0 until 64) {
+            cache[i] = i
+        }
+        cache.resize(8)
+
+        assertEquals(8, cache.maxSize)
+        assertTrue(cache.size <= 8)
+        assertEquals(4, cache.segmentCount)
+    }
+
+    @Test
+    fun trimToSize() {
+        val cache = ConcurrentSieveCache<Int, Int>(64, 4)
+        for (i in 0 until 64) {
+            cache[i] = i
+        }
+        cache.trimToSize(8)
+        assertTrue(cache.size <= 8)
+        assertEquals(64, cache.maxSize)
+
+        cache.trimToSize(-1)
+        assertEquals(0, cache.count)
+    }
+
+    @Test
+    fun snapshot() {
+        val cache = ConcurrentSieveCache<Int, String>(64)
+        for (i in 0 until 10) {
+            cache[i] = i.toString()
+        }
+        val snapshot = cache.snapshot()
+        cache.evictAll()
+
+        assertEquals(10, snapshot.size)
+        for (i in 0 until 10) {
+            assertEquals(i.toString(), snapshot[i])
+        }
+    }
+
+    @Test
+    fun onEntryRemovedCanAccessCache() {
+        lateinit var cache: ConcurrentSieveCache<Int, Int>
+        cache =
+            ConcurrentSieveCache(
+                1,
+                1,
+                onEntryRemoved = { key, oldValue, _, evicted ->
+                    // Calling back into the cache must not deadlock
+                    if (evicted) assertFalse(key in cache)
+                    assertTrue(oldValue >= 0)
+                }
+            )
+        cache[0] = 0
+        cache[1] = 1
+
+        assertEquals(1, cache.count)
+        assertEquals(1, cache[1])
+    }
+
+    @Test
+    fun toStringReportsHitRate() {
+        val cache = ConcurrentSieveCache<Int, Int>(4, 1)
+        cache[0] = 0
+        cache[0]
+        cache[1]
+
+        assertEquals(
+            "ConcurrentSieveCache[maxSize=4,segments=1,hits=1,misses=1,hitRate=50%]",
+            cache.toString()
+        )
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+internal class ConcurrentSieveCacheJvmTest {
+    @Test
+    fun concurrentAccess() {
+        val maxSize = 256
+        val created = AtomicInteger()
+        val released = AtomicInteger()
+        val cache =
+            ConcurrentSieveCache<Int, String>(
+                maxSize,
+                createValueFromKey = { key ->
+                    created.incrementAndGet()
+                    "value of $key"
+                },
+                onEntryRemoved = { _, _, _, _ -> released.incrementAndGet() }
+            )
+
+        val threads = 8
+        val executor = Executors.newFixedThreadPool(threads)
+        val done = CountDownLatch(threads)
+        repeat(threads) { thread ->
+            executor.execute {
+                for (i in 0 until 10_000) {
+                    val key = (i * 31 + thread) % 1024
+                    assertEquals("value of $key", cache[key])
+                }
+                done.countDown()
+            }
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS))
+        executor.shutdown()
+
+        assertTrue(cache.size <= maxSize)
+        assertEquals(created.get(), cache.createCount())
+        assertEquals(threads * 10_000, cache.hitCount() + cache.missCount())
+        // Every created value is either still in the cache or was released exactly once
+        assertEquals(created.get() - released.get(), cache.count)
+    }
+}
@@ -1468,7 +1468,7 @@ internal abstract class EditableJSONLayout(@Language("json5") content: String) :
     protected open fun onNewContent(content: String) {
         currentContent = content
         try {
-            val json = CLParser.parse(currentContent)
+            val json = CLParser.parseCached(currentContent)
             if (json is CLObject) {
                 val firstTime = debugName == null
                 if (firstTime) {
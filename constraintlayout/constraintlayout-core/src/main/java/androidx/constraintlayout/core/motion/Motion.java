@@ -32,6 +32,7 @@ import androidx.constraintlayout.core.motion.utils.KeyCache;
 import androidx.constraintlayout.core.motion.utils.KeyCycleOscillator;
 import androidx.constraintlayout.core.motion.utils.KeyFrameArray;
 import androidx.constraintlayout.core.motion.utils.Rect;
+import androidx.constraintlayout.core.motion.utils.SampledCurveFit;
 import androidx.constraintlayout.core.motion.utils.SplineSet;
 import androidx.constraintlayout.core.motion.utils.TimeCycleSplineSet;
 import androidx.constraintlayout.core.motion.utils.TypedBundle;
@@ -1002,6 +1003,33 @@ public class Motion implements TypedValues {
         //--------------------------- end cycle support ----------------
     }
 
+    /**
+     * Replaces the curves computed by {@link #setup(int, int, float, long)} with lookup tables
+     * sampled from them, which are cheaper to evaluate on every frame.
+     * Cycles are still evaluated exactly.
+     *
+     * @param tolerance the maximum difference between the sampled and the original positions
+     * @see SampledCurveFit
+     */
+    public void sampleCurves(double tolerance) {
+        if (mSpline != null) {
+            mSpline[0] = SampledCurveFit.sample(mSpline[0], mInterpolateVariables.length,
+                    tolerance);
+            for (int i = 1; i < mSpline.length; i++) {
+                mSpline[i] = SampledCurveFit.sample(mSpline[i],
+                        mAttributeInterpolatorCount[i - 1], tolerance);
+            }
+        }
+        if (mArcSpline != null) {
+            mArcSpline = SampledCurveFit.sample(mArcSpline, 2, tolerance);
+        }
+        if (mAttributesMap != null) {
+            for (SplineSet splineSet : mAttributesMap.values()) {
+                splineSet.sampleCurve(tolerance);
+            }
+        }
+    }
+
     /**
      * Debug string
      */
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.constraintlayout.core.motion.utils;
+
+/**
+ * A curve fit which samples another curve fit into lookup tables, and linearly interpolates
+ * between the samples.
+ *
+ * The curve is sampled uniformly between 0 and 1, with as many samples as needed for the
+ * interpolated positions to be within a tolerance of the sampled curve, up to
+ * {@link #MAX_SAMPLES}. Positions and slopes outside of 0 to 1, and in the intervals containing
+ * a time point of the original curve fit, where it may not be smooth, are computed by the
+ * original curve fit.
+ */
+public class SampledCurveFit extends CurveFit {
+    /**
+     * The minimum number of intervals the curve is sampled with
+     */
+    public static final int MIN_SAMPLES = 16;
+    /**
+     * The maximum number of intervals the curve is sampled with
+     */
+    public static final int MAX_SAMPLES = 4096;
+
+    private final CurveFit mCurveFit;
+    private final int mDimension;
+    private final int mSamples;
+    private final double[] mPositions;
+    private final double[] mSlopes;
+    private final boolean[] mExact;
+
+    private SampledCurveFit(CurveFit curveFit, int dimension, int samples,
+            double[] positions, double[] slopes, boolean[] exact) {
+        mCurveFit = curveFit;
+        mDimension = dimension;
+        mSamples = samples;
+        mPositions = positions;
+        mSlopes = slopes;
+        mExact = exact;
+    }
+
+    /**
+     * Samples the given curve fit.
+     *
+     * @param curveFit  the curve fit to sample
+     * @param dimension the number of values of the curve fit
+     * @param tolerance the maximum difference between a sampled position and the position of
+     *                  the curve fit, checked in the middle of each interval
+     * @return the sampled curve fit, or the curve fit itself if it is already sampled
+     */
+    public static CurveFit sample(CurveFit curveFit, int dimension, double tolerance) {
+        if (curveFit instanceof SampledCurveFit || curveFit instanceof Constant) {
+            return curveFit;
+        }
+        double[] values = new double[dimension];
+        int samples = MIN_SAMPLES;
+        double[] positions = samplePositions(curveFit, dimension, samples, values);
+        boolean[] exact = exactIntervals(curveFit, samples);
+        while (samples < MAX_SAMPLES
+                && !isWithinTolerance(curveFit, dimension, samples, positions, exact, values,
+                tolerance)) {
+            samples *= 2;
+            positions = samplePositions(curveFit, dimension, samples, values);
+            exact = exactIntervals(curveFit, samples);
+        }
+        double[] slopes = new double[(samples + 1) * dimension];
+        for (int i = 0; i <= samples; i++) {
+            curveFit.getSlope(i / (double) samples, values);
+            System.arraycopy(values, 0, slopes, i * dimension, dimension);
+        }
+        return new SampledCurveFit(curveFit, dimension, samples, positions, slopes, exact);
+    }
+
+    private static boolean[] exactIntervals(CurveFit curveFit, int samples) {
+        boolean[] exact = new boolean[samples];
+        for (double time : curveFit.getTimePoints()) {
+            if (time <= 0 || time >= 1) {
+                continue;
+            }
+            double x = time * samples;
+            int index = (int) x;
+            exact[index] = true;
+            if (index == x) {
+                exact[index - 1] = true;
+            }
+        }
+        return exact;
+    }
+
+    private static double[] samplePositions(CurveFit curveFit, int dimension, int samples,
+            double[] values) {
+        double[] positions = new double[(samples + 1) * dimension];
+        for (int i = 0; i <= samples; i++) {
+            curveFit.getPos(i / (double) samples, values);
+            System.arraycopy(values, 0, positions, i * dimension, dimension);
+        }
+        return positions;
+    }
+
+    private static boolean isWithinTolerance(CurveFit curveFit, int dimension, int samples,
+            double[] positions, boolean[] exact, double[] values, double tolerance) {
+        for (int i = 0; i < samples; i++) {
+            if (exact[i]) {
+                continue;
+            }
+            curveFit.getPos((i + 0.5) / samples, values);
+            int offset = i * dimension;
+            for (int j = 0; j < dimension; j++) {
+                double sampled = (positions[offset + j] + positions[offset + dimension + j]) / 2;
+                if (Math.abs(sampled - values[j]) > tolerance) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of intervals the curve was sampled with
+     */
+    public int getSampleCount() {
+        return mSamples;
+    }
+
+    @Override
+    public void getPos(double t, double[] v) {
+        int index = indexOf(t);
+        if (index < 0) {
+            mCurveFit.getPos(t, v);
+            return;
+        }
+        double fraction = t * mSamples - index;
+        int offset = index * mDimension;
+        double[] positions = mPositions;
+        for (int j = 0; j < mDimension; j++) {
+            double start = positions[offset + j];
+            v[j] = start + (positions[offset + mDimension + j] - start) * fraction;
+        }
+    }
+
+    @Override
+    public void getPos(double t, float[] v) {
+        int index = indexOf(t);
+        if (index < 0) {
+            mCurveFit.getPos(t, v);
+            return;
+        }
+        double fraction = t * mSamples - index;
+        int offset = index * mDimension;
+        double[] positions = mPositions;
+        for (int j = 0; j < mDimension; j++) {
+            double start = positions[offset + j];
+            v[j] = (float) (start + (positions[offset + mDimension + j] - start) * fraction);
+        }
+    }
+
+    @Override
+    public double getPos(double t, int j) {
+        int index = indexOf(t);
+        if (index < 0) {
+            return mCurveFit.getPos(t, j);
+        }
+        return interpolate(mPositions, t, index, j);
+    }
+
+    @Override
+    public void getSlope(double t, double[] v) {
+        int index = indexOf(t);
+        if (index < 0) {
+            mCurveFit.getSlope(t, v);
+            return;
+        }
+        double fraction = t * mSamples - index;
+        int offset = index * mDimension;
+        double[] slopes = mSlopes;
+        for (int j = 0; j < mDimension; j++) {
+            double start = slopes[offset + j];
+            v[j] = start + (slopes[offset + mDimension + j] - start) * fraction;
+        }
+    }
+
+    @Override
+    public double getSlope(double t, int j) {
+        int index = indexOf(t);
+        if (index < 0) {
+            return mCurveFit.getSlope(t, j);
+        }
+        return interpolate(mSlopes, t, index, j);
+    }
+
+    @Override
+    public double[] getTimePoints() {
+        return mCurveFit.getTimePoints();
+    }
+
+    /**
+     * @return the index of the interval containing t, or -1 if the original curve fit must be
+     * used
+     */
+    private int indexOf(double t) {
+        if (t < 0 || t > 1) {
+            return -1;
+        }
+        int index = Math.min((int) (t * mSamples), mSamples - 1);
+        return mExact[index] ? -1 : index;
+    }
+
+    private double interpolate(double[] table, double t, int index, int j) {
+        double start = table[index * mDimension + j];
+        double end = table[(index + 1) * mDimension + j];
+        return start + (end - start) * (t * mSamples - index);
+    }
+}
@@ -72,6 +72,22 @@ public abstract class SplineSet {
         return mCurveFit;
     }
 
+    /**
+     * Replaces the curve fit, once set up, with lookup tables sampled from it.
+     *
+     * @param tolerance the maximum difference between the sampled and the original positions
+     * @see SampledCurveFit
+     */
+    public void sampleCurve(double tolerance) {
+        if (mCurveFit != null) {
+            mCurveFit = SampledCurveFit.sample(mCurveFit, getCurveDimension(), tolerance);
+        }
+    }
+
+    int getCurveDimension() {
+        return 1;
+    }
+
     // @TODO: add description
     public void setPoint(int position, float value) {
         if (mTimePoints.length < mCount + 1) {
@@ -208,6 +224,11 @@ public abstract class SplineSet {
             mCurveFit = CurveFit.get(curveType, time, values);
         }
 
+        @Override
+        int getCurveDimension() {
+            return mTempValues.length;
+        }
+
         // @TODO: add description
         @Override
         public void setPoint(int position, float value) {
@@ -278,6 +299,11 @@ public abstract class SplineSet {
             mCurveFit = CurveFit.get(curveType, time, values);
         }
 
+        @Override
+        int getCurveDimension() {
+            return mTempValues.length;
+        }
+
         // @TODO: add description
         @Override
         public void setPoint(int position, float value) {
@@ -99,8 +99,7 @@ public class CLElement implements Cloneable {
         if (mStart > mEnd || mEnd == Long.MAX_VALUE) {
             return this.getClass() + " (INVALID, " + mStart + "-" + mEnd + ")";
         }
-        String content = new String(mContent);
-        content = content.substring((int) mStart, (int) mEnd + 1);
+        String content = new String(mContent, (int) mStart, (int) (mEnd - mStart + 1));
 
         return getStrClass() + " (" + mStart + " : " + mEnd + ") <<" + content + ">>";
     }
@@ -119,15 +118,40 @@ public class CLElement implements Cloneable {
 
     // @TODO: add description
     public String content() {
-        String content = new String(mContent);
         // Handle empty string
-        if (content.length() < 1) {
+        if (mContent.length < 1) {
             return "";
         }
+        // Only copy the characters of this element, not the whole content
+        return new String(mContent, (int) mStart, contentLength());
+    }
+
+    /**
+     * Returns whether {@link #content()} is equal to the given value, without allocating the
+     * content.
+     */
+    boolean contentEquals(String value) {
+        if (mContent.length < 1) {
+            return value.isEmpty();
+        }
+        int length = contentLength();
+        if (value.length() != length) {
+            return false;
+        }
+        int start = (int) mStart;
+        for (int i = 0; i < length; i++) {
+            if (mContent[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int contentLength() {
         if (mEnd == Long.MAX_VALUE || mEnd < mStart) {
-            return content.substring((int) mStart, (int) mStart + 1);
+            return 1;
         }
-        return content.substring((int) mStart, (int) mEnd + 1);
+        return (int) (mEnd - mStart + 1);
     }
 
     /**
@@ -15,10 +15,26 @@
  */
 package androidx.constraintlayout.core.parser;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class CLParser {
 
     static boolean sDebug = false;
 
+    private static final int CACHE_SIZE = 16;
+
+    // Maximum total length of the cached contents, so that large contents are not kept alive
+    private static final int MAX_CACHED_CHARS = 1 << 17;
+
+    // Most recently parsed contents, in access order
+    private static final LinkedHashMap<String, CLObject> sCache =
+            new LinkedHashMap<>(CACHE_SIZE, 0.75f, true);
+
+    // Total length of the keys of sCache
+    private static int sCachedChars;
+
     private String mContent;
     private boolean mHasComment = false;
     private int mLineNumber;
@@ -30,6 +46,56 @@ public class CLParser {
         return new CLParser(string).parse();
     }
 
+    /**
+     * Parses the given content, or returns the result of parsing the same content before.
+     * <p>
+     * This avoids parsing the same content repeatedly, e.g. when the same scene is applied
+     * again. As the returned object can be shared, it must not be modified, nor any of its
+     * elements added to another object: use {@link #parse(String)} to modify the content.
+     * <p>
+     * The last 16 contents are kept, up to 131072 characters in total. Longer contents are not
+     * cached.
+     *
+     * @param string the content to parse
+     * @return the parsed content
+     * @throws CLParsingException if the content is invalid
+     */
+    public static CLObject parseCached(String string) throws CLParsingException {
+        synchronized (sCache) {
+            CLObject cached = sCache.get(string);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CLObject parsed = parse(string);
+        if (string.length() > MAX_CACHED_CHARS) {
+            return parsed;
+        }
+        synchronized (sCache) {
+            CLObject previous = sCache.put(string, parsed);
+            if (previous == null) {
+                sCachedChars += string.length();
+            }
+            // Evicts the least recently used contents
+            Iterator<Map.Entry<String, CLObject>> iterator = sCache.entrySet().iterator();
+            while (sCache.size() > CACHE_SIZE || sCachedChars > MAX_CACHED_CHARS) {
+                sCachedChars -= iterator.next().getKey().length();
+                iterator.remove();
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Clears the content parsed by {@link #parseCached(String)}.
+     */
+    public static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
+            sCachedChars = 0;
+        }
+    }
+
     public CLParser(String content) {
         mContent = content;
     }
@@ -76,6 +142,12 @@ public class CLParser {
                 if (c == '\n') {
                     mHasComment = false;
                 } else {
+                    // Skip to the end of the comment at once
+                    int end = indexOf(content, '\n', i + 1);
+                    if (end == -1) {
+                        break;
+                    }
+                    i = end - 1;
                     continue;
                 }
             }
@@ -101,10 +173,17 @@ public class CLParser {
                 }
             } else if (currentElement instanceof CLString) {
                 char ck = content[(int) currentElement.mStart];
-                if (ck == c) {
-                    currentElement.setStart(currentElement.mStart + 1);
-                    currentElement.setEnd(i - 1);
+                if (ck != c) {
+                    // Skip to the closing quote at once
+                    int end = indexOf(content, ck, i + 1);
+                    if (end == -1) {
+                        break;
+                    }
+                    i = end;
+                    c = ck;
                 }
+                currentElement.setStart(currentElement.mStart + 1);
+                currentElement.setEnd(i - 1);
             } else {
                 if (currentElement instanceof CLToken) {
                     CLToken token = (CLToken) currentElement;
@@ -159,6 +238,23 @@ public class CLParser {
         return root;
     }
 
+    /**
+     * Returns the index of the next occurrence of the character starting at the given index,
+     * counting the lines skipped, or -1 if there is none.
+     */
+    private int indexOf(char[] content, char c, int start) {
+        for (int i = start; i < content.length; i++) {
+            char current = content[i];
+            if (current == c) {
+                return i;
+            }
+            if (current == '\n') {
+                mLineNumber++;
+            }
+        }
+        return -1;
+    }
+
     private CLElement getNextJsonElement(int position, char c, CLElement currentElement,
             char[] content) throws CLParsingException {
         switch (c) {
@@ -267,7 +267,7 @@ public class ConstraintSetParser {
      */
     public static void parseJSON(String content, Transition transition, int state) {
         try {
-            CLObject json = CLParser.parse(content);
+            CLObject json = CLParser.parseCached(content);
             ArrayList<String> elements = json.names();
             if (elements == null) {
                 return;
@@ -312,6 +312,7 @@ public class ConstraintSetParser {
      */
     public static void parseMotionSceneJSON(CoreMotionScene scene, String content) {
         try {
+            // Not cached, as overriding constraint sets moves elements of the parsed content
             CLObject json = CLParser.parse(content);
             ArrayList<String> elements = json.names();
             if (elements == null) {
@@ -471,7 +472,7 @@ public class ConstraintSetParser {
     public static void parseJSON(String content, State state,
                                  LayoutVariables layoutVariables) throws CLParsingException {
         try {
-            CLObject json = CLParser.parse(content);
+            CLObject json = CLParser.parseCached(content);
             populateState(json, state, layoutVariables);
         } catch (CLParsingException e) {
             System.err.println("Error parsing JSON " + e);
@@ -65,6 +65,7 @@ public class Transition implements TypedValues {
     private int mDuration = 400;
     private float mStagger = 0.0f;
     private OnSwipe mOnSwipe = null;
+    private double mCurveSampleTolerance = Double.NaN;
     final CorePixelDp mToPixel; // Todo placed here as a temp till the refactor is done
     int mParentStartWidth, mParentStartHeight;
     int mParentEndWidth, mParentEndHeight;
@@ -817,6 +818,33 @@ public class Transition implements TypedValues {
         calcStagger();
     }
 
+    /**
+     * Sets the tolerance used to sample the curves of the widgets into lookup tables once they
+     * are set up, which makes interpolating transitions with many widgets cheaper.
+     * Curves are evaluated exactly when the tolerance is NaN, which is the default.
+     *
+     * @param tolerance the maximum difference between the sampled and the original positions,
+     *                  or NaN to disable sampling
+     * @see Motion#sampleCurves(double)
+     */
+    public void setCurveSampleTolerance(double tolerance) {
+        if (Double.compare(tolerance, mCurveSampleTolerance) == 0) {
+            return;
+        }
+        mCurveSampleTolerance = tolerance;
+        for (WidgetState widget : mState.values()) {
+            widget.mNeedSetup = true;
+        }
+    }
+
+    /**
+     * @return the tolerance used to sample the curves of the widgets, or NaN if they are not
+     * sampled
+     */
+    public double getCurveSampleTolerance() {
+        return mCurveSampleTolerance;
+    }
+
     // @TODO: add description
     public void interpolate(int parentWidth, int parentHeight, float progress) {
         if (mWrap) {
@@ -826,9 +854,9 @@ public class Transition implements TypedValues {
         if (mEasing != null) {
             progress = (float) mEasing.get(progress);
         }
-        for (String key : mState.keySet()) {
-            WidgetState widget = mState.get(key);
-            widget.interpolate(parentWidth, parentHeight, progress, this);
+        long time = System.nanoTime();
+        for (WidgetState widget : mState.values()) {
+            widget.interpolate(parentWidth, parentHeight, progress, this, time);
         }
     }
 
@@ -1026,18 +1054,29 @@ public class Transition implements TypedValues {
                 int parentHeight,
                 float progress,
                 Transition transition) {
+            interpolate(parentWidth, parentHeight, progress, transition, System.nanoTime());
+        }
+
+        void interpolate(int parentWidth,
+                int parentHeight,
+                float progress,
+                Transition transition,
+                long time) {
             // TODO  only update if parentHeight != mParentHeight || parentWidth != mParentWidth) {
             mParentHeight = parentHeight;
             mParentWidth = parentWidth;
             if (mNeedSetup) {
-                mMotionControl.setup(parentWidth, parentHeight, 1, System.nanoTime());
+                mMotionControl.setup(parentWidth, parentHeight, 1, time);
+                if (!Double.isNaN(transition.mCurveSampleTolerance)) {
+                    mMotionControl.sampleCurves(transition.mCurveSampleTolerance);
+                }
                 mNeedSetup = false;
             }
             WidgetFrame.interpolate(parentWidth, parentHeight,
                     mInterpolated, mStart, mEnd, transition, progress);
             mInterpolated.interpolatedPos = progress;
             mMotionControl.interpolate(mMotionWidgetInterpolated,
-                    progress, System.nanoTime(), mKeyCache);
+                    progress, time, mKeyCache);
         }
 
         public void setPathRelative(WidgetState widgetState) {
@@ -27,6 +27,7 @@ import org.junit.Test;
 public class MotionBenchmarkTest {
 
     private static final boolean DEBUG = false;
+    private static final int FRAMES = 60;
 
     int setUpMotionController() {
         MotionWidget mw1 = new MotionWidget();
@@ -98,4 +99,43 @@ public class MotionBenchmarkTest {
             assertEquals(60, left);
         }
     }
+
+    @Test
+    public void sampledMotionInterpolatePerFrame() {
+        for (int count : new int[]{10, 100, 500}) {
+            Motion[] exact = new Motion[count];
+            Motion[] sampled = new Motion[count];
+            for (int i = 0; i < count; i++) {
+                exact[i] = MotionSampledCurveTest.createMotion(i, true);
+                sampled[i] = MotionSampledCurveTest.createMotion(i, true);
+                sampled[i].sampleCurves(0.1);
+            }
+            MotionWidget exactWidget = new MotionWidget();
+            MotionWidget sampledWidget = new MotionWidget();
+            KeyCache cache = new KeyCache();
+
+            long exactTime = 0;
+            long sampledTime = 0;
+            for (int frame = 0; frame <= FRAMES; frame++) {
+                float progress = frame / (float) FRAMES;
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    exact[i].interpolate(exactWidget, progress, frame, cache);
+                }
+                exactTime += System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    sampled[i].interpolate(sampledWidget, progress, frame, cache);
+                }
+                sampledTime += System.nanoTime() - start;
+                assertEquals(exactWidget.getLeft(), sampledWidget.getLeft(), 1);
+                assertEquals(exactWidget.getTop(), sampledWidget.getTop(), 1);
+            }
+            if (DEBUG) {
+                System.out.println(count + " widgets, per frame: "
+                        + exactTime / (FRAMES + 1) + " ns exact, "
+                        + sampledTime / (FRAMES + 1) + " ns sampled");
+            }
+        }
+    }
 }
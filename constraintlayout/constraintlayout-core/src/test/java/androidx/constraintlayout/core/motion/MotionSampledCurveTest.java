@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.constraintlayout.core.motion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.constraintlayout.core.motion.key.MotionKeyAttributes;
+import androidx.constraintlayout.core.motion.key.MotionKeyPosition;
+import androidx.constraintlayout.core.motion.utils.ArcCurveFit;
+import androidx.constraintlayout.core.motion.utils.CurveFit;
+import androidx.constraintlayout.core.motion.utils.KeyCache;
+import androidx.constraintlayout.core.motion.utils.SampledCurveFit;
+import androidx.constraintlayout.core.motion.utils.TypedValues;
+
+import org.junit.Test;
+
+public class MotionSampledCurveTest {
+
+    @Test
+    public void sampledCurveFitWithinTolerance() {
+        double[] time = {0, 0.3, 0.7, 1};
+        double[][] values = {{0, 100}, {400, 50}, {200, 300}, {1000, 0}};
+        CurveFit curveFit = CurveFit.get(CurveFit.SPLINE, time, values);
+        double tolerance = 0.01;
+        SampledCurveFit sampled = (SampledCurveFit) SampledCurveFit.sample(curveFit, 2, tolerance);
+
+        assertTrue(sampled.getSampleCount() > SampledCurveFit.MIN_SAMPLES);
+        double[] expected = new double[2];
+        double[] actual = new double[2];
+        for (int i = 0; i <= 1000; i++) {
+            double t = i / 1000.0;
+            curveFit.getPos(t, expected);
+            sampled.getPos(t, actual);
+            assertEquals(expected[0], actual[0], tolerance * 2);
+            assertEquals(expected[1], actual[1], tolerance * 2);
+            assertEquals(expected[1], sampled.getPos(t, 1), tolerance * 2);
+        }
+        // Outside of the sampled range, the original curve is used
+        curveFit.getPos(1.5, expected);
+        sampled.getPos(1.5, actual);
+        assertEquals(expected[0], actual[0], 0);
+        assertSame(curveFit.getTimePoints(), sampled.getTimePoints());
+        assertSame(sampled, SampledCurveFit.sample(sampled, 2, tolerance));
+    }
+
+    @Test
+    public void sampledMotionMatchesExactMotion() {
+        Motion exact = createMotion(0, false);
+        Motion sampled = createMotion(0, false);
+        sampled.sampleCurves(0.1);
+        assertSameInterpolation(exact, sampled);
+    }
+
+    @Test
+    public void sampledArcMotionMatchesExactMotion() {
+        Motion exact = createMotion(0, true);
+        Motion sampled = createMotion(0, true);
+        sampled.sampleCurves(0.1);
+        assertSameInterpolation(exact, sampled);
+    }
+
+    @Test
+    public void sampledMotionsMatchExactMotions() {
+        for (int i = 0; i < 10; i++) {
+            Motion exact = createMotion(i * 10, true);
+            Motion sampled = createMotion(i * 10, true);
+            sampled.sampleCurves(0.1);
+            assertSameInterpolation(exact, sampled);
+        }
+    }
+
+    private static void assertSameInterpolation(Motion exact, Motion sampled) {
+        MotionWidget exactWidget = new MotionWidget();
+        MotionWidget sampledWidget = new MotionWidget();
+        KeyCache cache = new KeyCache();
+        for (int i = 0; i <= 100; i++) {
+            float progress = i / 100f;
+            exact.interpolate(exactWidget, progress, i, cache);
+            sampled.interpolate(sampledWidget, progress, i, cache);
+            assertEquals(exactWidget.getLeft(), sampledWidget.getLeft(), 1);
+            assertEquals(exactWidget.getTop(), sampledWidget.getTop(), 1);
+            assertEquals(exactWidget.getRight(), sampledWidget.getRight(), 1);
+            assertEquals(exactWidget.getBottom(), sampledWidget.getBottom(), 1);
+            assertEquals(exactWidget.getRotationZ(), sampledWidget.getRotationZ(), 0.5f);
+        }
+    }
+
+    static Motion createMotion(int offset, boolean arc) {
+        MotionWidget mw1 = new MotionWidget();
+        MotionWidget mw2 = new MotionWidget();
+        mw1.setBounds(offset, 0, offset + 30, 40);
+        mw2.setBounds(400, 400 + offset, 460, 480 + offset);
+        MotionKeyPosition keyPosition = new MotionKeyPosition();
+        keyPosition.setFramePosition(30);
+        keyPosition.setValue(TypedValues.PositionType.TYPE_PERCENT_X, 0.3f);
+        keyPosition.setValue(TypedValues.PositionType.TYPE_PERCENT_Y, 0.3f);
+
+        MotionKeyPosition keyPosition2 = new MotionKeyPosition();
+        keyPosition2.setFramePosition(88);
+        keyPosition2.setValue(TypedValues.PositionType.TYPE_PERCENT_X, .9f);
+        keyPosition2.setValue(TypedValues.PositionType.TYPE_PERCENT_Y, 0.5f);
+
+        MotionKeyAttributes keyAttributes = new MotionKeyAttributes();
+        keyAttributes.setFramePosition(50);
+        keyAttributes.setValue(TypedValues.AttributesType.TYPE_ROTATION_Z, 90f);
+
+        Motion motion = new Motion(mw1);
+        if (arc) {
+            motion.setPathMotionArc(ArcCurveFit.ARC_START_HORIZONTAL);
+        }
+        motion.setStart(mw1);
+        motion.setEnd(mw2);
+        motion.addKey(keyPosition);
+        motion.addKey(keyPosition2);
+        motion.addKey(keyAttributes);
+        motion.setup(1000, 1000, 2, 1000000);
+        return motion;
+    }
+}
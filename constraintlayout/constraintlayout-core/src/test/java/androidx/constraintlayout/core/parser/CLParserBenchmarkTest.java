@@ -20,8 +20,13 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 public class CLParserBenchmarkTest {
 
+    private static final boolean DEBUG = false;
+
     String mSimpleFromWiki2 =
             "{\n"
                     + "  firstName: 'John',\n"
@@ -118,4 +123,98 @@ public class CLParserBenchmarkTest {
             assertEquals(CLToken.Type.NULL, token.mType);
         }
     }
+
+    @Test
+    public void parseLargeMotionScene100x() {
+        String scene = largeMotionScene(200);
+        try {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            CLObject parsedContent = null;
+            for (int i = 0; i < 100; i++) {
+                parsedContent = CLParser.parse(scene);
+            }
+            long parseTime = System.nanoTime() - start;
+            long parseAllocated = allocatedBytes() - allocated;
+
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                checkLargeMotionScene(parsedContent, 200);
+            }
+            long readTime = System.nanoTime() - start;
+            long readAllocated = allocatedBytes() - allocated;
+
+            CLParser.clearCache();
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                parsedContent = CLParser.parseCached(scene);
+            }
+            long cachedTime = System.nanoTime() - start;
+            long cachedAllocated = allocatedBytes() - allocated;
+            checkLargeMotionScene(parsedContent, 200);
+            CLParser.clearCache();
+
+            if (DEBUG) {
+                System.out.println("scene of " + scene.length() + " chars, per parse: "
+                        + parseTime / 100 + " ns, " + parseAllocated / 100 + " bytes; "
+                        + "per read: " + readTime / 100 + " ns, " + readAllocated / 100
+                        + " bytes; cached: " + cachedTime / 100 + " ns, " + cachedAllocated / 100
+                        + " bytes");
+            }
+        } catch (CLParsingException e) {
+            System.err.println("Exception " + e.reason());
+            e.printStackTrace();
+            assertTrue(false);
+        }
+    }
+
+    private static void checkLargeMotionScene(CLObject scene, int widgets)
+            throws CLParsingException {
+        CLObject start = scene.getObject("ConstraintSets").getObject("start");
+        assertEquals(widgets, start.size());
+        for (int i = 0; i < widgets; i++) {
+            CLObject widget = start.getObject("widget" + i);
+            assertEquals("parent", widget.getArray("start").getString(0));
+            assertEquals(i, widget.getInt("width"));
+        }
+        CLObject keyFrames = scene.getObject("Transitions").getObject("default")
+                .getObject("KeyFrames");
+        assertEquals(widgets, keyFrames.getArray("KeyAttributes").size());
+    }
+
+    private static String largeMotionScene(int widgets) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\n  // Generated motion scene\n  ConstraintSets: {\n");
+        for (String constraintSet : new String[]{"start", "end"}) {
+            builder.append("    ").append(constraintSet).append(": {\n");
+            for (int i = 0; i < widgets; i++) {
+                builder.append("      widget").append(i).append(": {\n")
+                        .append("        width: ").append(i).append(", height: 40,\n")
+                        .append("        start: ['parent', 'start', ").append(i).append("],\n")
+                        .append("        top: ['parent', 'top', 16.5],\n")
+                        .append("        custom: { background: '#FF0000' }\n")
+                        .append("      },\n");
+            }
+            builder.append("    },\n");
+        }
+        builder.append("  },\n  Transitions: {\n    default: {\n")
+                .append("      from: 'start', to: 'end',\n      KeyFrames: {\n")
+                .append("        KeyAttributes: [\n");
+        for (int i = 0; i < widgets; i++) {
+            builder.append("          { target: ['widget").append(i).append("'], ")
+                    .append("frames: [25, 50, 75], rotationZ: [0, 90, 180] },\n");
+        }
+        builder.append("        ]\n      }\n    }\n  }\n}\n");
+        return builder.toString();
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
 }
@@ -17,6 +17,8 @@ package androidx.constraintlayout.core.parser;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -758,6 +760,65 @@ public class CLParserTest {
             e.printStackTrace();
         }
     }
-}
 
+    @Test
+    public void testCommentsAndMultilineStrings() {
+        String test = "{\n"
+                + "  // a comment with 'quotes', {braces} and: colons\n"
+                + "  a: 'first\nsecond',\n"
+                + "  b: \"it's\", // trailing comment\n"
+                + "  c: 3\n"
+                + "}";
+        try {
+            CLObject parsedContent = CLParser.parse(test);
+            assertEquals("first\nsecond", parsedContent.getString("a"));
+            assertEquals("it's", parsedContent.getString("b"));
+            assertEquals(3, parsedContent.getInt("c"));
+            assertEquals(6, parsedContent.get("c").getLine());
+            assertEquals(3, parsedContent.size());
+        } catch (CLParsingException e) {
+            System.err.println("Exception " + e.reason());
+            e.printStackTrace();
+            assertTrue(false);
+        }
+    }
+
+    @Test
+    public void testParseCached() {
+        String test = "{ a: { start: ['parent', 'start', 20] } }";
+        try {
+            CLParser.clearCache();
+            CLObject parsedContent = CLParser.parseCached(test);
+            assertSame(parsedContent, CLParser.parseCached(new StringBuilder(test).toString()));
+            assertEquals(test, parsedContent.toJSON());
+            CLParser.clearCache();
+            assertNotSame(parsedContent, CLParser.parseCached(test));
+        } catch (CLParsingException e) {
+            System.err.println("Exception " + e.reason());
+            e.printStackTrace();
+            assertTrue(false);
+        }
+    }
+
+    @Test
+    public void testParseCachedSkipsLongContents() {
+        String test = "{ a: { start: ['parent', 'start', 20] } }";
+        StringBuilder builder = new StringBuilder("{ a: '");
+        for (int i = 0; i < 100000; i++) {
+            builder.append("abcd");
+        }
+        String longTest = builder.append("' }").toString();
+        try {
+            CLParser.clearCache();
+            CLObject longContent = CLParser.parseCached(longTest);
+            assertNotSame(longContent, CLParser.parseCached(longTest));
 
+            CLObject parsedContent = CLParser.parseCached(test);
+            assertSame(parsedContent, CLParser.parseCached(test));
+        } catch (CLParsingException e) {
+            System.err.println("Exception " + e.reason());
+            e.printStackTrace();
+            assertTrue(false);
+        }
+    }
+}
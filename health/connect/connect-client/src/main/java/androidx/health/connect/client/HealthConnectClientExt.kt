@@ -19,9 +19,17 @@ package androidx.health.connect.client
 
 import android.os.RemoteException
 import androidx.health.connect.client.records.Record
+import androidx.health.connect.client.request.AggregateRequest
+import androidx.health.connect.client.request.BatchReadRequest
+import androidx.health.connect.client.request.ReadRecordsRequest
+import androidx.health.connect.client.response.BatchReadResponse
 import androidx.health.connect.client.response.ReadRecordResponse
+import androidx.health.connect.client.response.ReadRecordsResponse
 import androidx.health.connect.client.time.TimeRangeFilter
 import java.io.IOException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
 
 /**
  * Deletes one or more [Record] by their identifiers. Deletion of multiple [Record] is executed in
@@ -98,3 +106,59 @@ suspend inline fun <reified T : Record> HealthConnectClient.readRecord(
         recordType = T::class,
         recordId = recordId,
     )
+
+/**
+ * Reads several [ReadRecordsRequest]s and [AggregateRequest]s at once, such as the data types of a
+ * summary screen.
+ *
+ * The requests are run concurrently, instead of waiting for each response before sending the next
+ * request. The pages of each [ReadRecordsRequest] are read one after another by following the
+ * [ReadRecordsResponse.pageToken], up to [BatchReadRequest.maxPagesPerRequest] pages. If any
+ * request fails, the other requests are cancelled and the exception is thrown.
+ *
+ * @param request The [BatchReadRequest] to read.
+ * @return The [BatchReadResponse] with the result of each request.
+ * @throws RemoteException For any IPC transportation failures.
+ * @throws SecurityException For requests with unpermitted access.
+ * @throws IOException For any disk I/O issues.
+ * @throws IllegalStateException If service is not available.
+ * @see HealthConnectClient.readRecords
+ * @see HealthConnectClient.aggregate
+ */
+suspend fun HealthConnectClient.batchRead(request: BatchReadRequest): BatchReadResponse =
+    coroutineScope {
+        val readRecordsResponses =
+            request.readRecordsRequests.distinct().map { readRecordsRequest ->
+                async {
+                    readRecordsRequest to
+                        readAllPages(readRecordsRequest, request.maxPagesPerRequest)
+                }
+            }
+        val aggregationResults =
+            request.aggregateRequests.distinct().map { aggregateRequest ->
+                async { aggregateRequest to aggregate(aggregateRequest) }
+            }
+        BatchReadResponse(
+            readRecordsResponses = readRecordsResponses.awaitAll().toMap(),
+            aggregationResults = aggregationResults.awaitAll().toMap(),
+        )
+    }
+
+/** Reads the pages of the [request] until there are no more pages or [maxPages] were read. */
+private suspend fun <T : Record> HealthConnectClient.readAllPages(
+    request: ReadRecordsRequest<T>,
+    maxPages: Int,
+): ReadRecordsResponse<T> {
+    var response = readRecords(request)
+    if (response.pageToken == null || maxPages == 1) {
+        return response
+    }
+    val records = response.records.toMutableList()
+    var pages = 1
+    while (response.pageToken != null && pages < maxPages) {
+        response = readRecords(request.withPageToken(response.pageToken))
+        records += response.records
+        pages++
+    }
+    return ReadRecordsResponse(records, response.pageToken)
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.health.connect.client.request
+
+import androidx.health.connect.client.HealthConnectClient
+import androidx.health.connect.client.batchRead
+
+/**
+ * Request object to read several [ReadRecordsRequest]s and [AggregateRequest]s at once, such as
+ * the data types of a summary screen.
+ *
+ * Requests which are equal are only run once. The pages of each [ReadRecordsRequest] are read one
+ * after another, starting from its [ReadRecordsRequest.pageToken], until there are no more pages
+ * or [maxPagesPerRequest] pages were read.
+ *
+ * @param readRecordsRequests List of [ReadRecordsRequest]s to read.
+ * @param aggregateRequests List of [AggregateRequest]s to aggregate.
+ * @param maxPagesPerRequest Maximum number of pages read for each [ReadRecordsRequest]. Must be
+ *   positive, default to no limit.
+ * @see HealthConnectClient.batchRead
+ * @see androidx.health.connect.client.response.BatchReadResponse
+ */
+class BatchReadRequest(
+    internal val readRecordsRequests: List<ReadRecordsRequest<*>> = emptyList(),
+    internal val aggregateRequests: List<AggregateRequest> = emptyList(),
+    internal val maxPagesPerRequest: Int = Int.MAX_VALUE,
+) {
+    init {
+        require(maxPagesPerRequest > 0) { "maxPagesPerRequest must be positive." }
+    }
+
+    /*
+     * Generated by the IDE: Code -> Generate -> "equals() and hashCode()".
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as BatchReadRequest
+
+        if (readRecordsRequests != other.readRecordsRequests) return false
+        if (aggregateRequests != other.aggregateRequests) return false
+        if (maxPagesPerRequest != other.maxPagesPerRequest) return false
+
+        return true
+    }
+
+    /*
+     * Generated by the IDE: Code -> Generate -> "equals() and hashCode()".
+     */
+    override fun hashCode(): Int {
+        var result = readRecordsRequests.hashCode()
+        result = 31 * result + aggregateRequests.hashCode()
+        result = 31 * result + maxPagesPerRequest
+        return result
+    }
+}
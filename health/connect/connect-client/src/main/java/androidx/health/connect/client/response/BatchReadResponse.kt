@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.health.connect.client.response
+
+import androidx.annotation.RestrictTo
+import androidx.health.connect.client.aggregate.AggregationResult
+import androidx.health.connect.client.records.Record
+import androidx.health.connect.client.request.AggregateRequest
+import androidx.health.connect.client.request.ReadRecordsRequest
+
+/**
+ * Response of reading a [androidx.health.connect.client.request.BatchReadRequest], with the
+ * results of each of its requests.
+ *
+ * @see androidx.health.connect.client.batchRead
+ */
+class BatchReadResponse
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+constructor(
+    private val readRecordsResponses: Map<ReadRecordsRequest<*>, ReadRecordsResponse<*>>,
+    private val aggregationResults: Map<AggregateRequest, AggregationResult>,
+) {
+    /**
+     * Returns the response of the given [ReadRecordsRequest] of the batch. Its
+     * [ReadRecordsResponse.records] contain the records of all the pages read, and its
+     * [ReadRecordsResponse.pageToken] is the token of the next page if the
+     * [androidx.health.connect.client.request.BatchReadRequest.maxPagesPerRequest] limit was
+     * reached.
+     *
+     * @throws IllegalArgumentException if the request is not part of the batch.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun <T : Record> getReadRecordsResponse(
+        request: ReadRecordsRequest<T>
+    ): ReadRecordsResponse<T> {
+        val response =
+            requireNotNull(readRecordsResponses[request]) {
+                "ReadRecordsRequest is not part of the batch."
+            }
+        return response as ReadRecordsResponse<T>
+    }
+
+    /**
+     * Returns the result of the given [AggregateRequest] of the batch.
+     *
+     * @throws IllegalArgumentException if the request is not part of the batch.
+     */
+    fun getAggregationResult(request: AggregateRequest): AggregationResult =
+        requireNotNull(aggregationResults[request]) { "AggregateRequest is not part of the batch." }
+}
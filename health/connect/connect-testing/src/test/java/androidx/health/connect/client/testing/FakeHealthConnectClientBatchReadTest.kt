@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.health.connect.client.testing
+
+import androidx.health.connect.client.batchRead
+import androidx.health.connect.client.records.ExerciseSessionRecord
+import androidx.health.connect.client.records.HeartRateRecord
+import androidx.health.connect.client.records.HydrationRecord
+import androidx.health.connect.client.request.BatchReadRequest
+import androidx.health.connect.client.request.ReadRecordsRequest
+import androidx.health.connect.client.testing.stubs.stub
+import androidx.health.connect.client.testing.testdata.dummyAggregateRequest
+import androidx.health.connect.client.testing.testdata.generateRunningRecords
+import androidx.health.connect.client.testing.testdata.hydrationRecord1
+import androidx.health.connect.client.time.TimeRangeFilter
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertThrows
+import org.junit.Test
+
+/** Unit tests for [batchRead] with a [FakeHealthConnectClient]. */
+class FakeHealthConnectClientBatchReadTest {
+
+    private val fake = FakeHealthConnectClient()
+
+    private val runRecordsRequest =
+        ReadRecordsRequest<ExerciseSessionRecord>(timeRangeFilter = TimeRangeFilter(), pageSize = 2)
+
+    private val hydrationRecordsRequest =
+        ReadRecordsRequest<HydrationRecord>(timeRangeFilter = TimeRangeFilter())
+
+    @Test
+    fun batchRead_readsAllPages() = runTest {
+        fake.insertRecords(generateRunningRecords(5))
+
+        val response =
+            fake.batchRead(BatchReadRequest(readRecordsRequests = listOf(runRecordsRequest)))
+
+        val runResponse = response.getReadRecordsResponse(runRecordsRequest)
+        assertThat(runResponse.records.map { it.title })
+            .containsExactly("My Run #0", "My Run #1", "My Run #2", "My Run #3", "My Run #4")
+            .inOrder()
+        assertThat(runResponse.pageToken).isNull()
+    }
+
+    @Test
+    fun batchRead_maxPagesPerRequest_returnsNextPageToken() = runTest {
+        fake.insertRecords(generateRunningRecords(5))
+
+        val response =
+            fake.batchRead(
+                BatchReadRequest(
+                    readRecordsRequests = listOf(runRecordsRequest),
+                    maxPagesPerRequest = 2
+                )
+            )
+
+        val runResponse = response.getReadRecordsResponse(runRecordsRequest)
+        assertThat(runResponse.records).hasSize(4)
+        assertThat(runResponse.pageToken).isNotNull()
+
+        val nextPage =
+            fake.readRecords(
+                ReadRecordsRequest<ExerciseSessionRecord>(
+                    timeRangeFilter = TimeRangeFilter(),
+                    pageSize = 2,
+                    pageToken = runResponse.pageToken
+                )
+            )
+        assertThat(nextPage.records.single().title).isEqualTo("My Run #4")
+    }
+
+    @Test
+    fun batchRead_multipleTypes_returnsResultPerRequest() = runTest {
+        fake.insertRecords(generateRunningRecords(3) + hydrationRecord1)
+        val aggregationResult =
+            AggregationResult(metrics = buildMap { put(HeartRateRecord.BPM_AVG, 74L) })
+        fake.overrides.aggregate = stub(aggregationResult)
+
+        val response =
+            fake.batchRead(
+                BatchReadRequest(
+                    readRecordsRequests = listOf(runRecordsRequest, hydrationRecordsRequest),
+                    aggregateRequests = listOf(dummyAggregateRequest)
+                )
+            )
+
+        assertThat(response.getReadRecordsResponse(runRecordsRequest).records).hasSize(3)
+        assertThat(response.getReadRecordsResponse(hydrationRecordsRequest).records.single().volume)
+            .isEqualTo(hydrationRecord1.volume)
+        assertThat(response.getAggregationResult(dummyAggregateRequest))
+            .isSameInstanceAs(aggregationResult)
+    }
+
+    @Test
+    fun batchRead_equalRequests_readOnce() = runTest {
+        fake.insertRecords(listOf(hydrationRecord1))
+        var aggregateCount = 0
+        fake.overrides.aggregate = stub {
+            aggregateCount++
+            AggregationResult()
+        }
+
+        val response =
+            fake.batchRead(
+                BatchReadRequest(
+                    readRecordsRequests = listOf(hydrationRecordsRequest, hydrationRecordsRequest),
+                    aggregateRequests = listOf(dummyAggregateRequest, dummyAggregateRequest)
+                )
+            )
+
+        assertThat(response.getReadRecordsResponse(hydrationRecordsRequest).records).hasSize(1)
+        assertThat(aggregateCount).isEqualTo(1)
+    }
+
+    @Test
+    fun batchRead_requestNotInBatch_throws() = runTest {
+        val response =
+            fake.batchRead(BatchReadRequest(readRecordsRequests = listOf(runRecordsRequest)))
+
+        assertThrows(IllegalArgumentException::class.java) {
+            response.getReadRecordsResponse(hydrationRecordsRequest)
+        }
+        assertThrows(IllegalArgumentException::class.java) {
+            response.getAggregationResult(dummyAggregateRequest)
+        }
+    }
+
+    @Test
+    fun batchRead_failingRequest_throws() {
+        // No aggregate override is set, so the aggregation fails.
+        assertThrows(IllegalStateException::class.java) {
+            runBlocking {
+                fake.batchRead(
+                    BatchReadRequest(
+                        readRecordsRequests = listOf(runRecordsRequest),
+                        aggregateRequests = listOf(dummyAggregateRequest)
+                    )
+                )
+            }
+        }
+    }
+
+    @Test
+    fun batchReadRequest_nonPositiveMaxPages_throws() {
+        assertThrows(IllegalArgumentException::class.java) {
+            BatchReadRequest(
+                readRecordsRequests = listOf(runRecordsRequest),
+                maxPagesPerRequest = 0
+            )
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.javascriptengine
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import java.io.File
+import java.io.FileInputStream
+import java.util.concurrent.TimeUnit
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Compares the throughput of passing large payloads to and from an isolate with the byte array and
+ * String APIs, which hold the whole payload in memory, and with the streaming APIs.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class JavaScriptStreamingBenchmark(private val size: Int) {
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    private lateinit var sandbox: JavaScriptSandbox
+    private lateinit var isolate: JavaScriptIsolate
+    private lateinit var dataFile: File
+    private var dataId = 0
+
+    @Before
+    fun setUp() {
+        assumeTrue(JavaScriptSandbox.isSupported())
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        sandbox =
+            JavaScriptSandbox.createConnectedInstanceAsync(context).get(5, TimeUnit.SECONDS)
+        isolate = sandbox.createIsolate()
+        dataFile = File.createTempFile("payload", ".bin", context.cacheDir)
+        dataFile.writeBytes(ByteArray(size) { it.toByte() })
+    }
+
+    @After
+    fun tearDown() {
+        if (::sandbox.isInitialized) {
+            isolate.close()
+            sandbox.close()
+            dataFile.delete()
+        }
+    }
+
+    @Test
+    fun provideNamedData_byteArray() {
+        assumeTrue(
+            sandbox.isFeatureSupported(JavaScriptSandbox.JS_FEATURE_PROVIDE_CONSUME_ARRAY_BUFFER)
+        )
+        benchmarkRule.measureRepeated {
+            val name = nextDataName()
+            isolate.provideNamedData(name, dataFile.readBytes())
+            assertEquals(size.toString(), consume(name))
+        }
+    }
+
+    @Test
+    fun provideNamedData_stream() {
+        assumeTrue(
+            sandbox.isFeatureSupported(JavaScriptSandbox.JS_FEATURE_PROVIDE_CONSUME_ARRAY_BUFFER)
+        )
+        benchmarkRule.measureRepeated {
+            val name = nextDataName()
+            isolate.provideNamedData(name, FileInputStream(dataFile), size.toLong())
+            assertEquals(size.toString(), consume(name))
+        }
+    }
+
+    @Test
+    fun evaluate_stringResult() {
+        assumeTrue(
+            sandbox.isFeatureSupported(
+                JavaScriptSandbox.JS_FEATURE_EVALUATE_WITHOUT_TRANSACTION_LIMIT
+            )
+        )
+        val code = "'a'.repeat($size)"
+        benchmarkRule.measureRepeated {
+            val result = isolate.evaluateJavaScriptAsync(code).get(60, TimeUnit.SECONDS)
+            assertEquals(size, result.length)
+        }
+    }
+
+    @Test
+    fun evaluate_streamResult() {
+        assumeTrue(
+            sandbox.isFeatureSupported(
+                JavaScriptSandbox.JS_FEATURE_EVALUATE_WITHOUT_TRANSACTION_LIMIT
+            )
+        )
+        val code = "'a'.repeat($size)"
+        val buffer = ByteArray(BUFFER_SIZE)
+        benchmarkRule.measureRepeated {
+            var count = 0
+            isolate.evaluateJavaScriptForStreamAsync(code).get(60, TimeUnit.SECONDS).use {
+                while (true) {
+                    val read = it.read(buffer)
+                    if (read < 0) break
+                    count += read
+                }
+            }
+            assertEquals(size, count)
+        }
+    }
+
+    private fun nextDataName() = "data-${dataId++}"
+
+    private fun consume(name: String): String =
+        isolate
+            .evaluateJavaScriptAsync(
+                "android.consumeNamedDataAsArrayBuffer('$name')" +
+                    ".then((value) => String(value.byteLength))"
+            )
+            .get(60, TimeUnit.SECONDS)
+
+    companion object {
+        private const val BUFFER_SIZE = 16 * 1024
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "size={0}")
+        fun parameters(): List<Int> = listOf(64 * 1024, 1024 * 1024, 8 * 1024 * 1024)
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.javascriptengine;
+
+import android.content.res.AssetFileDescriptor;
+import android.os.RemoteException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxConsoleCallback;
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolate;
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateCallback;
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateClient;
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateSyncCallback;
+import org.chromium.android_webview.js_sandbox.common.IJsSandboxService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in of the sandbox service, for tests which don't need a real JavaScript engine.
+ * <p>
+ * Evaluations don't run the code, but complete asynchronously based on it:
+ * <ul>
+ *   <li>{@link #CRASH} terminates the isolate.</li>
+ *   <li>{@link #EXCEED_MEMORY_LIMIT} terminates the isolate for exceeding its memory limit.</li>
+ *   <li>Code starting with {@link #THROW} fails with an evaluation error.</li>
+ *   <li>Any other code evaluates to itself.</li>
+ * </ul>
+ */
+final class FakeJsSandboxService extends IJsSandboxService.Stub {
+    static final String CRASH = "crash()";
+    static final String EXCEED_MEMORY_LIMIT = "exceedMemoryLimit()";
+    static final String THROW = "throw ";
+
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private final List<FakeIsolate> mIsolates = Collections.synchronizedList(new ArrayList<>());
+
+    /** Returns the isolates created so far, in creation order. */
+    @NonNull
+    List<FakeIsolate> getIsolates() {
+        synchronized (mIsolates) {
+            return new ArrayList<>(mIsolates);
+        }
+    }
+
+    /** Stops the thread completing the evaluations. */
+    void shutdown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Override
+    public IJsSandboxIsolate createIsolate() {
+        return createIsolate2(0, null);
+    }
+
+    @Override
+    public List<String> getSupportedFeatures() {
+        return Arrays.asList(IJsSandboxService.ISOLATE_TERMINATION,
+                IJsSandboxService.ISOLATE_MAX_HEAP_SIZE_LIMIT,
+                IJsSandboxService.ISOLATE_CLIENT);
+    }
+
+    @Override
+    public IJsSandboxIsolate createIsolateWithMaxHeapSizeBytes(long maxHeapSize) {
+        return createIsolate2(maxHeapSize, null);
+    }
+
+    @Override
+    public IJsSandboxIsolate createIsolate2(long maxHeapSize,
+            @Nullable IJsSandboxIsolateClient isolateClient) {
+        FakeIsolate isolate = new FakeIsolate(isolateClient);
+        mIsolates.add(isolate);
+        return isolate;
+    }
+
+    /** Stand-in of an isolate, recording the evaluated code. */
+    final class FakeIsolate extends IJsSandboxIsolate.Stub {
+        @Nullable
+        private final IJsSandboxIsolateClient mClient;
+        private final List<String> mEvaluatedCode = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean mClosed;
+
+        FakeIsolate(@Nullable IJsSandboxIsolateClient client) {
+            mClient = client;
+        }
+
+        /** Returns the number of evaluations of the given code. */
+        int getEvaluationCount(@NonNull String code) {
+            synchronized (mEvaluatedCode) {
+                return Collections.frequency(mEvaluatedCode, code);
+            }
+        }
+
+        boolean isClosed() {
+            return mClosed;
+        }
+
+        @Override
+        public void evaluateJavascript(String code, IJsSandboxIsolateCallback callback) {
+            mEvaluatedCode.add(code);
+            mExecutor.execute(() -> {
+                try {
+                    if (CRASH.equals(code)) {
+                        terminate(IJsSandboxIsolateClient.TERMINATE_UNKNOWN_ERROR);
+                    } else if (EXCEED_MEMORY_LIMIT.equals(code)) {
+                        terminate(IJsSandboxIsolateClient.TERMINATE_MEMORY_LIMIT_EXCEEDED);
+                    } else if (code.startsWith(THROW)) {
+                        callback.reportError(IJsSandboxIsolateCallback.JS_EVALUATION_ERROR,
+                                code.substring(THROW.length()));
+                    } else {
+                        callback.reportResult(code);
+                    }
+                } catch (RemoteException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+
+        private void terminate(int status) throws RemoteException {
+            if (mClient != null) {
+                mClient.onTerminated(status, "terminated by " + FakeJsSandboxService.class);
+            }
+        }
+
+        @Override
+        public void close() {
+            mClosed = true;
+        }
+
+        @Override
+        public boolean provideNamedData(String name, AssetFileDescriptor afd) {
+            return false;
+        }
+
+        @Override
+        public void evaluateJavascriptWithFd(AssetFileDescriptor afd,
+                IJsSandboxIsolateSyncCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setConsoleCallback(IJsSandboxConsoleCallback callback) {
+        }
+    }
+}
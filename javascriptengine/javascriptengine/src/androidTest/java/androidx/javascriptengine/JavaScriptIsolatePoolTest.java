@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.javascriptengine;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.javascriptengine.FakeJsSandboxService.FakeIsolate;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.MediumTest;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/** Tests for {@link JavaScriptIsolatePool}, using an in-process stand-in of the sandbox. */
+@MediumTest
+@RunWith(AndroidJUnit4.class)
+public class JavaScriptIsolatePoolTest {
+    private static final String BOOTSTRAP = "this.library = {}";
+    private static final String RESET = "delete this.state";
+
+    private final FakeJsSandboxService mService = new FakeJsSandboxService();
+    private JavaScriptSandbox mSandbox;
+    private JavaScriptIsolatePool mPool;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        mSandbox = JavaScriptSandbox.createWithServiceForTesting(context, mService);
+    }
+
+    @After
+    public void tearDown() {
+        if (mPool != null) {
+            mPool.close();
+        }
+        mSandbox.close();
+        mService.shutdown();
+    }
+
+    @Test
+    public void testBootstrapScriptEvaluatedOncePerIsolate() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox)
+                .setPoolSize(2)
+                .setBootstrapScript(BOOTSTRAP)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            JavaScriptIsolate isolate = acquire();
+            Assert.assertEquals("'PASS'",
+                    isolate.evaluateJavaScriptAsync("'PASS'").get(5, TimeUnit.SECONDS));
+            mPool.releaseIsolate(isolate);
+        }
+
+        Assert.assertEquals(2, mService.getIsolates().size());
+        for (FakeIsolate isolate : mService.getIsolates()) {
+            Assert.assertEquals(1, isolate.getEvaluationCount(BOOTSTRAP));
+        }
+        Assert.assertEquals(5, mPool.getAcquisitionCount());
+        Assert.assertTrue(mPool.getMaxAcquisitionLatencyNanos()
+                >= mPool.getAverageAcquisitionLatencyNanos());
+    }
+
+    @Test
+    public void testReleasedIsolateIsResetBeforeReuse() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox)
+                .setPoolSize(1)
+                .setResetScript(RESET)
+                .build();
+
+        JavaScriptIsolate isolate = acquire();
+        mPool.releaseIsolate(isolate);
+
+        Assert.assertSame(isolate, acquire());
+        Assert.assertEquals(1, mService.getIsolates().get(0).getEvaluationCount(RESET));
+    }
+
+    @Test
+    public void testAcquisitionWaitsForRelease() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox).setPoolSize(1).build();
+        JavaScriptIsolate isolate = acquire();
+
+        ListenableFuture<JavaScriptIsolate> pending = mPool.acquireIsolateAsync();
+        Assert.assertFalse(pending.isDone());
+        Assert.assertEquals(1, mPool.getAcquiredIsolateCount());
+        Assert.assertEquals(1, mPool.getPendingAcquisitionCount());
+
+        mPool.releaseIsolate(isolate);
+        Assert.assertSame(isolate, pending.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, mPool.getPendingAcquisitionCount());
+        Assert.assertEquals(0, mPool.getIdleIsolateCount());
+    }
+
+    @Test
+    public void testTerminatedIsolateIsReplaced() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox)
+                .setPoolSize(1)
+                .setBootstrapScript(BOOTSTRAP)
+                .build();
+        JavaScriptIsolate isolate = acquire();
+
+        assertEvaluationFails(isolate, FakeJsSandboxService.CRASH,
+                IsolateTerminatedException.class);
+        waitFor(() -> mPool.getReplacedIsolateCount() == 1);
+        mPool.releaseIsolate(isolate);
+
+        Assert.assertNotSame(isolate, acquire());
+        Assert.assertEquals(2, mService.getIsolates().size());
+        Assert.assertEquals(1, mService.getIsolates().get(1).getEvaluationCount(BOOTSTRAP));
+    }
+
+    @Test
+    public void testIsolateFailingToResetIsReplaced() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox)
+                .setPoolSize(1)
+                .setResetScript(FakeJsSandboxService.THROW + "reset failed")
+                .build();
+        JavaScriptIsolate isolate = acquire();
+
+        mPool.releaseIsolate(isolate);
+
+        Assert.assertNotSame(isolate, acquire());
+        Assert.assertEquals(1, mPool.getReplacedIsolateCount());
+        Assert.assertTrue(mService.getIsolates().get(0).isClosed());
+    }
+
+    @Test
+    public void testFailingBootstrapScriptFailsAcquisition() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox)
+                .setBootstrapScript(FakeJsSandboxService.THROW + "bootstrap failed")
+                .build();
+
+        ExecutionException e = Assert.assertThrows(ExecutionException.class,
+                () -> mPool.acquireIsolateAsync().get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(e.getCause() instanceof EvaluationFailedException);
+    }
+
+    @Test
+    public void testMemoryLimitExceededFailsAcquisitions() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox).setPoolSize(2).build();
+        JavaScriptIsolate isolate = acquire();
+
+        assertEvaluationFails(isolate, FakeJsSandboxService.EXCEED_MEMORY_LIMIT,
+                MemoryLimitExceededException.class);
+
+        // The whole sandbox is killed, so the isolates can't be replaced.
+        waitFor(() -> mPool.getIdleIsolateCount() == 0);
+        ExecutionException e = Assert.assertThrows(ExecutionException.class,
+                () -> mPool.acquireIsolateAsync().get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(e.getCause() instanceof SandboxDeadException);
+        Assert.assertEquals(2, mService.getIsolates().size());
+    }
+
+    @Test
+    public void testClosedPoolClosesIdleIsolates() throws Throwable {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox).setPoolSize(2).build();
+        JavaScriptIsolate isolate = acquire();
+        ListenableFuture<JavaScriptIsolate> idle = mPool.acquireIsolateAsync();
+        mPool.releaseIsolate(idle.get(5, TimeUnit.SECONDS));
+
+        mPool.close();
+
+        Assert.assertThrows(IllegalStateException.class, () -> mPool.acquireIsolateAsync());
+        mPool.releaseIsolate(isolate);
+        for (FakeIsolate fakeIsolate : mService.getIsolates()) {
+            Assert.assertTrue(fakeIsolate.isClosed());
+        }
+    }
+
+    @Test
+    public void testAcquireAfterCloseThrows() {
+        mPool = new JavaScriptIsolatePool.Builder(mSandbox).setPoolSize(1).build();
+
+        mPool.close();
+
+        Assert.assertThrows(IllegalStateException.class, () -> mPool.acquireIsolateAsync());
+    }
+
+    @NonNull
+    private JavaScriptIsolate acquire() throws Exception {
+        return mPool.acquireIsolateAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    private static void assertEvaluationFails(@NonNull JavaScriptIsolate isolate,
+            @NonNull String code, @NonNull Class<? extends Throwable> expected) {
+        ExecutionException e = Assert.assertThrows(ExecutionException.class,
+                () -> isolate.evaluateJavaScriptAsync(code).get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(String.valueOf(e.getCause()), expected.isInstance(e.getCause()));
+    }
+
+    private static void waitFor(@NonNull BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
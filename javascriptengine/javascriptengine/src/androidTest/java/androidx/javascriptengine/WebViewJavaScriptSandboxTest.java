@@ -37,9 +37,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.util.Vector;
@@ -1254,6 +1256,97 @@ public class WebViewJavaScriptSandboxTest {
         }
     }
 
+    @Test
+    @LargeTest
+    public void testStreamedResultNotBoundByResultSize() throws Throwable {
+        final int maxSize = 100;
+        final int resultSize = 2000000;
+        Context context = ApplicationProvider.getApplicationContext();
+
+        ListenableFuture<JavaScriptSandbox> jsSandboxFuture =
+                JavaScriptSandbox.createConnectedInstanceAsync(context);
+        try (JavaScriptSandbox jsSandbox = jsSandboxFuture.get(5, TimeUnit.SECONDS)) {
+            Assume.assumeTrue(jsSandbox.isFeatureSupported(
+                    JavaScriptSandbox.JS_FEATURE_EVALUATE_WITHOUT_TRANSACTION_LIMIT));
+            IsolateStartupParameters settings = new IsolateStartupParameters();
+            settings.setMaxEvaluationReturnSizeBytes(maxSize);
+            try (JavaScriptIsolate jsIsolate = jsSandbox.createIsolate(settings)) {
+                ListenableFuture<InputStream> resultFuture =
+                        jsIsolate.evaluateJavaScriptForStreamAsync(
+                                "'a'.repeat(" + resultSize + ");");
+
+                // The result is read in small chunks, without holding it in memory.
+                long count = 0;
+                try (InputStream result = resultFuture.get(60, TimeUnit.SECONDS)) {
+                    byte[] buffer = new byte[1024];
+                    int read;
+                    while ((read = result.read(buffer)) != -1) {
+                        for (int i = 0; i < read; i++) {
+                            Assert.assertEquals('a', buffer[i]);
+                        }
+                        count += read;
+                    }
+                }
+                Assert.assertEquals(resultSize, count);
+            }
+        }
+    }
+
+    @Test
+    @MediumTest
+    public void testStreamedResultEvaluationError() throws Throwable {
+        Context context = ApplicationProvider.getApplicationContext();
+
+        ListenableFuture<JavaScriptSandbox> jsSandboxFuture =
+                JavaScriptSandbox.createConnectedInstanceAsync(context);
+        try (JavaScriptSandbox jsSandbox = jsSandboxFuture.get(5, TimeUnit.SECONDS);
+             JavaScriptIsolate jsIsolate = jsSandbox.createIsolate()) {
+            ListenableFuture<InputStream> resultFuture =
+                    jsIsolate.evaluateJavaScriptForStreamAsync("throw new Error('FAIL')");
+            try {
+                resultFuture.get(5, TimeUnit.SECONDS);
+                Assert.fail("Should have thrown.");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(EvaluationFailedException.class, e.getCause().getClass());
+                Assert.assertTrue(e.getCause().getMessage().contains("FAIL"));
+            }
+        }
+    }
+
+    @Test
+    @LargeTest
+    public void testStreamedArrayBuffer() throws Throwable {
+        final int length = 4 * 1024 * 1024;
+        final String code = ""
+                + "android.consumeNamedDataAsArrayBuffer('id-1').then((value) => {"
+                + " const bytes = new Uint8Array(value);"
+                + " let sum = 0;"
+                + " for (let i = 0; i < bytes.length; i++) { sum = (sum + bytes[i]) % 65536; }"
+                + " return bytes.length + ':' + sum;"
+                + "});";
+        byte[] bytes = new byte[length];
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+            sum = (sum + (i & 0xFF)) % 65536;
+        }
+        Context context = ApplicationProvider.getApplicationContext();
+        ListenableFuture<JavaScriptSandbox> jsSandboxFuture =
+                JavaScriptSandbox.createConnectedInstanceAsync(context);
+        try (JavaScriptSandbox jsSandbox = jsSandboxFuture.get(5, TimeUnit.SECONDS);
+             JavaScriptIsolate jsIsolate = jsSandbox.createIsolate()) {
+            Assume.assumeTrue(
+                    jsSandbox.isFeatureSupported(JavaScriptSandbox.JS_FEATURE_PROMISE_RETURN));
+            Assume.assumeTrue(jsSandbox.isFeatureSupported(
+                    JavaScriptSandbox.JS_FEATURE_PROVIDE_CONSUME_ARRAY_BUFFER));
+
+            jsIsolate.provideNamedData("id-1", new ByteArrayInputStream(bytes), length);
+            String result = jsIsolate.evaluateJavaScriptAsync(code).get(60, TimeUnit.SECONDS);
+
+            Assert.assertEquals(length + ":" + sum, result);
+        }
+    }
+
     @Test
     @LargeTest
     public void testConsoleLogging() throws Throwable {
@@ -22,9 +22,11 @@ import android.os.ParcelFileDescriptor;
 import androidx.annotation.NonNull;
 import androidx.concurrent.futures.CallbackToFutureAdapter;
 import androidx.core.util.Consumer;
+import androidx.javascriptengine.common.Utils;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 
 /**
@@ -62,6 +64,12 @@ final class EnvironmentDeadState implements IsolateState {
         return getEnvironmentDeadFuture();
     }
 
+    @NonNull
+    @Override
+    public ListenableFuture<InputStream> evaluateJavaScriptForStreamAsync(@NonNull String code) {
+        return getEnvironmentDeadFuture();
+    }
+
     @Override
     public void setConsoleCallback(@NonNull Executor executor,
             @NonNull JavaScriptConsoleCallback callback) {
@@ -79,6 +87,12 @@ final class EnvironmentDeadState implements IsolateState {
     public void provideNamedData(@NonNull String name, @NonNull byte[] inputBytes) {
     }
 
+    @Override
+    public void provideNamedData(@NonNull String name, @NonNull InputStream inputStream,
+            long length) {
+        Utils.closeQuietly(inputStream);
+    }
+
     @Override
     public void close() {
     }
@@ -97,7 +111,7 @@ final class EnvironmentDeadState implements IsolateState {
     @Override
     public void removeOnTerminatedCallback(@NonNull Consumer<TerminationInfo> callback) {}
 
-    private ListenableFuture<String> getEnvironmentDeadFuture() {
+    private <T> ListenableFuture<T> getEnvironmentDeadFuture() {
         return CallbackToFutureAdapter.getFuture(completer -> {
             final String futureDebugMessage = "evaluateJavascript Future";
             completer.setException(mTerminationInfo.toJavaScriptException());
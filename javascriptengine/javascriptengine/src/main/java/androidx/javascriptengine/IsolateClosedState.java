@@ -24,6 +24,7 @@ import androidx.core.util.Consumer;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 
 /**
@@ -60,6 +61,13 @@ final class IsolateClosedState implements IsolateState {
                 "Calling evaluateJavaScriptAsync() when " + mDescription);
     }
 
+    @NonNull
+    @Override
+    public ListenableFuture<InputStream> evaluateJavaScriptForStreamAsync(@NonNull String code) {
+        throw new IllegalStateException(
+                "Calling evaluateJavaScriptForStreamAsync() when " + mDescription);
+    }
+
     @Override
     public void setConsoleCallback(@NonNull Executor executor,
             @NonNull JavaScriptConsoleCallback callback) {
@@ -85,6 +93,13 @@ final class IsolateClosedState implements IsolateState {
                 "Calling provideNamedData() when " + mDescription);
     }
 
+    @Override
+    public void provideNamedData(@NonNull String name, @NonNull InputStream inputStream,
+            long length) {
+        throw new IllegalStateException(
+                "Calling provideNamedData() when " + mDescription);
+    }
+
     @Override
     public void close() {
     }
@@ -24,6 +24,7 @@ import androidx.core.util.Consumer;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 
 /**
@@ -47,6 +48,9 @@ interface IsolateState {
     @NonNull
     ListenableFuture<String> evaluateJavaScriptAsync(@NonNull ParcelFileDescriptor pfd);
 
+    @NonNull
+    ListenableFuture<InputStream> evaluateJavaScriptForStreamAsync(@NonNull String code);
+
     void setConsoleCallback(@NonNull Executor executor,
             @NonNull JavaScriptConsoleCallback callback);
 
@@ -56,6 +60,8 @@ interface IsolateState {
 
     void provideNamedData(@NonNull String name, @NonNull byte[] inputBytes);
 
+    void provideNamedData(@NonNull String name, @NonNull InputStream inputStream, long length);
+
     void close();
 
     /**
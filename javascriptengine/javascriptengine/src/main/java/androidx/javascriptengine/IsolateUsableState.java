@@ -29,14 +29,19 @@ import androidx.core.util.Consumer;
 import androidx.javascriptengine.common.LengthLimitExceededException;
 import androidx.javascriptengine.common.Utils;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxConsoleCallback;
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolate;
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateCallback;
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateSyncCallback;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
@@ -67,7 +72,7 @@ final class IsolateUsableState implements IsolateState {
     final IJsSandboxIsolate mJsIsolateStub;
     @NonNull
     @GuardedBy("mLock")
-    private Set<CallbackToFutureAdapter.Completer<String>> mPendingCompleterSet =
+    private Set<CallbackToFutureAdapter.Completer<?>> mPendingCompleterSet =
             new HashSet<>();
     // mOnTerminatedCallbacks does not require this.mLock, as all accesses should be performed
     // whilst holding the mLock of the JavaScriptIsolate that owns this state object.
@@ -120,28 +125,133 @@ final class IsolateUsableState implements IsolateState {
 
         @Override
         public void reportErrorWithFd(@ExecutionErrorTypes int type, AssetFileDescriptor afd) {
+            handleEvaluationErrorWithFd(mCompleter, type, afd);
+        }
+    }
+
+    private class IJsSandboxIsolateStreamingCallbackStubWrapper extends
+            IJsSandboxIsolateSyncCallback.Stub {
+        @NonNull
+        private final CallbackToFutureAdapter.Completer<InputStream> mCompleter;
+
+        IJsSandboxIsolateStreamingCallbackStubWrapper(
+                @NonNull CallbackToFutureAdapter.Completer<InputStream> completer) {
+            mCompleter = completer;
+        }
+
+        @Override
+        public void reportResultWithFd(AssetFileDescriptor afd) {
             Objects.requireNonNull(afd);
-            // The completer needs to be removed before offloading to the executor, otherwise there
-            // is a race to complete it if all evaluations are cancelled.
             removePending(mCompleter);
-            mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor.execute(
-                    () -> {
-                        String error;
-                        try {
-                            error = Utils.readToString(afd,
-                                    mMaxEvaluationReturnSizeBytes,
-                                    /*truncate=*/true);
-                        } catch (IOException | UnsupportedOperationException ex) {
-                            mCompleter.setException(
-                                    new JavaScriptException(
-                                            "Retrieving error failed: " + ex.getMessage()));
-                            return;
-                        } catch (LengthLimitExceededException ex) {
-                            throw new AssertionError("unreachable");
-                        }
-                        handleEvaluationError(mCompleter, type, error);
-                    });
+            // Unlike the String results, the result is not read here. The service writes into the
+            // pipe as the app reads from the stream, so a slow reader holds back the service.
+            final InputStream inputStream;
+            try {
+                Utils.checkAssetFileDescriptor(afd, /*allowUnknownLength=*/ false);
+                inputStream = new ResultInputStream(afd);
+            } catch (RuntimeException ex) {
+                Utils.closeQuietly(afd);
+                mCompleter.setException(
+                        new JavaScriptException("Retrieving result failed: " + ex.getMessage()));
+                return;
+            }
+            final long identityToken = Binder.clearCallingIdentity();
+            try {
+                if (!mCompleter.set(inputStream)) {
+                    // The evaluation was cancelled.
+                    Utils.closeQuietly(inputStream);
+                }
+            } finally {
+                Binder.restoreCallingIdentity(identityToken);
+            }
+        }
+
+        @Override
+        public void reportErrorWithFd(@ExecutionErrorTypes int type, AssetFileDescriptor afd) {
+            handleEvaluationErrorWithFd(mCompleter, type, afd);
+        }
+    }
+
+    /**
+     * Stream of an evaluation result, reading the length of the result from the file descriptor,
+     * and closing it when closed.
+     */
+    private static final class ResultInputStream extends FilterInputStream {
+        private long mRemaining;
+
+        ResultInputStream(@NonNull AssetFileDescriptor afd) {
+            // AssetFileDescriptor.createInputStream() is avoided for the same reason as in
+            // Utils.readToString(), which is correct as long as the offset is 0.
+            super(new ParcelFileDescriptor.AutoCloseInputStream(afd.getParcelFileDescriptor()));
+            mRemaining = afd.getLength();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (mRemaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                mRemaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            if (mRemaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, mRemaining));
+            if (read > 0) {
+                mRemaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, mRemaining));
+            mRemaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), mRemaining);
         }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    // Reads the error from the file descriptor and completes the evaluation with it.
+    void handleEvaluationErrorWithFd(@NonNull CallbackToFutureAdapter.Completer<?> completer,
+            @ExecutionErrorTypes int type, @NonNull AssetFileDescriptor afd) {
+        Objects.requireNonNull(afd);
+        // The completer needs to be removed before offloading to the executor, otherwise there
+        // is a race to complete it if all evaluations are cancelled.
+        removePending(completer);
+        mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor.execute(
+                () -> {
+                    String error;
+                    try {
+                        error = Utils.readToString(afd,
+                                mMaxEvaluationReturnSizeBytes,
+                                /*truncate=*/true);
+                    } catch (IOException | UnsupportedOperationException ex) {
+                        completer.setException(
+                                new JavaScriptException(
+                                        "Retrieving error failed: " + ex.getMessage()));
+                        return;
+                    } catch (LengthLimitExceededException ex) {
+                        throw new AssertionError("unreachable");
+                    }
+                    handleEvaluationError(completer, type, error);
+                });
     }
 
     private class IJsSandboxIsolateCallbackStubWrapper extends IJsSandboxIsolateCallback.Stub {
@@ -330,22 +440,39 @@ final class IsolateUsableState implements IsolateState {
         // it on our end to avoid file descriptor leaks.
         try (AssetFileDescriptor codeAfd = Utils.writeBytesIntoPipeAsync(inputBytes,
                 mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor)) {
-            try {
-                final boolean success = mJsIsolateStub.provideNamedData(name, codeAfd);
-                if (!success) {
-                    throw new IllegalStateException(
-                            "Data with name '" + name + "' has already been provided");
-                }
-            } catch (DeadObjectException e) {
-                killSandbox(e);
-            } catch (RemoteException | RuntimeException e) {
-                throw killSandboxAndGetRuntimeException(e);
-            }
+            provideNamedDataFromFd(name, codeAfd);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    @Override
+    public void provideNamedData(@NonNull String name, @NonNull InputStream inputStream,
+            long length) {
+        // The data is copied into the pipe in chunks as the service reads it.
+        try (AssetFileDescriptor dataAfd = Utils.writeStreamIntoPipeAsync(inputStream, length,
+                mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor)) {
+            provideNamedDataFromFd(name, dataAfd);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void provideNamedDataFromFd(@NonNull String name,
+            @NonNull AssetFileDescriptor dataAfd) {
+        try {
+            final boolean success = mJsIsolateStub.provideNamedData(name, dataAfd);
+            if (!success) {
+                throw new IllegalStateException(
+                        "Data with name '" + name + "' has already been provided");
+            }
+        } catch (DeadObjectException e) {
+            killSandbox(e);
+        } catch (RemoteException | RuntimeException e) {
+            throw killSandboxAndGetRuntimeException(e);
+        }
+    }
+
     @Override
     public void close() {
         try {
@@ -372,7 +499,7 @@ final class IsolateUsableState implements IsolateState {
     }
 
     // Caller should call mJsIsolate.removePending(mCompleter) first
-    void handleEvaluationError(@NonNull CallbackToFutureAdapter.Completer<String> completer,
+    void handleEvaluationError(@NonNull CallbackToFutureAdapter.Completer<?> completer,
             int type, @NonNull String error) {
         switch (type) {
             case IJsSandboxIsolateSyncCallback.JS_EVALUATION_ERROR:
@@ -408,13 +535,13 @@ final class IsolateUsableState implements IsolateState {
         completer.set(result);
     }
 
-    boolean removePending(@NonNull CallbackToFutureAdapter.Completer<String> completer) {
+    boolean removePending(@NonNull CallbackToFutureAdapter.Completer<?> completer) {
         synchronized (mLock) {
             return mPendingCompleterSet.remove(completer);
         }
     }
 
-    void addPending(@NonNull CallbackToFutureAdapter.Completer<String> completer) {
+    void addPending(@NonNull CallbackToFutureAdapter.Completer<?> completer) {
         synchronized (mLock) {
             mPendingCompleterSet.add(completer);
         }
@@ -423,12 +550,12 @@ final class IsolateUsableState implements IsolateState {
     // Cancel all pending and future evaluations with the given exception.
     // Only the first call to this method has any effect.
     void cancelAllPendingEvaluations(@NonNull Exception e) {
-        Set<CallbackToFutureAdapter.Completer<String>> completers;
+        Set<CallbackToFutureAdapter.Completer<?>> completers;
         synchronized (mLock) {
             completers = mPendingCompleterSet;
             mPendingCompleterSet = Collections.emptySet();
         }
-        for (CallbackToFutureAdapter.Completer<String> ele : completers) {
+        for (CallbackToFutureAdapter.Completer<?> ele : completers) {
             ele.setException(e);
         }
     }
@@ -437,30 +564,55 @@ final class IsolateUsableState implements IsolateState {
     ListenableFuture<String> evaluateJavaScriptAsync(@NonNull byte[] code) {
         return CallbackToFutureAdapter.getFuture(completer -> {
             final String futureDebugMessage = "evaluateJavascript Future";
-            IJsSandboxIsolateSyncCallbackStubWrapper callbackStub =
-                    new IJsSandboxIsolateSyncCallbackStubWrapper(completer);
-            try (AssetFileDescriptor codeAfd = Utils.writeBytesIntoPipeAsync(code,
-                    mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor)) {
-                // We pass the codeAfd to the separate sandbox process but we still need to
-                // close it on our end to avoid file descriptor leaks.
-                try {
-                    mJsIsolateStub.evaluateJavascriptWithFd(codeAfd,
-                            callbackStub);
-                } catch (DeadObjectException e) {
-                    final TerminationInfo terminationInfo = killSandbox(e);
-                    completer.setException(terminationInfo.toJavaScriptException());
-                } catch (RemoteException | RuntimeException e) {
-                    throw killSandboxAndGetRuntimeException(e);
-                }
-                addPending(completer);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
+            evaluateJavaScriptWithFd(code, new IJsSandboxIsolateSyncCallbackStubWrapper(completer),
+                    completer);
+            // Debug string.
+            return futureDebugMessage;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<InputStream> evaluateJavaScriptForStreamAsync(@NonNull String code) {
+        if (!mJsIsolate.mJsSandbox.isFeatureSupported(
+                JavaScriptSandbox.JS_FEATURE_EVALUATE_WITHOUT_TRANSACTION_LIMIT)) {
+            // The service can only return the result as a String.
+            return Futures.transform(evaluateJavaScriptAsync(code),
+                    result -> new ByteArrayInputStream(result.getBytes(StandardCharsets.UTF_8)),
+                    MoreExecutors.directExecutor());
+        }
+        byte[] inputBytes = code.getBytes(StandardCharsets.UTF_8);
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            final String futureDebugMessage = "evaluateJavaScriptForStream Future";
+            evaluateJavaScriptWithFd(inputBytes,
+                    new IJsSandboxIsolateStreamingCallbackStubWrapper(completer), completer);
             // Debug string.
             return futureDebugMessage;
         });
     }
 
+    private void evaluateJavaScriptWithFd(@NonNull byte[] code,
+            @NonNull IJsSandboxIsolateSyncCallback callbackStub,
+            @NonNull CallbackToFutureAdapter.Completer<?> completer) {
+        try (AssetFileDescriptor codeAfd = Utils.writeBytesIntoPipeAsync(code,
+                mJsIsolate.mJsSandbox.mThreadPoolTaskExecutor)) {
+            // We pass the codeAfd to the separate sandbox process but we still need to
+            // close it on our end to avoid file descriptor leaks.
+            try {
+                mJsIsolateStub.evaluateJavascriptWithFd(codeAfd,
+                        callbackStub);
+            } catch (DeadObjectException e) {
+                final TerminationInfo terminationInfo = killSandbox(e);
+                completer.setException(terminationInfo.toJavaScriptException());
+            } catch (RemoteException | RuntimeException e) {
+                throw killSandboxAndGetRuntimeException(e);
+            }
+            addPending(completer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public void addOnTerminatedCallback(@NonNull Executor executor,
             @NonNull Consumer<TerminationInfo> callback) {
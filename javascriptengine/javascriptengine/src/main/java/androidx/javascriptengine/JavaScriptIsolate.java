@@ -23,6 +23,7 @@ import android.os.ParcelFileDescriptor;
 import android.os.RemoteException;
 import android.util.Log;
 
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresFeature;
@@ -33,6 +34,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolate;
 import org.chromium.android_webview.js_sandbox.common.IJsSandboxIsolateClient;
 
+import java.io.InputStream;
 import java.util.Objects;
 import java.util.concurrent.Executor;
 
@@ -292,6 +294,36 @@ public final class JavaScriptIsolate implements AutoCloseable {
         }
     }
 
+    /**
+     * Evaluates the given JavaScript code and returns the result as a stream.
+     * <p>
+     * Please refer to the documentation of {@link #evaluateJavaScriptAsync(String)} as the
+     * behavior of this method is similar other than for the result type.
+     * <p>
+     * The result is not read into memory before the Future resolves. Instead, the stream reads
+     * the UTF-8 encoded result from the sandbox as it is consumed, so large results can be
+     * processed incrementally and are not bound by
+     * {@link IsolateStartupParameters#setMaxEvaluationReturnSizeBytes(int)}. The sandbox waits
+     * for the stream to be read, so it should be consumed promptly. The stream must be closed
+     * once consumed.
+     * <p>
+     * If {@link JavaScriptSandbox#isFeatureSupported(String)} for
+     * {@link JavaScriptSandbox#JS_FEATURE_EVALUATE_WITHOUT_TRANSACTION_LIMIT} returns
+     * {@code false}, the sandbox only returns the whole result, which is then wrapped in a stream.
+     *
+     * @param code JavaScript code to evaluate
+     * @return a Future that evaluates to a stream of the UTF-8 encoded result of the evaluation
+     * or an exception (see {@link JavaScriptException} and subclasses) if there is an error
+     */
+    @SuppressWarnings("NullAway")
+    @NonNull
+    public ListenableFuture<InputStream> evaluateJavaScriptForStreamAsync(@NonNull String code) {
+        Objects.requireNonNull(code);
+        synchronized (mLock) {
+            return mIsolateState.evaluateJavaScriptForStreamAsync(code);
+        }
+    }
+
     /**
      * Closes the {@link JavaScriptIsolate} object and renders it unusable.
      * <p>
@@ -380,6 +412,38 @@ public final class JavaScriptIsolate implements AutoCloseable {
         }
     }
 
+    /**
+     * Provides the data read from a stream for consumption from the JavaScript environment.
+     * <p>
+     * Please refer to the documentation of {@link #provideNamedData(String, byte[])} as the
+     * behavior of this method is similar other than for the input type.
+     * <p>
+     * Unlike {@link #provideNamedData(String, byte[])}, the data doesn't need to be in memory.
+     * It is copied from the stream to the sandbox in chunks, in the background, as the sandbox
+     * reads it. The stream is read from a background thread, and is closed once the given
+     * length has been read. If the stream ends early, the JavaScript promise returned by
+     * consumeNamedDataAsArrayBuffer rejects.
+     *
+     * @param name        identifier for the data that is passed. The same identifier should be
+     *                    used in the JavaScript environment to refer to the data.
+     * @param inputStream stream of the data to be passed into the JavaScript environment
+     * @param length      the number of bytes to read from the stream
+     * @throws IllegalStateException if the name has previously been used in the isolate
+     */
+    @RequiresFeature(name = JavaScriptSandbox.JS_FEATURE_PROVIDE_CONSUME_ARRAY_BUFFER,
+            enforcement = "androidx.javascriptengine.JavaScriptSandbox#isFeatureSupported")
+    public void provideNamedData(@NonNull String name, @NonNull InputStream inputStream,
+            @IntRange(from = 0) long length) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(inputStream);
+        if (length < 0) {
+            throw new IllegalArgumentException("length should be >= 0");
+        }
+        synchronized (mLock) {
+            mIsolateState.provideNamedData(name, inputStream, length);
+        }
+    }
+
     @Override
     @SuppressWarnings("GenericException") // super.finalize() throws Throwable
     protected void finalize() throws Throwable {
@@ -0,0 +1,542 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.javascriptengine;
+
+import android.annotation.SuppressLint;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.core.util.Consumer;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Pool of pre-warmed {@link JavaScriptIsolate} instances of a {@link JavaScriptSandbox}.
+ * <p>
+ * Creating an isolate and evaluating the same library code in it before each evaluation can be
+ * slow. A pool creates its isolates ahead of time, evaluates a bootstrap script once in each of
+ * them, and hands them out with {@link #acquireIsolateAsync()}. Isolates are given back with
+ * {@link #releaseIsolate(JavaScriptIsolate)}, which evaluates an optional reset script, e.g. to
+ * clear the global variables set by the last user, before the isolate is reused.
+ * <p>
+ * Isolates which terminate, or whose reset script fails, are closed and replaced by new ones.
+ * If the sandbox itself dies, e.g. because an isolate exceeded its memory limit, the isolates
+ * can't be replaced and pending and later acquisitions fail with {@link SandboxDeadException}.
+ * A new pool should then be created with a new sandbox.
+ * <p>
+ * This class is thread-safe.
+ */
+@ThreadSafe
+public final class JavaScriptIsolatePool implements AutoCloseable {
+    private static final String TAG = "JavaScriptIsolatePool";
+
+    private final Object mLock = new Object();
+
+    @NonNull
+    private final JavaScriptSandbox mSandbox;
+    @NonNull
+    private final IsolateStartupParameters mStartupParameters;
+    @Nullable
+    private final String mBootstrapScript;
+    @Nullable
+    private final String mResetScript;
+    private final int mPoolSize;
+
+    /** Isolates which are ready to be acquired, the least recently released first. */
+    @GuardedBy("mLock")
+    private final ArrayDeque<JavaScriptIsolate> mIdleIsolates = new ArrayDeque<>();
+    /** Isolates which are being bootstrapped or reset. */
+    @GuardedBy("mLock")
+    private final Set<JavaScriptIsolate> mPreparingIsolates = new HashSet<>();
+    @GuardedBy("mLock")
+    private final Set<JavaScriptIsolate> mAcquiredIsolates = new HashSet<>();
+    @GuardedBy("mLock")
+    private final ArrayDeque<PendingAcquisition> mPendingAcquisitions = new ArrayDeque<>();
+    @GuardedBy("mLock")
+    private boolean mClosed;
+    @GuardedBy("mLock")
+    private boolean mSandboxDead;
+
+    @GuardedBy("mLock")
+    private long mAcquisitionCount;
+    @GuardedBy("mLock")
+    private long mTotalAcquisitionLatencyNanos;
+    @GuardedBy("mLock")
+    private long mMaxAcquisitionLatencyNanos;
+    @GuardedBy("mLock")
+    private long mReplacedIsolateCount;
+
+    private static final class PendingAcquisition {
+        @NonNull
+        final CallbackToFutureAdapter.Completer<JavaScriptIsolate> mCompleter;
+        final long mStartTimeNanos;
+
+        PendingAcquisition(@NonNull CallbackToFutureAdapter.Completer<JavaScriptIsolate> completer,
+                long startTimeNanos) {
+            mCompleter = completer;
+            mStartTimeNanos = startTimeNanos;
+        }
+    }
+
+    JavaScriptIsolatePool(@NonNull Builder builder) {
+        mSandbox = builder.mSandbox;
+        mStartupParameters = builder.mStartupParameters;
+        mBootstrapScript = builder.mBootstrapScript;
+        mResetScript = builder.mResetScript;
+        mPoolSize = builder.mPoolSize;
+        fillPool();
+    }
+
+    /**
+     * Acquires an isolate of the pool, in which the bootstrap script has been evaluated.
+     * <p>
+     * The future completes immediately if an isolate is idle, and otherwise when an isolate is
+     * released or replaced. It fails with {@link SandboxDeadException} if the sandbox died, and
+     * with the exception thrown by the bootstrap script if it failed in a new isolate.
+     * <p>
+     * The isolate must be given back with {@link #releaseIsolate(JavaScriptIsolate)} once the
+     * evaluations are done, rather than closed.
+     *
+     * @return a future evaluating to an isolate of the pool
+     * @throws IllegalStateException if the pool is closed
+     */
+    @NonNull
+    public ListenableFuture<JavaScriptIsolate> acquireIsolateAsync() {
+        synchronized (mLock) {
+            if (mClosed) {
+                throw new IllegalStateException("Cannot acquire isolate from closed pool");
+            }
+        }
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            final PendingAcquisition acquisition =
+                    new PendingAcquisition(completer, SystemClock.elapsedRealtimeNanos());
+            final JavaScriptIsolate isolate;
+            final boolean sandboxDead;
+            synchronized (mLock) {
+                if (mClosed) {
+                    // The pool was closed concurrently, which fails the returned future.
+                    throw new IllegalStateException("Cannot acquire isolate from closed pool");
+                }
+                sandboxDead = mSandboxDead;
+                isolate = sandboxDead ? null : mIdleIsolates.poll();
+                if (isolate != null) {
+                    onAcquired(isolate, acquisition);
+                } else if (!sandboxDead) {
+                    mPendingAcquisitions.add(acquisition);
+                }
+            }
+            if (sandboxDead) {
+                completer.setException(new SandboxDeadException());
+            } else if (isolate != null) {
+                completer.set(isolate);
+            } else {
+                // Replaces the isolates whose bootstrap script failed, if any.
+                fillPool();
+            }
+            // Debug string.
+            return "JavaScriptIsolatePool acquisition Future";
+        });
+    }
+
+    /**
+     * Gives an isolate acquired with {@link #acquireIsolateAsync()} back to the pool.
+     * <p>
+     * The reset script, if any, is evaluated before the isolate is acquired again. If it fails,
+     * or if the isolate terminated, the isolate is closed and replaced by a new one. Isolates
+     * which don't belong to the pool, and isolates released after the pool was closed, are
+     * closed.
+     *
+     * @param isolate the isolate to give back
+     */
+    public void releaseIsolate(@NonNull JavaScriptIsolate isolate) {
+        Objects.requireNonNull(isolate);
+        final boolean reuse;
+        synchronized (mLock) {
+            reuse = mAcquiredIsolates.remove(isolate) && !mClosed;
+            if (reuse) {
+                mPreparingIsolates.add(isolate);
+            }
+        }
+        if (!reuse) {
+            isolate.close();
+            return;
+        }
+        if (mResetScript == null) {
+            onIsolateReady(isolate);
+        } else {
+            prepareIsolate(isolate, mResetScript, /* isNew= */ false);
+        }
+    }
+
+    /** Returns the max number of isolates of the pool, including the acquired ones. */
+    @IntRange(from = 1)
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    /** Returns the number of isolates which can be acquired without waiting. */
+    @IntRange(from = 0)
+    public int getIdleIsolateCount() {
+        synchronized (mLock) {
+            return mIdleIsolates.size();
+        }
+    }
+
+    /**
+     * Returns the number of isolates which are currently acquired. Divided by
+     * {@link #getPoolSize()}, this is the utilization of the pool.
+     */
+    @IntRange(from = 0)
+    public int getAcquiredIsolateCount() {
+        synchronized (mLock) {
+            return mAcquiredIsolates.size();
+        }
+    }
+
+    /** Returns the number of acquisitions waiting for an isolate. */
+    @IntRange(from = 0)
+    public int getPendingAcquisitionCount() {
+        synchronized (mLock) {
+            return mPendingAcquisitions.size();
+        }
+    }
+
+    /** Returns the number of isolates acquired since the pool was created. */
+    @IntRange(from = 0)
+    public long getAcquisitionCount() {
+        synchronized (mLock) {
+            return mAcquisitionCount;
+        }
+    }
+
+    /** Returns the average time between the calls to acquire an isolate and getting it. */
+    @IntRange(from = 0)
+    public long getAverageAcquisitionLatencyNanos() {
+        synchronized (mLock) {
+            return mAcquisitionCount == 0 ? 0 : mTotalAcquisitionLatencyNanos / mAcquisitionCount;
+        }
+    }
+
+    /** Returns the longest time between a call to acquire an isolate and getting it. */
+    @IntRange(from = 0)
+    public long getMaxAcquisitionLatencyNanos() {
+        synchronized (mLock) {
+            return mMaxAcquisitionLatencyNanos;
+        }
+    }
+
+    /** Returns the number of isolates replaced because they terminated or failed to reset. */
+    @IntRange(from = 0)
+    public long getReplacedIsolateCount() {
+        synchronized (mLock) {
+            return mReplacedIsolateCount;
+        }
+    }
+
+    /**
+     * Closes the pool and its idle isolates.
+     * <p>
+     * Pending acquisitions are cancelled. Acquired isolates are not closed, but will be closed
+     * when released. The sandbox is not closed.
+     */
+    @Override
+    public void close() {
+        final List<JavaScriptIsolate> isolates;
+        final List<PendingAcquisition> acquisitions;
+        synchronized (mLock) {
+            if (mClosed) {
+                return;
+            }
+            mClosed = true;
+            isolates = new ArrayList<>(mIdleIsolates);
+            isolates.addAll(mPreparingIsolates);
+            mIdleIsolates.clear();
+            mPreparingIsolates.clear();
+            acquisitions = new ArrayList<>(mPendingAcquisitions);
+            mPendingAcquisitions.clear();
+        }
+        for (JavaScriptIsolate isolate : isolates) {
+            isolate.close();
+        }
+        for (PendingAcquisition acquisition : acquisitions) {
+            acquisition.mCompleter.setCancelled();
+        }
+    }
+
+    /** Creates new isolates until the pool is full. */
+    private void fillPool() {
+        while (true) {
+            synchronized (mLock) {
+                if (mClosed || mSandboxDead || getIsolateCount() >= mPoolSize) {
+                    return;
+                }
+            }
+            createIsolate();
+        }
+    }
+
+    @GuardedBy("mLock")
+    private int getIsolateCount() {
+        return mIdleIsolates.size() + mPreparingIsolates.size() + mAcquiredIsolates.size();
+    }
+
+    private void createIsolate() {
+        final JavaScriptIsolate isolate = mSandbox.createIsolate(mStartupParameters);
+        synchronized (mLock) {
+            mPreparingIsolates.add(isolate);
+        }
+        // The callback is registered outside of mLock, as it runs immediately if the isolate is
+        // already dead.
+        isolate.addOnTerminatedCallback(MoreExecutors.directExecutor(),
+                new Consumer<TerminationInfo>() {
+                    @Override
+                    public void accept(TerminationInfo terminationInfo) {
+                        onIsolateTerminated(isolate, terminationInfo);
+                    }
+                });
+        synchronized (mLock) {
+            if (!mPreparingIsolates.contains(isolate)) {
+                // The sandbox was dead before the isolate was created.
+                return;
+            }
+        }
+        if (mBootstrapScript == null) {
+            onIsolateReady(isolate);
+        } else {
+            prepareIsolate(isolate, mBootstrapScript, /* isNew= */ true);
+        }
+    }
+
+    /** Evaluates the bootstrap or reset script in the isolate, then makes it ready. */
+    private void prepareIsolate(@NonNull JavaScriptIsolate isolate, @NonNull String script,
+            boolean isNew) {
+        Futures.addCallback(isolate.evaluateJavaScriptAsync(script),
+                new FutureCallback<String>() {
+                    @Override
+                    public void onSuccess(String result) {
+                        onIsolateReady(isolate);
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Throwable t) {
+                        onPreparationFailed(isolate, t, isNew);
+                    }
+                }, MoreExecutors.directExecutor());
+    }
+
+    private void onIsolateReady(@NonNull JavaScriptIsolate isolate) {
+        final PendingAcquisition acquisition;
+        synchronized (mLock) {
+            if (!mPreparingIsolates.remove(isolate)) {
+                // The isolate terminated or the pool was closed meanwhile.
+                return;
+            }
+            acquisition = mPendingAcquisitions.poll();
+            if (acquisition == null) {
+                mIdleIsolates.add(isolate);
+            } else {
+                onAcquired(isolate, acquisition);
+            }
+        }
+        if (acquisition != null) {
+            acquisition.mCompleter.set(isolate);
+        }
+    }
+
+    private void onPreparationFailed(@NonNull JavaScriptIsolate isolate, @NonNull Throwable t,
+            boolean isNew) {
+        PendingAcquisition failedAcquisition = null;
+        synchronized (mLock) {
+            if (!mPreparingIsolates.remove(isolate)) {
+                return;
+            }
+            if (t instanceof SandboxDeadException || t instanceof MemoryLimitExceededException) {
+                mSandboxDead = true;
+            } else if (isNew) {
+                // A new isolate is not replaced, as the bootstrap script would likely fail again.
+                // The failure is reported to the next acquisition instead.
+                failedAcquisition = mPendingAcquisitions.poll();
+            } else {
+                mReplacedIsolateCount++;
+            }
+        }
+        Log.w(TAG, isNew ? "Bootstrap script failed" : "Reset script failed", t);
+        isolate.close();
+        if (failedAcquisition != null) {
+            failedAcquisition.mCompleter.setException(t);
+        }
+        if (!isNew) {
+            fillPool();
+        }
+        failPendingAcquisitionsIfSandboxDead();
+    }
+
+    private void onIsolateTerminated(@NonNull JavaScriptIsolate isolate,
+            @NonNull TerminationInfo terminationInfo) {
+        synchronized (mLock) {
+            final boolean removed = mIdleIsolates.remove(isolate)
+                    | mPreparingIsolates.remove(isolate)
+                    | mAcquiredIsolates.remove(isolate);
+            if (!removed) {
+                return;
+            }
+            if (terminationInfo.getStatus() == TerminationInfo.STATUS_UNKNOWN_ERROR) {
+                mReplacedIsolateCount++;
+            } else {
+                // The sandbox is dead, either on its own or because an isolate exceeded its
+                // memory limit, so no isolate can be created anymore.
+                mSandboxDead = true;
+            }
+        }
+        Log.w(TAG, "Isolate terminated: " + terminationInfo);
+        isolate.close();
+        fillPool();
+        failPendingAcquisitionsIfSandboxDead();
+    }
+
+    private void failPendingAcquisitionsIfSandboxDead() {
+        final List<PendingAcquisition> acquisitions;
+        synchronized (mLock) {
+            if (!mSandboxDead) {
+                return;
+            }
+            acquisitions = new ArrayList<>(mPendingAcquisitions);
+            mPendingAcquisitions.clear();
+        }
+        for (PendingAcquisition acquisition : acquisitions) {
+            acquisition.mCompleter.setException(new SandboxDeadException());
+        }
+    }
+
+    @GuardedBy("mLock")
+    private void onAcquired(@NonNull JavaScriptIsolate isolate,
+            @NonNull PendingAcquisition acquisition) {
+        mAcquiredIsolates.add(isolate);
+        final long latencyNanos = SystemClock.elapsedRealtimeNanos() - acquisition.mStartTimeNanos;
+        mAcquisitionCount++;
+        mTotalAcquisitionLatencyNanos += latencyNanos;
+        mMaxAcquisitionLatencyNanos = Math.max(mMaxAcquisitionLatencyNanos, latencyNanos);
+    }
+
+    /**
+     * Builder for {@link JavaScriptIsolatePool}.
+     */
+    // The scripts and startup parameters are only used to prepare the isolates.
+    @SuppressLint("MissingGetterMatchingBuilder")
+    public static final class Builder {
+        @NonNull
+        final JavaScriptSandbox mSandbox;
+        @NonNull
+        IsolateStartupParameters mStartupParameters = new IsolateStartupParameters();
+        @Nullable
+        String mBootstrapScript;
+        @Nullable
+        String mResetScript;
+        int mPoolSize = 2;
+
+        /**
+         * Creates a builder for a pool of isolates of the given sandbox.
+         *
+         * @param sandbox the sandbox in which the isolates are created
+         */
+        public Builder(@NonNull JavaScriptSandbox sandbox) {
+            mSandbox = Objects.requireNonNull(sandbox);
+        }
+
+        /**
+         * Sets the max number of isolates of the pool, including the acquired ones. All of them
+         * are created when the pool is built. The default is 2.
+         *
+         * @param poolSize the max number of isolates
+         * @return this builder
+         */
+        @NonNull
+        public Builder setPoolSize(@IntRange(from = 1) int poolSize) {
+            if (poolSize < 1) {
+                throw new IllegalArgumentException("poolSize must be positive");
+            }
+            mPoolSize = poolSize;
+            return this;
+        }
+
+        /**
+         * Sets the parameters with which the isolates are created.
+         *
+         * @param startupParameters the configuration of the isolates
+         * @return this builder
+         */
+        @NonNull
+        public Builder setIsolateStartupParameters(
+                @NonNull IsolateStartupParameters startupParameters) {
+            mStartupParameters = Objects.requireNonNull(startupParameters);
+            return this;
+        }
+
+        /**
+         * Sets the script evaluated once in each new isolate, before it can be acquired, such as
+         * the code of a library used by the evaluations.
+         *
+         * @param bootstrapScript the JavaScript code to evaluate, or null for none
+         * @return this builder
+         */
+        @NonNull
+        public Builder setBootstrapScript(@Nullable String bootstrapScript) {
+            mBootstrapScript = bootstrapScript;
+            return this;
+        }
+
+        /**
+         * Sets the script evaluated in each released isolate, before it can be acquired again,
+         * such as code clearing the state left by the last evaluations.
+         *
+         * @param resetScript the JavaScript code to evaluate, or null for none
+         * @return this builder
+         */
+        @NonNull
+        public Builder setResetScript(@Nullable String resetScript) {
+            mResetScript = resetScript;
+            return this;
+        }
+
+        /**
+         * Builds the pool, and starts creating its isolates.
+         *
+         * @return a new pool of isolates
+         */
+        @NonNull
+        public JavaScriptIsolatePool build() {
+            return new JavaScriptIsolatePool(this);
+        }
+    }
+}
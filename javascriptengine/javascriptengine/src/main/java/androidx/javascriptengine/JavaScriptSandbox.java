@@ -438,9 +438,36 @@ public final class JavaScriptSandbox implements AutoCloseable {
         });
     }
 
+    /**
+     * Create a sandbox using the given service directly, without binding to it.
+     * <p>
+     * This allows tests to use an in-process implementation of the sandbox service. As with a
+     * bound sandbox, only one instance can exist at a time.
+     *
+     * @param context the Context for the sandbox
+     * @param jsSandboxService the sandbox service to use
+     * @return a connected {@link JavaScriptSandbox} instance
+     */
+    @NonNull
+    @VisibleForTesting
+    static JavaScriptSandbox createWithServiceForTesting(@NonNull Context context,
+            @NonNull IJsSandboxService jsSandboxService) throws RemoteException {
+        Objects.requireNonNull(context);
+        Objects.requireNonNull(jsSandboxService);
+        if (!sIsReadyToConnect.compareAndSet(true, false)) {
+            throw new IllegalStateException("Binding to already bound service");
+        }
+        try {
+            return new JavaScriptSandbox(context, null, jsSandboxService);
+        } catch (RemoteException | RuntimeException e) {
+            sIsReadyToConnect.set(true);
+            throw e;
+        }
+    }
+
     // We prevent direct initializations of this class.
     // Use JavaScriptSandbox.createConnectedInstance().
-    JavaScriptSandbox(@NonNull Context context, @NonNull ConnectionSetup connectionSetup,
+    JavaScriptSandbox(@NonNull Context context, @Nullable ConnectionSetup connectionSetup,
             @NonNull IJsSandboxService jsSandboxService) throws RemoteException {
         mContext = context;
         mConnection = new AtomicReference<>(connectionSetup);
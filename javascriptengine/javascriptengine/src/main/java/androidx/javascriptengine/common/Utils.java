@@ -36,6 +36,8 @@ import java.util.concurrent.ExecutorService;
  */
 public class Utils {
     private static final String TAG = "JavaScriptEngineUtils";
+    // The default capacity of a pipe on Linux.
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
 
     private Utils() {
         throw new AssertionError();
@@ -84,6 +86,49 @@ public class Utils {
         return new AssetFileDescriptor(readSide, 0, inputBytes.length);
     }
 
+    /**
+     * Creates a pipe, copies the given number of bytes of the stream into one end in chunks and
+     * returns the other end. The stream is closed once copied.
+     */
+    @NonNull
+    public static AssetFileDescriptor writeStreamIntoPipeAsync(@NonNull InputStream inputStream,
+            long length, @NonNull ExecutorService executorService) throws IOException {
+        ParcelFileDescriptor[] pipe = ParcelFileDescriptor.createPipe();
+        ParcelFileDescriptor readSide = pipe[0];
+        ParcelFileDescriptor writeSide = pipe[1];
+        OutputStream outputStream =
+                new ParcelFileDescriptor.AutoCloseOutputStream(writeSide);
+        executorService.execute(
+                () -> Utils.copyStream(inputStream, length, outputStream));
+        return new AssetFileDescriptor(readSide, 0, length);
+    }
+
+    /**
+     * Copies the given number of bytes from a stream into another, in chunks so that writing
+     * blocks while the reader of a pipe is behind, and closes both streams.
+     */
+    public static void copyStream(@NonNull InputStream inputStream, long length,
+            @NonNull OutputStream outputStream) {
+        try {
+            byte[] buffer = new byte[STREAM_CHUNK_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("Stream ended " + remaining + " bytes early");
+                }
+                outputStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            Log.e(TAG, "Copying to outputStream failed", e);
+        } finally {
+            closeQuietly(inputStream);
+            closeQuietly(outputStream);
+        }
+    }
+
     /**
      * Checks if the given AssetFileDescriptor passes certain conditions.
      */
@@ -28,6 +28,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * LiveData is a data holder class that can be observed within a given lifecycle.
@@ -63,6 +64,9 @@ public abstract class LiveData<T> {
     static final int START_VERSION = -1;
     @SuppressWarnings("WeakerAccess") /* synthetic access */
     static final Object NOT_SET = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LiveData, Object> PENDING_DATA =
+            AtomicReferenceFieldUpdater.newUpdater(LiveData.class, Object.class, "mPendingData");
 
     private SafeIterableMap<Observer<? super T>, ObserverWrapper> mObservers =
             new SafeIterableMap<>();
@@ -88,9 +92,14 @@ public abstract class LiveData<T> {
         public void run() {
             Object newValue;
             synchronized (mDataLock) {
-                newValue = mPendingData;
-                mPendingData = NOT_SET;
+                // Swap atomically, as batched posts don't take the lock
+                newValue = PENDING_DATA.getAndSet(LiveData.this, NOT_SET);
             }
+            if (newValue == NOT_SET) {
+                // Already dispatched, if batching was enabled after this was posted
+                return;
+            }
+            LiveDataDispatcher.onSet();
             setValue((T) newValue);
         }
     };
@@ -283,15 +292,35 @@ public abstract class LiveData<T> {
      * @param value The new value
      */
     protected void postValue(T value) {
+        LiveDataDispatcher.onPost();
+        if (LiveDataDispatcher.isBatchingEnabled()) {
+            if (PENDING_DATA.getAndSet(this, value) == NOT_SET) {
+                LiveDataDispatcher.enqueue(this);
+            }
+            return;
+        }
         boolean postTask;
         synchronized (mDataLock) {
-            postTask = mPendingData == NOT_SET;
-            mPendingData = value;
+            postTask = PENDING_DATA.getAndSet(this, value) == NOT_SET;
         }
         if (!postTask) {
             return;
         }
-        ArchTaskExecutor.getInstance().postToMainThread(mPostValueRunnable);
+        LiveDataDispatcher.postToMainThread(mPostValueRunnable);
+    }
+
+    /**
+     * Sets the pending value posted while batching was enabled, if it was not dispatched yet.
+     */
+    @SuppressWarnings("unchecked")
+    @MainThread
+    void dispatchPendingValue() {
+        Object newValue = PENDING_DATA.getAndSet(this, NOT_SET);
+        if (newValue == NOT_SET) {
+            return;
+        }
+        LiveDataDispatcher.onSet();
+        setValue((T) newValue);
     }
 
     /**
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.lifecycle;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.RestrictTo;
+import androidx.arch.core.executor.ArchTaskExecutor;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controls how values posted with {@link LiveData#postValue(Object)} are dispatched to the main
+ * thread.
+ * <p>
+ * By default, each {@link LiveData} with a pending value posts its own task to the main thread.
+ * When batching is enabled with {@link #setPostValueBatchingEnabled(boolean)}, pending values are
+ * published without taking a lock, and the values of all the {@link LiveData} posted before the
+ * main thread handles them, typically within a frame, are set in a single main thread task, in
+ * the order of their first post.
+ * <p>
+ * In both modes, only the last value posted to a {@link LiveData} before it is dispatched is set.
+ * Batching doesn't change the values observers receive, but it may change how dispatching of
+ * posted values interleaves with other main thread tasks, so it is disabled by default.
+ */
+public final class LiveDataDispatcher {
+
+    private static volatile boolean sBatchingEnabled;
+
+    private static volatile boolean sStatsEnabled;
+
+    private static final ConcurrentLinkedQueue<LiveData<?>> sPending =
+            new ConcurrentLinkedQueue<>();
+
+    private static final AtomicBoolean sDrainScheduled = new AtomicBoolean();
+
+    private static final AtomicLong sPostCount = new AtomicLong();
+
+    private static final AtomicLong sSetCount = new AtomicLong();
+
+    private static final AtomicLong sMainThreadTaskCount = new AtomicLong();
+
+    private static final Runnable sDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    private LiveDataDispatcher() {
+        // Does nothing.
+    }
+
+    /**
+     * Enables or disables batching of the values posted with {@link LiveData#postValue(Object)}.
+     * This applies to all the {@link LiveData} of the process, and is typically called once, in
+     * {@code Application#onCreate()}.
+     * <p>
+     * Values which are already pending when batching is toggled are still dispatched.
+     *
+     * @param enabled whether posted values should be dispatched in batches
+     */
+    public static void setPostValueBatchingEnabled(boolean enabled) {
+        sBatchingEnabled = enabled;
+    }
+
+    /**
+     * Returns whether batching of the values posted with {@link LiveData#postValue(Object)} is
+     * enabled.
+     *
+     * @return whether posted values are dispatched in batches
+     */
+    public static boolean isPostValueBatchingEnabled() {
+        return sBatchingEnabled;
+    }
+
+    /**
+     * Enables or disables the counters. Counters keep their values while disabled.
+     * <p>
+     * The counters returned by {@link #getPostCount()}, {@link #getSetCount()} and
+     * {@link #getMainThreadTaskCount()} can be used to measure how many posted values were
+     * coalesced, and how many main thread tasks were needed to dispatch them. They are not updated
+     * while disabled, so that setting and posting values doesn't pay for them.
+     *
+     * @param enabled whether the counters should be updated
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static void setStatsEnabled(boolean enabled) {
+        sStatsEnabled = enabled;
+    }
+
+    /**
+     * Returns whether the counters are updated.
+     *
+     * @return whether the counters are enabled
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static boolean isStatsEnabled() {
+        return sStatsEnabled;
+    }
+
+    /**
+     * Returns the number of calls to {@link LiveData#postValue(Object)} since the counters were
+     * last reset.
+     *
+     * @return the number of posted values
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static long getPostCount() {
+        return sPostCount.get();
+    }
+
+    /**
+     * Returns the number of posted values which were set on the main thread since the counters
+     * were last reset. This is lower than {@link #getPostCount()} when values were coalesced.
+     *
+     * @return the number of posted values which were set
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static long getSetCount() {
+        return sSetCount.get();
+    }
+
+    /**
+     * Returns the number of main thread tasks used to dispatch posted values since the counters
+     * were last reset.
+     *
+     * @return the number of main thread tasks
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static long getMainThreadTaskCount() {
+        return sMainThreadTaskCount.get();
+    }
+
+    /**
+     * Resets all the counters to 0.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static void resetCounters() {
+        sPostCount.set(0);
+        sSetCount.set(0);
+        sMainThreadTaskCount.set(0);
+    }
+
+    static boolean isBatchingEnabled() {
+        return sBatchingEnabled;
+    }
+
+    static void onPost() {
+        if (sStatsEnabled) {
+            sPostCount.incrementAndGet();
+        }
+    }
+
+    static void onSet() {
+        if (sStatsEnabled) {
+            sSetCount.incrementAndGet();
+        }
+    }
+
+    static void postToMainThread(@NonNull Runnable runnable) {
+        if (sStatsEnabled) {
+            sMainThreadTaskCount.incrementAndGet();
+        }
+        ArchTaskExecutor.getInstance().postToMainThread(runnable);
+    }
+
+    /**
+     * Adds a {@link LiveData} whose pending value must be dispatched.
+     */
+    static void enqueue(@NonNull LiveData<?> liveData) {
+        sPending.offer(liveData);
+        if (sDrainScheduled.compareAndSet(false, true)) {
+            postToMainThread(sDrainRunnable);
+        }
+    }
+
+    @MainThread
+    static void drain() {
+        // Reset first, so that a LiveData enqueued after it was polled schedules another drain.
+        sDrainScheduled.set(false);
+        LiveData<?> liveData;
+        while ((liveData = sPending.poll()) != null) {
+            liveData.dispatchPendingValue();
+        }
+    }
+}
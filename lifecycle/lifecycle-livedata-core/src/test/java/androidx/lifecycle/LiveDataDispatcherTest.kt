@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.lifecycle
+
+import androidx.arch.core.executor.ArchTaskExecutor
+import androidx.arch.core.executor.TaskExecutor
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+
+@RunWith(JUnit4::class)
+class LiveDataDispatcherTest {
+    private val mainThreadTasks = ArrayDeque<Runnable>()
+
+    @Before
+    fun setUp() {
+        ArchTaskExecutor.getInstance()
+            .setDelegate(
+                object : TaskExecutor() {
+                    override fun executeOnDiskIO(runnable: Runnable) {
+                        runnable.run()
+                    }
+
+                    override fun postToMainThread(runnable: Runnable) {
+                        mainThreadTasks.addLast(runnable)
+                    }
+
+                    override fun isMainThread(): Boolean = true
+                }
+            )
+        LiveDataDispatcher.resetCounters()
+        LiveDataDispatcher.setStatsEnabled(true)
+    }
+
+    @After
+    fun tearDown() {
+        LiveDataDispatcher.setPostValueBatchingEnabled(false)
+        LiveDataDispatcher.setStatsEnabled(false)
+        ArchTaskExecutor.getInstance().setDelegate(null)
+    }
+
+    @Test
+    fun batching_singleMainThreadTask() {
+        LiveDataDispatcher.setPostValueBatchingEnabled(true)
+        val dispatched = mutableListOf<String>()
+        val liveDataList = List(40) { MutableLiveData<String>() }
+        liveDataList.forEach { liveData -> liveData.observeForever { dispatched += it } }
+
+        liveDataList.forEachIndexed { index, liveData -> liveData.postValue("value$index") }
+
+        assertThat(mainThreadTasks.size, `is`(1))
+        runMainThreadTasks()
+        assertThat(dispatched, `is`(List(40) { "value$it" }))
+        assertThat(LiveDataDispatcher.getPostCount(), `is`(40L))
+        assertThat(LiveDataDispatcher.getSetCount(), `is`(40L))
+        assertThat(LiveDataDispatcher.getMainThreadTaskCount(), `is`(1L))
+    }
+
+    @Test
+    fun batching_orderedByFirstPost() {
+        LiveDataDispatcher.setPostValueBatchingEnabled(true)
+        val dispatched = mutableListOf<String>()
+        val first = MutableLiveData<String>()
+        val second = MutableLiveData<String>()
+        first.observeForever { dispatched += it }
+        second.observeForever { dispatched += it }
+
+        first.postValue("a")
+        second.postValue("b")
+        first.postValue("c")
+        runMainThreadTasks()
+
+        assertThat(dispatched, `is`(listOf("c", "b")))
+        assertThat(LiveDataDispatcher.getPostCount(), `is`(3L))
+        assertThat(LiveDataDispatcher.getSetCount(), `is`(2L))
+    }
+
+    @Test
+    fun batching_postWhileDraining() {
+        LiveDataDispatcher.setPostValueBatchingEnabled(true)
+        val first = MutableLiveData<String>()
+        val second = MutableLiveData<String>()
+        first.observeForever { second.postValue("from $it") }
+        second.observeForever {}
+
+        first.postValue("first")
+        runMainThreadTasks()
+
+        assertThat(second.value, `is`("from first"))
+    }
+
+    @Test
+    fun batching_setValueAfterPost() {
+        LiveDataDispatcher.setPostValueBatchingEnabled(true)
+        val liveData = MutableLiveData<String>()
+
+        liveData.postValue("a")
+        liveData.value = "b"
+        runMainThreadTasks()
+
+        // Same as without batching, the posted value overrides the value set before it ran
+        assertThat(liveData.value, `is`("a"))
+    }
+
+    @Test
+    fun batching_toggledWhilePending() {
+        val liveData = MutableLiveData<String>()
+        liveData.postValue("a")
+        LiveDataDispatcher.setPostValueBatchingEnabled(true)
+        liveData.postValue("b")
+        runMainThreadTasks()
+
+        assertThat(liveData.value, `is`("b"))
+        assertThat(LiveDataDispatcher.getSetCount(), `is`(1L))
+    }
+
+    @Test
+    fun noBatching_oneMainThreadTaskPerLiveData() {
+        val liveDataList = List(40) { MutableLiveData<String>() }
+
+        liveDataList.forEachIndexed { index, liveData -> liveData.postValue("value$index") }
+
+        assertThat(mainThreadTasks.size, `is`(40))
+        runMainThreadTasks()
+        liveDataList.forEachIndexed { index, liveData ->
+            assertThat(liveData.value, `is`("value$index"))
+        }
+        assertThat(LiveDataDispatcher.getMainThreadTaskCount(), `is`(40L))
+    }
+
+    @Test
+    fun statsDisabled_countersNotUpdated() {
+        LiveDataDispatcher.setStatsEnabled(false)
+        val liveData = MutableLiveData<String>()
+
+        liveData.postValue("a")
+        runMainThreadTasks()
+        liveData.value = "b"
+
+        assertThat(liveData.value, `is`("b"))
+        assertThat(LiveDataDispatcher.getPostCount(), `is`(0L))
+        assertThat(LiveDataDispatcher.getSetCount(), `is`(0L))
+        assertThat(LiveDataDispatcher.getMainThreadTaskCount(), `is`(0L))
+    }
+
+    private fun runMainThreadTasks() {
+        while (mainThreadTasks.isNotEmpty()) {
+            mainThreadTasks.removeFirst().run()
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.media;
+
+import static androidx.test.platform.app.InstrumentationRegistry.getInstrumentation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.ComponentName;
+import android.os.Bundle;
+import android.support.v4.media.MediaBrowserCompat;
+import android.support.v4.media.MediaBrowserCompat.MediaItem;
+import android.support.v4.media.MediaDescriptionCompat;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.MediumTest;
+import androidx.test.filters.SmallTest;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for streaming children from {@link MediaBrowserServiceCompat} to
+ * {@link MediaBrowserCompat} in chunks.
+ */
+@SuppressWarnings("deprecation")
+@RunWith(AndroidJUnit4.class)
+public class MediaBrowserChildrenStreamingTest {
+    private static final long TIME_OUT_MS = 3000L;
+    private static final int CHUNK_SIZE = 100;
+
+    private MediaBrowserCompat mMediaBrowser;
+
+    @Before
+    public void setUp() throws Exception {
+        StreamingMediaBrowserServiceCompat.sLoadChildrenCount.set(0);
+        final CountDownLatch connected = new CountDownLatch(1);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mMediaBrowser = new MediaBrowserCompat(getInstrumentation().getTargetContext(),
+                        new ComponentName(getInstrumentation().getTargetContext(),
+                                StreamingMediaBrowserServiceCompat.class),
+                        new MediaBrowserCompat.ConnectionCallback() {
+                            @Override
+                            public void onConnected() {
+                                connected.countDown();
+                            }
+                        }, null);
+                mMediaBrowser.connect();
+            }
+        });
+        assertTrue(connected.await(TIME_OUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mMediaBrowser.disconnect();
+            }
+        });
+    }
+
+    @Test
+    @MediumTest
+    public void subscribe_withChunkSize_deliversChunksThenWholeList() throws Exception {
+        final StreamingSubscriptionCallback callback = new StreamingSubscriptionCallback();
+        final Bundle options = new Bundle();
+        options.putInt(MediaBrowserCompat.EXTRA_CHUNK_SIZE, CHUNK_SIZE);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mMediaBrowser.subscribe(StreamingMediaBrowserServiceCompat.PARENT_ID, options,
+                        callback);
+            }
+        });
+
+        assertTrue(callback.mLoaded.await(TIME_OUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(3, callback.mChunkSizes.size());
+        assertEquals(CHUNK_SIZE, (int) callback.mChunkSizes.get(0));
+        assertEquals(CHUNK_SIZE, (int) callback.mChunkSizes.get(1));
+        assertEquals(50, (int) callback.mChunkSizes.get(2));
+        assertEquals(0, (int) callback.mChunkOffsets.get(0));
+        assertEquals(100, (int) callback.mChunkOffsets.get(1));
+        assertEquals(200, (int) callback.mChunkOffsets.get(2));
+
+        List<MediaItem> children = callback.mChildren;
+        assertEquals(StreamingMediaBrowserServiceCompat.CHILDREN_COUNT, children.size());
+        for (int i = 0; i < children.size(); i++) {
+            assertEquals(StreamingMediaBrowserServiceCompat.PARENT_ID + "/" + i,
+                    children.get(i).getMediaId());
+        }
+        // The remaining chunks are served from the service-side cache.
+        assertEquals(1, StreamingMediaBrowserServiceCompat.sLoadChildrenCount.get());
+    }
+
+    @Test
+    @MediumTest
+    public void subscribe_withoutChunkSize_deliversWholeListAtOnce() throws Exception {
+        final StreamingSubscriptionCallback callback = new StreamingSubscriptionCallback();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mMediaBrowser.subscribe(StreamingMediaBrowserServiceCompat.PARENT_ID, callback);
+            }
+        });
+
+        assertTrue(callback.mLoaded.await(TIME_OUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(callback.mChunkSizes.isEmpty());
+        assertEquals(StreamingMediaBrowserServiceCompat.CHILDREN_COUNT,
+                callback.mChildren.size());
+    }
+
+    @Test
+    @SmallTest
+    public void chunkCache_continuationToken() {
+        String token = MediaBrowserChildrenChunkCache.createContinuationToken(7, 300);
+        assertEquals(7, MediaBrowserChildrenChunkCache.getStreamId(token));
+        assertEquals(300, MediaBrowserChildrenChunkCache.getOffset(token));
+        assertEquals(-1, MediaBrowserChildrenChunkCache.getStreamId(null));
+        assertEquals(-1, MediaBrowserChildrenChunkCache.getOffset("7:"));
+        assertEquals(-1, MediaBrowserChildrenChunkCache.getStreamId("abc:1"));
+    }
+
+    @Test
+    @SmallTest
+    public void chunkCache_evictsAndInvalidates() {
+        MediaBrowserChildrenChunkCache cache = new MediaBrowserChildrenChunkCache(2);
+        List<MediaItem> children = Collections.singletonList(new MediaItem(
+                new MediaDescriptionCompat.Builder().setMediaId("child").build(),
+                MediaItem.FLAG_PLAYABLE));
+        int first = cache.put("a", children);
+        int second = cache.put("b", children);
+        assertEquals(children, cache.get("a", first));
+        assertNull(cache.get("b", first));
+
+        int third = cache.put("c", children);
+        assertNull(cache.get("b", second));
+        assertEquals(children, cache.get("c", third));
+
+        cache.invalidate("a");
+        assertNull(cache.get("a", first));
+        assertSame(children.get(0), cache.get("c", third).get(0));
+    }
+
+    private static class StreamingSubscriptionCallback
+            extends MediaBrowserCompat.SubscriptionCallback {
+        final CountDownLatch mLoaded = new CountDownLatch(1);
+        final List<Integer> mChunkOffsets = new ArrayList<>();
+        final List<Integer> mChunkSizes = new ArrayList<>();
+        volatile List<MediaItem> mChildren;
+
+        @Override
+        public void onChildrenChunkLoaded(@NonNull String parentId,
+                @NonNull List<MediaItem> children, int offset, @NonNull Bundle options) {
+            mChunkOffsets.add(offset);
+            mChunkSizes.add(children.size());
+        }
+
+        @Override
+        public void onChildrenLoaded(@NonNull String parentId,
+                @NonNull List<MediaItem> children) {
+            mChildren = children;
+            mLoaded.countDown();
+        }
+
+        @Override
+        public void onChildrenLoaded(@NonNull String parentId,
+                @NonNull List<MediaItem> children, @NonNull Bundle options) {
+            mChildren = children;
+            mLoaded.countDown();
+        }
+    }
+}
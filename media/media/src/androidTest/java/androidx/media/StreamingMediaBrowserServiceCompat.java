@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.media;
+
+import android.os.Bundle;
+import android.support.v4.media.MediaBrowserCompat.MediaItem;
+import android.support.v4.media.MediaDescriptionCompat;
+import android.support.v4.media.session.MediaSessionCompat;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process {@link MediaBrowserServiceCompat} which serves a large list of children.
+ */
+@SuppressWarnings("deprecation")
+public class StreamingMediaBrowserServiceCompat extends MediaBrowserServiceCompat {
+    static final String ROOT_ID = "root";
+    static final String PARENT_ID = "parent";
+    static final int CHILDREN_COUNT = 250;
+
+    static final AtomicInteger sLoadChildrenCount = new AtomicInteger();
+
+    private MediaSessionCompat mSession;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        mSession = new MediaSessionCompat(this, "StreamingMediaBrowserServiceCompat");
+        setSessionToken(mSession.getSessionToken());
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        mSession.release();
+    }
+
+    @Override
+    public @Nullable BrowserRoot onGetRoot(@NonNull String clientPackageName, int clientUid,
+            @Nullable Bundle rootHints) {
+        return new BrowserRoot(ROOT_ID, null);
+    }
+
+    @Override
+    public void onLoadChildren(@NonNull String parentId,
+            @NonNull Result<List<MediaItem>> result) {
+        sLoadChildrenCount.incrementAndGet();
+        List<MediaItem> children = new ArrayList<>();
+        if (PARENT_ID.equals(parentId)) {
+            for (int i = 0; i < CHILDREN_COUNT; i++) {
+                children.add(new MediaItem(new MediaDescriptionCompat.Builder()
+                        .setMediaId(parentId + "/" + i).build(), MediaItem.FLAG_PLAYABLE));
+            }
+        }
+        result.sendResult(children);
+    }
+}
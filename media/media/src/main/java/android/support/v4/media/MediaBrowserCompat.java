@@ -20,6 +20,7 @@ import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_ADD_SUBSCRIPTION;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_CONNECT;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_DISCONNECT;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_GET_MEDIA_ITEM;
+import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_LOAD_CHILDREN_CHUNK;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_REGISTER_CALLBACK_MESSENGER;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_REMOVE_SUBSCRIPTION;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_SEARCH;
@@ -28,6 +29,9 @@ import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_UNREGISTER_CALLBACK
 import static androidx.media.MediaBrowserProtocol.CLIENT_VERSION_CURRENT;
 import static androidx.media.MediaBrowserProtocol.DATA_CALLBACK_TOKEN;
 import static androidx.media.MediaBrowserProtocol.DATA_CALLING_PID;
+import static androidx.media.MediaBrowserProtocol.DATA_CHUNK_OFFSET;
+import static androidx.media.MediaBrowserProtocol.DATA_CHUNK_STREAM_ID;
+import static androidx.media.MediaBrowserProtocol.DATA_CONTINUATION_TOKEN;
 import static androidx.media.MediaBrowserProtocol.DATA_CUSTOM_ACTION;
 import static androidx.media.MediaBrowserProtocol.DATA_CUSTOM_ACTION_EXTRAS;
 import static androidx.media.MediaBrowserProtocol.DATA_MEDIA_ITEM_ID;
@@ -48,6 +52,7 @@ import static androidx.media.MediaBrowserProtocol.EXTRA_SESSION_BINDER;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_CONNECT;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_CONNECT_FAILED;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_LOAD_CHILDREN;
+import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_LOAD_CHILDREN_CHUNK;
 import static androidx.media.MediaBrowserProtocol.SERVICE_VERSION_2;
 
 import android.annotation.SuppressLint;
@@ -147,6 +152,22 @@ public final class MediaBrowserCompat {
      */
     public static final String EXTRA_PAGE_SIZE = "android.media.browse.extra.PAGE_SIZE";
 
+    /**
+     * Used as an int extra field in the subscription options to request that the children are
+     * streamed in chunks of at most the given number of media items. The value of
+     * {@code EXTRA_CHUNK_SIZE} should be greater than or equal to 1.
+     * <p>
+     * Each chunk is delivered to {@link SubscriptionCallback#onChildrenChunkLoaded} as soon as it
+     * arrives, and the whole list is delivered to
+     * {@link SubscriptionCallback#onChildrenLoaded(String, List, Bundle)} after the last chunk.
+     * This keeps each transaction bounded for large lists of children. Services which do not
+     * support streaming send the whole list at once.
+     *
+     * @see #EXTRA_PAGE
+     * @see #EXTRA_PAGE_SIZE
+     */
+    public static final String EXTRA_CHUNK_SIZE = "androidx.media.browse.extra.CHUNK_SIZE";
+
     /**
      * Used as a string extra field to denote the target {@link MediaItem}.
      *
@@ -737,6 +758,9 @@ public final class MediaBrowserCompat {
         final MediaBrowser.SubscriptionCallback mSubscriptionCallbackFwk;
         final IBinder mToken;
         WeakReference<Subscription> mSubscriptionRef;
+        // The children received so far for a streamed subscription.
+        @Nullable ArrayList<MediaItem> mStreamedChildren;
+        int mStreamId;
 
         public SubscriptionCallback() {
             mToken = new Binder();
@@ -771,6 +795,22 @@ public final class MediaBrowserCompat {
                 @NonNull Bundle options) {
         }
 
+        /**
+         * Called when a chunk of the list of children is loaded, if the subscription options
+         * contain {@link MediaBrowserCompat#EXTRA_CHUNK_SIZE}. After the last chunk,
+         * {@link #onChildrenLoaded(String, List, Bundle)} is called with the whole list.
+         *
+         * @param parentId The media id of the parent media item.
+         * @param children The children of this chunk.
+         * @param offset The index of the first item of this chunk in the whole list.
+         * @param options A bundle of service-specific arguments to send to the media
+         *            browse service. The contents of this bundle may affect the
+         *            information returned when browsing.
+         */
+        public void onChildrenChunkLoaded(@NonNull String parentId,
+                @NonNull List<MediaItem> children, int offset, @NonNull Bundle options) {
+        }
+
         /**
          * Called when the id doesn't exist or other errors in subscribing.
          * <p>
@@ -802,6 +842,24 @@ public final class MediaBrowserCompat {
             mSubscriptionRef = new WeakReference<>(subscription);
         }
 
+        /**
+         * Appends a streamed chunk to the children received so far. Returns {@code false} if the
+         * chunk belongs to an outdated stream or does not follow the previous chunk.
+         */
+        boolean appendChildrenChunk(int streamId, List<MediaItem> chunk, int offset) {
+            if (offset == 0) {
+                mStreamedChildren = new ArrayList<>(chunk);
+                mStreamId = streamId;
+                return true;
+            }
+            if (mStreamedChildren == null || mStreamId != streamId
+                    || mStreamedChildren.size() != offset) {
+                return false;
+            }
+            mStreamedChildren.addAll(chunk);
+            return true;
+        }
+
         @RequiresApi(21)
         private class SubscriptionCallbackApi21 extends MediaBrowser.SubscriptionCallback {
             SubscriptionCallbackApi21() {
@@ -1027,6 +1085,9 @@ public final class MediaBrowserCompat {
         void onConnectionFailed(Messenger callback);
         void onLoadChildren(Messenger callback, String parentId,
                 List<MediaItem> list, Bundle options, Bundle notifyChildrenChangedOptions);
+        void onLoadChildrenChunk(Messenger callback, String parentId, List<MediaItem> chunk,
+                Bundle options, Bundle notifyChildrenChangedOptions, int streamId, int offset,
+                String continuationToken);
     }
 
     static class MediaBrowserImplBase
@@ -1487,6 +1548,58 @@ public final class MediaBrowserCompat {
             }
         }
 
+        @Override
+        public void onLoadChildrenChunk(Messenger callback, String parentId,
+                List<MediaItem> chunk, Bundle options, Bundle notifyChildrenChangedOptions,
+                int streamId, int offset, String continuationToken) {
+            // Check that there hasn't been a disconnect or a different ServiceConnection.
+            if (!isCurrent(callback, "onLoadChildrenChunk")) {
+                return;
+            }
+
+            if (DEBUG) {
+                Log.d(TAG, "onLoadChildrenChunk for " + mServiceComponent + " id=" + parentId
+                        + " offset=" + offset);
+            }
+
+            // Check that the subscription is still subscribed.
+            final Subscription subscription = mSubscriptions.get(parentId);
+            if (subscription == null) {
+                if (DEBUG) {
+                    Log.d(TAG, "onLoadChildrenChunk for id that isn't subscribed id=" + parentId);
+                }
+                return;
+            }
+
+            SubscriptionCallback subscriptionCallback = subscription.getCallback(options);
+            if (subscriptionCallback == null
+                    || !subscriptionCallback.appendChildrenChunk(streamId, chunk, offset)) {
+                return;
+            }
+
+            // Tell the app.
+            mNotifyChildrenChangedOptions = notifyChildrenChangedOptions;
+            subscriptionCallback.onChildrenChunkLoaded(parentId, chunk, offset, options);
+            if (continuationToken == null) {
+                List<MediaItem> children = subscriptionCallback.mStreamedChildren;
+                subscriptionCallback.mStreamedChildren = null;
+                subscriptionCallback.onChildrenLoaded(parentId, children, options);
+            }
+            mNotifyChildrenChangedOptions = null;
+
+            if (continuationToken != null) {
+                try {
+                    mServiceBinderWrapper.loadChildrenChunk(parentId, subscriptionCallback.mToken,
+                            options, continuationToken, mCallbacksMessenger);
+                } catch (RemoteException e) {
+                    // Process is crashing. We will disconnect, and upon reconnect we will
+                    // automatically reregister. So nothing to do here.
+                    Log.d(TAG, "loadChildrenChunk failed with RemoteException parentId="
+                            + parentId);
+                }
+            }
+        }
+
         @Override
         public Bundle getNotifyChildrenChangedOptions() {
             return mNotifyChildrenChangedOptions;
@@ -2024,6 +2137,50 @@ public final class MediaBrowserCompat {
             }
         }
 
+        @Override
+        @SuppressWarnings("ReferenceEquality")
+        public void onLoadChildrenChunk(Messenger callback, String parentId,
+                List<MediaItem> chunk, Bundle options, Bundle notifyChildrenChangedOptions,
+                int streamId, int offset, String continuationToken) {
+            if (mCallbacksMessenger != callback) {
+                return;
+            }
+
+            // Check that the subscription is still subscribed.
+            Subscription subscription = mSubscriptions.get(parentId);
+            if (subscription == null) {
+                if (DEBUG) {
+                    Log.d(TAG, "onLoadChildrenChunk for id that isn't subscribed id=" + parentId);
+                }
+                return;
+            }
+
+            SubscriptionCallback subscriptionCallback = subscription.getCallback(options);
+            if (subscriptionCallback == null
+                    || !subscriptionCallback.appendChildrenChunk(streamId, chunk, offset)) {
+                return;
+            }
+
+            // Tell the app.
+            mNotifyChildrenChangedOptions = notifyChildrenChangedOptions;
+            subscriptionCallback.onChildrenChunkLoaded(parentId, chunk, offset, options);
+            if (continuationToken == null) {
+                List<MediaItem> children = subscriptionCallback.mStreamedChildren;
+                subscriptionCallback.mStreamedChildren = null;
+                subscriptionCallback.onChildrenLoaded(parentId, children, options);
+            }
+            mNotifyChildrenChangedOptions = null;
+
+            if (continuationToken != null && mServiceBinderWrapper != null) {
+                try {
+                    mServiceBinderWrapper.loadChildrenChunk(parentId, subscriptionCallback.mToken,
+                            options, continuationToken, mCallbacksMessenger);
+                } catch (RemoteException e) {
+                    Log.i(TAG, "Remote error loading children chunk.");
+                }
+            }
+        }
+
         @Override
         public Bundle getNotifyChildrenChangedOptions() {
             return mNotifyChildrenChangedOptions;
@@ -2177,6 +2334,25 @@ public final class MediaBrowserCompat {
                                 notifyChildrenChangedOptions);
                         break;
                     }
+                    case SERVICE_MSG_ON_LOAD_CHILDREN_CHUNK: {
+                        Bundle options = data.getBundle(DATA_OPTIONS);
+                        MediaSessionCompat.ensureClassLoader(options);
+
+                        Bundle notifyChildrenChangedOptions =
+                                data.getBundle(DATA_NOTIFY_CHILDREN_CHANGED_OPTIONS);
+                        MediaSessionCompat.ensureClassLoader(notifyChildrenChangedOptions);
+
+                        List<MediaItem> chunk = data.getParcelableArrayList(DATA_MEDIA_ITEM_LIST);
+                        serviceCallback.onLoadChildrenChunk(callbacksMessenger,
+                                data.getString(DATA_MEDIA_ITEM_ID),
+                                chunk == null ? Collections.<MediaItem>emptyList() : chunk,
+                                options,
+                                notifyChildrenChangedOptions,
+                                data.getInt(DATA_CHUNK_STREAM_ID),
+                                data.getInt(DATA_CHUNK_OFFSET),
+                                data.getString(DATA_CONTINUATION_TOKEN));
+                        break;
+                    }
                     default:
                         Log.w(TAG, "Unhandled message: " + msg
                                 + "\n  Client version: " + CLIENT_VERSION_CURRENT
@@ -2229,6 +2405,17 @@ public final class MediaBrowserCompat {
             sendRequest(CLIENT_MSG_ADD_SUBSCRIPTION, data, callbacksMessenger);
         }
 
+        void loadChildrenChunk(String parentId, IBinder callbackToken, Bundle options,
+                String continuationToken, Messenger callbacksMessenger)
+                throws RemoteException {
+            Bundle data = new Bundle();
+            data.putString(DATA_MEDIA_ITEM_ID, parentId);
+            data.putBinder(DATA_CALLBACK_TOKEN, callbackToken);
+            data.putBundle(DATA_OPTIONS, options);
+            data.putString(DATA_CONTINUATION_TOKEN, continuationToken);
+            sendRequest(CLIENT_MSG_LOAD_CHILDREN_CHUNK, data, callbacksMessenger);
+        }
+
         void removeSubscription(String parentId, IBinder callbackToken,
                 Messenger callbacksMessenger)
                 throws RemoteException {
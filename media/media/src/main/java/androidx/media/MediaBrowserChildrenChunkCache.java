@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.media;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY;
+
+import android.support.v4.media.MediaBrowserCompat;
+
+import androidx.annotation.RestrictTo;
+import androidx.collection.LruCache;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most recently served children lists of a {@link MediaBrowserServiceCompat}, so that
+ * the remaining chunks of a streamed {@code onLoadChildren} result can be sent to the browser
+ * without calling {@code onLoadChildren} again.
+ * <p>
+ * Every cached list is identified by a stream id. A continuation token handed to the browser
+ * consists of the stream id and the offset of the next chunk, and is opaque to the browser.
+ * This class is thread-safe.
+ */
+@RestrictTo(LIBRARY)
+public class MediaBrowserChildrenChunkCache {
+    private static final char TOKEN_SEPARATOR = ':';
+
+    private final LruCache<Integer, Entry> mEntries;
+    private int mNextStreamId;
+
+    public MediaBrowserChildrenChunkCache(int maxEntries) {
+        mEntries = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Stores a copy of the given children list and returns the id of the new stream.
+     */
+    public synchronized int put(@NonNull String parentId,
+            @NonNull List<MediaBrowserCompat.MediaItem> children) {
+        int streamId = mNextStreamId++;
+        mEntries.put(streamId, new Entry(parentId, new ArrayList<>(children)));
+        return streamId;
+    }
+
+    /**
+     * Returns the children list for the given stream, or {@code null} if it was evicted or
+     * invalidated, or if it does not belong to the given parent id.
+     */
+    public @Nullable List<MediaBrowserCompat.MediaItem> get(@NonNull String parentId,
+            int streamId) {
+        Entry entry = mEntries.get(streamId);
+        if (entry == null || !entry.mParentId.equals(parentId)) {
+            return null;
+        }
+        return entry.mChildren;
+    }
+
+    /**
+     * Drops all the cached lists of the given parent id.
+     */
+    public void invalidate(@NonNull String parentId) {
+        for (Map.Entry<Integer, Entry> entry : mEntries.snapshot().entrySet()) {
+            if (entry.getValue().mParentId.equals(parentId)) {
+                mEntries.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Drops all the cached lists.
+     */
+    public void clear() {
+        mEntries.evictAll();
+    }
+
+    /**
+     * Returns the number of cache hits when resuming a stream.
+     */
+    public int hitCount() {
+        return mEntries.hitCount();
+    }
+
+    /**
+     * Returns the number of cache misses when resuming a stream.
+     */
+    public int missCount() {
+        return mEntries.missCount();
+    }
+
+    /**
+     * Creates a continuation token which points to the given offset of the given stream.
+     */
+    public static @NonNull String createContinuationToken(int streamId, int offset) {
+        return Integer.toString(streamId) + TOKEN_SEPARATOR + offset;
+    }
+
+    /**
+     * Returns the stream id of the given continuation token, or -1 if the token is malformed.
+     */
+    public static int getStreamId(@Nullable String continuationToken) {
+        return parseTokenPart(continuationToken, true);
+    }
+
+    /**
+     * Returns the offset of the given continuation token, or -1 if the token is malformed.
+     */
+    public static int getOffset(@Nullable String continuationToken) {
+        return parseTokenPart(continuationToken, false);
+    }
+
+    private static int parseTokenPart(@Nullable String continuationToken, boolean streamId) {
+        if (continuationToken == null) {
+            return -1;
+        }
+        int separator = continuationToken.indexOf(TOKEN_SEPARATOR);
+        if (separator <= 0 || separator == continuationToken.length() - 1) {
+            return -1;
+        }
+        try {
+            int value = Integer.parseInt(streamId ? continuationToken.substring(0, separator)
+                    : continuationToken.substring(separator + 1));
+            return value < 0 ? -1 : value;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Entry {
+        final String mParentId;
+        final List<MediaBrowserCompat.MediaItem> mChildren;
+
+        Entry(String parentId, List<MediaBrowserCompat.MediaItem> children) {
+            mParentId = parentId;
+            mChildren = children;
+        }
+    }
+}
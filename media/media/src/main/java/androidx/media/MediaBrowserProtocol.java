@@ -45,6 +45,9 @@ public class MediaBrowserProtocol {
     public static final String DATA_SEARCH_QUERY = "data_search_query";
     public static final String DATA_CUSTOM_ACTION = "data_custom_action";
     public static final String DATA_CUSTOM_ACTION_EXTRAS = "data_custom_action_extras";
+    public static final String DATA_CHUNK_OFFSET = "data_chunk_offset";
+    public static final String DATA_CHUNK_STREAM_ID = "data_chunk_stream_id";
+    public static final String DATA_CONTINUATION_TOKEN = "data_continuation_token";
 
     public static final String EXTRA_CLIENT_VERSION = "extra_client_version";
     public static final String EXTRA_CALLING_PID = "extra_calling_pid";
@@ -106,6 +109,25 @@ public class MediaBrowserProtocol {
      */
     public static final int SERVICE_MSG_ON_LOAD_CHILDREN = 3;
 
+    /** (service v2)
+     * Sent when a chunk of the list of children is loaded or updated. Only sent when the
+     * subscription options contain {@link MediaBrowserCompat#EXTRA_CHUNK_SIZE}.
+     * - arg1 : The service version
+     * - data
+     *     DATA_MEDIA_ITEM_ID : A string for the parent media item id
+     *     DATA_MEDIA_ITEM_LIST : An array list for the media items of this chunk
+     *     DATA_OPTIONS : A bundle of service-specific arguments sent from the media browse to
+     *                    the media browser service
+     *     DATA_NOTIFY_CHILDREN_CHANGED_OPTIONS : A bundle of service-specific arguments sent from
+     *                    the media browser service to the media browser by calling
+     *                    {@link MediaBrowserServiceCompat#notifyChildrenChanged(String, Bundle)}
+     *     DATA_CHUNK_STREAM_ID : An int which identifies the list this chunk belongs to
+     *     DATA_CHUNK_OFFSET : The index of the first item of this chunk in the whole list
+     *     DATA_CONTINUATION_TOKEN : An opaque string to request the next chunk, or null if this
+     *                               is the last chunk
+     */
+    public static final int SERVICE_MSG_ON_LOAD_CHILDREN_CHUNK = 4;
+
     /**
      * MediaBrowserServiceCompat will check the version of the MediaBrowserCompat, and it will not
      * send messages if they are introduced in the higher version of the MediaBrowserCompat.
@@ -210,6 +232,20 @@ public class MediaBrowserProtocol {
      */
     public static final int CLIENT_MSG_SEND_CUSTOM_ACTION = 9;
 
+    /** (client v1)
+     * Sent to request the next chunk of a streamed list of children.
+     * - arg1 : The client version
+     * - data
+     *     DATA_MEDIA_ITEM_ID : A string for a media item id
+     *     DATA_OPTIONS : A bundle of service-specific arguments sent from the media browser to
+     *                    the media browser service
+     *     DATA_CALLBACK_TOKEN : An IBinder of service-specific arguments sent from the media
+     *                           browser to the media browser service
+     *     DATA_CONTINUATION_TOKEN : The continuation token of the previous chunk
+     * - replyTo : Callback messenger
+     */
+    public static final int CLIENT_MSG_LOAD_CHILDREN_CHUNK = 10;
+
     private MediaBrowserProtocol() {
     }
 }
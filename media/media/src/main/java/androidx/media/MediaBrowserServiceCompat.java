@@ -22,6 +22,7 @@ import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_ADD_SUBSCRIPTION;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_CONNECT;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_DISCONNECT;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_GET_MEDIA_ITEM;
+import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_LOAD_CHILDREN_CHUNK;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_REGISTER_CALLBACK_MESSENGER;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_REMOVE_SUBSCRIPTION;
 import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_SEARCH;
@@ -30,6 +31,9 @@ import static androidx.media.MediaBrowserProtocol.CLIENT_MSG_UNREGISTER_CALLBACK
 import static androidx.media.MediaBrowserProtocol.DATA_CALLBACK_TOKEN;
 import static androidx.media.MediaBrowserProtocol.DATA_CALLING_PID;
 import static androidx.media.MediaBrowserProtocol.DATA_CALLING_UID;
+import static androidx.media.MediaBrowserProtocol.DATA_CHUNK_OFFSET;
+import static androidx.media.MediaBrowserProtocol.DATA_CHUNK_STREAM_ID;
+import static androidx.media.MediaBrowserProtocol.DATA_CONTINUATION_TOKEN;
 import static androidx.media.MediaBrowserProtocol.DATA_CUSTOM_ACTION;
 import static androidx.media.MediaBrowserProtocol.DATA_CUSTOM_ACTION_EXTRAS;
 import static androidx.media.MediaBrowserProtocol.DATA_MEDIA_ITEM_ID;
@@ -50,6 +54,7 @@ import static androidx.media.MediaBrowserProtocol.EXTRA_SESSION_BINDER;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_CONNECT;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_CONNECT_FAILED;
 import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_LOAD_CHILDREN;
+import static androidx.media.MediaBrowserProtocol.SERVICE_MSG_ON_LOAD_CHILDREN_CHUNK;
 import static androidx.media.MediaBrowserProtocol.SERVICE_VERSION_CURRENT;
 import static androidx.media.MediaSessionManager.RemoteUserInfo.LEGACY_CONTROLLER;
 import static androidx.media.MediaSessionManager.RemoteUserInfo.UNKNOWN_PID;
@@ -137,6 +142,9 @@ public abstract class MediaBrowserServiceCompat extends Service {
 
     private static final float EPSILON = 0.00001f;
 
+    // The number of recently served children lists kept for streamed subscriptions.
+    private static final int CHILDREN_CHUNK_CACHE_SIZE = 8;
+
     private MediaBrowserServiceImpl mImpl;
 
     /**
@@ -188,6 +196,8 @@ public abstract class MediaBrowserServiceCompat extends Service {
     final ArrayList<ConnectionRecord> mPendingConnections = new ArrayList<>();
     final ArrayMap<IBinder, ConnectionRecord> mConnections = new ArrayMap<>();
     ConnectionRecord mCurConnection;
+    final MediaBrowserChildrenChunkCache mChildrenChunkCache =
+            new MediaBrowserChildrenChunkCache(CHILDREN_CHUNK_CACHE_SIZE);
     final ServiceHandler mHandler = new ServiceHandler(/* service= */ this);
     MediaSessionCompat.Token mSession;
 
@@ -1017,6 +1027,31 @@ public abstract class MediaBrowserServiceCompat extends Service {
             });
         }
 
+        public void loadChildrenChunk(final String id, final IBinder token, final Bundle options,
+                final String continuationToken, final ServiceCallbacks callbacks) {
+            mHandler.postOrRun(new Runnable() {
+                @Override
+                public void run() {
+                    final IBinder b = callbacks.asBinder();
+
+                    ConnectionRecord connection = mConnections.get(b);
+                    if (connection == null) {
+                        Log.w(TAG, "loadChildrenChunk for callback that isn't registered id="
+                                + id);
+                        return;
+                    }
+                    if (!isSubscribed(id, connection, token, options)) {
+                        if (DEBUG) {
+                            Log.d(TAG, "loadChildrenChunk called for " + id
+                                    + " which is not subscribed");
+                        }
+                        return;
+                    }
+                    performLoadChildrenChunk(id, connection, options, continuationToken);
+                }
+            });
+        }
+
         public void getMediaItem(final String mediaId, final ResultReceiver receiver,
                 final ServiceCallbacks callbacks) {
             if (TextUtils.isEmpty(mediaId) || receiver == null) {
@@ -1145,6 +1180,9 @@ public abstract class MediaBrowserServiceCompat extends Service {
         void onConnectFailed() throws RemoteException;
         void onLoadChildren(String mediaId, List<MediaBrowserCompat.MediaItem> list, Bundle options,
                 Bundle notifyChildrenChangedOptions) throws RemoteException;
+        void onLoadChildrenChunk(String mediaId, List<MediaBrowserCompat.MediaItem> chunk,
+                Bundle options, Bundle notifyChildrenChangedOptions, int streamId, int offset,
+                String continuationToken) throws RemoteException;
     }
 
     private static class ServiceCallbacksCompat implements ServiceCallbacks {
@@ -1193,6 +1231,23 @@ public abstract class MediaBrowserServiceCompat extends Service {
             sendRequest(SERVICE_MSG_ON_LOAD_CHILDREN, data);
         }
 
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        @Override
+        public void onLoadChildrenChunk(String mediaId, List<MediaBrowserCompat.MediaItem> chunk,
+                Bundle options, Bundle notifyChildrenChangedOptions, int streamId, int offset,
+                String continuationToken) throws RemoteException {
+            Bundle data = new Bundle();
+            data.putString(DATA_MEDIA_ITEM_ID, mediaId);
+            data.putBundle(DATA_OPTIONS, options);
+            data.putBundle(DATA_NOTIFY_CHILDREN_CHANGED_OPTIONS, notifyChildrenChangedOptions);
+            data.putParcelableArrayList(DATA_MEDIA_ITEM_LIST,
+                    chunk instanceof ArrayList ? (ArrayList) chunk : new ArrayList<>(chunk));
+            data.putInt(DATA_CHUNK_STREAM_ID, streamId);
+            data.putInt(DATA_CHUNK_OFFSET, offset);
+            data.putString(DATA_CONTINUATION_TOKEN, continuationToken);
+            sendRequest(SERVICE_MSG_ON_LOAD_CHILDREN_CHUNK, data);
+        }
+
         private void sendRequest(int what, Bundle data) throws RemoteException {
             Message msg = Message.obtain();
             msg.what = what;
@@ -1532,6 +1587,7 @@ public abstract class MediaBrowserServiceCompat extends Service {
         if (parentId == null) {
             throw new IllegalArgumentException("parentId cannot be null in notifyChildrenChanged");
         }
+        mChildrenChunkCache.invalidate(parentId);
         mImpl.notifyChildrenChanged(parentId, null);
     }
 
@@ -1553,6 +1609,7 @@ public abstract class MediaBrowserServiceCompat extends Service {
         if (options == null) {
             throw new IllegalArgumentException("options cannot be null in notifyChildrenChanged");
         }
+        mChildrenChunkCache.invalidate(parentId);
         mImpl.notifyChildrenChanged(parentId, options);
     }
 
@@ -1581,6 +1638,7 @@ public abstract class MediaBrowserServiceCompat extends Service {
         if (options == null) {
             throw new IllegalArgumentException("options cannot be null in notifyChildrenChanged");
         }
+        mChildrenChunkCache.invalidate(parentId);
         mImpl.notifyChildrenChanged(remoteUserInfo, parentId, options);
     }
 
@@ -1626,6 +1684,18 @@ public abstract class MediaBrowserServiceCompat extends Service {
                         (ResultReceiver) data.getParcelable(DATA_RESULT_RECEIVER),
                         new ServiceCallbacksCompat(msg.replyTo));
                 break;
+            case CLIENT_MSG_LOAD_CHILDREN_CHUNK: {
+                Bundle options = data.getBundle(DATA_OPTIONS);
+                MediaSessionCompat.ensureClassLoader(options);
+
+                mServiceBinderImpl.loadChildrenChunk(
+                        data.getString(DATA_MEDIA_ITEM_ID),
+                        data.getBinder(DATA_CALLBACK_TOKEN),
+                        options,
+                        data.getString(DATA_CONTINUATION_TOKEN),
+                        new ServiceCallbacksCompat(msg.replyTo));
+                break;
+            }
             case CLIENT_MSG_REGISTER_CALLBACK_MESSENGER: {
                 Bundle rootHints = data.getBundle(DATA_ROOT_HINTS);
                 MediaSessionCompat.ensureClassLoader(rootHints);
@@ -1719,6 +1789,24 @@ public abstract class MediaBrowserServiceCompat extends Service {
         mCurConnection = null;
     }
 
+    /**
+     * Return whether the given token is subscribed to the given id with the given options.
+     */
+    boolean isSubscribed(String id, ConnectionRecord connection, IBinder token,
+            Bundle options) {
+        List<Pair<IBinder, Bundle>> callbackList = connection.subscriptions.get(id);
+        if (callbackList == null) {
+            return false;
+        }
+        for (Pair<IBinder, Bundle> callback : callbackList) {
+            if (token == callback.first
+                    && MediaBrowserCompatUtils.areSameOptions(options, callback.second)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Remove the subscription.
      */
@@ -1771,6 +1859,15 @@ public abstract class MediaBrowserServiceCompat extends Service {
                 List<MediaBrowserCompat.MediaItem> filteredList =
                         (getFlags() & RESULT_FLAG_OPTION_NOT_HANDLED) != 0
                                 ? applyOptions(list, subscribeOptions) : list;
+                int chunkSize = getChunkSize(subscribeOptions);
+                if (filteredList != null && chunkSize > 0) {
+                    // Only keep the list around when the browser will ask for more chunks.
+                    int streamId = filteredList.size() > chunkSize
+                            ? mChildrenChunkCache.put(parentId, filteredList) : -1;
+                    sendChildrenChunk(parentId, connection, filteredList, streamId, 0, chunkSize,
+                            subscribeOptions, notifyChildrenChangedOptions);
+                    return;
+                }
                 try {
                     connection.callbacks.onLoadChildren(parentId, filteredList, subscribeOptions,
                             notifyChildrenChangedOptions);
@@ -1796,6 +1893,52 @@ public abstract class MediaBrowserServiceCompat extends Service {
         }
     }
 
+    /**
+     * Send the next chunk of a streamed children list back to the connection. If the list is no
+     * longer cached, onLoadChildren is called again and the stream restarts from the first chunk.
+     * <p>
+     * Callers must make sure that this connection is still connected.
+     */
+    void performLoadChildrenChunk(String parentId, ConnectionRecord connection,
+            Bundle subscribeOptions, String continuationToken) {
+        int chunkSize = getChunkSize(subscribeOptions);
+        int streamId = MediaBrowserChildrenChunkCache.getStreamId(continuationToken);
+        int offset = MediaBrowserChildrenChunkCache.getOffset(continuationToken);
+        List<MediaBrowserCompat.MediaItem> children =
+                streamId < 0 ? null : mChildrenChunkCache.get(parentId, streamId);
+        if (children == null || chunkSize < 1 || offset < 0 || offset >= children.size()) {
+            if (DEBUG) {
+                Log.d(TAG, "Restarting children stream for id=" + parentId
+                        + " package=" + connection.pkg);
+            }
+            performLoadChildren(parentId, connection, subscribeOptions, null);
+            return;
+        }
+        sendChildrenChunk(parentId, connection, children, streamId, offset, chunkSize,
+                subscribeOptions, null);
+    }
+
+    void sendChildrenChunk(String parentId, ConnectionRecord connection,
+            List<MediaBrowserCompat.MediaItem> children, int streamId, int offset, int chunkSize,
+            Bundle subscribeOptions, Bundle notifyChildrenChangedOptions) {
+        int end = Math.min(offset + chunkSize, children.size());
+        String continuationToken = end < children.size()
+                ? MediaBrowserChildrenChunkCache.createContinuationToken(streamId, end) : null;
+        try {
+            connection.callbacks.onLoadChildrenChunk(parentId,
+                    new ArrayList<>(children.subList(offset, end)), subscribeOptions,
+                    notifyChildrenChangedOptions, streamId, offset, continuationToken);
+        } catch (RemoteException ex) {
+            // The other side is in the process of crashing.
+            Log.w(TAG, "Calling onLoadChildrenChunk() failed for id=" + parentId
+                    + " package=" + connection.pkg);
+        }
+    }
+
+    static int getChunkSize(Bundle options) {
+        return options == null ? -1 : options.getInt(MediaBrowserCompat.EXTRA_CHUNK_SIZE, -1);
+    }
+
     List<MediaBrowserCompat.MediaItem> applyOptions(List<MediaBrowserCompat.MediaItem> list,
             final Bundle options) {
         if (list == null) {
@@ -258,6 +258,29 @@ public class MediaRouterTest {
         assertTrue(mPassiveScanCountDownLatch.await(1000 + TIME_OUT_MS, TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    @SmallTest
+    public void setDescriptor_republishedRoutes_onlyChangedRoutesAreUpdated() {
+        GlobalMediaRouter globalRouter = MediaRouter.getGlobalRouter();
+        getInstrumentation().runOnMainSync(() -> mRouter.addProvider(mProvider));
+        publishDescriptor(/* volume= */ 1);
+        int receivedCount = globalRouter.getReceivedProviderDescriptorCount();
+        int changedCount = globalRouter.getChangedRouteCount();
+        int unchangedCount = globalRouter.getUnchangedRouteCount();
+
+        // Republish the same routes with new descriptor instances.
+        publishDescriptor(/* volume= */ 1);
+        assertEquals(receivedCount + 1, globalRouter.getReceivedProviderDescriptorCount());
+        assertEquals(changedCount, globalRouter.getChangedRouteCount());
+        assertEquals(unchangedCount + 2, globalRouter.getUnchangedRouteCount());
+
+        // Change the volume of one route only.
+        publishDescriptor(/* volume= */ 2);
+        assertEquals(receivedCount + 2, globalRouter.getReceivedProviderDescriptorCount());
+        assertEquals(changedCount + 1, globalRouter.getChangedRouteCount());
+        assertEquals(unchangedCount + 3, globalRouter.getUnchangedRouteCount());
+    }
+
     @Test
     @UiThreadTest
     public void testReset() {
@@ -319,6 +342,25 @@ public class MediaRouterTest {
         }
     }
 
+    private void publishDescriptor(int volume) {
+        Bundle extras = new Bundle();
+        extras.putString(TEST_KEY, TEST_VALUE);
+        MediaRouteProviderDescriptor descriptor =
+                new MediaRouteProviderDescriptor.Builder()
+                        .addRoute(
+                                new MediaRouteDescriptor.Builder("route1", "Route 1")
+                                        .setExtras(extras)
+                                        .build())
+                        .addRoute(
+                                new MediaRouteDescriptor.Builder("route2", "Route 2")
+                                        .setVolumeMax(10)
+                                        .setVolume(volume)
+                                        .build())
+                        .build();
+        getInstrumentation().runOnMainSync(() -> mProvider.setDescriptor(descriptor));
+        getInstrumentation().waitForIdleSync();
+    }
+
     private void resetActiveAndPassiveScanCountDownLatches() {
         mActiveScanCountDownLatch = new CountDownLatch(1);
         mPassiveScanCountDownLatch = new CountDownLatch(1);
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.mediarouter.media;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.IntentFilter;
+import android.os.Bundle;
+import android.os.PatternMatcher;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class RouteDescriptorDifferTest {
+
+    private static final String FAKE_MEDIA_ROUTE_ID = "fakeMediaRouteId";
+    private static final String FAKE_MEDIA_ROUTE_NAME = "fakeMediaRouteName";
+    private static final String FAKE_CONTROL_ACTION = "fakeControlAction";
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_sameContent_returnsTrue() {
+        assertTrue(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(/* volume= */ 1, "value"),
+                        createDescriptor(/* volume= */ 1, "value")));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_differentField_returnsFalse() {
+        assertFalse(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(/* volume= */ 1, "value"),
+                        createDescriptor(/* volume= */ 2, "value")));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_differentExtras_returnsFalse() {
+        assertFalse(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(/* volume= */ 1, "value"),
+                        createDescriptor(/* volume= */ 1, "otherValue")));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_null() {
+        assertTrue(RouteDescriptorDiffer.isSameRouteDescriptor(null, null));
+        assertFalse(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        null, createDescriptor(/* volume= */ 1, "value")));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_differentFilterAuthority_returnsFalse() {
+        assertFalse(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(createFilter("host1", "/path")),
+                        createDescriptor(createFilter("host2", "/path"))));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_differentFilterPath_returnsFalse() {
+        assertFalse(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(createFilter("host", "/path1")),
+                        createDescriptor(createFilter("host", "/path2"))));
+    }
+
+    @Test
+    @SmallTest
+    public void isSameRouteDescriptor_sameFilterData_returnsTrue() {
+        assertTrue(
+                RouteDescriptorDiffer.isSameRouteDescriptor(
+                        createDescriptor(createFilter("host", "/path")),
+                        createDescriptor(createFilter("host", "/path"))));
+    }
+
+    private static IntentFilter createFilter(String host, String path) {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(FAKE_CONTROL_ACTION);
+        filter.addDataScheme("https");
+        filter.addDataAuthority(host, null);
+        filter.addDataPath(path, PatternMatcher.PATTERN_LITERAL);
+        return filter;
+    }
+
+    private static MediaRouteDescriptor createDescriptor(IntentFilter filter) {
+        return new MediaRouteDescriptor.Builder(FAKE_MEDIA_ROUTE_ID, FAKE_MEDIA_ROUTE_NAME)
+                .addControlFilter(filter)
+                .build();
+    }
+
+    private static MediaRouteDescriptor createDescriptor(int volume, String extraValue) {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(FAKE_CONTROL_ACTION);
+        filter.addCategory(MediaControlIntent.CATEGORY_REMOTE_PLAYBACK);
+        Bundle extras = new Bundle();
+        extras.putString("key", extraValue);
+        return new MediaRouteDescriptor.Builder(FAKE_MEDIA_ROUTE_ID, FAKE_MEDIA_ROUTE_NAME)
+                .addControlFilter(filter)
+                .setVolumeMax(10)
+                .setVolume(volume)
+                .setExtras(extras)
+                .build();
+    }
+}
@@ -135,6 +135,10 @@ import java.util.Set;
     private int mCallbackCount;
     private MediaSessionRecord mMediaSession;
     private MediaSessionCompat mCompatSession;
+    // Counters for provider descriptor updates, see updateProviderContents().
+    private int mReceivedProviderDescriptorCount;
+    private int mChangedRouteCount;
+    private int mUnchangedRouteCount;
 
     /* package */ GlobalMediaRouter(Context applicationContext) {
         mApplicationContext = applicationContext;
@@ -929,10 +933,21 @@ import java.util.Set;
 
     private void updateProviderContents(
             MediaRouter.ProviderInfo provider, MediaRouteProviderDescriptor providerDescriptor) {
+        boolean supportedDynamicGroup = provider.supportsDynamicGroup();
         if (!provider.updateDescriptor(providerDescriptor)) {
             // Nothing to update.
             return;
         }
+        mReceivedProviderDescriptorCount++;
+        // Whether any route was added, removed, reordered or changed, or the provider itself
+        // changed. Providers republish all their routes when any of them changes, so most
+        // descriptors only carry a few real changes, if any.
+        boolean providerChanged = supportedDynamicGroup != provider.supportsDynamicGroup();
+        // Index the existing routes once instead of searching the list for every descriptor.
+        Map<String, Integer> routeIndexes = new HashMap<>();
+        for (int i = 0; i < provider.mRoutes.size(); i++) {
+            routeIndexes.put(provider.mRoutes.get(i).mDescriptorId, i);
+        }
         // Update all existing routes and reorder them to match
         // the order of their descriptors.
         int targetIndex = 0;
@@ -954,7 +969,8 @@ import java.util.Set;
                     continue;
                 }
                 final String id = routeDescriptor.getId();
-                final int sourceIndex = provider.findRouteIndexByDescriptorId(id);
+                final Integer index = routeIndexes.get(id);
+                final int sourceIndex = index == null ? -1 : index;
 
                 if (sourceIndex < 0) {
                     // 1. Add the route to the list.
@@ -963,8 +979,15 @@ import java.util.Set;
                             new MediaRouter.RouteInfo(
                                     provider, id, uniqueId, routeDescriptor.isSystemRoute());
 
-                    provider.mRoutes.add(targetIndex++, route);
+                    provider.mRoutes.add(targetIndex, route);
+                    // Inserting shifts the following routes, so reindex them.
+                    for (int i = targetIndex; i < provider.mRoutes.size(); i++) {
+                        routeIndexes.put(provider.mRoutes.get(i).mDescriptorId, i);
+                    }
+                    targetIndex++;
                     mRoutes.add(route);
+                    mChangedRouteCount++;
+                    providerChanged = true;
                     // 2. Create the route's contents.
                     if (!routeDescriptor.getGroupMemberIds().isEmpty()) {
                         addedGroups.add(new Pair<>(route, routeDescriptor));
@@ -981,16 +1004,32 @@ import java.util.Set;
                 } else {
                     MediaRouter.RouteInfo route = provider.mRoutes.get(sourceIndex);
                     // 1. Reorder the route within the list.
-                    Collections.swap(provider.mRoutes, sourceIndex, targetIndex++);
+                    if (sourceIndex != targetIndex) {
+                        Collections.swap(provider.mRoutes, sourceIndex, targetIndex);
+                        routeIndexes.put(
+                                provider.mRoutes.get(sourceIndex).mDescriptorId, sourceIndex);
+                        routeIndexes.put(id, targetIndex);
+                        providerChanged = true;
+                    }
+                    targetIndex++;
                     // 2. Update the route's contents.
                     if (!routeDescriptor.getGroupMemberIds().isEmpty()) {
                         updatedGroups.add(new Pair<>(route, routeDescriptor));
+                    } else if (RouteDescriptorDiffer.isSameRouteDescriptor(
+                            route.mDescriptor, routeDescriptor)) {
+                        // Nothing to notify. Only keep the latest descriptor instance.
+                        route.mDescriptor = routeDescriptor;
+                        mUnchangedRouteCount++;
                     } else {
                         // 3. Notify clients about changes.
                         if (updateRouteDescriptorAndNotify(route, routeDescriptor) != 0) {
+                            mChangedRouteCount++;
+                            providerChanged = true;
                             if (route == mSelectedRoute) {
                                 selectedRouteDescriptorChanged = true;
                             }
+                        } else {
+                            mUnchangedRouteCount++;
                         }
                     }
                 }
@@ -1006,10 +1045,15 @@ import java.util.Set;
             }
             for (Pair<MediaRouter.RouteInfo, MediaRouteDescriptor> pair : updatedGroups) {
                 MediaRouter.RouteInfo route = pair.first;
+                // Groups are always updated as their members may have changed.
                 if (updateRouteDescriptorAndNotify(route, pair.second) != 0) {
+                    mChangedRouteCount++;
+                    providerChanged = true;
                     if (route == mSelectedRoute) {
                         selectedRouteDescriptorChanged = true;
                     }
+                } else {
+                    mUnchangedRouteCount++;
                 }
             }
         } else {
@@ -1021,6 +1065,14 @@ import java.util.Set;
             Log.w(TAG, message);
         }
 
+        if (!providerChanged && targetIndex == provider.mRoutes.size()) {
+            // No route was added, removed, reordered or changed.
+            if (DEBUG) {
+                Log.d(TAG, "Provider unchanged: " + provider);
+            }
+            return;
+        }
+
         // Dispose all remaining routes that do not have matching descriptors.
         for (int i = provider.mRoutes.size() - 1; i >= targetIndex; i--) {
             // 1. Delete the route's contents.
@@ -1040,6 +1092,7 @@ import java.util.Set;
         // selected route may have side-effects.
         for (int i = provider.mRoutes.size() - 1; i >= targetIndex; i--) {
             MediaRouter.RouteInfo route = provider.mRoutes.remove(i);
+            mChangedRouteCount++;
             if (DEBUG) {
                 Log.d(TAG, "Route removed: " + route);
             }
@@ -1053,6 +1106,30 @@ import java.util.Set;
         mCallbackHandler.post(CallbackHandler.MSG_PROVIDER_CHANGED, provider);
     }
 
+    /**
+     * Returns the number of provider descriptors which were published with a new descriptor
+     * instance.
+     */
+    /* package */ int getReceivedProviderDescriptorCount() {
+        return mReceivedProviderDescriptorCount;
+    }
+
+    /**
+     * Returns the number of routes which were added, removed or changed by provider descriptor
+     * updates.
+     */
+    /* package */ int getChangedRouteCount() {
+        return mChangedRouteCount;
+    }
+
+    /**
+     * Returns the number of routes which were republished by provider descriptor updates without
+     * any change.
+     */
+    /* package */ int getUnchangedRouteCount() {
+        return mUnchangedRouteCount;
+    }
+
     /* package */ int updateRouteDescriptorAndNotify(
             MediaRouter.RouteInfo route, MediaRouteDescriptor routeDescriptor) {
         int changes = route.maybeUpdateDescriptor(routeDescriptor);
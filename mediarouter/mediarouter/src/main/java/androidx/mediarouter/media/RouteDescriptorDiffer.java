@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.mediarouter.media;
+
+import android.content.IntentFilter;
+import android.os.Bundle;
+import android.os.Parcel;
+
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares {@link MediaRouteDescriptor route descriptors} by content, so that {@link
+ * GlobalMediaRouter} can skip routes whose descriptor was republished without any change.
+ *
+ * <p>Providers usually rebuild all their descriptors whenever any route changes, and descriptors
+ * that come from another process never share instances, so reference equality cannot be used to
+ * detect unchanged routes.
+ */
+/* package */ final class RouteDescriptorDiffer {
+
+    private RouteDescriptorDiffer() {}
+
+    /** Returns whether the two route descriptors have the same content. */
+    static boolean isSameRouteDescriptor(
+            @Nullable MediaRouteDescriptor descriptor1,
+            @Nullable MediaRouteDescriptor descriptor2) {
+        if (descriptor1 == descriptor2) {
+            return true;
+        }
+        if (descriptor1 == null || descriptor2 == null) {
+            return false;
+        }
+        return isSameBundle(descriptor1.asBundle(), descriptor2.asBundle());
+    }
+
+    /** Returns whether the two bundles have the same keys and deeply equal values. */
+    @SuppressWarnings("deprecation")
+    static boolean isSameBundle(@Nullable Bundle bundle1, @Nullable Bundle bundle2) {
+        if (bundle1 == bundle2) {
+            return true;
+        }
+        if (bundle1 == null || bundle2 == null || bundle1.size() != bundle2.size()) {
+            return false;
+        }
+        Set<String> keys = bundle1.keySet();
+        for (String key : keys) {
+            if (!bundle2.containsKey(key) || !isSameValue(bundle1.get(key), bundle2.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameValue(@Nullable Object value1, @Nullable Object value2) {
+        if (value1 == value2) {
+            return true;
+        }
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        if (value1 instanceof Bundle && value2 instanceof Bundle) {
+            return isSameBundle((Bundle) value1, (Bundle) value2);
+        }
+        if (value1 instanceof List && value2 instanceof List) {
+            List<?> list1 = (List<?>) value1;
+            List<?> list2 = (List<?>) value2;
+            int size = list1.size();
+            if (size != list2.size()) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!isSameValue(list1.get(i), list2.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value1 instanceof IntentFilter && value2 instanceof IntentFilter) {
+            return isSameIntentFilter((IntentFilter) value1, (IntentFilter) value2);
+        }
+        return ObjectsCompat.equals(value1, value2);
+    }
+
+    /**
+     * Returns whether the two intent filters have the same content. {@link IntentFilter} doesn't
+     * override {@code equals}, so the parceled filters are compared, which covers all of their
+     * components, such as data authorities, paths and scheme specific parts.
+     */
+    private static boolean isSameIntentFilter(IntentFilter filter1, IntentFilter filter2) {
+        if (filter1.countActions() != filter2.countActions()
+                || filter1.countCategories() != filter2.countCategories()
+                || filter1.countDataSchemes() != filter2.countDataSchemes()
+                || filter1.countDataAuthorities() != filter2.countDataAuthorities()
+                || filter1.countDataPaths() != filter2.countDataPaths()
+                || filter1.countDataTypes() != filter2.countDataTypes()
+                || filter1.getPriority() != filter2.getPriority()) {
+            return false;
+        }
+        return Arrays.equals(marshall(filter1), marshall(filter2));
+    }
+
+    private static byte[] marshall(IntentFilter filter) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            filter.writeToParcel(parcel, 0);
+            return parcel.marshall();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// PageStore and PageEvent are internal to paging-common.
+@file:Suppress("INVISIBLE_MEMBER", "INVISIBLE_REFERENCE")
+
+package androidx.paging
+
+import androidx.paging.LoadType.APPEND
+import androidx.paging.LoadType.PREPEND
+import kotlin.test.assertEquals
+import kotlinx.benchmark.Benchmark
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+
+/**
+ * Measures the [PageStore] of a presenter holding many large pages, e.g. with a large
+ * [PagingConfig.maxSize], while pages are loaded and dropped at either end.
+ */
+@State(Scope.Benchmark)
+open class PageStoreBenchmark {
+    @Param("10", "50", "200") var pageCount: Int = 0
+
+    private lateinit var pageStore: PageStore<Int>
+    private var firstPageOffset = 0
+    private var lastPageOffset = 0
+
+    @Setup
+    open fun setUp() {
+        firstPageOffset = 0
+        lastPageOffset = pageCount - 1
+        pageStore =
+            PageStore(
+                pages = List(pageCount) { page(it) },
+                placeholdersBefore = 0,
+                placeholdersAfter = 0,
+            )
+    }
+
+    @Benchmark
+    open fun appendAndDropPrepend() {
+        lastPageOffset++
+        pageStore.processEvent(
+            PageEvent.Insert.Append(
+                pages = listOf(page(lastPageOffset)),
+                placeholdersAfter = 0,
+                sourceLoadStates = LoadStates.IDLE,
+            )
+        )
+        pageStore.processEvent(
+            PageEvent.Drop(
+                loadType = PREPEND,
+                minPageOffset = firstPageOffset,
+                maxPageOffset = firstPageOffset,
+                placeholdersRemaining = 0,
+            )
+        )
+        firstPageOffset++
+        assertEquals(pageCount * PAGE_SIZE, pageStore.dataCount)
+    }
+
+    @Benchmark
+    open fun prependAndDropAppend() {
+        firstPageOffset--
+        pageStore.processEvent(
+            PageEvent.Insert.Prepend(
+                pages = listOf(page(firstPageOffset)),
+                placeholdersBefore = 0,
+                sourceLoadStates = LoadStates.IDLE,
+            )
+        )
+        pageStore.processEvent(
+            PageEvent.Drop(
+                loadType = APPEND,
+                minPageOffset = lastPageOffset,
+                maxPageOffset = lastPageOffset,
+                placeholdersRemaining = 0,
+            )
+        )
+        lastPageOffset--
+        assertEquals(pageCount * PAGE_SIZE, pageStore.dataCount)
+    }
+
+    @Benchmark
+    open fun snapshot(): Int? {
+        val snapshot = pageStore.snapshot()
+        return snapshot[snapshot.size / 2]
+    }
+
+    @Benchmark
+    open fun getItemAcrossPages(): Int {
+        var sum = 0
+        for (index in 0 until pageStore.dataCount step PAGE_SIZE / 2) {
+            sum += pageStore.getItem(index)
+        }
+        return sum
+    }
+
+    // The pages share their items, so that only the cost of the PageStore is measured.
+    private fun page(originalPageOffset: Int) =
+        TransformablePage(originalPageOffset = originalPageOffset, data = PAGE_DATA)
+
+    private companion object {
+        const val PAGE_SIZE = 100
+        val PAGE_DATA = List(PAGE_SIZE) { it }
+    }
+}
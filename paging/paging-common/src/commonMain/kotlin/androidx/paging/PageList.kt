@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.paging
+
+/**
+ * Immutable list of the items of [pages], which shares the pages instead of copying their items.
+ *
+ * The index of the first item of each page is kept, so that an item is found with a binary search
+ * over the pages. Adding or removing pages creates a new [PageList] sharing the unchanged pages,
+ * whose cost depends on the number of pages rather than the number of items, and lists created
+ * earlier, e.g. by [PageStore.snapshot], are not affected.
+ */
+internal class PageList<T : Any>
+private constructor(
+    val pages: List<TransformablePage<T>>,
+    /** Index of the first item of each page. */
+    private val pageStarts: IntArray,
+    override val size: Int,
+) : AbstractList<T>() {
+
+    override fun get(index: Int): T {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index: $index, Size: $size")
+        }
+        val pageIndex = pageIndexOf(index)
+        return pages[pageIndex].data[index - pageStarts[pageIndex]]
+    }
+
+    /**
+     * Returns the index of the page containing the item at [index], which must be a valid item
+     * index.
+     */
+    fun pageIndexOf(index: Int): Int {
+        // The last page starting at or before the index, skipping empty pages.
+        var low = 0
+        var high = pages.lastIndex
+        while (low < high) {
+            val mid = (low + high + 1) ushr 1
+            if (pageStarts[mid] <= index) {
+                low = mid
+            } else {
+                high = mid - 1
+            }
+        }
+        return low
+    }
+
+    /** Returns the index of the first item of the page at [pageIndex]. */
+    fun pageStart(pageIndex: Int): Int = pageStarts[pageIndex]
+
+    /** Returns a new [PageList] with [pages] added before the current pages. */
+    fun prepend(pages: List<TransformablePage<T>>): PageList<T> = of(pages + this.pages)
+
+    /** Returns a new [PageList] with [pages] added after the current pages. */
+    fun append(pages: List<TransformablePage<T>>): PageList<T> = of(this.pages + pages)
+
+    /** Returns a new [PageList] without the pages matching [predicate]. */
+    fun dropPages(predicate: (TransformablePage<T>) -> Boolean): PageList<T> =
+        of(pages.filterNot(predicate))
+
+    companion object {
+        fun <T : Any> create(pages: List<TransformablePage<T>>): PageList<T> = of(pages.toList())
+
+        /** Creates a [PageList] of [pages], which must not be modified afterwards. */
+        private fun <T : Any> of(pages: List<TransformablePage<T>>): PageList<T> {
+            val pageStarts = IntArray(pages.size)
+            var size = 0
+            pages.forEachIndexed { pageIndex, page ->
+                pageStarts[pageIndex] = size
+                size += page.data.size
+            }
+            return PageList(pages, pageStarts, size)
+        }
+    }
+}
@@ -25,6 +25,9 @@ import androidx.paging.internal.BUGANIZER_URL
 /**
  * Presents post-transform paging data as a list, with list update notifications when PageEvents are
  * dispatched.
+ *
+ * The pages are kept in an immutable [PageList], which is replaced on each event. Snapshots share
+ * the pages of the current [PageList] instead of copying their items.
  */
 internal class PageStore<T : Any>(
     pages: List<TransformablePage<T>>,
@@ -39,9 +42,13 @@ internal class PageStore<T : Any>(
         placeholdersAfter = insertEvent.placeholdersAfter,
     )
 
-    private val pages: MutableList<TransformablePage<T>> = pages.toMutableList()
-    override var dataCount: Int = pages.fullCount()
-        private set
+    private var pageList: PageList<T> = PageList.create(pages)
+
+    private val pages: List<TransformablePage<T>>
+        get() = pageList.pages
+
+    override val dataCount: Int
+        get() = pageList.size
 
     private val originalPageOffsetFirst: Int
         get() = pages.first().originalPageOffsets.minOrNull()!!
@@ -77,32 +84,14 @@ internal class PageStore<T : Any>(
     }
 
     fun snapshot(): ItemSnapshotList<T> {
-        return ItemSnapshotList(placeholdersBefore, placeholdersAfter, pages.flatMap { it.data })
+        return ItemSnapshotList(placeholdersBefore, placeholdersAfter, pageList)
     }
 
-    override fun getItem(index: Int): T {
-        var pageIndex = 0
-        var indexInPage = index
-
-        // Since we don't know if page sizes are regular, we walk to correct page.
-        val localPageCount = pages.size
-        while (pageIndex < localPageCount) {
-            val pageSize = pages[pageIndex].data.size
-            if (pageSize > indexInPage) {
-                // stop, found the page
-                break
-            }
-            indexInPage -= pageSize
-            pageIndex++
-        }
-        return pages[pageIndex].data[indexInPage]
-    }
+    override fun getItem(index: Int): T = pageList[index]
 
     override val size: Int
         get() = placeholdersBefore + dataCount + placeholdersAfter
 
-    private fun List<TransformablePage<T>>.fullCount() = sumOf { it.data.size }
-
     fun processEvent(pageEvent: PageEvent<T>): PagingDataEvent<T> {
         return when (pageEvent) {
             is PageEvent.Insert -> insertPage(pageEvent)
@@ -129,13 +118,15 @@ internal class PageStore<T : Any>(
     }
 
     fun accessHintForPresenterIndex(index: Int): ViewportHint.Access {
-        var pageIndex = 0
-        var indexInPage = index - placeholdersBefore
-        while (indexInPage >= pages[pageIndex].data.size && pageIndex < pages.lastIndex) {
-            // index doesn't appear in current page, keep looking!
-            indexInPage -= pages[pageIndex].data.size
-            pageIndex++
-        }
+        val localIndex = index - placeholdersBefore
+        // Placeholders are relative to the first or last page.
+        val pageIndex =
+            when {
+                localIndex < 0 -> 0
+                localIndex >= dataCount -> pages.lastIndex
+                else -> pageList.pageIndexOf(localIndex)
+            }
+        val indexInPage = localIndex - pageList.pageStart(pageIndex)
 
         return pages[pageIndex].viewportHintFor(
             index = indexInPage,
@@ -151,7 +142,6 @@ internal class PageStore<T : Any>(
      * presenters.
      */
     private fun insertPage(insert: PageEvent.Insert<T>): PagingDataEvent<T> {
-        val insertSize = insert.pages.fullCount()
         return when (insert.loadType) {
             REFRESH ->
                 throw IllegalStateException(
@@ -164,8 +154,7 @@ internal class PageStore<T : Any>(
             PREPEND -> {
                 val oldPlaceholdersBefore = placeholdersBefore
                 // update all states
-                pages.addAll(0, insert.pages)
-                dataCount += insertSize
+                pageList = pageList.prepend(insert.pages)
                 placeholdersBefore = insert.placeholdersBefore
 
                 PagingDataEvent.Prepend(
@@ -178,8 +167,7 @@ internal class PageStore<T : Any>(
                 val oldPlaceholdersAfter = placeholdersAfter
                 val oldDataCount = dataCount
                 // update all states
-                pages.addAll(pages.size, insert.pages)
-                dataCount += insertSize
+                pageList = pageList.append(insert.pages)
                 placeholdersAfter = insert.placeholdersAfter
 
                 PagingDataEvent.Append(
@@ -197,17 +185,9 @@ internal class PageStore<T : Any>(
      * @return The number of items dropped
      */
     private fun dropPagesWithOffsets(pageOffsetsToDrop: IntRange): Int {
-        var removeCount = 0
-        val pageIterator = pages.iterator()
-        while (pageIterator.hasNext()) {
-            val page = pageIterator.next()
-            if (page.originalPageOffsets.any { pageOffsetsToDrop.contains(it) }) {
-                removeCount += page.data.size
-                pageIterator.remove()
-            }
-        }
-
-        return removeCount
+        val oldDataCount = dataCount
+        pageList = pageList.dropPages { it.originalPageOffsets.any(pageOffsetsToDrop::contains) }
+        return oldDataCount - dataCount
     }
 
     /**
@@ -217,7 +197,6 @@ internal class PageStore<T : Any>(
     private fun dropPages(drop: PageEvent.Drop<T>): PagingDataEvent<T> {
         // update states
         val itemDropCount = dropPagesWithOffsets(drop.minPageOffset..drop.maxPageOffset)
-        dataCount -= itemDropCount
 
         return if (drop.loadType == PREPEND) {
             val oldPlaceholdersBefore = placeholdersBefore
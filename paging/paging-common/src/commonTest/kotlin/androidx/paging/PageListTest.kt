@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.paging
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class PageListTest {
+    private fun pages(vararg pages: List<Char>) =
+        pages.mapIndexed { index, data ->
+            TransformablePage(originalPageOffset = index, data = data)
+        }
+
+    @Test
+    fun get() {
+        val pageList = PageList.create(pages(listOf('a', 'b'), listOf(), listOf('c'), listOf('d')))
+
+        assertEquals(4, pageList.size)
+        assertEquals(listOf('a', 'b', 'c', 'd'), pageList)
+    }
+
+    @Test
+    fun get_outOfBounds() {
+        val pageList = PageList.create(pages(listOf('a')))
+
+        assertFailsWith<IndexOutOfBoundsException> { pageList[-1] }
+        assertFailsWith<IndexOutOfBoundsException> { pageList[1] }
+    }
+
+    @Test
+    fun pageIndexOf_skipsEmptyPages() {
+        val pageList = PageList.create(pages(listOf('a'), listOf(), listOf(), listOf('b', 'c')))
+
+        assertEquals(0, pageList.pageIndexOf(0))
+        assertEquals(3, pageList.pageIndexOf(1))
+        assertEquals(3, pageList.pageIndexOf(2))
+        assertEquals(1, pageList.pageStart(3))
+    }
+
+    @Test
+    fun prependAndAppend_doNotModifyOriginal() {
+        val pageList = PageList.create(pages(listOf('b')))
+
+        val prepended = pageList.prepend(pages(listOf('a')))
+        val appended = prepended.append(pages(listOf('c', 'd')))
+
+        assertEquals(listOf('b'), pageList)
+        assertEquals(listOf('a', 'b'), prepended)
+        assertEquals(listOf('a', 'b', 'c', 'd'), appended)
+        assertEquals(2, appended.pageIndexOf(3))
+    }
+
+    @Test
+    fun dropPages() {
+        val pageList = PageList.create(pages(listOf('a'), listOf('b', 'c'), listOf('d')))
+
+        val dropped = pageList.dropPages { it.originalPageOffsets.contains(1) }
+
+        assertEquals(listOf('a', 'd'), dropped)
+        assertEquals(listOf('a', 'b', 'c', 'd'), pageList)
+    }
+}
@@ -441,4 +441,45 @@ class PageStoreTest {
 
         assertEquals(listOf(null, 'a', null, null, null), pageStore.snapshot())
     }
+
+    @Test
+    fun snapshot_notAffectedByLaterEvents() {
+        val pageStore =
+            PageStore(
+                pages = listOf(listOf('a', 'b'), listOf('c')),
+                leadingNullCount = 0,
+                trailingNullCount = 0,
+            )
+        val snapshot = pageStore.snapshot()
+
+        pageStore.processEvent(
+            localAppend(
+                pages = listOf(TransformablePage(originalPageOffset = 2, data = listOf('d')))
+            )
+        )
+        pageStore.dropPages(
+            isPrepend = true,
+            minPageOffset = 0,
+            maxPageOffset = 0,
+            placeholdersRemaining = 0
+        )
+
+        assertEquals(listOf('a', 'b', 'c'), snapshot)
+        assertEquals(listOf('c', 'd'), pageStore.snapshot())
+    }
+
+    @Test
+    fun get_unevenPages() {
+        val pageStore =
+            PageStore(
+                pages = listOf(listOf('a'), listOf(), listOf('b', 'c', 'd'), listOf('e')),
+                leadingNullCount = 2,
+                trailingNullCount = 1,
+            )
+
+        assertEquals(
+            listOf(null, null, 'a', 'b', 'c', 'd', 'e', null),
+            pageStore.asList(),
+        )
+    }
 }
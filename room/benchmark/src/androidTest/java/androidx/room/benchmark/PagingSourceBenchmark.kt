@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.paging.PagingSource.LoadParams
+import androidx.paging.PagingSource.LoadResult
+import androidx.room.Dao
+import androidx.room.Database
+import androidx.room.Entity
+import androidx.room.Insert
+import androidx.room.PrimaryKey
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.room.RoomRawQuery
+import androidx.room.paging.KeysetPagingSource
+import androidx.room.paging.LimitOffsetPagingSource
+import androidx.room.util.performSuspending
+import androidx.sqlite.SQLiteStatement
+import androidx.sqlite.driver.bundled.BundledSQLiteDriver
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Compares loading a page at increasing offsets with a LIMIT OFFSET paging source and with a keyset
+ * paging source, on the bundled SQLite driver.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class PagingSourceBenchmark(private val offset: Int) {
+
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    private lateinit var db: TestDatabase
+
+    @Before
+    fun setup() {
+        db =
+            Room.inMemoryDatabaseBuilder(
+                    ApplicationProvider.getApplicationContext(),
+                    TestDatabase::class.java
+                )
+                .setDriver(BundledSQLiteDriver())
+                .build()
+        db.getMessageDao().insert(List(ITEM_COUNT) { Message(it.toLong(), "message $it") })
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun append_limitOffset() {
+        val pagingSource = LimitOffsetMessagePagingSource(db)
+        runBlocking { pagingSource.load(LoadParams.Refresh(offset, PAGE_SIZE, false)) }
+        val params = LoadParams.Append(offset, PAGE_SIZE, false)
+        benchmarkRule.measureRepeated { runBlocking { assertPage(pagingSource.load(params)) } }
+    }
+
+    @Test
+    fun append_keyset() {
+        val pagingSource = KeysetMessagePagingSource(db, countItems = false)
+        runBlocking { pagingSource.load(LoadParams.Refresh(offset.toLong(), PAGE_SIZE, false)) }
+        val params = LoadParams.Append(offset.toLong(), PAGE_SIZE, false)
+        benchmarkRule.measureRepeated { runBlocking { assertPage(pagingSource.load(params)) } }
+    }
+
+    /** Refreshes a new paging source, as done after each invalidation, counting the items. */
+    @Test
+    fun refresh_limitOffset() {
+        val params = LoadParams.Refresh(offset, PAGE_SIZE, true)
+        benchmarkRule.measureRepeated {
+            val pagingSource = runWithTimingDisabled { LimitOffsetMessagePagingSource(db) }
+            runBlocking { assertPage(pagingSource.load(params)) }
+            runWithTimingDisabled { pagingSource.invalidate() }
+        }
+    }
+
+    @Test
+    fun refresh_keyset() {
+        val params = LoadParams.Refresh(offset.toLong(), PAGE_SIZE, true)
+        benchmarkRule.measureRepeated {
+            val pagingSource = runWithTimingDisabled {
+                KeysetMessagePagingSource(db, countItems = true)
+            }
+            runBlocking { assertPage(pagingSource.load(params)) }
+            runWithTimingDisabled { pagingSource.invalidate() }
+        }
+    }
+
+    @Test
+    fun refresh_keysetWithoutCount() {
+        val params = LoadParams.Refresh(offset.toLong(), PAGE_SIZE, false)
+        benchmarkRule.measureRepeated {
+            val pagingSource = runWithTimingDisabled {
+                KeysetMessagePagingSource(db, countItems = false)
+            }
+            runBlocking { assertPage(pagingSource.load(params)) }
+            runWithTimingDisabled { pagingSource.invalidate() }
+        }
+    }
+
+    private fun assertPage(result: LoadResult<*, Message>) {
+        assertEquals(PAGE_SIZE, (result as LoadResult.Page).data.size)
+    }
+
+    companion object {
+        private const val ITEM_COUNT = 100_000
+        private const val PAGE_SIZE = 30
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "offset={0}")
+        fun data(): List<Int> = listOf(0, 10_000, 50_000, 99_000)
+    }
+
+    @Database(entities = [Message::class], version = 1, exportSchema = false)
+    abstract class TestDatabase : RoomDatabase() {
+        abstract fun getMessageDao(): MessageDao
+    }
+
+    @Entity data class Message(@PrimaryKey val id: Long, val text: String)
+
+    @Dao
+    interface MessageDao {
+        @Insert fun insert(messages: List<Message>)
+    }
+
+    class LimitOffsetMessagePagingSource(db: RoomDatabase) :
+        LimitOffsetPagingSource<Message>(RoomRawQuery("SELECT * FROM Message"), db, "Message") {
+        override suspend fun convertRows(
+            limitOffsetQuery: RoomRawQuery,
+            itemCount: Int
+        ): List<Message> {
+            return performSuspending(db, isReadOnly = true, inTransaction = false) { connection ->
+                connection.prepare(limitOffsetQuery.sql).use { statement ->
+                    buildList {
+                        while (statement.step()) {
+                            add(Message(statement.getLong(0), statement.getText(1)))
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    class KeysetMessagePagingSource(db: RoomDatabase, countItems: Boolean) :
+        KeysetPagingSource<Message>(
+            RoomRawQuery("SELECT * FROM Message"),
+            db,
+            "id",
+            countItems,
+            "Message"
+        ) {
+        override fun convertRow(statement: SQLiteStatement): Message {
+            return Message(statement.getLong(0), statement.getText(1))
+        }
+
+        override fun getKey(item: Message): Long = item.id
+    }
+}
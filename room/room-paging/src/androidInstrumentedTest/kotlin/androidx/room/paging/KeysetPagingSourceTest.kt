@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging
+
+import androidx.arch.core.executor.testing.CountingTaskExecutorRule
+import androidx.kruth.assertThat
+import androidx.paging.PagingConfig
+import androidx.paging.PagingSource.LoadResult
+import androidx.paging.PagingSource.LoadResult.Page.Companion.COUNT_UNDEFINED
+import androidx.paging.testing.TestPager
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.room.RoomRawQuery
+import androidx.room.util.getColumnIndexOrThrow
+import androidx.sqlite.SQLiteStatement
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.SmallTest
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+@SmallTest
+class KeysetPagingSourceTest {
+
+    @JvmField @Rule val countingTaskExecutorRule = CountingTaskExecutorRule()
+
+    private lateinit var database: LimitOffsetTestDb
+    private lateinit var dao: TestItemDao
+
+    @Before
+    fun init() {
+        database =
+            Room.inMemoryDatabaseBuilder(
+                    ApplicationProvider.getApplicationContext(),
+                    LimitOffsetTestDb::class.java,
+                )
+                .build()
+        dao = database.getDao()
+        dao.addAllItems(List(100) { TestItem(it) })
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+        countingTaskExecutorRule.drainTasks(500, TimeUnit.MILLISECONDS)
+        assertThat(countingTaskExecutorRule.isIdle).isTrue()
+    }
+
+    @Test
+    fun refresh_countsItemsAroundPage() = runPagingSourceTest { pager, _ ->
+        val result = pager.refresh(initialKey = 20) as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(20 until 35)).inOrder()
+        assertThat(result.prevKey).isEqualTo(20L)
+        assertThat(result.nextKey).isEqualTo(34L)
+        assertThat(result.itemsBefore).isEqualTo(20)
+        assertThat(result.itemsAfter).isEqualTo(65)
+    }
+
+    @Test
+    fun refresh_withoutInitialKey_loadsFirstPage() = runPagingSourceTest { pager, _ ->
+        val result = pager.refresh() as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(0 until 15)).inOrder()
+        assertThat(result.prevKey).isNull()
+        assertThat(result.itemsBefore).isEqualTo(0)
+    }
+
+    @Test
+    fun refresh_keyAfterLastItem_loadsLastPage() = runPagingSourceTest { pager, _ ->
+        val result = pager.refresh(initialKey = 200) as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(85 until 100)).inOrder()
+        assertThat(result.nextKey).isNull()
+        assertThat(result.itemsBefore).isEqualTo(85)
+        assertThat(result.itemsAfter).isEqualTo(0)
+    }
+
+    @Test
+    fun refresh_withoutCount_placeholdersUndefined() =
+        runPagingSourceTest(KeysetPagingSourceImpl(database, countItems = false)) { pager, _ ->
+            val result = pager.refresh(initialKey = 20) as LoadResult.Page
+
+            assertThat(result.data).containsExactlyElementsIn(items(20 until 35)).inOrder()
+            assertThat(result.prevKey).isEqualTo(20L)
+            assertThat(result.nextKey).isEqualTo(34L)
+            assertThat(result.itemsBefore).isEqualTo(COUNT_UNDEFINED)
+            assertThat(result.itemsAfter).isEqualTo(COUNT_UNDEFINED)
+        }
+
+    @Test
+    fun append_loadsItemsAfterLastKey() = runPagingSourceTest { pager, _ ->
+        pager.refresh()
+        val result = pager.append() as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(15 until 20)).inOrder()
+        assertThat(result.nextKey).isEqualTo(19L)
+        assertThat(result.itemsAfter).isEqualTo(COUNT_UNDEFINED)
+    }
+
+    @Test
+    fun append_lastPage_nextKeyIsNull() = runPagingSourceTest { pager, _ ->
+        pager.refresh(initialKey = 82)
+        val result = pager.append() as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(97 until 100)).inOrder()
+        assertThat(result.nextKey).isNull()
+    }
+
+    @Test
+    fun prepend_loadsItemsBeforeFirstKey() = runPagingSourceTest { pager, _ ->
+        pager.refresh(initialKey = 7)
+        val result = pager.prepend() as LoadResult.Page
+
+        assertThat(result.data).containsExactlyElementsIn(items(2 until 7)).inOrder()
+        assertThat(result.prevKey).isEqualTo(2L)
+        assertThat(result.itemsBefore).isEqualTo(COUNT_UNDEFINED)
+
+        val firstPage = pager.prepend() as LoadResult.Page
+        assertThat(firstPage.data).containsExactlyElementsIn(items(0 until 2)).inOrder()
+        assertThat(firstPage.prevKey).isNull()
+    }
+
+    @Test
+    fun load_sparseKeys() =
+        runPagingSourceTest(
+            KeysetPagingSourceImpl(
+                database,
+                countItems = true,
+                queryString = "SELECT * FROM TestItem WHERE id % 10 = 0"
+            )
+        ) { pager, _ ->
+            val result = pager.refresh(initialKey = 35) as LoadResult.Page
+
+            assertThat(result.data.map { it.id })
+                .containsExactly(40, 50, 60, 70, 80, 90)
+                .inOrder()
+            assertThat(result.itemsBefore).isEqualTo(4)
+            assertThat(result.itemsAfter).isEqualTo(0)
+        }
+
+    @Test
+    fun dbInsert_pagingSourceInvalidates() = runPagingSourceTest { pager, pagingSource ->
+        // load once to register db observers
+        pager.refresh()
+        assertThat(pagingSource.invalid).isFalse()
+
+        dao.addTestItem(TestItem(101))
+        countingTaskExecutorRule.drainTasks(500, TimeUnit.MILLISECONDS)
+        assertThat(pagingSource.invalid).isTrue()
+    }
+
+    private fun items(ids: IntRange): List<TestItem> = ids.map { TestItem(it) }
+
+    private fun runPagingSourceTest(
+        pagingSource: KeysetPagingSourceImpl = KeysetPagingSourceImpl(database, countItems = true),
+        block: suspend (TestPager<Long, TestItem>, KeysetPagingSourceImpl) -> Unit
+    ) {
+        runBlocking { block(TestPager(CONFIG, pagingSource), pagingSource) }
+    }
+}
+
+class KeysetPagingSourceImpl(
+    db: RoomDatabase,
+    countItems: Boolean,
+    queryString: String = "SELECT * FROM TestItem",
+) :
+    KeysetPagingSource<TestItem>(
+        sourceQuery = RoomRawQuery(sql = queryString),
+        db = db,
+        keyColumn = "id",
+        countItems = countItems,
+        tables = arrayOf("TestItem")
+    ) {
+    override fun convertRow(statement: SQLiteStatement): TestItem {
+        return TestItem(statement.getInt(getColumnIndexOrThrow(statement, "id")))
+    }
+
+    override fun getKey(item: TestItem): Long = item.id.toLong()
+}
+
+private val CONFIG = PagingConfig(pageSize = 5, enablePlaceholders = true, initialLoadSize = 15)
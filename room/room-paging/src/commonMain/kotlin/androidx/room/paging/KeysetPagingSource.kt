@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingSource.LoadParams.Append
+import androidx.paging.PagingSource.LoadParams.Prepend
+import androidx.paging.PagingSource.LoadParams.Refresh
+import androidx.paging.PagingSource.LoadResult.Page.Companion.COUNT_UNDEFINED
+import androidx.paging.PagingState
+import androidx.room.PooledConnection
+import androidx.room.RoomDatabase
+import androidx.room.RoomRawQuery
+import androidx.room.Transactor.SQLiteTransactionType
+import androidx.room.concurrent.AtomicBoolean
+import androidx.room.useReaderConnection
+import androidx.sqlite.SQLiteStatement
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+
+/**
+ * An implementation of [PagingSource] paging through a query by the values of a unique integer
+ * column, such as an auto-generated primary key or a timestamp.
+ *
+ * Unlike [LimitOffsetPagingSource], which skips the rows before a page with an OFFSET clause, pages
+ * are loaded by seeking to the key of the first or last loaded item, i.e. with
+ * `WHERE key > ? ORDER BY key LIMIT ?`. With an index on the key column, the cost of a load doesn't
+ * depend on how deep the page is. Items are ordered by ascending key.
+ *
+ * Counting the items is optional. When [countItems] is true, the items before and after the
+ * refreshed page are counted to display placeholders. Otherwise no count query is run, and
+ * placeholders are not supported.
+ *
+ * Registers observers on tables lazily and automatically invalidates itself when data changes.
+ *
+ * @param sourceQuery the query of the items, which should not have ORDER BY or LIMIT clauses
+ * @param db the [RoomDatabase] to query from
+ * @param keyColumn the name of the unique integer column the items are ordered by
+ * @param countItems whether the items before and after the refreshed page are counted
+ * @param tables the tables observed to invalidate this paging source
+ */
+public abstract class KeysetPagingSource<Value : Any>(
+    public val sourceQuery: RoomRawQuery,
+    public val db: RoomDatabase,
+    public val keyColumn: String,
+    public val countItems: Boolean,
+    private vararg val tables: String,
+) : PagingSource<Long, Value>() {
+
+    private val invalidationFlowStarted = AtomicBoolean(false)
+    private var invalidationFlowJob: Job? = null
+
+    init {
+        registerInvalidatedCallback { invalidationFlowJob?.cancel() }
+    }
+
+    /** Converts the current row of the [statement] to an item. */
+    protected abstract fun convertRow(statement: SQLiteStatement): Value
+
+    /** Returns the value of the [keyColumn] of the given [item]. */
+    protected abstract fun getKey(item: Value): Long
+
+    override suspend fun load(params: LoadParams<Long>): LoadResult<Long, Value> {
+        val initialLoad = invalidationFlowStarted.compareAndSet(false, true)
+        if (initialLoad) {
+            invalidationFlowJob =
+                db.getCoroutineScope().launch {
+                    db.invalidationTracker.createFlow(*tables, emitInitialState = false).collect {
+                        if (invalid) {
+                            throw CancellationException("PagingSource is invalid")
+                        }
+                        invalidate()
+                    }
+                }
+        }
+
+        return try {
+            val loadResult =
+                db.useReaderConnection { connection ->
+                    if (params is Refresh && countItems) {
+                        // The counts must match the page, so they are queried in a transaction.
+                        connection.withTransaction(SQLiteTransactionType.DEFERRED) {
+                            loadPage(this, params)
+                        }
+                    } else {
+                        loadPage(connection, params)
+                    }
+                }
+            if (!initialLoad) {
+                // Manually check if database has been updated, as the invalidation flow may not
+                // have notified this paging source yet.
+                withContext(db.getCoroutineScope().coroutineContext) {
+                    if (db.invalidationTracker.refresh(*tables)) {
+                        invalidate()
+                    }
+                }
+            }
+            if (invalid) LoadResult.Invalid() else loadResult
+        } catch (e: Exception) {
+            LoadResult.Error(e)
+        }
+    }
+
+    private suspend fun loadPage(
+        connection: PooledConnection,
+        params: LoadParams<Long>
+    ): LoadResult.Page<Long, Value> {
+        val key = params.key
+        val limit = params.loadSize
+        return when (params) {
+            is Append -> {
+                val data = queryItems(connection, "> $key", descending = false, limit)
+                LoadResult.Page(
+                    data = data,
+                    prevKey = data.firstOrNull()?.let { getKey(it) },
+                    nextKey = if (data.size < limit) null else getKey(data.last()),
+                )
+            }
+            is Prepend -> {
+                val data = queryItems(connection, "< $key", descending = true, limit)
+                LoadResult.Page(
+                    data = data,
+                    prevKey = if (data.size < limit) null else getKey(data.first()),
+                    nextKey = data.lastOrNull()?.let { getKey(it) },
+                )
+            }
+            is Refresh -> {
+                var data =
+                    queryItems(connection, key?.let { ">= $it" }, descending = false, limit)
+                if (data.isEmpty() && key != null) {
+                    // The key is after the last item, e.g. if the items at the end were removed,
+                    // so the last page is loaded instead.
+                    data = queryItems(connection, null, descending = true, limit)
+                }
+                if (data.isEmpty()) {
+                    return LoadResult.Page(
+                        data = data,
+                        prevKey = null,
+                        nextKey = null,
+                        itemsBefore = 0,
+                        itemsAfter = 0
+                    )
+                }
+                val firstKey = getKey(data.first())
+                val lastKey = getKey(data.last())
+                if (countItems) {
+                    val itemsBefore = queryCount(connection, "< $firstKey")
+                    val itemsAfter = queryCount(connection, "> $lastKey")
+                    LoadResult.Page(
+                        data = data,
+                        prevKey = if (itemsBefore == 0) null else firstKey,
+                        nextKey = if (itemsAfter == 0) null else lastKey,
+                        itemsBefore = itemsBefore,
+                        itemsAfter = itemsAfter
+                    )
+                } else {
+                    LoadResult.Page(
+                        data = data,
+                        prevKey = if (key == null) null else firstKey,
+                        nextKey = if (data.size < limit) null else lastKey,
+                        itemsBefore = COUNT_UNDEFINED,
+                        itemsAfter = COUNT_UNDEFINED
+                    )
+                }
+            }
+        }
+    }
+
+    /**
+     * Queries at most [limit] items whose key matches the [keyCondition], in ascending key order.
+     * The keys are inlined in the SQL, as the number of arguments of the source query is unknown.
+     */
+    private suspend fun queryItems(
+        connection: PooledConnection,
+        keyCondition: String?,
+        descending: Boolean,
+        limit: Int
+    ): List<Value> {
+        val where = if (keyCondition == null) "" else " WHERE `$keyColumn` $keyCondition"
+        val order = if (descending) "DESC" else "ASC"
+        val sql =
+            "SELECT * FROM ( ${sourceQuery.sql} )$where ORDER BY `$keyColumn` $order LIMIT $limit"
+        val data =
+            connection.usePrepared(sql) { statement ->
+                sourceQuery.getBindingFunction().invoke(statement)
+                buildList {
+                    while (statement.step()) {
+                        add(convertRow(statement))
+                    }
+                }
+            }
+        return if (descending) data.asReversed() else data
+    }
+
+    private suspend fun queryCount(connection: PooledConnection, keyCondition: String): Int {
+        val sql = "SELECT COUNT(*) FROM ( ${sourceQuery.sql} ) WHERE `$keyColumn` $keyCondition"
+        return connection.usePrepared(sql) { statement ->
+            sourceQuery.getBindingFunction().invoke(statement)
+            if (statement.step()) statement.getInt(0) else 0
+        }
+    }
+
+    /**
+     * Returns the key of the item half an initial load size before the anchor position, so that
+     * the anchor position is in the middle of the refreshed page.
+     */
+    @Suppress("AutoBoxing")
+    override fun getRefreshKey(state: PagingState<Long, Value>): Long? {
+        val anchorPosition = state.anchorPosition ?: return null
+        val position = maxOf(0, anchorPosition - state.config.initialLoadSize / 2)
+        return state.closestItemToPosition(position)?.let { getKey(it) }
+    }
+}
@@ -112,12 +112,17 @@ class EnsureInitializerMetadataDetector : Detector(), SourceCodeScanner, XmlScan
     }
 
     override fun visitElement(context: XmlContext, element: Element) {
-        // Track all <meta-data> elements with value androidx.startup
+        // Track all <meta-data> elements with value androidx.startup or androidx.startup.background
         val name = element.getAttributeNS(ANDROID_URI, ATTR_NAME)
         val value = element.getAttributeNS(ANDROID_URI, ATTR_VALUE)
         // There does not seem to be a way to evaluate resources defined in the manifest.
         // Figure out if there is a better way.
-        if (value == "androidx.startup" || value == "@string/androidx_startup") {
+        if (
+            value == "androidx.startup" ||
+                value == "@string/androidx_startup" ||
+                value == "androidx.startup.background" ||
+                value == "@string/androidx_startup_background"
+        ) {
             reachable += name
         }
     }
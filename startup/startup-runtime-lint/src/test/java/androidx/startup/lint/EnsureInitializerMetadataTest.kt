@@ -138,4 +138,35 @@ class EnsureInitializerMetadataTest {
             .run()
             .expectClean()
     }
+
+    @Test
+    fun testSuccessWhenBackgroundMetadataIsProvided() {
+        val manifest =
+            manifest(
+                    """
+               <manifest xmlns:android="http://schemas.android.com/apk/res/android"
+                  xmlns:tools="http://schemas.android.com/tools"
+                  package="com.example">
+                  <application>
+                    <provider
+                        android:name="androidx.startup.InitializationProvider"
+                        android:authorities="com.example.androidx-startup"
+                        android:exported="false"
+                        tools:node="merge">
+                        <meta-data
+                            android:name="com.example.TestInitializer"
+                            android:value="@string/androidx_startup_background" />
+                    </provider>
+                  </application>
+                </manifest>
+        """
+                )
+                .indented()
+
+        lint()
+            .files(INITIALIZER, TEST_INITIALIZER, manifest)
+            .issues(EnsureInitializerMetadataDetector.ISSUE)
+            .run()
+            .expectClean()
+    }
 }
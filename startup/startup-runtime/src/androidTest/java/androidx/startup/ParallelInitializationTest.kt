@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup
+
+import android.content.Context
+import android.os.Bundle
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.MediumTest
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import org.hamcrest.CoreMatchers.containsString
+import org.hamcrest.CoreMatchers.instanceOf
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.not
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+@MediumTest
+class ParallelInitializationTest {
+
+    private lateinit var context: Context
+    private lateinit var appInitializer: AppInitializer
+
+    @Before
+    fun setUp() {
+        context = ApplicationProvider.getApplicationContext()
+        appInitializer = AppInitializer(context)
+        AppInitializer.setDelegate(appInitializer)
+        RecordingInitializer.created.clear()
+    }
+
+    @Test
+    fun backgroundInitializersRunOnBackgroundThreads() {
+        appInitializer.discoverAndInitialize(
+            metadata(
+                BackgroundInitializer::class.java to BACKGROUND,
+                MainThreadInitializer::class.java to STARTUP,
+            )
+        )
+
+        val threads = RecordingInitializer.created.toMap()
+        assertThat(threads[MainThreadInitializer::class.java], `is`(Thread.currentThread()))
+        assertThat(threads[BackgroundInitializer::class.java], not(Thread.currentThread()))
+        assertThat(appInitializer.mInitialized.size, `is`(2))
+        assertTrue(appInitializer.isEagerlyInitialized(BackgroundInitializer::class.java))
+        assertTrue(appInitializer.isEagerlyInitialized(MainThreadInitializer::class.java))
+    }
+
+    @Test
+    fun dependenciesAreInitializedFirst() {
+        appInitializer.discoverAndInitialize(
+            metadata(
+                BackgroundInitializerWithDependency::class.java to BACKGROUND,
+                BackgroundInitializer::class.java to BACKGROUND,
+            )
+        )
+
+        val created = RecordingInitializer.created.map { it.first }
+        assertThat(created.size, `is`(3))
+        assertTrue(
+            created.indexOf(BackgroundInitializer::class.java) <
+                created.indexOf(BackgroundInitializerWithDependency::class.java)
+        )
+        assertTrue(
+            created.indexOf(MainThreadInitializer::class.java) <
+                created.indexOf(BackgroundInitializerWithDependency::class.java)
+        )
+        // Dependencies which are not discovered run on the main thread
+        assertThat(
+            RecordingInitializer.created.toMap()[MainThreadInitializer::class.java],
+            `is`(Thread.currentThread())
+        )
+        assertThat(appInitializer.mInitialized.size, `is`(3))
+    }
+
+    @Test
+    fun initializeComponentWhileInitializingInParallel() {
+        appInitializer.discoverAndInitialize(
+            metadata(
+                BackgroundInitializer::class.java to BACKGROUND,
+                InitializingInitializer::class.java to BACKGROUND,
+            )
+        )
+
+        // Initialized once, although it was also initialized explicitly
+        assertThat(RecordingInitializer.created.size, `is`(2))
+        assertThat(appInitializer.mInitialized.size, `is`(2))
+    }
+
+    @Test
+    fun failureIsPropagated() {
+        try {
+            appInitializer.discoverAndInitialize(
+                metadata(
+                    BackgroundInitializer::class.java to BACKGROUND,
+                    CyclicDependencyInitializer::class.java to BACKGROUND,
+                )
+            )
+            fail()
+        } catch (exception: StartupException) {
+            assertThat(exception.localizedMessage, containsString("Cycle detected."))
+        }
+    }
+
+    @Test(timeout = 10_000)
+    fun initializeComponentDependingOnMainThreadNode_doesNotDeadlock() {
+        LatchInitializer.reset()
+        appInitializer.discoverAndInitialize(
+            metadata(
+                InitializingDependentInitializer::class.java to BACKGROUND,
+                MainThreadDependencyInitializer::class.java to STARTUP,
+                InitializingMainThreadInitializer::class.java to STARTUP,
+            )
+        )
+
+        val created = RecordingInitializer.created.map { it.first }
+        assertTrue(created.contains(UndiscoveredDependentInitializer::class.java))
+        assertTrue(created.contains(UndiscoveredInitializer::class.java))
+        assertThat(appInitializer.mInitialized.size, `is`(5))
+    }
+
+    @Test(timeout = 10_000)
+    fun failureOnMainThread_failsComponentsAwaitedInBackground() {
+        LatchInitializer.reset()
+        try {
+            appInitializer.discoverAndInitialize(
+                metadata(
+                    FailingInitializer::class.java to STARTUP,
+                    SlowBackgroundInitializer::class.java to BACKGROUND,
+                    MainThreadDependentInitializer::class.java to STARTUP,
+                    AwaitingBackgroundInitializer::class.java to BACKGROUND,
+                )
+            )
+            fail()
+        } catch (exception: StartupException) {
+            // Expected
+        }
+
+        // The background initializer waiting for a component which will never be created fails
+        // instead of waiting forever.
+        assertTrue(LatchInitializer.awaited.await(5, TimeUnit.SECONDS))
+        assertThat(LatchInitializer.awaitFailure, instanceOf(StartupException::class.java))
+    }
+
+    private fun metadata(vararg initializers: Pair<Class<*>, String>): Bundle {
+        val metadata = Bundle()
+        metadata.putInt(AppInitializer.PARALLEL_INITIALIZATION, 2)
+        for ((initializer, value) in initializers) {
+            metadata.putString(initializer.name, value)
+        }
+        return metadata
+    }
+
+    companion object {
+        const val STARTUP = "androidx.startup"
+        const val BACKGROUND = "androidx.startup.background"
+    }
+}
+
+/** Records the thread creating each initializer. */
+abstract class RecordingInitializer : Initializer<Unit> {
+    override fun create(context: Context) {
+        created += javaClass to Thread.currentThread()
+    }
+
+    override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
+
+    companion object {
+        val created: MutableList<Pair<Class<*>, Thread>> =
+            Collections.synchronizedList(mutableListOf())
+    }
+}
+
+class BackgroundInitializer : RecordingInitializer()
+
+class MainThreadInitializer : RecordingInitializer()
+
+class BackgroundInitializerWithDependency : RecordingInitializer() {
+    override fun dependencies(): List<Class<out Initializer<*>>> =
+        listOf(BackgroundInitializer::class.java, MainThreadInitializer::class.java)
+}
+
+/** Initializes [BackgroundInitializer] without declaring it as a dependency. */
+class InitializingInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        AppInitializer.getInstance(context).initializeComponent(BackgroundInitializer::class.java)
+        super.create(context)
+    }
+}
+
+/** Coordinates the initializers below, which run concurrently. */
+object LatchInitializer {
+    lateinit var started: CountDownLatch
+    lateinit var backgroundStarted: CountDownLatch
+    lateinit var failed: CountDownLatch
+    lateinit var awaited: CountDownLatch
+    @Volatile var awaitFailure: Throwable? = null
+
+    fun reset() {
+        started = CountDownLatch(1)
+        backgroundStarted = CountDownLatch(2)
+        failed = CountDownLatch(1)
+        awaited = CountDownLatch(1)
+        awaitFailure = null
+    }
+}
+
+/**
+ * Initializes [UndiscoveredDependentInitializer] from a background thread, whose dependency
+ * [MainThreadDependencyInitializer] is created on the main thread after
+ * [InitializingMainThreadInitializer].
+ */
+class InitializingDependentInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        LatchInitializer.started.countDown()
+        AppInitializer.getInstance(context)
+            .initializeComponent(UndiscoveredDependentInitializer::class.java)
+        super.create(context)
+    }
+}
+
+class UndiscoveredDependentInitializer : RecordingInitializer() {
+    override fun dependencies(): List<Class<out Initializer<*>>> =
+        listOf(MainThreadDependencyInitializer::class.java)
+}
+
+class MainThreadDependencyInitializer : RecordingInitializer() {
+    override fun dependencies(): List<Class<out Initializer<*>>> =
+        listOf(InitializingMainThreadInitializer::class.java)
+}
+
+/**
+ * Initializes [UndiscoveredInitializer] on the main thread, while a background thread waits for
+ * [MainThreadDependencyInitializer].
+ */
+class InitializingMainThreadInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        LatchInitializer.started.await(5, TimeUnit.SECONDS)
+        // Leaves time for the background thread to start waiting
+        Thread.sleep(100)
+        AppInitializer.getInstance(context).initializeComponent(UndiscoveredInitializer::class.java)
+        super.create(context)
+    }
+}
+
+class UndiscoveredInitializer : RecordingInitializer()
+
+/** Fails once [AwaitingBackgroundInitializer] waits for [MainThreadDependentInitializer]. */
+class FailingInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        LatchInitializer.backgroundStarted.await(5, TimeUnit.SECONDS)
+        // Leaves time for the background thread to start waiting
+        Thread.sleep(100)
+        LatchInitializer.failed.countDown()
+        throw IllegalStateException("Failed")
+    }
+}
+
+/** Keeps [MainThreadDependentInitializer] pending until [FailingInitializer] failed. */
+class SlowBackgroundInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        LatchInitializer.backgroundStarted.countDown()
+        LatchInitializer.failed.await(5, TimeUnit.SECONDS)
+        super.create(context)
+    }
+}
+
+class MainThreadDependentInitializer : RecordingInitializer() {
+    override fun dependencies(): List<Class<out Initializer<*>>> =
+        listOf(SlowBackgroundInitializer::class.java)
+}
+
+/** Waits for [MainThreadDependentInitializer], which is never created, from a background thread. */
+class AwaitingBackgroundInitializer : RecordingInitializer() {
+    override fun create(context: Context) {
+        LatchInitializer.backgroundStarted.countDown()
+        try {
+            AppInitializer.getInstance(context)
+                .initializeComponent(MainThreadDependentInitializer::class.java)
+        } catch (throwable: Throwable) {
+            LatchInitializer.awaitFailure = throwable
+        }
+        LatchInitializer.awaited.countDown()
+    }
+}
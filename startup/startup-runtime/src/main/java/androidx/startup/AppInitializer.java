@@ -40,6 +40,20 @@ import java.util.Set;
  * <code>ComponentInitializer</code>s. The discovery mechanism is via
  * <code>&lt;meta-data&gt;</code> entries in the merged
  * <code>AndroidManifest.xml</code>.
+ * <p>
+ * By default, discovered initializers are initialized serially on the main thread. Parallel
+ * initialization can be enabled by adding a <code>&lt;meta-data&gt;</code> entry named
+ * {@value #PARALLEL_INITIALIZATION} to the {@link InitializationProvider}, whose value is the
+ * maximum number of background threads to use:
+ * <pre>
+ * &lt;meta-data
+ *     android:name="androidx.startup.PARALLEL_INITIALIZATION"
+ *     android:value="4" /&gt;
+ * </pre>
+ * Initializers are then created as soon as all of their dependencies are initialized.
+ * Initializers discovered with the <code>@string/androidx_startup_background</code> value run on
+ * background threads, while all other initializers, including dependencies which are not
+ * discovered, still run on the main thread.
  */
 @SuppressWarnings("WeakerAccess")
 public final class AppInitializer {
@@ -47,6 +61,11 @@ public final class AppInitializer {
     // Tracing
     private static final String SECTION_NAME = "Startup";
 
+    /**
+     * The name of the <code>&lt;meta-data&gt;</code> entry enabling parallel initialization.
+     */
+    static final String PARALLEL_INITIALIZATION = "androidx.startup.PARALLEL_INITIALIZATION";
+
     /**
      * The {@link AppInitializer} instance.
      */
@@ -63,6 +82,11 @@ public final class AppInitializer {
 
     final @NonNull Context mContext;
 
+    /**
+     * The discovered components being initialized in parallel, if any.
+     */
+    volatile @Nullable ParallelInitializer mParallelInitializer;
+
     /**
      * Creates an instance of {@link AppInitializer}
      *
@@ -126,14 +150,66 @@ public final class AppInitializer {
 
     @SuppressWarnings({"unchecked", "TypeParameterUnusedInFormals"})
     <T> @NonNull T doInitialize(@NonNull Class<? extends Initializer<?>> component) {
-        Object result;
+        while (true) {
+            ParallelInitializer parallelInitializer = mParallelInitializer;
+            if (parallelInitializer != null) {
+                // Don't hold the lock while waiting for other threads, as they may need it.
+                if (parallelInitializer.contains(component)) {
+                    return (T) parallelInitializer.await(component);
+                }
+                awaitParallelDependencies(
+                        parallelInitializer, component, new HashSet<Class<?>>());
+            }
+            synchronized (sLock) {
+                if (mParallelInitializer != parallelInitializer) {
+                    // The graph started or finished meanwhile, so the dependencies awaited
+                    // above may not be the right ones.
+                    continue;
+                }
+                Object result = mInitialized.get(component);
+                if (result == null) {
+                    result = doInitialize(component, new HashSet<Class<?>>());
+                }
+                return (T) result;
+            }
+        }
+    }
+
+    /**
+     * Waits for the dependencies of a component which are part of the graph being initialized in
+     * parallel, so that they are already initialized when the component is initialized while
+     * holding {@link #sLock}.
+     *
+     * @param parallelInitializer The graph being initialized
+     * @param component           The {@link Class} of {@link Initializer} not part of the graph
+     * @param visited             The components already visited. Cycles are reported when
+     *                            initializing the component.
+     */
+    private void awaitParallelDependencies(
+            @NonNull ParallelInitializer parallelInitializer,
+            @NonNull Class<? extends Initializer<?>> component,
+            @NonNull Set<Class<?>> visited) {
+        if (!visited.add(component)) {
+            return;
+        }
+        if (parallelInitializer.contains(component)) {
+            parallelInitializer.await(component);
+            return;
+        }
         synchronized (sLock) {
-            result = mInitialized.get(component);
-            if (result == null) {
-                result = doInitialize(component, new HashSet<Class<?>>());
+            if (mInitialized.containsKey(component)) {
+                return;
             }
         }
-        return (T) result;
+        List<Class<? extends Initializer<?>>> dependencies;
+        try {
+            dependencies = component.getDeclaredConstructor().newInstance().dependencies();
+        } catch (Throwable throwable) {
+            throw new StartupException(throwable);
+        }
+        for (Class<? extends Initializer<?>> clazz : dependencies) {
+            awaitParallelDependencies(parallelInitializer, clazz, visited);
+        }
     }
 
     @SuppressWarnings({"unchecked", "TypeParameterUnusedInFormals"})
@@ -153,7 +229,12 @@ public final class AppInitializer {
                 throw new IllegalStateException(message);
             }
             Object result;
-            if (!mInitialized.containsKey(component)) {
+            ParallelInitializer parallelInitializer = mParallelInitializer;
+            if (parallelInitializer != null && parallelInitializer.contains(component)) {
+                // Already awaited by doInitialize(Class) before taking the lock, so this doesn't
+                // wait.
+                result = parallelInitializer.await(component);
+            } else if (!mInitialized.containsKey(component)) {
                 initializing.add(component);
                 try {
                     Object instance = component.getDeclaredConstructor().newInstance();
@@ -209,18 +290,27 @@ public final class AppInitializer {
     @SuppressWarnings("unchecked")
     void discoverAndInitialize(@Nullable Bundle metadata) {
         String startup = mContext.getString(R.string.androidx_startup);
+        String startupBackground = mContext.getString(R.string.androidx_startup_background);
         try {
             if (metadata != null) {
                 Set<Class<?>> initializing = new HashSet<>();
+                Set<Class<? extends Initializer<?>>> background = new HashSet<>();
                 Set<String> keys = metadata.keySet();
                 for (String key : keys) {
+                    if (PARALLEL_INITIALIZATION.equals(key)) {
+                        continue;
+                    }
                     String value = metadata.getString(key, null);
-                    if (startup.equals(value)) {
+                    boolean isBackground = startupBackground.equals(value);
+                    if (startup.equals(value) || isBackground) {
                         Class<?> clazz = Class.forName(key);
                         if (Initializer.class.isAssignableFrom(clazz)) {
                             Class<? extends Initializer<?>> component =
                                     (Class<? extends Initializer<?>>) clazz;
                             mDiscovered.add(component);
+                            if (isBackground) {
+                                background.add(component);
+                            }
                             if (StartupLogger.DEBUG) {
                                 StartupLogger.i(String.format("Discovered %s", key));
                             }
@@ -229,12 +319,51 @@ public final class AppInitializer {
                 }
                 // Initialize only after discovery is complete. This way, the check for
                 // isEagerlyInitialized is correct.
-                for (Class<? extends Initializer<?>> component : mDiscovered) {
-                    doInitialize(component, initializing);
+                int parallelism = metadata.getInt(PARALLEL_INITIALIZATION, 0);
+                if (parallelism > 0) {
+                    initializeInParallel(parallelism, background);
+                } else {
+                    for (Class<? extends Initializer<?>> component : mDiscovered) {
+                        doInitialize(component, initializing);
+                    }
                 }
             }
         } catch (ClassNotFoundException exception) {
             throw new StartupException(exception);
         }
     }
+
+    /**
+     * Initializes all the discovered components, running independent components concurrently.
+     *
+     * @param parallelism The maximum number of background threads
+     * @param background  The discovered components allowed to run on a background thread
+     */
+    private void initializeInParallel(
+            int parallelism,
+            @NonNull Set<Class<? extends Initializer<?>>> background) {
+        ParallelInitializer parallelInitializer =
+                new ParallelInitializer(mContext, parallelism, background);
+        synchronized (sLock) {
+            try {
+                Set<Class<?>> initializing = new HashSet<>();
+                for (Class<? extends Initializer<?>> component : mDiscovered) {
+                    if (!mInitialized.containsKey(component)) {
+                        parallelInitializer.add(component, mInitialized, initializing);
+                    }
+                }
+            } catch (Throwable throwable) {
+                throw new StartupException(throwable);
+            }
+            mParallelInitializer = parallelInitializer;
+        }
+        try {
+            parallelInitializer.run();
+        } finally {
+            synchronized (sLock) {
+                parallelInitializer.publishTo(mInitialized);
+                mParallelInitializer = null;
+            }
+        }
+    }
 }
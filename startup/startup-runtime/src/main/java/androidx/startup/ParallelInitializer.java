@@ -0,0 +1,382 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup;
+
+import android.content.Context;
+import android.os.Debug;
+
+import androidx.tracing.Trace;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes a dependency graph of {@link Initializer}s concurrently.
+ *
+ * An {@link Initializer} is only created once all of its dependencies have been created.
+ * Initializers that were discovered as background initializers run on a bounded pool of
+ * background threads, while all the other initializers run on the thread calling {@link #run()},
+ * which is the main thread during app startup.
+ */
+final class ParallelInitializer {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+    private static final int STATE_FAILED = 3;
+
+    private static final long KEEP_ALIVE_SECONDS = 1;
+
+    final @NonNull Context mContext;
+
+    final @NonNull Set<Class<? extends Initializer<?>>> mBackground;
+
+    /**
+     * The graph being initialized. Only modified before {@link #run()} is called.
+     */
+    final @NonNull Map<Class<?>, Node> mNodes;
+
+    final @NonNull ThreadPoolExecutor mExecutor;
+
+    /**
+     * Guards the state of the nodes and the queue of the calling thread.
+     */
+    private final Object mLock = new Object();
+
+    private final ArrayDeque<Node> mCallerQueue;
+
+    private @Nullable Thread mCallerThread;
+
+    private int mRemaining;
+
+    private @Nullable Throwable mFailure;
+
+    /**
+     * Creates an instance of {@link ParallelInitializer}.
+     *
+     * @param context     The application context
+     * @param parallelism The maximum number of background threads
+     * @param background  The initializers allowed to run on a background thread
+     */
+    ParallelInitializer(
+            @NonNull Context context,
+            int parallelism,
+            @NonNull Set<Class<? extends Initializer<?>>> background) {
+        mContext = context;
+        mBackground = background;
+        mNodes = new HashMap<>();
+        mCallerQueue = new ArrayDeque<>();
+        mExecutor = new ThreadPoolExecutor(
+                parallelism,
+                parallelism,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new StartupThreadFactory());
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Adds a component, and all of its dependencies that are not yet initialized, to the graph.
+     *
+     * @param component    The {@link Class} of {@link Initializer} to add
+     * @param initialized  The components which are already initialized
+     * @param initializing The components whose dependencies are being added, to detect cycles
+     * @return The node of the component
+     */
+    @NonNull Node add(
+            @NonNull Class<? extends Initializer<?>> component,
+            @NonNull Map<Class<?>, Object> initialized,
+            @NonNull Set<Class<?>> initializing) throws ReflectiveOperationException {
+        Node node = mNodes.get(component);
+        if (node != null) {
+            return node;
+        }
+        if (initializing.contains(component)) {
+            String message = String.format(
+                    "Cannot initialize %s. Cycle detected.", component.getName()
+            );
+            throw new IllegalStateException(message);
+        }
+        initializing.add(component);
+        Initializer<?> initializer = component.getDeclaredConstructor().newInstance();
+        node = new Node(component, initializer, mBackground.contains(component));
+        for (Class<? extends Initializer<?>> clazz : initializer.dependencies()) {
+            if (!initialized.containsKey(clazz)) {
+                Node dependency = add(clazz, initialized, initializing);
+                dependency.mDependents.add(node);
+                node.mDependencies.add(dependency);
+            }
+        }
+        node.mPendingDependencies = node.mDependencies.size();
+        initializing.remove(component);
+        mNodes.put(component, node);
+        return node;
+    }
+
+    /**
+     * @return <code>true</code> if the component is part of the graph.
+     */
+    boolean contains(@NonNull Class<?> component) {
+        return mNodes.containsKey(component);
+    }
+
+    /**
+     * Initializes the whole graph, and returns once all the components are initialized.
+     *
+     * Components which are not allowed to run on a background thread are initialized on the
+     * calling thread.
+     */
+    void run() {
+        try {
+            Node next;
+            synchronized (mLock) {
+                mCallerThread = Thread.currentThread();
+                mRemaining = mNodes.size();
+                for (Node node : mNodes.values()) {
+                    if (node.mDependencies.isEmpty()) {
+                        enqueueLocked(node);
+                    }
+                }
+            }
+            while (true) {
+                synchronized (mLock) {
+                    while (mFailure == null && mRemaining > 0 && mCallerQueue.isEmpty()) {
+                        mLock.wait();
+                    }
+                    if (mFailure != null) {
+                        throw mFailure instanceof StartupException
+                                ? (StartupException) mFailure
+                                : new StartupException(mFailure);
+                    }
+                    if (mRemaining == 0) {
+                        return;
+                    }
+                    next = mCallerQueue.poll();
+                    // Might have been claimed by a thread waiting for it
+                    if (next.mState != STATE_PENDING) {
+                        continue;
+                    }
+                    next.mState = STATE_RUNNING;
+                }
+                create(next);
+            }
+        } catch (InterruptedException exception) {
+            synchronized (mLock) {
+                failPendingLocked(exception);
+            }
+            throw new StartupException(exception);
+        } finally {
+            mExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Waits for a component of the graph to be initialized, and returns the initialized
+     * instance.
+     *
+     * This is used when initializing a component explicitly with
+     * {@link AppInitializer#initializeComponent(Class)} while the graph is being initialized. The
+     * component is created on the calling thread if it was not started yet and the calling
+     * thread is allowed to run it, which avoids waiting on a thread that may be waiting on us.
+     *
+     * @param component The {@link Class} of {@link Initializer}, which must be part of the graph
+     * @return The initialized instance
+     */
+    @NonNull Object await(@NonNull Class<?> component) {
+        Node node = mNodes.get(component);
+        if (node == null) {
+            throw new IllegalArgumentException(component.getName() + " is not being initialized");
+        }
+        return await(node);
+    }
+
+    private @NonNull Object await(@NonNull Node node) {
+        for (Node dependency : node.mDependencies) {
+            await(dependency);
+        }
+        boolean claimed = false;
+        synchronized (mLock) {
+            if (node.mState == STATE_PENDING
+                    && (node.mBackground || Thread.currentThread() == mCallerThread)) {
+                node.mState = STATE_RUNNING;
+                claimed = true;
+            }
+        }
+        if (claimed) {
+            create(node);
+        }
+        synchronized (mLock) {
+            try {
+                while (node.mState != STATE_DONE && node.mState != STATE_FAILED) {
+                    mLock.wait();
+                }
+            } catch (InterruptedException exception) {
+                throw new StartupException(exception);
+            }
+            if (node.mState == STATE_FAILED) {
+                throw new StartupException(node.mFailure);
+            }
+            return node.mResult;
+        }
+    }
+
+    /**
+     * Copies the initialized instances into the given map.
+     */
+    void publishTo(@NonNull Map<Class<?>, Object> initialized) {
+        synchronized (mLock) {
+            for (Node node : mNodes.values()) {
+                if (node.mState == STATE_DONE) {
+                    initialized.put(node.mComponent, node.mResult);
+                }
+            }
+        }
+    }
+
+    private void enqueueLocked(@NonNull Node node) {
+        if (node.mBackground) {
+            mExecutor.execute(() -> {
+                synchronized (mLock) {
+                    // Might have been claimed by a thread waiting for it
+                    if (node.mState != STATE_PENDING || mFailure != null) {
+                        return;
+                    }
+                    node.mState = STATE_RUNNING;
+                }
+                create(node);
+            });
+        } else {
+            mCallerQueue.add(node);
+            mLock.notifyAll();
+        }
+    }
+
+    private void create(@NonNull Node node) {
+        boolean isTracingEnabled = Trace.isEnabled();
+        if (isTracingEnabled) {
+            // Use the simpleName here because section names would get too big otherwise.
+            Trace.beginSection(node.mComponent.getSimpleName());
+        }
+        long startTimeNs = System.nanoTime();
+        long startCpuTimeNs = Debug.threadCpuTimeNanos();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = node.mInitializer.create(mContext);
+        } catch (Throwable throwable) {
+            failure = throwable;
+        } finally {
+            if (isTracingEnabled) {
+                Trace.endSection();
+            }
+        }
+        if (StartupLogger.isLoggable()) {
+            long timeUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTimeNs);
+            long cpuTimeUs =
+                    TimeUnit.NANOSECONDS.toMicros(Debug.threadCpuTimeNanos() - startCpuTimeNs);
+            StartupLogger.i(String.format("Initialized %s on %s in %d us (%d us CPU)",
+                    node.mComponent.getName(), Thread.currentThread().getName(), timeUs,
+                    cpuTimeUs));
+        }
+        synchronized (mLock) {
+            if (failure == null) {
+                node.mResult = result;
+                node.mState = STATE_DONE;
+                for (Node dependent : node.mDependents) {
+                    dependent.mPendingDependencies--;
+                    if (dependent.mPendingDependencies == 0 && mFailure == null) {
+                        enqueueLocked(dependent);
+                    }
+                }
+            } else {
+                node.mFailure = failure;
+                node.mState = STATE_FAILED;
+                if (mFailure == null) {
+                    mFailure = failure;
+                }
+                failPendingLocked(failure);
+            }
+            mRemaining--;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Fails all the components which were not started yet, as they won't be created anymore, so
+     * that the threads waiting for them in {@link #await(Class)} don't wait forever.
+     */
+    private void failPendingLocked(@NonNull Throwable failure) {
+        for (Node node : mNodes.values()) {
+            if (node.mState == STATE_PENDING) {
+                node.mFailure = failure;
+                node.mState = STATE_FAILED;
+            }
+        }
+        mLock.notifyAll();
+    }
+
+    /**
+     * A component of the graph being initialized.
+     */
+    static final class Node {
+        final @NonNull Class<? extends Initializer<?>> mComponent;
+        final @NonNull Initializer<?> mInitializer;
+        final boolean mBackground;
+        final @NonNull List<Node> mDependencies;
+        final @NonNull List<Node> mDependents;
+
+        // Guarded by ParallelInitializer.mLock
+        int mPendingDependencies;
+        int mState;
+        @Nullable Object mResult;
+        @Nullable Throwable mFailure;
+
+        Node(
+                @NonNull Class<? extends Initializer<?>> component,
+                @NonNull Initializer<?> initializer,
+                boolean background) {
+            mComponent = component;
+            mInitializer = initializer;
+            mBackground = background;
+            mDependencies = new ArrayList<>();
+            mDependents = new ArrayList<>();
+            mState = STATE_PENDING;
+        }
+    }
+
+    private static final class StartupThreadFactory implements ThreadFactory {
+        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(runnable, "androidx.startup-" + mThreadCount.incrementAndGet());
+        }
+    }
+}
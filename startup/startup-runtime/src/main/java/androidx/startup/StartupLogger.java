@@ -43,6 +43,15 @@ public final class StartupLogger {
      */
     static final boolean DEBUG = false;
 
+    /**
+     * @return <code>true</code> if verbose logging, such as initializer timings, is enabled.
+     * This can be enabled at runtime with
+     * <code>adb shell setprop log.tag.StartupLogger DEBUG</code>.
+     */
+    static boolean isLoggable() {
+        return DEBUG || Log.isLoggable(TAG, Log.DEBUG);
+    }
+
     /**
      * Info level logging.
      *
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.tracing.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.tracing.Trace
+import androidx.tracing.TraceRecorder
+import java.io.OutputStream
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/** Measures the per-section overhead of [Trace], with and without a [TraceRecorder]. */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class TraceRecorderBenchmark {
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    private val recorder = TraceRecorder()
+
+    @After
+    fun tearDown() {
+        recorder.stop()
+    }
+
+    @Test
+    fun beginEndSection_recordingOff() {
+        benchmarkRule.measureRepeated {
+            Trace.beginSection(SECTION_LABEL)
+            Trace.endSection()
+        }
+    }
+
+    @Test
+    fun beginEndSection_recordingOn() {
+        recorder.start()
+        benchmarkRule.measureRepeated {
+            Trace.beginSection(SECTION_LABEL)
+            Trace.endSection()
+        }
+    }
+
+    @Test
+    fun setCounter_recordingOn() {
+        recorder.start()
+        var value = 0
+        benchmarkRule.measureRepeated { Trace.setCounter(COUNTER_NAME, value++) }
+    }
+
+    @Test
+    fun writePerfettoTrace_fullBuffer() {
+        recorder.start()
+        repeat(recorder.capacity / 2) {
+            Trace.beginSection(SECTION_LABEL)
+            Trace.endSection()
+        }
+        recorder.stop()
+        val output =
+            object : OutputStream() {
+                override fun write(b: Int) {}
+
+                override fun write(b: ByteArray, off: Int, len: Int) {}
+            }
+        benchmarkRule.measureRepeated { recorder.writePerfettoTrace(output) }
+    }
+
+    private companion object {
+        const val SECTION_LABEL = "TraceRecorderBenchmark"
+        const val COUNTER_NAME = "TraceRecorderBenchmarkCounter"
+    }
+}
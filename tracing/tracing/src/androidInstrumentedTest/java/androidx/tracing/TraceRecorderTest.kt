@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.tracing
+
+import androidx.test.filters.SmallTest
+import java.io.ByteArrayOutputStream
+import java.nio.charset.StandardCharsets
+import kotlin.concurrent.thread
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+@SmallTest
+class TraceRecorderTest {
+    private val recorder = TraceRecorder(capacity = 16)
+
+    @After
+    fun stopRecorder() {
+        recorder.stop()
+    }
+
+    @Test
+    fun capacity_roundedUpToPowerOfTwo() {
+        assertEquals(16, TraceRecorder(capacity = 10).capacity)
+        assertEquals(TraceRecorder.DEFAULT_CAPACITY, TraceRecorder().capacity)
+    }
+
+    @Test
+    fun startStop() {
+        assertFalse(recorder.isRecording)
+        recorder.start()
+        assertTrue(recorder.isRecording)
+        assertTrue(Trace.isEnabled())
+
+        val other = TraceRecorder(capacity = 16)
+        other.start()
+        assertFalse(recorder.isRecording)
+        assertTrue(other.isRecording)
+
+        other.stop()
+        assertFalse(other.isRecording)
+    }
+
+    @Test
+    fun recordsSectionsAndCounters() {
+        recorder.start()
+        trace("recordedSection") { Trace.setCounter("recordedCounter", 42) }
+        recorder.stop()
+        Trace.beginSection("notRecordedSection")
+        Trace.endSection()
+
+        val dump = recorder.dumpToString()
+        assertTrue(dump.contains("recordedSection"))
+        assertTrue(dump.contains("recordedCounter"))
+        assertFalse(dump.contains("notRecordedSection"))
+    }
+
+    @Test
+    fun recordsOtherThreads() {
+        recorder.start()
+        thread { trace("backgroundSection") {} }.join()
+
+        assertTrue(recorder.dumpToString().contains("backgroundSection"))
+    }
+
+    @Test
+    fun overwritesOldestEvents() {
+        recorder.start()
+        for (i in 0 until 20) {
+            trace("section$i!") {}
+        }
+
+        val dump = recorder.dumpToString()
+        // each section uses two slots, only the last 8 sections are retained
+        assertFalse(dump.contains("section11!"))
+        for (i in 12 until 20) {
+            assertTrue(dump.contains("section$i!"))
+        }
+    }
+
+    @Test
+    fun clear() {
+        recorder.start()
+        trace("clearedSection") {}
+        recorder.clear()
+        trace("retainedSection") {}
+
+        val dump = recorder.dumpToString()
+        assertFalse(dump.contains("clearedSection"))
+        assertTrue(dump.contains("retainedSection"))
+    }
+
+    // Strings are written as-is in protobuf, which is enough to check which events were dumped
+    private fun TraceRecorder.dumpToString(): String {
+        val output = ByteArrayOutputStream()
+        writePerfettoTrace(output)
+        return String(output.toByteArray(), StandardCharsets.ISO_8859_1)
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.tracing
+
+import java.io.OutputStream
+
+/**
+ * Minimal writer of the Perfetto protobuf trace format, covering the subset of `TracePacket`,
+ * `TrackDescriptor` and `TrackEvent` needed by [TraceRecorder].
+ *
+ * Field numbers come from
+ * [perfetto_trace.proto](https://android.googlesource.com/platform/external/perfetto/+/HEAD/protos/perfetto/trace/perfetto_trace.proto).
+ * A full protobuf runtime is not used to keep this library free of dependencies.
+ */
+internal class PerfettoTraceWriter(private val output: OutputStream) {
+    private val header = ProtoBuffer()
+    private val packet = ProtoBuffer()
+    private val message = ProtoBuffer()
+    private val nestedMessage = ProtoBuffer()
+    private var firstPacket = true
+
+    fun writeProcessTrack(uuid: Long, pid: Int) {
+        nestedMessage.reset()
+        nestedMessage.writeVarint(PROCESS_DESCRIPTOR_PID, pid.toLong())
+        message.reset()
+        message.writeVarint(TRACK_DESCRIPTOR_UUID, uuid)
+        message.writeMessage(TRACK_DESCRIPTOR_PROCESS, nestedMessage)
+        writePacket(TRACE_PACKET_TRACK_DESCRIPTOR, timestamp = null)
+    }
+
+    fun writeThreadTrack(uuid: Long, pid: Int, tid: Int, name: String?) {
+        nestedMessage.reset()
+        nestedMessage.writeVarint(THREAD_DESCRIPTOR_PID, pid.toLong())
+        nestedMessage.writeVarint(THREAD_DESCRIPTOR_TID, tid.toLong())
+        if (name != null) nestedMessage.writeString(THREAD_DESCRIPTOR_THREAD_NAME, name)
+        message.reset()
+        message.writeVarint(TRACK_DESCRIPTOR_UUID, uuid)
+        message.writeMessage(TRACK_DESCRIPTOR_THREAD, nestedMessage)
+        writePacket(TRACE_PACKET_TRACK_DESCRIPTOR, timestamp = null)
+    }
+
+    fun writeCounterTrack(uuid: Long, parentUuid: Long, name: String) {
+        nestedMessage.reset()
+        message.reset()
+        message.writeVarint(TRACK_DESCRIPTOR_UUID, uuid)
+        message.writeVarint(TRACK_DESCRIPTOR_PARENT_UUID, parentUuid)
+        message.writeString(TRACK_DESCRIPTOR_NAME, name)
+        message.writeMessage(TRACK_DESCRIPTOR_COUNTER, nestedMessage)
+        writePacket(TRACE_PACKET_TRACK_DESCRIPTOR, timestamp = null)
+    }
+
+    fun writeSliceBegin(timestamp: Long, trackUuid: Long, name: String) {
+        message.reset()
+        message.writeVarint(TRACK_EVENT_TYPE, TYPE_SLICE_BEGIN)
+        message.writeVarint(TRACK_EVENT_TRACK_UUID, trackUuid)
+        message.writeString(TRACK_EVENT_NAME, name)
+        writePacket(TRACE_PACKET_TRACK_EVENT, timestamp)
+    }
+
+    fun writeSliceEnd(timestamp: Long, trackUuid: Long) {
+        message.reset()
+        message.writeVarint(TRACK_EVENT_TYPE, TYPE_SLICE_END)
+        message.writeVarint(TRACK_EVENT_TRACK_UUID, trackUuid)
+        writePacket(TRACE_PACKET_TRACK_EVENT, timestamp)
+    }
+
+    fun writeCounter(timestamp: Long, trackUuid: Long, value: Long) {
+        message.reset()
+        message.writeVarint(TRACK_EVENT_TYPE, TYPE_COUNTER)
+        message.writeVarint(TRACK_EVENT_TRACK_UUID, trackUuid)
+        message.writeVarint(TRACK_EVENT_COUNTER_VALUE, value)
+        writePacket(TRACE_PACKET_TRACK_EVENT, timestamp)
+    }
+
+    /** Wraps [message] in a `TracePacket` and writes it as a `Trace.packet` field. */
+    private fun writePacket(field: Int, timestamp: Long?) {
+        packet.reset()
+        if (timestamp != null) {
+            packet.writeVarint(TRACE_PACKET_TIMESTAMP, timestamp)
+        }
+        packet.writeVarint(TRACE_PACKET_TIMESTAMP_CLOCK_ID, CLOCK_ID_MONOTONIC)
+        packet.writeVarint(TRACE_PACKET_TRUSTED_PACKET_SEQUENCE_ID, TRUSTED_PACKET_SEQUENCE_ID)
+        if (firstPacket) {
+            firstPacket = false
+            packet.writeVarint(TRACE_PACKET_INCREMENTAL_STATE_CLEARED, 1)
+        }
+        packet.writeMessage(field, message)
+
+        header.reset()
+        header.writeTag(TRACE_PACKET, WIRE_TYPE_LENGTH_DELIMITED)
+        header.writeRawVarint(packet.size.toLong())
+        header.writeTo(output)
+        packet.writeTo(output)
+    }
+
+    private companion object {
+        const val WIRE_TYPE_VARINT = 0
+        const val WIRE_TYPE_LENGTH_DELIMITED = 2
+
+        const val TRACE_PACKET = 1
+
+        const val TRACE_PACKET_TIMESTAMP = 8
+        const val TRACE_PACKET_TRUSTED_PACKET_SEQUENCE_ID = 10
+        const val TRACE_PACKET_TRACK_EVENT = 11
+        const val TRACE_PACKET_INCREMENTAL_STATE_CLEARED = 41
+        const val TRACE_PACKET_TIMESTAMP_CLOCK_ID = 58
+        const val TRACE_PACKET_TRACK_DESCRIPTOR = 60
+
+        const val TRACK_DESCRIPTOR_UUID = 1
+        const val TRACK_DESCRIPTOR_NAME = 2
+        const val TRACK_DESCRIPTOR_PROCESS = 3
+        const val TRACK_DESCRIPTOR_THREAD = 4
+        const val TRACK_DESCRIPTOR_PARENT_UUID = 5
+        const val TRACK_DESCRIPTOR_COUNTER = 8
+
+        const val PROCESS_DESCRIPTOR_PID = 1
+
+        const val THREAD_DESCRIPTOR_PID = 1
+        const val THREAD_DESCRIPTOR_TID = 2
+        const val THREAD_DESCRIPTOR_THREAD_NAME = 5
+
+        const val TRACK_EVENT_TYPE = 9
+        const val TRACK_EVENT_TRACK_UUID = 11
+        const val TRACK_EVENT_NAME = 23
+        const val TRACK_EVENT_COUNTER_VALUE = 30
+
+        const val TYPE_SLICE_BEGIN = 1L
+        const val TYPE_SLICE_END = 2L
+        const val TYPE_COUNTER = 4L
+
+        /** `BuiltinClock.BUILTIN_CLOCK_MONOTONIC`, the clock of [System.nanoTime] */
+        const val CLOCK_ID_MONOTONIC = 3L
+
+        const val TRUSTED_PACKET_SEQUENCE_ID = 1_234_543L
+    }
+
+    /** Growable buffer of protobuf encoded fields. */
+    private class ProtoBuffer {
+        private var bytes = ByteArray(64)
+        var size = 0
+            private set
+
+        fun reset() {
+            size = 0
+        }
+
+        fun writeTag(field: Int, wireType: Int) {
+            writeRawVarint(((field shl 3) or wireType).toLong())
+        }
+
+        fun writeVarint(field: Int, value: Long) {
+            writeTag(field, WIRE_TYPE_VARINT)
+            writeRawVarint(value)
+        }
+
+        fun writeString(field: Int, value: String) {
+            val encoded = value.toByteArray(Charsets.UTF_8)
+            writeTag(field, WIRE_TYPE_LENGTH_DELIMITED)
+            writeRawVarint(encoded.size.toLong())
+            writeRawBytes(encoded, encoded.size)
+        }
+
+        fun writeMessage(field: Int, message: ProtoBuffer) {
+            writeTag(field, WIRE_TYPE_LENGTH_DELIMITED)
+            writeRawVarint(message.size.toLong())
+            writeRawBytes(message.bytes, message.size)
+        }
+
+        fun writeRawVarint(value: Long) {
+            ensureCapacity(MAX_VARINT_SIZE)
+            var remaining = value
+            while (remaining and 0x7FL.inv() != 0L) {
+                bytes[size++] = ((remaining and 0x7F) or 0x80).toByte()
+                remaining = remaining ushr 7
+            }
+            bytes[size++] = remaining.toByte()
+        }
+
+        fun writeTo(output: OutputStream) {
+            output.write(bytes, 0, size)
+        }
+
+        private fun writeRawBytes(source: ByteArray, length: Int) {
+            ensureCapacity(length)
+            System.arraycopy(source, 0, bytes, size, length)
+            size += length
+        }
+
+        private fun ensureCapacity(additional: Int) {
+            if (size + additional > bytes.size) {
+                bytes = bytes.copyOf(maxOf(bytes.size * 2, size + additional))
+            }
+        }
+
+        private companion object {
+            const val MAX_VARINT_SIZE = 10
+        }
+    }
+}
@@ -66,15 +66,18 @@ object Trace {
      * check this. However it is recommended to use this to prevent creating any temporary objects
      * that would then be passed to those methods to reduce runtime cost when tracing isn't enabled.
      *
+     * Tracing is also considered enabled while a [TraceRecorder] is recording.
+     *
      * @return `true` if tracing is currently enabled, `false` otherwise.
      */
     @JvmStatic // A function (not a property) for source compatibility with Kotlin callers
     fun isEnabled(): Boolean =
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-            TraceApi29Impl.isEnabled
-        } else {
-            isEnabledFallback
-        }
+        TraceRecorder.activeRecorder != null ||
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                TraceApi29Impl.isEnabled
+            } else {
+                isEnabledFallback
+            }
 
     /**
      * Enables the app tracing tag in a non-debuggable process.
@@ -124,7 +127,9 @@ object Trace {
      */
     @JvmStatic
     fun beginSection(label: String) {
-        Trace.beginSection(label.truncatedTraceSectionLabel())
+        val truncatedLabel = label.truncatedTraceSectionLabel()
+        TraceRecorder.activeRecorder?.beginSection(truncatedLabel)
+        Trace.beginSection(truncatedLabel)
     }
 
     /**
@@ -136,6 +141,7 @@ object Trace {
      */
     @JvmStatic
     fun endSection() {
+        TraceRecorder.activeRecorder?.endSection()
         Trace.endSection()
     }
 
@@ -205,6 +211,10 @@ object Trace {
      */
     @JvmStatic
     fun setCounter(counterName: String, counterValue: Int) {
+        TraceRecorder.activeRecorder?.setCounter(
+            counterName.truncatedTraceSectionLabel(),
+            counterValue
+        )
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
             TraceApi29Impl.setCounter(counterName.truncatedTraceSectionLabel(), counterValue)
         } else {
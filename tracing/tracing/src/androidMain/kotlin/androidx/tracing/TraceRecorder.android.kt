@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.tracing
+
+import android.os.Process
+import java.io.File
+import java.io.OutputStream
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Records [Trace] sections and counters in an in-process ring buffer, so that recent trace events
+ * can be inspected even when no system trace is being captured, for example after detecting jank
+ * or an ANR in production.
+ *
+ * While a recorder is [started][start], every call to [Trace.beginSection], [Trace.endSection] and
+ * [Trace.setCounter] is also recorded with the current thread id and a [System.nanoTime]
+ * timestamp. Recording does not take any lock and does not allocate: once the buffer is full, the
+ * oldest events are overwritten.
+ *
+ * Recorded events can be written at any time with [writePerfettoTrace], in the Perfetto protobuf
+ * trace format, which can be opened in the [Perfetto UI](https://ui.perfetto.dev) or Android
+ * Studio. Since the oldest events are overwritten, the dumped trace may contain sections whose
+ * beginning was not retained.
+ *
+ * At most one recorder is active at a time, and starting a recorder stops the previous one.
+ *
+ * @param capacity The maximum number of events retained by this recorder, rounded up to the next
+ *   power of two.
+ */
+class TraceRecorder @JvmOverloads constructor(capacity: Int = DEFAULT_CAPACITY) {
+    /** The maximum number of events retained by this recorder. */
+    val capacity: Int
+
+    private val mask: Int
+    private val nextSequence = AtomicLong()
+
+    // For each slot, the sequence number of the event it holds once fully written, or
+    // SLOT_IN_PROGRESS while it is being written. The fields of the events are atomic too: the
+    // ordered writes and volatile reads keep a dump from mixing the fields of two events.
+    private val published: AtomicLongArray
+    private val timestamps: AtomicLongArray
+    // the thread id in the upper 32 bits and the type in the lower ones
+    private val threadIdsAndTypes: AtomicLongArray
+    private val names: AtomicReferenceArray<String?>
+    private val values: AtomicLongArray
+
+    init {
+        require(capacity in 1..MAX_CAPACITY) { "capacity must be between 1 and $MAX_CAPACITY" }
+        var powerOfTwo = 1
+        while (powerOfTwo < capacity) powerOfTwo = powerOfTwo shl 1
+        this.capacity = powerOfTwo
+        mask = powerOfTwo - 1
+        published = AtomicLongArray(powerOfTwo)
+        for (i in 0 until powerOfTwo) published.set(i, SLOT_EMPTY)
+        timestamps = AtomicLongArray(powerOfTwo)
+        threadIdsAndTypes = AtomicLongArray(powerOfTwo)
+        names = AtomicReferenceArray(powerOfTwo)
+        values = AtomicLongArray(powerOfTwo)
+    }
+
+    /** Whether this recorder is currently recording [Trace] events. */
+    val isRecording: Boolean
+        get() = activeRecorder === this
+
+    /** Starts recording [Trace] events, replacing the previously started recorder if any. */
+    fun start() {
+        activeRecorder = this
+    }
+
+    /** Stops recording [Trace] events. Recorded events are retained until [clear] is called. */
+    fun stop() {
+        if (activeRecorder === this) {
+            activeRecorder = null
+        }
+    }
+
+    /**
+     * Drops all the recorded events.
+     *
+     * Events recorded concurrently with this call may or may not be retained.
+     */
+    fun clear() {
+        val end = nextSequence.get()
+        for (i in 0 until capacity) {
+            // only drop events written before this call, newer events are left untouched
+            val sequence = published.get(i)
+            if (sequence in 0 until end) published.compareAndSet(i, sequence, SLOT_EMPTY)
+        }
+    }
+
+    internal fun beginSection(label: String) {
+        record(TYPE_SLICE_BEGIN, label, 0)
+    }
+
+    internal fun endSection() {
+        record(TYPE_SLICE_END, null, 0)
+    }
+
+    internal fun setCounter(counterName: String, counterValue: Int) {
+        record(TYPE_COUNTER, counterName, counterValue.toLong())
+    }
+
+    private fun record(type: Byte, name: String?, value: Long) {
+        val timestamp = System.nanoTime()
+        val sequence = nextSequence.getAndIncrement()
+        val index = (sequence and mask.toLong()).toInt()
+        // Invalidate the slot first, so that a concurrent dump can't mix two events. The ordered
+        // writes of the fields can't be reordered before this write, so a dump reading any of them
+        // then sees the slot as invalidated when checking it again.
+        published.set(index, SLOT_IN_PROGRESS)
+        timestamps.lazySet(index, timestamp)
+        threadIdsAndTypes.lazySet(index, (currentThreadId.get()!!.toLong() shl 32) or type.toLong())
+        names.lazySet(index, name)
+        values.lazySet(index, value)
+        published.lazySet(index, sequence)
+    }
+
+    /**
+     * Writes the currently retained events to [output] as a Perfetto protobuf trace. Recording is
+     * not interrupted while writing, and events recorded concurrently with this call may or may not
+     * be included.
+     *
+     * [output] is not closed by this function.
+     */
+    fun writePerfettoTrace(output: OutputStream) {
+        val end = nextSequence.get()
+        val start = maxOf(0L, end - capacity)
+        val count = (end - start).toInt()
+
+        val eventTimestamps = LongArray(count)
+        val eventThreadIds = IntArray(count)
+        val eventTypes = ByteArray(count)
+        val eventNames = arrayOfNulls<String>(count)
+        val eventValues = LongArray(count)
+        var eventCount = 0
+        for (sequence in start until end) {
+            val index = (sequence and mask.toLong()).toInt()
+            if (published.get(index) != sequence) continue
+            val timestamp = timestamps.get(index)
+            val threadIdAndType = threadIdsAndTypes.get(index)
+            val name = names.get(index)
+            val value = values.get(index)
+            // skip the event if it was overwritten while it was being copied
+            if (published.get(index) != sequence) continue
+            eventTimestamps[eventCount] = timestamp
+            eventThreadIds[eventCount] = (threadIdAndType ushr 32).toInt()
+            eventTypes[eventCount] = threadIdAndType.toByte()
+            eventNames[eventCount] = name
+            eventValues[eventCount] = value
+            eventCount++
+        }
+
+        // Events of different threads may be published slightly out of order, while Perfetto
+        // expects the events of a packet sequence to be sorted
+        val order = (0 until eventCount).sortedBy { eventTimestamps[it] }
+
+        val writer = PerfettoTraceWriter(output)
+        val pid = Process.myPid()
+        writer.writeProcessTrack(PROCESS_TRACK_UUID, pid)
+        val threadTracks = HashMap<Int, Long>()
+        val counterTracks = HashMap<String, Long>()
+        var nextTrackUuid = PROCESS_TRACK_UUID + 1
+        for (i in order) {
+            when (eventTypes[i]) {
+                TYPE_SLICE_BEGIN,
+                TYPE_SLICE_END -> {
+                    val tid = eventThreadIds[i]
+                    val trackUuid =
+                        threadTracks.getOrPut(tid) {
+                            nextTrackUuid++.also { uuid ->
+                                writer.writeThreadTrack(uuid, pid, tid, threadName(tid))
+                            }
+                        }
+                    if (eventTypes[i] == TYPE_SLICE_BEGIN) {
+                        writer.writeSliceBegin(eventTimestamps[i], trackUuid, eventNames[i]!!)
+                    } else {
+                        writer.writeSliceEnd(eventTimestamps[i], trackUuid)
+                    }
+                }
+                TYPE_COUNTER -> {
+                    val name = eventNames[i]!!
+                    val trackUuid =
+                        counterTracks.getOrPut(name) {
+                            nextTrackUuid++.also { uuid ->
+                                writer.writeCounterTrack(uuid, PROCESS_TRACK_UUID, name)
+                            }
+                        }
+                    writer.writeCounter(eventTimestamps[i], trackUuid, eventValues[i])
+                }
+            }
+        }
+        output.flush()
+    }
+
+    private fun threadName(tid: Int): String? =
+        try {
+            File("/proc/self/task/$tid/comm").readText().trim()
+        } catch (exception: Exception) {
+            null // thread has exited since
+        }
+
+    companion object {
+        /** Default maximum number of events retained by a [TraceRecorder]. */
+        const val DEFAULT_CAPACITY: Int = 16384
+
+        private const val MAX_CAPACITY = 1 shl 24
+
+        private const val SLOT_EMPTY = -1L
+        private const val SLOT_IN_PROGRESS = -2L
+
+        private const val TYPE_SLICE_BEGIN: Byte = 1
+        private const val TYPE_SLICE_END: Byte = 2
+        private const val TYPE_COUNTER: Byte = 3
+
+        private const val PROCESS_TRACK_UUID = 0x7472_6163_6500_0000L
+
+        // Process.myTid() is a system call, so it is only made once per thread
+        private val currentThreadId =
+            object : ThreadLocal<Int>() {
+                override fun initialValue(): Int = Process.myTid()
+            }
+
+        /** The recorder that [Trace] calls are forwarded to, if any. */
+        @Volatile internal var activeRecorder: TraceRecorder? = null
+            private set
+    }
+}
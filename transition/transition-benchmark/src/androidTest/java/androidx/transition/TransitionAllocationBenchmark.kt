@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// In the androidx.transition package to call the package-private capture methods.
+package androidx.transition
+
+import android.content.Context
+import android.view.View
+import android.view.ViewGroup
+import android.widget.LinearLayout
+import androidx.benchmark.AllocationCapture
+import androidx.benchmark.ExperimentalBenchmarkConfigApi
+import androidx.benchmark.MicrobenchmarkConfig
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures the memory allocated to capture the values of a scene change. Time is measured by
+ * [TransitionMatchBenchmark], as allocation counting slows down the measured code.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class TransitionAllocationBenchmark(private val viewCount: Int) {
+    @OptIn(ExperimentalBenchmarkConfigApi::class)
+    @get:Rule
+    val benchmarkRule =
+        BenchmarkRule(MicrobenchmarkConfig(metrics = listOf(AllocationCapture())))
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val sceneRoot = createScene()
+
+    @Test
+    fun captureValues() {
+        val transition = AutoTransition()
+        benchmarkRule.measureRepeated {
+            transition.captureValues(sceneRoot, true)
+            transition.captureValues(sceneRoot, false)
+        }
+    }
+
+    /** Transitions are cloned for each scene change, as done by TransitionManager. */
+    @Test
+    fun captureValues_clonedTransition() {
+        val transition = AutoTransition()
+        benchmarkRule.measureRepeated {
+            val clone = transition.clone()
+            clone.captureValues(sceneRoot, true)
+            clone.captureValues(sceneRoot, false)
+        }
+    }
+
+    private fun createScene(): ViewGroup {
+        val root = LinearLayout(context)
+        root.orientation = LinearLayout.VERTICAL
+        for (i in 0 until viewCount) {
+            val view = View(context)
+            view.id = i + 1
+            root.addView(view, LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 10))
+        }
+        root.measure(
+            View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(viewCount * 10, View.MeasureSpec.EXACTLY)
+        )
+        root.layout(0, 0, 1000, viewCount * 10)
+        return root
+    }
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "viewCount={0}")
+        fun data() = listOf(10, 100, 1000)
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// In the androidx.transition package to call the package-private capture and play methods.
+package androidx.transition
+
+import android.content.Context
+import android.view.View
+import android.view.ViewGroup
+import android.widget.LinearLayout
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.benchmark.junit4.measureRepeatedOnMainThread
+import androidx.core.view.ViewCompat
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures capturing and matching the values of a scene change as its view count grows, and
+ * creating the animators of the matched views. Views of the end scene are new instances, matched to
+ * the start scene by transition name or by id. They are twice as tall, so that ChangeBounds
+ * animates every view, and every other one is invisible, so that Fade animates those.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class TransitionMatchBenchmark(private val viewCount: Int) {
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val startScene = createScene(isEndScene = false)
+    private val endScene = createScene(isEndScene = true)
+
+    @Test
+    fun captureValues() {
+        val transition = AutoTransition()
+        benchmarkRule.measureRepeated {
+            transition.captureValues(startScene, true)
+            transition.captureValues(endScene, false)
+        }
+    }
+
+    @Test
+    fun matchAndCreateAnimators_changeBounds() {
+        matchAndCreateAnimators(ChangeBounds())
+    }
+
+    @Test
+    fun matchAndCreateAnimators_fade() {
+        matchAndCreateAnimators(Fade())
+    }
+
+    private fun matchAndCreateAnimators(transition: Transition) {
+        transition.captureValues(startScene, true)
+        transition.captureValues(endScene, false)
+        // Animators only run on a Looper thread
+        benchmarkRule.measureRepeatedOnMainThread {
+            transition.playTransition(endScene)
+            runWithMeasurementDisabled {
+                check(transition.mCurrentAnimators.isNotEmpty()) { "No animator was created" }
+                // Removes the animators from the running ones before the next iteration
+                transition.cancel()
+            }
+        }
+    }
+
+    private fun createScene(isEndScene: Boolean): ViewGroup {
+        val viewHeight = if (isEndScene) 20 else 10
+        val root = LinearLayout(context)
+        root.orientation = LinearLayout.VERTICAL
+        for (i in 0 until viewCount) {
+            val view = View(context)
+            view.id = i + 1
+            if (i % 2 == 0) {
+                ViewCompat.setTransitionName(view, "view$i")
+            } else if (isEndScene) {
+                view.visibility = View.INVISIBLE
+            }
+            root.addView(
+                view,
+                LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, viewHeight)
+            )
+        }
+        root.measure(
+            View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(viewCount * viewHeight, View.MeasureSpec.EXACTLY)
+        )
+        root.layout(0, 0, 1000, viewCount * viewHeight)
+        return root
+    }
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "viewCount={0}")
+        fun data() = listOf(10, 100, 1000)
+    }
+}
@@ -282,6 +282,45 @@ public class TransitionTest extends BaseTest {
         }
     }
 
+    @Test
+    @UiThreadTest
+    public void testMatchByNameAndId() {
+        FrameLayout startRoot = new FrameLayout(rule.getActivity());
+        FrameLayout endRoot = new FrameLayout(rule.getActivity());
+        rule.getActivity().getRoot().addView(startRoot);
+        rule.getActivity().getRoot().addView(endRoot);
+        View startNamed = addView(startRoot, 1, "named");
+        View startWithId = addView(startRoot, 2, null);
+        View startOnly = addView(startRoot, 3, null);
+        View endNamed = addView(endRoot, 10, "named");
+        View endWithId = addView(endRoot, 2, null);
+        View endOnly = addView(endRoot, 4, null);
+
+        Transition transition = new EmptyTransition();
+        transition.captureValues(startRoot, true);
+        transition.captureValues(endRoot, false);
+        transition.playTransition(endRoot);
+
+        assertThat(transition.getMatchedTransitionValues(startNamed, true).view,
+                is(sameInstance(endNamed)));
+        assertThat(transition.getMatchedTransitionValues(endNamed, false).view,
+                is(sameInstance(startNamed)));
+        assertThat(transition.getMatchedTransitionValues(startWithId, true).view,
+                is(sameInstance(endWithId)));
+        assertThat(transition.getMatchedTransitionValues(endWithId, false).view,
+                is(sameInstance(startWithId)));
+        assertThat(transition.getMatchedTransitionValues(startOnly, true), is(nullValue()));
+        assertThat(transition.getMatchedTransitionValues(endOnly, false), is(nullValue()));
+    }
+
+    private static View addView(ViewGroup parent, int id, @Nullable String transitionName) {
+        View view = new View(parent.getContext());
+        view.setId(id);
+        ViewCompat.setTransitionName(view, transitionName);
+        parent.addView(view);
+        return view;
+    }
+
     @Test
     public void testExcludedTransitionAnimator() throws Throwable {
         showInitialScene();
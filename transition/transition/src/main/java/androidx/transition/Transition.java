@@ -210,6 +210,9 @@ public abstract class Transition implements Cloneable {
     private int[] mMatchOrder = DEFAULT_MATCH_ORDER;
     private ArrayList<TransitionValues> mStartValuesList; // only valid after playTransition starts
     private ArrayList<TransitionValues> mEndValuesList; // only valid after playTransitions starts
+    // Indices of the views in mStartValuesList and mEndValuesList, created when first needed
+    private ArrayMap<View, Integer> mStartValuesIndices;
+    private ArrayMap<View, Integer> mEndValuesIndices;
     private TransitionListener[] mListenersCache;
 
     // Per-animator information used for later canceling when future transitions overlap
@@ -587,10 +590,10 @@ public abstract class Transition implements Cloneable {
             ArrayMap<View, TransitionValues> unmatchedEnd) {
         for (int i = unmatchedStart.size() - 1; i >= 0; i--) {
             View view = unmatchedStart.keyAt(i);
-            if (view != null && isValidTarget(view)) {
-                TransitionValues end = unmatchedEnd.remove(view);
+            if (view != null && unmatchedStart.valueAt(i) != null && isValidTarget(view)) {
+                TransitionValues end = removeUnmatched(unmatchedEnd, view);
                 if (end != null && isValidTarget(end.view)) {
-                    TransitionValues start = unmatchedStart.removeAt(i);
+                    TransitionValues start = unmatchedStart.setValueAt(i, null);
                     mStartValuesList.add(start);
                     mEndValuesList.add(end);
                 }
@@ -598,6 +601,39 @@ public abstract class Transition implements Cloneable {
         }
     }
 
+    /**
+     * Match the start values of startView with the end values of endView if both are unmatched.
+     * Adds matched values to mStartValuesList and mEndValuesList and removes them from
+     * unmatchedStart and unmatchedEnd.
+     */
+    private void matchViews(ArrayMap<View, TransitionValues> unmatchedStart,
+            ArrayMap<View, TransitionValues> unmatchedEnd, View startView, View endView) {
+        int startIndex = unmatchedStart.indexOfKey(startView);
+        int endIndex = unmatchedEnd.indexOfKey(endView);
+        if (startIndex >= 0 && endIndex >= 0) {
+            TransitionValues startValues = unmatchedStart.valueAt(startIndex);
+            TransitionValues endValues = unmatchedEnd.valueAt(endIndex);
+            if (startValues != null && endValues != null) {
+                mStartValuesList.add(startValues);
+                mEndValuesList.add(endValues);
+                unmatchedStart.setValueAt(startIndex, null);
+                unmatchedEnd.setValueAt(endIndex, null);
+            }
+        }
+    }
+
+    /**
+     * Removes the values of view from unmatched values. The values are set to null rather than
+     * removed, as removing them from an ArrayMap shifts all the following entries.
+     *
+     * @return the values of view, or null if they were already matched.
+     */
+    private static TransitionValues removeUnmatched(ArrayMap<View, TransitionValues> unmatched,
+            View view) {
+        int index = unmatched.indexOfKey(view);
+        return index >= 0 ? unmatched.setValueAt(index, null) : null;
+    }
+
     /**
      * Match start/end values by Adapter item ID. Adds matched values to mStartValuesList
      * and mEndValuesList and removes them from unmatchedStart and unmatchedEnd, using
@@ -612,14 +648,7 @@ public abstract class Transition implements Cloneable {
             if (startView != null && isValidTarget(startView)) {
                 View endView = endItemIds.get(startItemIds.keyAt(i));
                 if (endView != null && isValidTarget(endView)) {
-                    TransitionValues startValues = unmatchedStart.get(startView);
-                    TransitionValues endValues = unmatchedEnd.get(endView);
-                    if (startValues != null && endValues != null) {
-                        mStartValuesList.add(startValues);
-                        mEndValuesList.add(endValues);
-                        unmatchedStart.remove(startView);
-                        unmatchedEnd.remove(endView);
-                    }
+                    matchViews(unmatchedStart, unmatchedEnd, startView, endView);
                 }
             }
         }
@@ -639,14 +668,7 @@ public abstract class Transition implements Cloneable {
             if (startView != null && isValidTarget(startView)) {
                 View endView = endIds.get(startIds.keyAt(i));
                 if (endView != null && isValidTarget(endView)) {
-                    TransitionValues startValues = unmatchedStart.get(startView);
-                    TransitionValues endValues = unmatchedEnd.get(endView);
-                    if (startValues != null && endValues != null) {
-                        mStartValuesList.add(startValues);
-                        mEndValuesList.add(endValues);
-                        unmatchedStart.remove(startView);
-                        unmatchedEnd.remove(endView);
-                    }
+                    matchViews(unmatchedStart, unmatchedEnd, startView, endView);
                 }
             }
         }
@@ -666,14 +688,7 @@ public abstract class Transition implements Cloneable {
             if (startView != null && isValidTarget(startView)) {
                 View endView = endNames.get(startNames.keyAt(i));
                 if (endView != null && isValidTarget(endView)) {
-                    TransitionValues startValues = unmatchedStart.get(startView);
-                    TransitionValues endValues = unmatchedEnd.get(endView);
-                    if (startValues != null && endValues != null) {
-                        mStartValuesList.add(startValues);
-                        mEndValuesList.add(endValues);
-                        unmatchedStart.remove(startView);
-                        unmatchedEnd.remove(endView);
-                    }
+                    matchViews(unmatchedStart, unmatchedEnd, startView, endView);
                 }
             }
         }
@@ -688,7 +703,7 @@ public abstract class Transition implements Cloneable {
         // Views that only exist in the start Scene
         for (int i = 0; i < unmatchedStart.size(); i++) {
             final TransitionValues start = unmatchedStart.valueAt(i);
-            if (isValidTarget(start.view)) {
+            if (start != null && isValidTarget(start.view)) {
                 mStartValuesList.add(start);
                 mEndValuesList.add(null);
             }
@@ -697,7 +712,7 @@ public abstract class Transition implements Cloneable {
         // Views that only exist in the end Scene
         for (int i = 0; i < unmatchedEnd.size(); i++) {
             final TransitionValues end = unmatchedEnd.valueAt(i);
-            if (isValidTarget(end.view)) {
+            if (end != null && isValidTarget(end.view)) {
                 mEndValuesList.add(end);
                 mStartValuesList.add(null);
             }
@@ -749,6 +764,8 @@ public abstract class Transition implements Cloneable {
             Log.d(LOG_TAG, "createAnimators() for " + this);
         }
         ArrayMap<Animator, AnimationInfo> runningAnimators = getRunningAnimators();
+        // Running animation info of this transition's name by view, only created when needed.
+        ArrayMap<View, ArrayList<AnimationInfo>> runningInfoByView = null;
         long minStartDelay = Long.MAX_VALUE;
         SparseIntArray startDelays = new SparseIntArray();
         int startValuesListCount = startValuesList.size();
@@ -803,13 +820,13 @@ public abstract class Transition implements Cloneable {
                                             newValues.values.get(properties[j]));
                                 }
                             }
-                            int numExistingAnims = runningAnimators.size();
-                            for (int j = 0; j < numExistingAnims; ++j) {
-                                Animator anim = runningAnimators.keyAt(j);
-                                AnimationInfo info = runningAnimators.get(anim);
-                                if (info.mValues != null && info.mView == view
-                                        && info.mName.equals(getName())) {
-                                    if (info.mValues.equals(infoValues)) {
+                            if (runningInfoByView == null) {
+                                runningInfoByView = getRunningInfoByView(runningAnimators);
+                            }
+                            ArrayList<AnimationInfo> runningInfos = runningInfoByView.get(view);
+                            if (runningInfos != null) {
+                                for (int j = 0; j < runningInfos.size(); ++j) {
+                                    if (runningInfos.get(j).mValues.equals(infoValues)) {
                                         // Favor the old animator
                                         animator = null;
                                         break;
@@ -851,6 +868,29 @@ public abstract class Transition implements Cloneable {
         }
     }
 
+    /**
+     * Groups the running animation info with values and the same name as this transition by
+     * view, so that each created animator doesn't need to go through all the running ones.
+     */
+    private ArrayMap<View, ArrayList<AnimationInfo>> getRunningInfoByView(
+            ArrayMap<Animator, AnimationInfo> runningAnimators) {
+        ArrayMap<View, ArrayList<AnimationInfo>> runningInfoByView = new ArrayMap<>();
+        String name = getName();
+        int numExistingAnims = runningAnimators.size();
+        for (int i = 0; i < numExistingAnims; ++i) {
+            AnimationInfo info = runningAnimators.valueAt(i);
+            if (info.mValues != null && info.mName.equals(name)) {
+                ArrayList<AnimationInfo> infos = runningInfoByView.get(info.mView);
+                if (infos == null) {
+                    infos = new ArrayList<>(1);
+                    runningInfoByView.put(info.mView, infos);
+                }
+                infos.add(info);
+            }
+        }
+        return runningInfoByView;
+    }
+
     /**
      * Internal utility method for checking whether a given view/id
      * is valid for this transition, where "valid" means that either
@@ -1548,6 +1588,13 @@ public abstract class Transition implements Cloneable {
      */
     void captureValues(@NonNull ViewGroup sceneRoot, boolean start) {
         clearValues(start);
+        // Transitions are usually cloned for each scene change, so the number of views captured
+        // by the last transition of this scene root is kept to size the maps.
+        TransitionValuesMaps valuesMaps = start ? mStartValues : mEndValues;
+        Object capacity = sceneRoot.getTag(R.id.transition_values_capacity);
+        if (capacity instanceof Integer) {
+            valuesMaps.ensureCapacity((Integer) capacity);
+        }
         if ((mTargetIds.size() > 0 || mTargets.size() > 0)
                 && (mTargetNames == null || mTargetNames.isEmpty())
                 && (mTargetTypes == null || mTargetTypes.isEmpty())) {
@@ -1604,6 +1651,7 @@ public abstract class Transition implements Cloneable {
                 }
             }
         }
+        sceneRoot.setTag(R.id.transition_values_capacity, valuesMaps.mViewValues.size());
     }
 
     private static void addViewValues(TransitionValuesMaps transitionValuesMaps,
@@ -1764,27 +1812,44 @@ public abstract class Transition implements Cloneable {
         if (lookIn == null) {
             return null;
         }
-        int count = lookIn.size();
-        int index = -1;
-        for (int i = 0; i < count; i++) {
-            TransitionValues values = lookIn.get(i);
-            if (values == null) {
-                // Null values are always added to the end of the list, so we know to stop now.
-                return null;
-            }
-            if (values.view == view) {
-                index = i;
-                break;
+        ArrayMap<View, Integer> indices = viewInStart ? mStartValuesIndices : mEndValuesIndices;
+        if (indices == null) {
+            indices = indexValues(lookIn);
+            if (viewInStart) {
+                mStartValuesIndices = indices;
+            } else {
+                mEndValuesIndices = indices;
             }
         }
+        Integer index = indices.get(view);
         TransitionValues values = null;
-        if (index >= 0) {
+        if (index != null) {
             ArrayList<TransitionValues> matchIn = viewInStart ? mEndValuesList : mStartValuesList;
             values = matchIn.get(index);
         }
         return values;
     }
 
+    /**
+     * Returns the index of the first values of each view in valuesList, so that matched values
+     * are looked up without going through the list.
+     */
+    private static ArrayMap<View, Integer> indexValues(ArrayList<TransitionValues> valuesList) {
+        int count = valuesList.size();
+        ArrayMap<View, Integer> indices = new ArrayMap<>(count);
+        for (int i = 0; i < count; i++) {
+            TransitionValues values = valuesList.get(i);
+            if (values == null) {
+                // Null values are always added to the end of the list, so we know to stop now.
+                break;
+            }
+            if (!indices.containsKey(values.view)) {
+                indices.put(values.view, i);
+            }
+        }
+        return indices;
+    }
+
     /**
      * Pauses this transition, sending out calls to {@link
      * TransitionListener#onTransitionPause(Transition)} to all listeners
@@ -1850,6 +1915,8 @@ public abstract class Transition implements Cloneable {
     void playTransition(@NonNull ViewGroup sceneRoot) {
         mStartValuesList = new ArrayList<>();
         mEndValuesList = new ArrayList<>();
+        mStartValuesIndices = null;
+        mEndValuesIndices = null;
         matchStartAndEnd(mStartValues, mEndValues);
 
         ArrayMap<Animator, AnimationInfo> runningAnimators = getRunningAnimators();
@@ -2294,6 +2361,8 @@ public abstract class Transition implements Cloneable {
             clone.mEndValues = new TransitionValuesMaps();
             clone.mStartValuesList = null;
             clone.mEndValuesList = null;
+            clone.mStartValuesIndices = null;
+            clone.mEndValuesIndices = null;
             clone.mSeekController = null;
             clone.mCloneParent = this;
             clone.mListeners = null;
@@ -19,10 +19,11 @@ package androidx.transition;
 import android.annotation.SuppressLint;
 import android.view.View;
 
+import androidx.collection.ArrayMap;
+
 import org.jspecify.annotations.NonNull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -57,7 +58,9 @@ public class TransitionValues {
     /**
      * The set of values tracked by transitions for this scene
      */
-    public final Map<String, Object> values = new HashMap<>();
+    // An ArrayMap rather than a HashMap, as there are few values per view, and their arrays are
+    // recycled by ArrayMap.
+    public final Map<String, Object> values = new ArrayMap<>();
 
     /**
      * The View with these values. Should not be null.
@@ -32,4 +32,12 @@ class TransitionValuesMaps {
 
     final ArrayMap<String, View> mNameValues = new ArrayMap<>();
 
+    /**
+     * Makes room for the values of the given number of views, so that capturing them doesn't
+     * need to grow the maps several times.
+     */
+    void ensureCapacity(int viewCount) {
+        mViewValues.ensureCapacity(viewCount);
+    }
+
 }
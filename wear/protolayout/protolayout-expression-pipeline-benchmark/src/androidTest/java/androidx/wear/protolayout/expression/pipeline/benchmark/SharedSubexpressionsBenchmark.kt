@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.wear.protolayout.expression.pipeline.benchmark
+
+import android.icu.util.ULocale
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeatedOnMainThread
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.wear.protolayout.expression.AppDataKey
+import androidx.wear.protolayout.expression.DynamicBuilders.DynamicInt32
+import androidx.wear.protolayout.expression.DynamicBuilders.DynamicString
+import androidx.wear.protolayout.expression.DynamicDataBuilders.DynamicDataValue
+import androidx.wear.protolayout.expression.pipeline.BoundDynamicType
+import androidx.wear.protolayout.expression.pipeline.DynamicTypeBindingRequest
+import androidx.wear.protolayout.expression.pipeline.DynamicTypeEvaluator
+import androidx.wear.protolayout.expression.pipeline.DynamicTypeValueReceiver
+import androidx.wear.protolayout.expression.pipeline.StateStore
+import java.util.concurrent.Executor
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures binding and updating a large dynamic tile, whose texts all format the same state value
+ * with a different label, with and without subexpression sharing.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class SharedSubexpressionsBenchmark(private val sharingEnabled: Boolean) {
+    @get:Rule val benchmarkRule = BenchmarkRule()
+
+    private val stateStore = StateStore.create(stateOf(0))
+    private val evaluator =
+        DynamicTypeEvaluator(
+            DynamicTypeEvaluator.Config.Builder()
+                .setStateStore(stateStore)
+                .setSubexpressionSharingEnabled(sharingEnabled)
+                .build()
+        )
+    private val boundTypes = mutableListOf<BoundDynamicType>()
+    private var lastText: String? = null
+
+    @After
+    fun tearDown() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync { closeAll() }
+    }
+
+    @Test
+    fun bindAndStartEvaluation() {
+        benchmarkRule.measureRepeatedOnMainThread {
+            bindTile()
+            runWithTimingDisabled { closeAll() }
+        }
+    }
+
+    @Test
+    fun updateState() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync { bindTile() }
+        var value = 0
+        benchmarkRule.measureRepeatedOnMainThread {
+            stateStore.setAppStateEntryValues(stateOf(++value))
+        }
+    }
+
+    private fun bindTile() {
+        val receiver =
+            object : DynamicTypeValueReceiver<String> {
+                override fun onData(newData: String) {
+                    lastText = newData
+                }
+
+                override fun onInvalidated() {
+                    lastText = null
+                }
+            }
+        for (i in 0 until TEXT_COUNT) {
+            val text = DynamicString.constant("Label $i: ").concat(SHARED_TEXT)
+            val request =
+                DynamicTypeBindingRequest.forDynamicString(
+                    text,
+                    ULocale.ENGLISH,
+                    DIRECT_EXECUTOR,
+                    receiver
+                )
+            boundTypes.add(evaluator.bind(request).also { it.startEvaluation() })
+        }
+    }
+
+    private fun closeAll() {
+        boundTypes.forEach { it.close() }
+        boundTypes.clear()
+    }
+
+    companion object {
+        private const val TEXT_COUNT = 50
+        private val KEY = AppDataKey<DynamicInt32>("value")
+        private val SHARED_TEXT = DynamicInt32.from(KEY).times(2).plus(1).format()
+        private val DIRECT_EXECUTOR = Executor { it.run() }
+
+        private fun stateOf(value: Int): Map<AppDataKey<*>, DynamicDataValue<*>> =
+            mapOf(KEY to DynamicDataValue.fromInt(value))
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "sharingEnabled={0}")
+        fun parameters() = listOf(false, true)
+    }
+}
@@ -117,6 +117,25 @@ class BoundDynamicTypeImpl implements BoundDynamicType {
         }
     }
 
+    /**
+     * Releases the shared subexpressions used by this dynamic type, when it's discarded before its
+     * evaluation started. Unlike {@link #close()}, this doesn't release any quota.
+     */
+    void releaseSharedSubexpressions() {
+        if (Looper.getMainLooper().isCurrentThread()) {
+            releaseSharedSubexpressionsInternal();
+        } else {
+            new Handler(Looper.getMainLooper()).post(this::releaseSharedSubexpressionsInternal);
+        }
+    }
+
+    @UiThread
+    private void releaseSharedSubexpressionsInternal() {
+        mNodes.stream()
+                .filter(SharedSubexpressions::isSubscription)
+                .forEach(n -> ((DynamicDataSourceNode<?>) n).destroy());
+    }
+
     /**
      * Closes this {@link BoundDynamicTypeImpl} instance and releases any allocated quota. This
      * method must be called only once on each {@link BoundDynamicTypeImpl} instance.
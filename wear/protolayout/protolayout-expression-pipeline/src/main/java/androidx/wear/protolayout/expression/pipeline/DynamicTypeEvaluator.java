@@ -25,6 +25,7 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.RestrictTo.Scope;
 import androidx.annotation.VisibleForTesting;
 import androidx.collection.ArrayMap;
+import androidx.core.util.Pair;
 import androidx.wear.protolayout.expression.PlatformDataKey;
 import androidx.wear.protolayout.expression.pipeline.BoolNodes.ComparisonFloatNode;
 import androidx.wear.protolayout.expression.pipeline.BoolNodes.ComparisonInt32Node;
@@ -151,6 +152,7 @@ public class DynamicTypeEvaluator {
     private final @NonNull QuotaManager mAnimationQuotaManager;
     private final @NonNull QuotaManager mDynamicTypesQuotaManager;
     private final @NonNull EpochTimePlatformDataSource mTimeDataSource;
+    private final @Nullable SharedSubexpressions mSharedSubexpressions;
 
     /** Configuration for creating {@link DynamicTypeEvaluator}. */
     public static final class Config {
@@ -163,6 +165,7 @@ public class DynamicTypeEvaluator {
 
         private final @Nullable PlatformTimeUpdateNotifier mPlatformTimeUpdateNotifier;
         private final @Nullable Supplier<Instant> mClock;
+        private final boolean mSubexpressionSharingEnabled;
 
         Config(
                 @Nullable StateStore stateStore,
@@ -170,13 +173,15 @@ public class DynamicTypeEvaluator {
                 @Nullable QuotaManager dynamicTypesQuotaManager,
                 @NonNull Map<PlatformDataKey<?>, PlatformDataProvider> sourceKeyToDataProviders,
                 @Nullable PlatformTimeUpdateNotifier platformTimeUpdateNotifier,
-                @Nullable Supplier<Instant> clock) {
+                @Nullable Supplier<Instant> clock,
+                boolean subexpressionSharingEnabled) {
             this.mStateStore = stateStore;
             this.mAnimationQuotaManager = animationQuotaManager;
             this.mDynamicTypesQuotaManager = dynamicTypesQuotaManager;
             this.mSourceKeyToDataProviders.putAll(sourceKeyToDataProviders);
             this.mPlatformTimeUpdateNotifier = platformTimeUpdateNotifier;
             this.mClock = clock;
+            this.mSubexpressionSharingEnabled = subexpressionSharingEnabled;
         }
 
         /** Builds a {@link DynamicTypeEvaluator.Config}. */
@@ -190,6 +195,7 @@ public class DynamicTypeEvaluator {
 
             private @Nullable PlatformTimeUpdateNotifier mPlatformTimeUpdateNotifier = null;
             private @Nullable Supplier<Instant> mClock = null;
+            private boolean mSubexpressionSharingEnabled = false;
 
             /**
              * Sets the state store that will be used for dereferencing the state keys in the
@@ -279,6 +285,22 @@ public class DynamicTypeEvaluator {
                 return this;
             }
 
+            /**
+             * Sets whether the nodes evaluating identical subexpressions are shared between the
+             * bound dynamic types. If not set, sharing is disabled.
+             *
+             * <p>When enabled, a subexpression used by several dynamic types, such as the same
+             * health data or time expression referenced by many elements of a layout, subscribes
+             * once to its data sources and is evaluated once per update. Subexpressions containing
+             * animations are not shared. {@link BoundDynamicType#getDynamicNodeCount()} then only
+             * counts the nodes which aren't shared, while {@link
+             * BoundDynamicType#getDynamicNodeCost()} is the same as without sharing.
+             */
+            public @NonNull Builder setSubexpressionSharingEnabled(boolean enabled) {
+                this.mSubexpressionSharingEnabled = enabled;
+                return this;
+            }
+
             public @NonNull Config build() {
                 return new Config(
                         mStateStore,
@@ -286,7 +308,8 @@ public class DynamicTypeEvaluator {
                         mDynamicTypesQuotaManager,
                         mSourceKeyToDataProviders,
                         mPlatformTimeUpdateNotifier,
-                        mClock);
+                        mClock,
+                        mSubexpressionSharingEnabled);
             }
         }
 
@@ -337,6 +360,14 @@ public class DynamicTypeEvaluator {
         public @Nullable PlatformTimeUpdateNotifier getPlatformTimeUpdateNotifier() {
             return mPlatformTimeUpdateNotifier;
         }
+
+        /**
+         * Returns whether the nodes evaluating identical subexpressions are shared between the
+         * bound dynamic types.
+         */
+        public boolean isSubexpressionSharingEnabled() {
+            return mSubexpressionSharingEnabled;
+        }
     }
 
     /** Constructs a {@link DynamicTypeEvaluator}. */
@@ -359,6 +390,28 @@ public class DynamicTypeEvaluator {
         }
         Supplier<Instant> clock = config.getClock() != null ? config.getClock() : Instant::now;
         this.mTimeDataSource = new EpochTimePlatformDataSource(clock, notifier);
+        this.mSharedSubexpressions =
+                config.isSubexpressionSharingEnabled() ? new SharedSubexpressions() : null;
+    }
+
+    /**
+     * Returns the number of distinct subexpressions currently bound, whose nodes are shared by all
+     * the bound dynamic types using them, or 0 if subexpression sharing is disabled.
+     *
+     * @see Config.Builder#setSubexpressionSharingEnabled(boolean)
+     */
+    public int getUniqueSubexpressionCount() {
+        return mSharedSubexpressions != null ? mSharedSubexpressions.getUniqueCount() : 0;
+    }
+
+    /**
+     * Returns the number of uses of subexpressions in the bound dynamic types which reuse the nodes
+     * of another use of the same subexpression, or 0 if subexpression sharing is disabled.
+     *
+     * @see Config.Builder#setSubexpressionSharingEnabled(boolean)
+     */
+    public int getSharedSubexpressionCount() {
+        return mSharedSubexpressions != null ? mSharedSubexpressions.getSharedCount() : 0;
     }
 
     /**
@@ -374,6 +427,9 @@ public class DynamicTypeEvaluator {
             throws EvaluationException {
         BoundDynamicTypeImpl boundDynamicType = request.callBindOn(this);
         if (!mDynamicTypesQuotaManager.tryAcquireQuota(boundDynamicType.getDynamicNodeCost())) {
+            // The quota wasn't acquired, so the binding can't be closed, but the shared
+            // subexpressions it uses must be released.
+            boundDynamicType.releaseSharedSubexpressions();
             throw new EvaluationException(
                     "Dynamic type expression limit reached. Try making the dynamic type expression"
                             + " shorter or reduce the number of dynamic type expressions.");
@@ -463,6 +519,24 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicTypeValueReceiverWithPreUpdate<String> consumer,
             @NonNull ULocale locale,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && stringSource.getInnerCase() != DynamicString.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    Pair.create(stringSource, locale),
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(stringSource, c, locale, nodes));
+        } else {
+            bindNewNodes(stringSource, consumer, locale, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicString stringSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<String> consumer,
+            @NonNull ULocale locale,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (stringSource.getInnerCase()) {
@@ -561,6 +635,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicInt32 int32Source,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Integer> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && int32Source.getInnerCase() != DynamicInt32.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    int32Source,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(int32Source, c, nodes));
+        } else {
+            bindNewNodes(int32Source, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicInt32 int32Source,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Integer> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<Integer> node;
 
         switch (int32Source.getInnerCase()) {
@@ -702,6 +793,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicDuration durationSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Duration> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && durationSource.getInnerCase() != DynamicDuration.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    durationSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(durationSource, c, nodes));
+        } else {
+            bindNewNodes(durationSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicDuration durationSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Duration> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (durationSource.getInnerCase()) {
@@ -768,6 +876,22 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicZonedDateTime zdtSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<ZonedDateTime> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null) {
+            mSharedSubexpressions.bind(
+                    zdtSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(zdtSource, c, nodes));
+        } else {
+            bindNewNodes(zdtSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicZonedDateTime zdtSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<ZonedDateTime> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (zdtSource.getInnerCase()) {
@@ -801,6 +925,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicInstant instantSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Instant> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && instantSource.getInnerCase() != DynamicInstant.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    instantSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(instantSource, c, nodes));
+        } else {
+            bindNewNodes(instantSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicInstant instantSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Instant> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (instantSource.getInnerCase()) {
@@ -859,6 +1000,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicFloat floatSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Float> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && floatSource.getInnerCase() != DynamicFloat.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    floatSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(floatSource, c, nodes));
+        } else {
+            bindNewNodes(floatSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicFloat floatSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Float> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (floatSource.getInnerCase()) {
@@ -967,6 +1125,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicColor colorSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Integer> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && colorSource.getInnerCase() != DynamicColor.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    colorSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(colorSource, c, nodes));
+        } else {
+            bindNewNodes(colorSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicColor colorSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Integer> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (colorSource.getInnerCase()) {
@@ -1042,6 +1217,23 @@ public class DynamicTypeEvaluator {
             @NonNull DynamicBool boolSource,
             @NonNull DynamicTypeValueReceiverWithPreUpdate<Boolean> consumer,
             @NonNull List<DynamicDataNode<?>> resultBuilder) {
+        if (mSharedSubexpressions != null
+                && boolSource.getInnerCase() != DynamicBool.InnerCase.FIXED) {
+            mSharedSubexpressions.bind(
+                    boolSource,
+                    consumer,
+                    resultBuilder,
+                    (c, nodes) -> bindNewNodes(boolSource, c, nodes));
+        } else {
+            bindNewNodes(boolSource, consumer, resultBuilder);
+        }
+    }
+
+    /** Binds new nodes for the given dynamic type, without sharing them. */
+    private void bindNewNodes(
+            @NonNull DynamicBool boolSource,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<Boolean> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder) {
         DynamicDataNode<?> node;
 
         switch (boolSource.getInnerCase()) {
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.wear.protolayout.expression.pipeline;
+
+import androidx.annotation.UiThread;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares the nodes bound for identical subexpressions between the dynamic types bound by a {@link
+ * DynamicTypeEvaluator}, so that each distinct subexpression is evaluated once per update.
+ *
+ * <p>Subexpressions are identified by a key, generally their proto, which is hashed and compared by
+ * value. The nodes of a subexpression are bound the first time it's seen, and each use of it gets a
+ * {@link Subscription} node instead, which relays the values of the shared nodes downstream. The
+ * shared nodes are initialized with the first subscription, and destroyed when the last dynamic
+ * type using them is closed.
+ *
+ * <p>Subexpressions containing animations are not shared, as animations are controlled per dynamic
+ * type.
+ */
+class SharedSubexpressions {
+    /** Binds the nodes of a subexpression, pushing data to the given consumer. */
+    interface NodeBinder<T> {
+        void bind(
+                @NonNull DynamicTypeValueReceiverWithPreUpdate<T> consumer,
+                @NonNull List<DynamicDataNode<?>> resultBuilder);
+    }
+
+    private final Object mLock = new Object();
+
+    // Guarded by mLock.
+    private final Map<Object, Entry<?>> mEntries = new HashMap<>();
+
+    // Guarded by mLock.
+    private int mSharedCount = 0;
+
+    /**
+     * Adds the nodes of the subexpression identified by the given key to the result, or a
+     * subscription to the nodes bound for the same subexpression before.
+     */
+    @SuppressWarnings("unchecked")
+    <T> void bind(
+            @NonNull Object key,
+            @NonNull DynamicTypeValueReceiverWithPreUpdate<T> consumer,
+            @NonNull List<DynamicDataNode<?>> resultBuilder,
+            @NonNull NodeBinder<T> binder) {
+        synchronized (mLock) {
+            Entry<T> entry = (Entry<T>) mEntries.get(key);
+            if (entry != null) {
+                entry.mRefCount++;
+                mSharedCount++;
+                resultBuilder.add(new Subscription<>(entry, consumer));
+                return;
+            }
+        }
+
+        ForwardingReceiver<T> receiver = new ForwardingReceiver<>();
+        List<DynamicDataNode<?>> nodes = new ArrayList<>();
+        binder.bind(receiver, nodes);
+        for (DynamicDataNode<?> node : nodes) {
+            if (node instanceof AnimatableNode) {
+                receiver.mTarget = consumer;
+                resultBuilder.addAll(nodes);
+                return;
+            }
+        }
+
+        Entry<T> entry = new Entry<>(key, nodes);
+        receiver.mTarget = entry;
+        synchronized (mLock) {
+            // The same subexpression may have been bound concurrently, in which case this entry
+            // is used by this dynamic type only.
+            if (!mEntries.containsKey(key)) {
+                mEntries.put(key, entry);
+            }
+        }
+        resultBuilder.add(new Subscription<>(entry, consumer));
+    }
+
+    /** Returns whether the given node is a use of a shared subexpression. */
+    static boolean isSubscription(@NonNull DynamicDataNode<?> node) {
+        return node instanceof Subscription;
+    }
+
+    /** Returns the number of distinct subexpressions currently bound. */
+    int getUniqueCount() {
+        synchronized (mLock) {
+            return mEntries.size();
+        }
+    }
+
+    /** Returns the number of uses of subexpressions which reuse the nodes of an earlier use. */
+    int getSharedCount() {
+        synchronized (mLock) {
+            return mSharedCount;
+        }
+    }
+
+    /** Releases a use of the given entry, and returns whether it was the last one. */
+    private boolean release(@NonNull Entry<?> entry) {
+        synchronized (mLock) {
+            entry.mRefCount--;
+            if (entry.mRefCount > 0) {
+                mSharedCount--;
+                return false;
+            }
+            if (mEntries.get(entry.mKey) == entry) {
+                mEntries.remove(entry.mKey);
+            }
+            return true;
+        }
+    }
+
+    /** The shared nodes of a subexpression, which relays their data to its subscriptions. */
+    private static final class Entry<T> implements DynamicTypeValueReceiverWithPreUpdate<T> {
+        final @NonNull Object mKey;
+        final @NonNull List<DynamicDataNode<?>> mNodes;
+        final int mCost;
+
+        // Guarded by the lock of the enclosing SharedSubexpressions.
+        int mRefCount = 1;
+
+        final List<Subscription<T>> mSubscriptions = new CopyOnWriteArrayList<>();
+        boolean mInitialized = false;
+        boolean mHasValue = false;
+        @Nullable T mLastValue = null;
+
+        Entry(@NonNull Object key, @NonNull List<DynamicDataNode<?>> nodes) {
+            this.mKey = key;
+            this.mNodes = nodes;
+            int cost = 0;
+            for (DynamicDataNode<?> node : nodes) {
+                cost += node.getCost();
+            }
+            this.mCost = cost;
+        }
+
+        @UiThread
+        void init() {
+            mInitialized = true;
+            for (DynamicDataNode<?> node : mNodes) {
+                if (node instanceof DynamicDataSourceNode) {
+                    ((DynamicDataSourceNode<?>) node).preInit();
+                }
+            }
+            for (DynamicDataNode<?> node : mNodes) {
+                if (node instanceof DynamicDataSourceNode) {
+                    ((DynamicDataSourceNode<?>) node).init();
+                }
+            }
+        }
+
+        @UiThread
+        void destroy() {
+            if (!mInitialized) {
+                // Only the subscriptions of a discarded binding used these nodes.
+                return;
+            }
+            for (DynamicDataNode<?> node : mNodes) {
+                if (node instanceof DynamicDataSourceNode) {
+                    ((DynamicDataSourceNode<?>) node).destroy();
+                }
+            }
+        }
+
+        @Override
+        public void onPreUpdate() {
+            for (Subscription<T> subscription : mSubscriptions) {
+                // Subscriptions waiting for their first value already sent their pre-update.
+                if (!subscription.mAwaitingFirstValue) {
+                    subscription.mConsumer.onPreUpdate();
+                }
+            }
+        }
+
+        @Override
+        public void onData(@NonNull T newData) {
+            mHasValue = true;
+            mLastValue = newData;
+            for (Subscription<T> subscription : mSubscriptions) {
+                subscription.mAwaitingFirstValue = false;
+                subscription.mConsumer.onData(newData);
+            }
+        }
+
+        @Override
+        public void onInvalidated() {
+            mHasValue = true;
+            mLastValue = null;
+            for (Subscription<T> subscription : mSubscriptions) {
+                subscription.mAwaitingFirstValue = false;
+                subscription.mConsumer.onInvalidated();
+            }
+        }
+    }
+
+    /**
+     * A use of a shared subexpression by a dynamic type, which is a source node for the nodes
+     * downstream of it.
+     */
+    private final class Subscription<T> implements DynamicDataSourceNode<T> {
+        final @NonNull Entry<T> mEntry;
+        final @NonNull DynamicTypeValueReceiverWithPreUpdate<T> mConsumer;
+        boolean mAwaitingFirstValue = false;
+        private boolean mDestroyed = false;
+
+        Subscription(
+                @NonNull Entry<T> entry,
+                @NonNull DynamicTypeValueReceiverWithPreUpdate<T> consumer) {
+            this.mEntry = entry;
+            this.mConsumer = consumer;
+        }
+
+        @Override
+        @UiThread
+        public void preInit() {
+            mConsumer.onPreUpdate();
+        }
+
+        @Override
+        @UiThread
+        public void init() {
+            if (!mEntry.mInitialized) {
+                mEntry.init();
+            }
+            if (mEntry.mHasValue) {
+                T lastValue = mEntry.mLastValue;
+                if (lastValue != null) {
+                    mConsumer.onData(lastValue);
+                } else {
+                    mConsumer.onInvalidated();
+                }
+            } else {
+                mAwaitingFirstValue = true;
+            }
+            mEntry.mSubscriptions.add(this);
+        }
+
+        @Override
+        @UiThread
+        public void destroy() {
+            if (mDestroyed) {
+                return;
+            }
+            mDestroyed = true;
+            mEntry.mSubscriptions.remove(this);
+            if (release(mEntry)) {
+                mEntry.destroy();
+            }
+        }
+
+        /**
+         * Returns the cost of the shared nodes, so that the quota of dynamic types doesn't depend
+         * on whether their subexpressions are shared.
+         */
+        @Override
+        public int getCost() {
+            return mEntry.mCost;
+        }
+    }
+
+    /** Relays data to a target set once the nodes sending it have been bound. */
+    private static final class ForwardingReceiver<T>
+            implements DynamicTypeValueReceiverWithPreUpdate<T> {
+        @Nullable DynamicTypeValueReceiverWithPreUpdate<T> mTarget;
+
+        @Override
+        public void onPreUpdate() {
+            getTarget().onPreUpdate();
+        }
+
+        @Override
+        public void onData(@NonNull T newData) {
+            getTarget().onData(newData);
+        }
+
+        @Override
+        public void onInvalidated() {
+            getTarget().onInvalidated();
+        }
+
+        private @NonNull DynamicTypeValueReceiverWithPreUpdate<T> getTarget() {
+            DynamicTypeValueReceiverWithPreUpdate<T> target = mTarget;
+            if (target == null) {
+                throw new IllegalStateException("Data received before the nodes were bound");
+            }
+            return target;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import static java.lang.Integer.MAX_VALUE;
@@ -30,6 +32,9 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.wear.protolayout.expression.AppDataKey;
 import androidx.wear.protolayout.expression.DynamicBuilders;
 import androidx.wear.protolayout.expression.DynamicBuilders.DynamicBool;
+import androidx.wear.protolayout.expression.DynamicBuilders.DynamicFloat;
+import androidx.wear.protolayout.expression.DynamicBuilders.DynamicInt32;
+import androidx.wear.protolayout.expression.DynamicDataBuilders.DynamicDataValue;
 import androidx.wear.protolayout.expression.PlatformDataKey;
 import androidx.wear.protolayout.expression.PlatformHealthSources;
 import androidx.wear.protolayout.expression.pipeline.DynamicTypeEvaluator.EvaluationException;
@@ -44,6 +49,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 @RunWith(AndroidJUnit4.class)
@@ -153,6 +159,185 @@ public class DynamicTypeEvaluatorTest {
         }
     }
 
+    @Test
+    public void subexpressionSharingDisabled_doesNotShareNodes() throws EvaluationException {
+        DynamicTypeEvaluator evaluator = createEvaluator();
+        ArrayList<Boolean> results = new ArrayList<>();
+
+        evaluator.bind(createSingleNodeDynamicBoolRequest(results));
+        evaluator.bind(createSingleNodeDynamicBoolRequest(results));
+
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(0);
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void subexpressionSharing_platformDataProviderRegisteredOnce()
+            throws EvaluationException {
+        PlatformDataProvider provider = mock(PlatformDataProvider.class);
+        DynamicTypeEvaluator evaluator =
+                new DynamicTypeEvaluator(
+                        new DynamicTypeEvaluator.Config.Builder()
+                                .setDynamicTypesQuotaManager(unlimitedQuota())
+                                .addPlatformDataProvider(
+                                        provider,
+                                        Collections.singleton(
+                                                PlatformHealthSources.Keys.DAILY_STEPS))
+                                .setSubexpressionSharingEnabled(true)
+                                .build());
+        ArrayList<Integer> results = new ArrayList<>();
+        BoundDynamicType boundDynamicType1 =
+                evaluator.bind(
+                        DynamicTypeBindingRequest.forDynamicInt32(
+                                PlatformHealthSources.dailySteps().plus(1),
+                                new MainThreadExecutor(),
+                                new AddToListCallback<>(results)));
+        BoundDynamicType boundDynamicType2 =
+                evaluator.bind(
+                        DynamicTypeBindingRequest.forDynamicInt32(
+                                PlatformHealthSources.dailySteps().times(2),
+                                new MainThreadExecutor(),
+                                new AddToListCallback<>(results)));
+
+        // The daily steps, and the two arithmetic operations using them.
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(3);
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(1);
+        // The quota doesn't depend on sharing.
+        assertThat(boundDynamicType2.getDynamicNodeCost())
+                .isEqualTo(boundDynamicType1.getDynamicNodeCost());
+
+        boundDynamicType1.startEvaluation();
+        boundDynamicType2.startEvaluation();
+        verify(provider, times(1)).setReceiver(any(), any());
+
+        boundDynamicType1.close();
+        verify(provider, never()).clearReceiver();
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(2);
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(0);
+
+        boundDynamicType2.close();
+        verify(provider).clearReceiver();
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void subexpressionSharing_quotaFailure_releasesSharedSubexpressions()
+            throws EvaluationException {
+        ArrayList<Integer> results = new ArrayList<>();
+        int cost =
+                createEvaluator()
+                        .bind(
+                                DynamicTypeBindingRequest.forDynamicInt32(
+                                        PlatformHealthSources.dailySteps().plus(1),
+                                        new MainThreadExecutor(),
+                                        new AddToListCallback<>(results)))
+                        .getDynamicNodeCost();
+        PlatformDataProvider provider = mock(PlatformDataProvider.class);
+        DynamicTypeEvaluator evaluator =
+                new DynamicTypeEvaluator(
+                        new DynamicTypeEvaluator.Config.Builder()
+                                .setDynamicTypesQuotaManager(new FixedQuotaManagerImpl(cost))
+                                .addPlatformDataProvider(
+                                        provider,
+                                        Collections.singleton(
+                                                PlatformHealthSources.Keys.DAILY_STEPS))
+                                .setSubexpressionSharingEnabled(true)
+                                .build());
+        BoundDynamicType boundDynamicType =
+                evaluator.bind(
+                        DynamicTypeBindingRequest.forDynamicInt32(
+                                PlatformHealthSources.dailySteps().plus(1),
+                                new MainThreadExecutor(),
+                                new AddToListCallback<>(results)));
+
+        assertThrows(
+                EvaluationException.class,
+                () ->
+                        evaluator.bind(
+                                DynamicTypeBindingRequest.forDynamicInt32(
+                                        PlatformHealthSources.dailySteps().times(2),
+                                        new MainThreadExecutor(),
+                                        new AddToListCallback<>(results))));
+        // The discarded binding doesn't keep its subexpressions.
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(2);
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(0);
+
+        boundDynamicType.startEvaluation();
+        boundDynamicType.close();
+
+        verify(provider).clearReceiver();
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void subexpressionSharing_updatesAllBoundTypes() throws EvaluationException {
+        AppDataKey<DynamicInt32> key = new AppDataKey<>("count");
+        StateStore stateStore = StateStore.create(createState(key, 1));
+        DynamicTypeEvaluator evaluator =
+                new DynamicTypeEvaluator(
+                        new DynamicTypeEvaluator.Config.Builder()
+                                .setStateStore(stateStore)
+                                .setSubexpressionSharingEnabled(true)
+                                .build());
+        DynamicProto.DynamicInt32 expression =
+                DynamicInt32.from(key).plus(5).toDynamicInt32Proto();
+        ArrayList<Integer> results1 = new ArrayList<>();
+        ArrayList<Integer> results2 = new ArrayList<>();
+        AddToListCallback<Integer> callback1 = new AddToListCallback<>(results1);
+        AddToListCallback<Integer> callback2 = new AddToListCallback<>(results2);
+        BoundDynamicType boundDynamicType1 = evaluator.bindInternal(expression, callback1);
+        BoundDynamicType boundDynamicType2 = evaluator.bindInternal(expression, callback2);
+
+        boundDynamicType1.startEvaluation();
+        // The second bound type gets the current value of the shared nodes.
+        boundDynamicType2.startEvaluation();
+        stateStore.setAppStateEntryValues(createState(key, 2));
+
+        assertThat(results1).containsExactly(6, 7).inOrder();
+        assertThat(results2).containsExactly(6, 7).inOrder();
+        assertThat(callback1.isPreUpdateAndUpdateInSync()).isTrue();
+        assertThat(callback2.isPreUpdateAndUpdateInSync()).isTrue();
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(1);
+
+        boundDynamicType1.close();
+        stateStore.setAppStateEntryValues(createState(key, 3));
+
+        assertThat(results1).containsExactly(6, 7).inOrder();
+        assertThat(results2).containsExactly(6, 7, 8).inOrder();
+        boundDynamicType2.close();
+    }
+
+    @Test
+    public void subexpressionSharing_animationsAreNotShared() throws EvaluationException {
+        AppDataKey<DynamicFloat> key = new AppDataKey<>("progress");
+        DynamicTypeEvaluator evaluator =
+                new DynamicTypeEvaluator(
+                        new DynamicTypeEvaluator.Config.Builder()
+                                .setSubexpressionSharingEnabled(true)
+                                .build());
+        ArrayList<Float> results = new ArrayList<>();
+
+        evaluator.bind(
+                DynamicTypeBindingRequest.forDynamicFloat(
+                        DynamicFloat.animate(key),
+                        new MainThreadExecutor(),
+                        new AddToListCallback<>(results)));
+        evaluator.bind(
+                DynamicTypeBindingRequest.forDynamicFloat(
+                        DynamicFloat.animate(key),
+                        new MainThreadExecutor(),
+                        new AddToListCallback<>(results)));
+
+        // Only the state source under the animation is shared.
+        assertThat(evaluator.getUniqueSubexpressionCount()).isEqualTo(1);
+        assertThat(evaluator.getSharedSubexpressionCount()).isEqualTo(1);
+    }
+
+    private static @NonNull Map<AppDataKey<?>, DynamicDataValue<?>> createState(
+            AppDataKey<DynamicInt32> key, int value) {
+        return Collections.singletonMap(key, DynamicDataValue.fromInt(value));
+    }
+
     private static @NonNull DynamicTypeBindingRequest createSingleNodeDynamicBoolRequest(
             ArrayList<Boolean> results) {
         return createDynamicBoolRequest(DynamicBool.from(new AppDataKey<>("key")), results);
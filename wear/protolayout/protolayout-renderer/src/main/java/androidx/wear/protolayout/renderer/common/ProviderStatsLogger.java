@@ -73,6 +73,37 @@ public interface ProviderStatsLogger {
     /** Failure caused by exceeding maximum expression node count. */
     int INFLATION_FAILURE_REASON_EXPRESSION_NODE_COUNT_EXCEEDED = 2;
 
+    /** Phases of an inflation. */
+    @IntDef({
+        INFLATION_PHASE_RESOURCE_RESOLVERS_CREATION,
+        INFLATION_PHASE_DIFFING,
+        INFLATION_PHASE_VIEW_CREATION,
+        INFLATION_PHASE_ATTACH
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    @interface InflationPhase {}
+
+    /**
+     * Getting the resolvers of the resources of the layout, in the background. The resources
+     * themselves are resolved while creating the views, some of them asynchronously.
+     */
+    int INFLATION_PHASE_RESOURCE_RESOLVERS_CREATION = 0;
+
+    /** Computing the differences with the previous layout, in the background. */
+    int INFLATION_PHASE_DIFFING = 1;
+
+    /**
+     * Creating the views of the whole layout, or of the changed elements of a diff, and their
+     * layout params, in the background.
+     */
+    int INFLATION_PHASE_VIEW_CREATION = 2;
+
+    /**
+     * Attaching the views or applying the differences on the UI thread, until the rendering
+     * completes.
+     */
+    int INFLATION_PHASE_ATTACH = 3;
+
     /** Log the schema version of the received layout. */
     void logLayoutSchemaVersion(int major, int minor);
 
@@ -131,5 +162,11 @@ public interface ProviderStatsLogger {
          */
         @UiThread
         void logInflationFailed(@InflationFailureReason int failureReason);
+
+        /**
+         * Log the time spent in a phase of the ongoing inflation. Unlike the other methods, this is
+         * called from the thread that ran or completed the phase.
+         */
+        default void logInflationPhaseDuration(@InflationPhase int phase, long durationNanos) {}
     }
 }
@@ -24,9 +24,12 @@ import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.IGNO
 import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.IGNORED_FAILURE_APPLY_MUTATION_EXCEPTION;
 import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_FAILURE_REASON_EXPRESSION_NODE_COUNT_EXCEEDED;
 import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_FAILURE_REASON_LAYOUT_DEPTH_EXCEEDED;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_ATTACH;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_RESOURCE_RESOLVERS_CREATION;
 
 import static com.google.common.util.concurrent.Futures.immediateCancelledFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
 import android.content.Context;
 import android.content.res.Resources;
@@ -75,6 +78,7 @@ import androidx.wear.protolayout.renderer.inflater.RenderedMetadata.PendingFrame
 import androidx.wear.protolayout.renderer.inflater.RenderedMetadata.ViewProperties;
 import androidx.wear.protolayout.renderer.inflater.ResourceResolvers;
 import androidx.wear.protolayout.renderer.inflater.StandardResourceResolvers;
+import androidx.wear.protolayout.renderer.inflater.ViewPool;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -143,6 +147,9 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
 
     private final @Nullable ProtoLayoutExtensionViewProvider mExtensionViewProvider;
 
+    /** The pool of views created ahead of inflation, or null if disabled. */
+    private final @Nullable ViewPool mViewPool;
+
     private final boolean mAnimationEnabled;
 
     private final boolean mAdaptiveUpdateRatesEnabled;
@@ -204,6 +211,8 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
 
     private static final int DYNAMIC_NODES_MAX_COUNT = 200;
 
+    private static final int MAX_POOLED_VIEWS_PER_KIND = 32;
+
     /**
      * This is used to provide a {@link ResourceResolvers} object to the {@link
      * ProtoLayoutViewInstance} allowing it to query {@link ResourceProto.Resources} when needed.
@@ -377,6 +386,7 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
         private final boolean mAdaptiveUpdateRatesEnabled;
         private final boolean mIsViewFullyVisible;
         private final boolean mAllowLayoutChangingBindsWithoutDefault;
+        private final boolean mViewPoolEnabled;
 
         Config(
                 @NonNull Context uiContext,
@@ -397,7 +407,8 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
                 boolean updatesEnabled,
                 boolean adaptiveUpdateRatesEnabled,
                 boolean isViewFullyVisible,
-                boolean allowLayoutChangingBindsWithoutDefault) {
+                boolean allowLayoutChangingBindsWithoutDefault,
+                boolean viewPoolEnabled) {
             this.mUiContext = uiContext;
             this.mRendererResources = rendererResources;
             this.mResourceResolversProvider = resourceResolversProvider;
@@ -417,6 +428,7 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
             this.mAdaptiveUpdateRatesEnabled = adaptiveUpdateRatesEnabled;
             this.mIsViewFullyVisible = isViewFullyVisible;
             this.mAllowLayoutChangingBindsWithoutDefault = allowLayoutChangingBindsWithoutDefault;
+            this.mViewPoolEnabled = viewPoolEnabled;
         }
 
         /** Returns UI Context used for interacting with the UI. */
@@ -532,6 +544,12 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
             return mAllowLayoutChangingBindsWithoutDefault;
         }
 
+        /** Returns whether views are created ahead of inflation, in the background. */
+        @RestrictTo(Scope.LIBRARY)
+        public boolean getViewPoolEnabled() {
+            return mViewPoolEnabled;
+        }
+
         /** Builder for {@link Config}. */
         @RestrictTo(Scope.LIBRARY_GROUP_PREFIX)
         public static final class Builder {
@@ -558,6 +576,7 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
             private boolean mAdaptiveUpdateRatesEnabled = true;
             private boolean mIsViewFullyVisible = true;
             private boolean mAllowLayoutChangingBindsWithoutDefault = false;
+            private boolean mViewPoolEnabled = false;
 
             /**
              * Builder for the {@link Config} class.
@@ -711,6 +730,18 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
                 return this;
             }
 
+            /**
+             * Sets whether views are created ahead of inflation, in the background. After each
+             * inflation, as many views of the common kinds (texts, images, arc lines and spacers)
+             * as used by the layout are created with the background executor, and the next
+             * inflation takes its views from them. Defaults to false.
+             */
+            @RestrictTo(Scope.LIBRARY)
+            public @NonNull Builder setViewPoolEnabled(boolean viewPoolEnabled) {
+                this.mViewPoolEnabled = viewPoolEnabled;
+                return this;
+            }
+
             /** Builds {@link Config} object. */
             public @NonNull Config build() {
                 LoadActionListener loadActionListener = mLoadActionListener;
@@ -758,7 +789,8 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
                         mUpdatesEnabled,
                         mAdaptiveUpdateRatesEnabled,
                         mIsViewFullyVisible,
-                        mAllowLayoutChangingBindsWithoutDefault);
+                        mAllowLayoutChangingBindsWithoutDefault,
+                        mViewPoolEnabled);
             }
         }
     }
@@ -780,6 +812,14 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
         this.mAllowLayoutChangingBindsWithoutDefault =
                 config.getAllowLayoutChangingBindsWithoutDefault();
         this.mProviderStatsLogger = config.getProviderStatsLogger();
+        this.mViewPool =
+                config.getViewPoolEnabled()
+                        ? new ViewPool(
+                                mUiContext,
+                                mRendererResources,
+                                mProtoLayoutTheme,
+                                MAX_POOLED_VIEWS_PER_KIND)
+                        : null;
 
         StateStore stateStore = config.getStateStore();
         if (stateStore == null) {
@@ -833,9 +873,12 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
             @Nullable RenderedMetadata prevRenderedMetadata,
             @NonNull ViewProperties parentViewProp,
             @NonNull InflaterStatsLogger inflaterStatsLogger) {
+        long startTimeNanos = System.nanoTime();
         ResourceResolvers resolvers =
                 mResourceResolversProvider.getResourceResolvers(
                         mUiContext, resources, mUiExecutorService, mAnimationEnabled);
+        inflaterStatsLogger.logInflationPhaseDuration(
+                INFLATION_PHASE_RESOURCE_RESOLVERS_CREATION, System.nanoTime() - startTimeNanos);
 
         if (resolvers == null) {
             Log.w(TAG, "Resource resolvers cannot be retrieved.");
@@ -881,6 +924,10 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
             inflaterConfigBuilder.setLoggingUtils(mLoggingUtils);
         }
 
+        if (mViewPool != null) {
+            inflaterConfigBuilder.setViewPool(mViewPool);
+        }
+
         ProtoLayoutInflater inflater = new ProtoLayoutInflater(inflaterConfigBuilder.build());
 
         // mark the view and skip doing diff update (to avoid doubling the work each time).
@@ -1210,9 +1257,20 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
                             .inflateParent;
         }
 
+        long startTimeNanos = System.nanoTime();
         ListenableFuture<RenderingArtifact> postInflateFuture =
                 renderResult.postInflate(
                         attachParent, prevInflateParent, isReattaching, inflaterStatsLogger);
+        // Part of the attachment can complete asynchronously, so this is logged once it is done.
+        postInflateFuture.addListener(
+                () ->
+                        inflaterStatsLogger.logInflationPhaseDuration(
+                                INFLATION_PHASE_ATTACH, System.nanoTime() - startTimeNanos),
+                directExecutor());
+        if (mViewPool != null && !isReattaching) {
+            // Creates the views for the next inflation while the layout is idle.
+            mBgExecutorService.execute(mViewPool::refill);
+        }
         SettableFuture<RenderingArtifact> result = SettableFuture.create();
         if (!postInflateFuture.isDone()) {
             postInflateFuture.addListener(
@@ -1403,5 +1461,8 @@ public class ProtoLayoutViewInstance implements AutoCloseable {
         if (mDataPipeline != null) {
             mDataPipeline.close();
         }
+        if (mViewPool != null) {
+            mViewPool.close();
+        }
     }
 }
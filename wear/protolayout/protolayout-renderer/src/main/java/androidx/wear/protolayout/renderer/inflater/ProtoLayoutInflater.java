@@ -26,6 +26,8 @@ import static androidx.core.util.Preconditions.checkNotNull;
 import static androidx.wear.protolayout.renderer.common.ProtoLayoutDiffer.FIRST_CHILD_INDEX;
 import static androidx.wear.protolayout.renderer.common.ProtoLayoutDiffer.ROOT_NODE_ID;
 import static androidx.wear.protolayout.renderer.common.ProtoLayoutDiffer.getParentNodePosId;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_DIFFING;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_VIEW_CREATION;
 
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
@@ -313,6 +315,8 @@ public final class ProtoLayoutInflater {
 
     private final @Nullable ProtoLayoutExtensionViewProvider mExtensionViewProvider;
 
+    private final @Nullable ViewPool mViewPool;
+
     private final boolean mAllowLayoutChangingBindsWithoutDefault;
     final String mClickableIdExtra;
 
@@ -552,6 +556,7 @@ public final class ProtoLayoutInflater {
         private final @Nullable LoggingUtils mLoggingUtils;
         private final @NonNull InflaterStatsLogger mInflaterStatsLogger;
         private final @Nullable ProtoLayoutExtensionViewProvider mExtensionViewProvider;
+        private final @Nullable ViewPool mViewPool;
         private final boolean mAnimationEnabled;
 
         private final boolean mAllowLayoutChangingBindsWithoutDefault;
@@ -568,6 +573,7 @@ public final class ProtoLayoutInflater {
                 @NonNull ProtoLayoutTheme protoLayoutTheme,
                 @Nullable ProtoLayoutDynamicDataPipeline dataPipeline,
                 @Nullable ProtoLayoutExtensionViewProvider extensionViewProvider,
+                @Nullable ViewPool viewPool,
                 @NonNull String clickableIdExtra,
                 @Nullable LoggingUtils loggingUtils,
                 @NonNull InflaterStatsLogger inflaterStatsLogger,
@@ -588,6 +594,7 @@ public final class ProtoLayoutInflater {
             this.mLoggingUtils = loggingUtils;
             this.mInflaterStatsLogger = inflaterStatsLogger;
             this.mExtensionViewProvider = extensionViewProvider;
+            this.mViewPool = viewPool;
             this.mApplyFontVariantBodyAsDefault = applyFontVariantBodyAsDefault;
         }
 
@@ -663,6 +670,11 @@ public final class ProtoLayoutInflater {
             return mExtensionViewProvider;
         }
 
+        /** Pool of the views created ahead of inflation. */
+        public @Nullable ViewPool getViewPool() {
+            return mViewPool;
+        }
+
         /** Whether animation is enabled, which decides whether to load contentUpdateAnimations. */
         public boolean getAnimationEnabled() {
             return mAnimationEnabled;
@@ -700,6 +712,7 @@ public final class ProtoLayoutInflater {
             private @Nullable InflaterStatsLogger mInflaterStatsLogger;
 
             private @Nullable ProtoLayoutExtensionViewProvider mExtensionViewProvider = null;
+            private @Nullable ViewPool mViewPool = null;
 
             private boolean mApplyFontVariantBodyAsDefault = false;
 
@@ -777,6 +790,15 @@ public final class ProtoLayoutInflater {
                 return this;
             }
 
+            /**
+             * Sets the pool the views are taken from, if any. The pool must be created with the
+             * same Ui context, renderer resources and theme as this config.
+             */
+            public @NonNull Builder setViewPool(@NonNull ViewPool viewPool) {
+                this.mViewPool = viewPool;
+                return this;
+            }
+
             /**
              * Sets whether animation is enabled, which decides whether to load
              * contentUpdateAnimations. Defaults to true.
@@ -867,6 +889,7 @@ public final class ProtoLayoutInflater {
                         checkNotNull(mProtoLayoutTheme),
                         mDataPipeline,
                         mExtensionViewProvider,
+                        mViewPool,
                         checkNotNull(mClickableIdExtra),
                         mLoggingUtils,
                         mInflaterStatsLogger,
@@ -878,11 +901,7 @@ public final class ProtoLayoutInflater {
     }
 
     public ProtoLayoutInflater(@NonNull Config config) {
-        // Wrap the Ui Context with a Theme from rendererResources, so that any implicit resource
-        // reads using the R class from this package are successful.
-        Theme rendererTheme = config.getRendererResources().newTheme();
-        rendererTheme.setTo(config.getUiContext().getTheme());
-        this.mUiContext = new ContextThemeWrapper(config.getUiContext(), rendererTheme);
+        this.mUiContext = wrapUiContext(config.getUiContext(), config.getRendererResources());
         this.mProtoLayoutTheme = config.getProtoLayoutTheme();
         this.mProtoLayoutThemeContext =
                 new ContextThemeWrapper(mUiContext, mProtoLayoutTheme.getTheme());
@@ -898,9 +917,21 @@ public final class ProtoLayoutInflater {
         this.mLoggingUtils = config.getLoggingUtils();
         this.mInflaterStatsLogger = config.getInflaterStatsLogger();
         this.mExtensionViewProvider = config.getExtensionViewProvider();
+        this.mViewPool = config.getViewPool();
         this.mApplyFontVariantBodyAsDefault = config.getApplyFontVariantBodyAsDefault();
     }
 
+    /**
+     * Wraps the Ui Context with a Theme from rendererResources, so that any implicit resource reads
+     * using the R class from this package are successful.
+     */
+    static @NonNull Context wrapUiContext(
+            @NonNull Context uiContext, @NonNull Resources rendererResources) {
+        Theme rendererTheme = rendererResources.newTheme();
+        rendererTheme.setTo(uiContext.getTheme());
+        return new ContextThemeWrapper(uiContext, rendererTheme);
+    }
+
     private int dpToPx(float dp) {
         return round(dp * mUiContext.getResources().getDisplayMetrics().density);
     }
@@ -2649,7 +2680,7 @@ public final class ProtoLayoutInflater {
                         pipelineMaker);
             }
         } else {
-            view = new Space(mUiContext);
+            view = newSpace();
             parentViewWrapper.maybeAddView(view, layoutParams);
             if (spacer.getWidth().hasLinearDimension()) {
                 handleProp(
@@ -2731,7 +2762,7 @@ public final class ProtoLayoutInflater {
             Optional<PipelineMaker> pipelineMaker) {
         float length = 0;
         int thicknessPx = safeDpToPx(spacer.getThickness());
-        WearCurvedSpacer space = new WearCurvedSpacer(mUiContext);
+        WearCurvedSpacer space = newCurvedSpacer();
         ArcLayout.LayoutParams layoutParams =
                 new ArcLayout.LayoutParams(generateDefaultLayoutParams());
 
@@ -3153,7 +3184,7 @@ public final class ProtoLayoutInflater {
             return null;
         }
 
-        ImageViewWithoutIntrinsicSizes imageView = new ImageViewWithoutIntrinsicSizes(mUiContext);
+        ImageViewWithoutIntrinsicSizes imageView = newImageView();
 
         if (image.hasContentScaleMode()) {
             imageView.setScaleType(
@@ -3356,7 +3387,7 @@ public final class ProtoLayoutInflater {
             return null;
         }
 
-        WearCurvedLineView lineView = new WearCurvedLineView(mUiContext);
+        WearCurvedLineView lineView = newCurvedLineView();
 
         try {
             lineView.setUpdatesEnabled(false);
@@ -4228,7 +4259,7 @@ public final class ProtoLayoutInflater {
         int widthPx = safeDpToPx(element.getWidth().getLinearDimension());
         int heightPx = safeDpToPx(element.getHeight().getLinearDimension());
 
-        Space space = new Space(mUiContext);
+        Space space = newSpace();
 
         LayoutParams lp = new LayoutParams(widthPx, heightPx);
         parentViewWrapper.maybeAddView(space, lp);
@@ -4612,7 +4643,16 @@ public final class ProtoLayoutInflater {
      *     or the top-level LayoutElement contains an unsupported inner type.
      */
     public @Nullable InflateResult inflate(@NonNull ViewGroup inflateParent) {
+        long startTimeNanos = System.nanoTime();
+        try {
+            return inflateInternal(inflateParent);
+        } finally {
+            mInflaterStatsLogger.logInflationPhaseDuration(
+                    INFLATION_PHASE_VIEW_CREATION, System.nanoTime() - startTimeNanos);
+        }
+    }
 
+    private @Nullable InflateResult inflateInternal(@NonNull ViewGroup inflateParent) {
         // This is a full re-inflation, so we don't need any previous rendering information.
         LayoutInfo.Builder layoutInfoBuilder =
                 new LayoutInfo.Builder(/* previousLayoutInfo= */ null);
@@ -4670,8 +4710,11 @@ public final class ProtoLayoutInflater {
             Log.w(TAG, "No previous fingerprint available.");
             return null;
         }
-                LayoutDiff diff =
+        long startTimeNanos = System.nanoTime();
+        LayoutDiff diff =
                 ProtoLayoutDiffer.getDiff(prevRenderedMetadata.getTreeFingerprint(), targetLayout);
+        mInflaterStatsLogger.logInflationPhaseDuration(
+                INFLATION_PHASE_DIFFING, System.nanoTime() - startTimeNanos);
         if (diff == null) {
             Log.w(TAG, "getDiff failed");
             return null;
@@ -4679,6 +4722,22 @@ public final class ProtoLayoutInflater {
 
         logDebug(diff);
 
+        startTimeNanos = System.nanoTime();
+        try {
+            return computeMutationFromDiff(
+                    prevRenderedMetadata, targetLayout, parentViewProp, diff);
+        } finally {
+            mInflaterStatsLogger.logInflationPhaseDuration(
+                    INFLATION_PHASE_VIEW_CREATION, System.nanoTime() - startTimeNanos);
+        }
+    }
+
+    /** Creates the views of the changed elements of the given diff. */
+    private @Nullable ViewGroupMutation computeMutationFromDiff(
+            @NonNull RenderedMetadata prevRenderedMetadata,
+            @NonNull Layout targetLayout,
+            @NonNull ViewProperties parentViewProp,
+            @NonNull LayoutDiff diff) {
         List<InflatedView> inflatedViews = new ArrayList<>();
         LayoutInfo.Builder layoutInfoBuilder =
                 new LayoutInfo.Builder(prevRenderedMetadata.getLayoutInfo());
@@ -4760,7 +4819,7 @@ public final class ProtoLayoutInflater {
         return new ViewGroupMutation(
                 inflatedViews,
                 new RenderedMetadata(targetLayout.getFingerprint(), layoutInfoBuilder.build()),
-                prevRenderedMetadata.getTreeFingerprint().getRoot(),
+                checkNotNull(prevRenderedMetadata.getTreeFingerprint()).getRoot(),
                 pipelineMaker);
     }
 
@@ -4978,6 +5037,9 @@ public final class ProtoLayoutInflater {
 
     /** Creates a TextView with the fallbackTextAppearance from the current theme. */
     private TextView newThemedTextView() {
+        if (mViewPool != null) {
+            return (TextView) mViewPool.obtain(ViewPool.VIEW_KIND_TEXT);
+        }
         return new TextView(
                 mProtoLayoutThemeContext,
                 /* attrs= */ null,
@@ -4986,12 +5048,43 @@ public final class ProtoLayoutInflater {
 
     /** Creates a CurvedTextView with the fallbackTextAppearance from the current theme. */
     private CurvedTextView newThemedCurvedTextView() {
+        if (mViewPool != null) {
+            return (CurvedTextView) mViewPool.obtain(ViewPool.VIEW_KIND_ARC_TEXT);
+        }
         return new CurvedTextView(
                 mProtoLayoutThemeContext,
                 /* attrs= */ null,
                 mProtoLayoutTheme.getFallbackTextAppearanceResId());
     }
 
+    private ImageViewWithoutIntrinsicSizes newImageView() {
+        if (mViewPool != null) {
+            return (ImageViewWithoutIntrinsicSizes) mViewPool.obtain(ViewPool.VIEW_KIND_IMAGE);
+        }
+        return new ImageViewWithoutIntrinsicSizes(mUiContext);
+    }
+
+    private WearCurvedLineView newCurvedLineView() {
+        if (mViewPool != null) {
+            return (WearCurvedLineView) mViewPool.obtain(ViewPool.VIEW_KIND_ARC_LINE);
+        }
+        return new WearCurvedLineView(mUiContext);
+    }
+
+    private Space newSpace() {
+        if (mViewPool != null) {
+            return (Space) mViewPool.obtain(ViewPool.VIEW_KIND_SPACER);
+        }
+        return new Space(mUiContext);
+    }
+
+    private WearCurvedSpacer newCurvedSpacer() {
+        if (mViewPool != null) {
+            return (WearCurvedSpacer) mViewPool.obtain(ViewPool.VIEW_KIND_ARC_SPACER);
+        }
+        return new WearCurvedSpacer(mUiContext);
+    }
+
     private void logDebug(LayoutDiff diff) {
         if (mLoggingUtils != null && mLoggingUtils.canLogD(TAG)) {
             StringBuilder sb =
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.wear.protolayout.renderer.inflater;
+
+import static java.lang.Math.min;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.Space;
+import android.widget.TextView;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.IntDef;
+import androidx.annotation.IntRange;
+import androidx.annotation.WorkerThread;
+import androidx.wear.protolayout.renderer.ProtoLayoutTheme;
+import androidx.wear.widget.CurvedTextView;
+
+import org.jspecify.annotations.NonNull;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A pool of views created ahead of inflation, for the kinds of views most used by layouts.
+ *
+ * <p>Creating the views, and in particular resolving the text appearance of texts, is a large part
+ * of the inflation time. The pool can be filled in the background while the layout is idle, so
+ * that the next inflation takes its views from the pool instead of creating them.
+ *
+ * <p>Only views which have never been used are pooled, as the inflater sets many properties on
+ * the views which couldn't be reliably reset. {@link #refill()} creates as many views of each kind
+ * as used since the previous refill, so that the next inflation of a similar layout finds all its
+ * views in the pool.
+ *
+ * <p>The pool must be created with the same context, renderer resources and theme as the inflaters
+ * using it. This class is thread safe.
+ */
+public final class ViewPool {
+    /** The kinds of views kept in the pool. */
+    @IntDef({
+        VIEW_KIND_TEXT,
+        VIEW_KIND_ARC_TEXT,
+        VIEW_KIND_IMAGE,
+        VIEW_KIND_ARC_LINE,
+        VIEW_KIND_SPACER,
+        VIEW_KIND_ARC_SPACER
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface ViewKind {}
+
+    /** A {@link TextView} with the fallback text appearance of the theme. */
+    public static final int VIEW_KIND_TEXT = 0;
+
+    /** A {@link CurvedTextView} with the fallback text appearance of the theme. */
+    public static final int VIEW_KIND_ARC_TEXT = 1;
+
+    /** An image view. */
+    public static final int VIEW_KIND_IMAGE = 2;
+
+    /** A {@link WearCurvedLineView}. */
+    public static final int VIEW_KIND_ARC_LINE = 3;
+
+    /** A {@link Space}. */
+    public static final int VIEW_KIND_SPACER = 4;
+
+    /** A {@link WearCurvedSpacer}. */
+    public static final int VIEW_KIND_ARC_SPACER = 5;
+
+    private static final int VIEW_KIND_COUNT = 6;
+
+    private final @NonNull Context mUiContext;
+    private final @NonNull Context mProtoLayoutThemeContext;
+    private final int mFallbackTextAppearanceResId;
+    private final int mMaxViewsPerKind;
+
+    private final Object mLock = new Object();
+
+    @GuardedBy("mLock")
+    private final List<ArrayDeque<View>> mViews = new ArrayList<>(VIEW_KIND_COUNT);
+
+    /** The number of views of each kind obtained since the last refill. */
+    @GuardedBy("mLock")
+    private final int[] mObtainedCounts = new int[VIEW_KIND_COUNT];
+
+    /** Whether the pool was closed, after which it is never filled again. */
+    @GuardedBy("mLock")
+    private boolean mClosed;
+
+    @GuardedBy("mLock")
+    private long mHitCount;
+
+    @GuardedBy("mLock")
+    private long mMissCount;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param uiContext the context of the inflaters using this pool.
+     * @param rendererResources the resources of the renderer package.
+     * @param protoLayoutTheme the theme of the inflaters using this pool.
+     * @param maxViewsPerKind the max number of views of each kind kept in the pool.
+     */
+    public ViewPool(
+            @NonNull Context uiContext,
+            @NonNull Resources rendererResources,
+            @NonNull ProtoLayoutTheme protoLayoutTheme,
+            @IntRange(from = 1) int maxViewsPerKind) {
+        this.mUiContext = ProtoLayoutInflater.wrapUiContext(uiContext, rendererResources);
+        this.mProtoLayoutThemeContext =
+                new ContextThemeWrapper(mUiContext, protoLayoutTheme.getTheme());
+        this.mFallbackTextAppearanceResId = protoLayoutTheme.getFallbackTextAppearanceResId();
+        this.mMaxViewsPerKind = maxViewsPerKind;
+        for (int i = 0; i < VIEW_KIND_COUNT; i++) {
+            mViews.add(new ArrayDeque<>());
+        }
+    }
+
+    /** Returns a view of the given kind, from the pool if there is one, or a new one otherwise. */
+    @NonNull View obtain(@ViewKind int kind) {
+        View view;
+        synchronized (mLock) {
+            mObtainedCounts[kind]++;
+            view = mViews.get(kind).pollFirst();
+            if (view != null) {
+                mHitCount++;
+            } else {
+                mMissCount++;
+            }
+        }
+        return view != null ? view : createView(kind);
+    }
+
+    /**
+     * Creates views of the given kind until the pool has {@code count} of them, or the max number
+     * of views per kind.
+     */
+    @WorkerThread
+    public void prefill(@ViewKind int kind, int count) {
+        int targetCount = min(count, mMaxViewsPerKind);
+        int missingCount;
+        synchronized (mLock) {
+            if (mClosed) {
+                return;
+            }
+            missingCount = targetCount - mViews.get(kind).size();
+        }
+        for (int i = 0; i < missingCount; i++) {
+            // Views are created outside of the lock, so that inflaters aren't blocked meanwhile.
+            View view = createView(kind);
+            synchronized (mLock) {
+                ArrayDeque<View> views = mViews.get(kind);
+                if (mClosed || views.size() >= targetCount) {
+                    return;
+                }
+                views.addLast(view);
+            }
+        }
+    }
+
+    /**
+     * Creates as many views of each kind as obtained since the previous refill, up to the max
+     * number of views per kind. This should be called after an inflation. Does nothing once the
+     * pool is closed.
+     */
+    @WorkerThread
+    public void refill() {
+        int[] counts;
+        synchronized (mLock) {
+            counts = mObtainedCounts.clone();
+            Arrays.fill(mObtainedCounts, 0);
+        }
+        for (int kind = 0; kind < VIEW_KIND_COUNT; kind++) {
+            if (counts[kind] > 0) {
+                prefill(kind, counts[kind]);
+            }
+        }
+    }
+
+    /** Removes all the views from the pool. */
+    public void clear() {
+        synchronized (mLock) {
+            for (ArrayDeque<View> views : mViews) {
+                views.clear();
+            }
+            Arrays.fill(mObtainedCounts, 0);
+        }
+    }
+
+    /**
+     * Removes all the views from the pool, and stops filling it, including by refills that are
+     * already queued. Views obtained afterwards are always created.
+     */
+    public void close() {
+        synchronized (mLock) {
+            mClosed = true;
+        }
+        clear();
+    }
+
+    /** Returns the number of views of the given kind in the pool. */
+    public int getPooledViewCount(@ViewKind int kind) {
+        synchronized (mLock) {
+            return mViews.get(kind).size();
+        }
+    }
+
+    /** Returns the number of views taken from the pool. */
+    public long getHitCount() {
+        synchronized (mLock) {
+            return mHitCount;
+        }
+    }
+
+    /** Returns the number of views created because the pool had none of their kind. */
+    public long getMissCount() {
+        synchronized (mLock) {
+            return mMissCount;
+        }
+    }
+
+    private @NonNull View createView(@ViewKind int kind) {
+        switch (kind) {
+            case VIEW_KIND_TEXT:
+                return new TextView(
+                        mProtoLayoutThemeContext, /* attrs= */ null, mFallbackTextAppearanceResId);
+            case VIEW_KIND_ARC_TEXT:
+                return new CurvedTextView(
+                        mProtoLayoutThemeContext, /* attrs= */ null, mFallbackTextAppearanceResId);
+            case VIEW_KIND_IMAGE:
+                return new ImageViewWithoutIntrinsicSizes(mUiContext);
+            case VIEW_KIND_ARC_LINE:
+                return new WearCurvedLineView(mUiContext);
+            case VIEW_KIND_SPACER:
+                return new Space(mUiContext);
+            case VIEW_KIND_ARC_SPACER:
+                return new WearCurvedSpacer(mUiContext);
+            default:
+                throw new IllegalArgumentException("Unknown view kind: " + kind);
+        }
+    }
+}
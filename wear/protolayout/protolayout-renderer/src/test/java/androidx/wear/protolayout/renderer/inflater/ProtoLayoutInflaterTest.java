@@ -24,6 +24,8 @@ import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
 import static androidx.wear.protolayout.proto.ModifiersProto.SlideParentSnapOption.SLIDE_PARENT_SNAP_TO_INSIDE;
 import static androidx.wear.protolayout.proto.ModifiersProto.SlideParentSnapOption.SLIDE_PARENT_SNAP_TO_OUTSIDE;
 import static androidx.wear.protolayout.renderer.R.id.clickable_id_tag;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_DIFFING;
+import static androidx.wear.protolayout.renderer.common.ProviderStatsLogger.INFLATION_PHASE_VIEW_CREATION;
 import static androidx.wear.protolayout.renderer.helper.TestDsl.arc;
 import static androidx.wear.protolayout.renderer.helper.TestDsl.arcText;
 import static androidx.wear.protolayout.renderer.helper.TestDsl.box;
@@ -42,7 +44,11 @@ import static androidx.wear.protolayout.renderer.test.R.drawable.android_animate
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.robolectric.Shadows.shadowOf;
 
@@ -207,6 +213,7 @@ import androidx.wear.protolayout.proto.TypesProto.Int32Prop;
 import androidx.wear.protolayout.proto.TypesProto.StringProp;
 import androidx.wear.protolayout.protobuf.ByteString;
 import androidx.wear.protolayout.renderer.ProtoLayoutTheme;
+import androidx.wear.protolayout.renderer.common.ProviderStatsLogger.InflaterStatsLogger;
 import androidx.wear.protolayout.renderer.common.RenderingArtifact;
 import androidx.wear.protolayout.renderer.dynamicdata.ProtoLayoutDynamicDataPipeline;
 import androidx.wear.protolayout.renderer.helper.TestFingerprinter;
@@ -279,6 +286,32 @@ public class ProtoLayoutInflaterTest {
         expect.that(tv.getText().toString()).isEqualTo(textContents);
     }
 
+    @Test
+    public void inflate_textView_withViewPool_takesViewFromPool() {
+        String textContents = "Hello World";
+        LayoutElement root =
+                LayoutElement.newBuilder()
+                        .setText(Text.newBuilder().setText(string(textContents)))
+                        .build();
+        ViewPool viewPool =
+                new ViewPool(
+                        getApplicationContext(),
+                        getApplicationContext().getResources(),
+                        ProtoLayoutThemeImpl.defaultTheme(getApplicationContext()),
+                        /* maxViewsPerKind= */ 4);
+        viewPool.prefill(ViewPool.VIEW_KIND_TEXT, 1);
+
+        FrameLayout rootLayout =
+                renderer(newRendererConfigBuilder(fingerprintedLayout(root)).setViewPool(viewPool))
+                        .inflate();
+
+        assertThat(rootLayout.getChildCount()).isEqualTo(1);
+        TextView tv = (TextView) rootLayout.getChildAt(0);
+        expect.that(tv.getText().toString()).isEqualTo(textContents);
+        expect.that(viewPool.getHitCount()).isEqualTo(1);
+        expect.that(viewPool.getPooledViewCount(ViewPool.VIEW_KIND_TEXT)).isEqualTo(0);
+    }
+
     @Test
     public void inflate_textView_withColor() {
         int color = 0xFF112233;
@@ -759,6 +792,32 @@ public class ProtoLayoutInflaterTest {
         expect.that(spacerAfterMutation.getMeasuredHeight()).isEqualTo(newHeight);
     }
 
+    @Test
+    public void inflateAndComputeMutation_logPhaseDurations() {
+        InflaterStatsLogger inflaterStatsLogger = mock(InflaterStatsLogger.class);
+        Renderer renderer =
+                renderer(
+                        newRendererConfigBuilder(layoutBoxWithSpacer(10, 20))
+                                .setInflaterStatsLogger(inflaterStatsLogger));
+
+        ViewGroup inflatedViewParent = renderer.inflate();
+
+        verify(inflaterStatsLogger)
+                .logInflationPhaseDuration(eq(INFLATION_PHASE_VIEW_CREATION), anyLong());
+        verify(inflaterStatsLogger, never())
+                .logInflationPhaseDuration(eq(INFLATION_PHASE_DIFFING), anyLong());
+
+        ViewGroupMutation mutation =
+                renderer.computeMutation(
+                        getRenderedMetadata(inflatedViewParent), layoutBoxWithSpacer(5, 14));
+
+        assertThat(mutation).isNotNull();
+        verify(inflaterStatsLogger)
+                .logInflationPhaseDuration(eq(INFLATION_PHASE_DIFFING), anyLong());
+        verify(inflaterStatsLogger, times(2))
+                .logInflationPhaseDuration(eq(INFLATION_PHASE_VIEW_CREATION), anyLong());
+    }
+
     @Test
     public void inflate_spacerWithModifiers() {
         int width = 10;
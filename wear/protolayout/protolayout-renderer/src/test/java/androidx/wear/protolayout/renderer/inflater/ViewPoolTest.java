@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.wear.protolayout.renderer.inflater;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static androidx.wear.protolayout.renderer.inflater.ViewPool.VIEW_KIND_ARC_LINE;
+import static androidx.wear.protolayout.renderer.inflater.ViewPool.VIEW_KIND_IMAGE;
+import static androidx.wear.protolayout.renderer.inflater.ViewPool.VIEW_KIND_SPACER;
+import static androidx.wear.protolayout.renderer.inflater.ViewPool.VIEW_KIND_TEXT;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.view.View;
+import android.widget.Space;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ViewPoolTest {
+    private static final int MAX_VIEWS_PER_KIND = 3;
+
+    private final ViewPool mViewPool =
+            new ViewPool(
+                    getApplicationContext(),
+                    getApplicationContext().getResources(),
+                    ProtoLayoutThemeImpl.defaultTheme(getApplicationContext()),
+                    MAX_VIEWS_PER_KIND);
+
+    @Test
+    public void obtain_emptyPool_createsView() {
+        View view = mViewPool.obtain(VIEW_KIND_TEXT);
+
+        assertThat(view).isInstanceOf(TextView.class);
+        assertThat(mViewPool.getMissCount()).isEqualTo(1);
+        assertThat(mViewPool.getHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void obtain_afterPrefill_takesViewsFromPool() {
+        mViewPool.prefill(VIEW_KIND_SPACER, 2);
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_SPACER)).isEqualTo(2);
+        View first = mViewPool.obtain(VIEW_KIND_SPACER);
+        View second = mViewPool.obtain(VIEW_KIND_SPACER);
+        View third = mViewPool.obtain(VIEW_KIND_SPACER);
+
+        assertThat(first).isInstanceOf(Space.class);
+        assertThat(second).isNotSameInstanceAs(first);
+        assertThat(third).isInstanceOf(Space.class);
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_SPACER)).isEqualTo(0);
+        assertThat(mViewPool.getHitCount()).isEqualTo(2);
+        assertThat(mViewPool.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void prefill_isLimitedToMaxViewsPerKind() {
+        mViewPool.prefill(VIEW_KIND_IMAGE, MAX_VIEWS_PER_KIND + 2);
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_IMAGE)).isEqualTo(MAX_VIEWS_PER_KIND);
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_TEXT)).isEqualTo(0);
+    }
+
+    @Test
+    public void refill_createsAsManyViewsAsObtained() {
+        mViewPool.obtain(VIEW_KIND_TEXT);
+        mViewPool.obtain(VIEW_KIND_TEXT);
+        mViewPool.obtain(VIEW_KIND_ARC_LINE);
+
+        mViewPool.refill();
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_TEXT)).isEqualTo(2);
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_ARC_LINE)).isEqualTo(1);
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_IMAGE)).isEqualTo(0);
+
+        // Nothing was obtained since the previous refill.
+        mViewPool.refill();
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_TEXT)).isEqualTo(2);
+    }
+
+    @Test
+    public void clear_removesPooledViews() {
+        mViewPool.prefill(VIEW_KIND_TEXT, 2);
+
+        mViewPool.clear();
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_TEXT)).isEqualTo(0);
+    }
+
+    @Test
+    public void close_stopsRefills() {
+        mViewPool.prefill(VIEW_KIND_TEXT, 2);
+        mViewPool.obtain(VIEW_KIND_TEXT);
+
+        mViewPool.close();
+        mViewPool.refill();
+        mViewPool.prefill(VIEW_KIND_SPACER, 1);
+
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_TEXT)).isEqualTo(0);
+        assertThat(mViewPool.getPooledViewCount(VIEW_KIND_SPACER)).isEqualTo(0);
+        assertThat(mViewPool.obtain(VIEW_KIND_TEXT)).isNotNull();
+    }
+}
@@ -18,6 +18,7 @@ package androidx.webkit;
 
 import android.content.Context;
 import android.net.Uri;
+import android.webkit.WebResourceRequest;
 import android.webkit.WebResourceResponse;
 
 import androidx.test.core.app.ApplicationProvider;
@@ -27,7 +28,9 @@ import androidx.webkit.WebViewAssetLoader.AssetsPathHandler;
 import androidx.webkit.WebViewAssetLoader.InternalStoragePathHandler;
 import androidx.webkit.WebViewAssetLoader.PathHandler;
 import androidx.webkit.WebViewAssetLoader.ResourcesPathHandler;
+import androidx.webkit.WebViewAssetLoader.ResponseCache;
 import androidx.webkit.internal.AssetHelper;
+import androidx.webkit.test.common.WebkitUtils;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -38,9 +41,14 @@ import org.junit.runner.RunWith;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(AndroidJUnit4.class)
 public class WebViewAssetLoaderTest {
@@ -71,6 +79,60 @@ public class WebViewAssetLoaderTest {
         }
     }
 
+    private static class TestWebResourceRequest implements WebResourceRequest {
+        private final Uri mUrl;
+        private final Map<String, String> mRequestHeaders;
+
+        TestWebResourceRequest(String url, Map<String, String> requestHeaders) {
+            mUrl = Uri.parse(url);
+            mRequestHeaders = requestHeaders;
+        }
+
+        @Override
+        public Uri getUrl() {
+            return mUrl;
+        }
+
+        @Override
+        public boolean isForMainFrame() {
+            return false;
+        }
+
+        @Override
+        public boolean isRedirect() {
+            return false;
+        }
+
+        @Override
+        public boolean hasGesture() {
+            return false;
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public Map<String, String> getRequestHeaders() {
+            return mRequestHeaders;
+        }
+    }
+
+    private static WebResourceRequest rangeRequest(String url, String range) {
+        return new TestWebResourceRequest(url, Collections.singletonMap("Range", range));
+    }
+
+    private static File createTestFile(File directory, String name, String contents)
+            throws IOException {
+        directory.mkdirs();
+        File file = new File(directory, name);
+        try (OutputStream os = new FileOutputStream(file)) {
+            os.write(contents.getBytes(ENCODING));
+        }
+        return file;
+    }
+
     @Test
     @SmallTest
     public void testCustomPathHandler() throws Throwable {
@@ -482,6 +544,155 @@ public class WebViewAssetLoaderTest {
         assertResponse(response2, CONTENTS);
     }
 
+    @Test
+    @SmallTest
+    public void testHostInternalStorageHandler_rangeRequests() throws Throwable {
+        Context context = ApplicationProvider.getApplicationContext();
+        File testDir = new File(context.getFilesDir(), "range_test");
+        try {
+            createTestFile(testDir, "video.mp4", "0123456789");
+            WebViewAssetLoader assetLoader = new WebViewAssetLoader.Builder()
+                    .addPathHandler("/public/", new InternalStoragePathHandler(context, testDir))
+                    .build();
+            String url = "https://appassets.androidplatform.net/public/video.mp4";
+
+            WebResourceResponse response =
+                    assetLoader.shouldInterceptRequest(rangeRequest(url, "bytes=2-5"));
+            Assert.assertEquals(206, response.getStatusCode());
+            Assert.assertEquals("bytes 2-5/10",
+                    response.getResponseHeaders().get("Content-Range"));
+            Assert.assertEquals("4", response.getResponseHeaders().get("Content-Length"));
+            Assert.assertEquals("bytes", response.getResponseHeaders().get("Accept-Ranges"));
+            assertResponse(response, "2345");
+
+            response = assetLoader.shouldInterceptRequest(rangeRequest(url, "bytes=7-"));
+            Assert.assertEquals(206, response.getStatusCode());
+            assertResponse(response, "789");
+
+            response = assetLoader.shouldInterceptRequest(rangeRequest(url, "bytes=-3"));
+            Assert.assertEquals(206, response.getStatusCode());
+            Assert.assertEquals("bytes 7-9/10",
+                    response.getResponseHeaders().get("Content-Range"));
+            assertResponse(response, "789");
+
+            response = assetLoader.shouldInterceptRequest(rangeRequest(url, "bytes=10-"));
+            Assert.assertEquals(416, response.getStatusCode());
+            Assert.assertEquals("bytes */10",
+                    response.getResponseHeaders().get("Content-Range"));
+
+            // Several ranges aren't supported, so the whole file is returned.
+            response = assetLoader.shouldInterceptRequest(rangeRequest(url, "bytes=0-1,4-5"));
+            Assert.assertEquals(200, response.getStatusCode());
+            assertResponse(response, "0123456789");
+        } finally {
+            WebkitUtils.recursivelyDeleteFile(testDir);
+        }
+    }
+
+    @Test
+    @SmallTest
+    public void testResponseCache_assets() throws Throwable {
+        final String testHtmlContents = "<body><div>test</div></body>";
+        final AtomicInteger openCount = new AtomicInteger();
+
+        AssetHelper mockAssetHelper = new AssetHelper(ApplicationProvider.getApplicationContext()) {
+            @Override
+            public @NonNull InputStream openAsset(String path) throws IOException {
+                if (path.equals("www/test.html")) {
+                    openCount.incrementAndGet();
+                    return new ByteArrayInputStream(testHtmlContents.getBytes(ENCODING));
+                }
+                throw new IOException("Unexpected path: " + path);
+            }
+
+            @Override
+            public long getPackageUpdateTime() {
+                return 0x1234;
+            }
+        };
+        ResponseCache cache = new ResponseCache(1024);
+        WebViewAssetLoader assetLoader = new WebViewAssetLoader.Builder()
+                .addPathHandler("/assets/", new AssetsPathHandler(mockAssetHelper, cache))
+                .build();
+        Uri url = Uri.parse("https://appassets.androidplatform.net/assets/www/test.html");
+
+        WebResourceResponse response = assetLoader.shouldInterceptRequest(url);
+        Assert.assertEquals("\"1234\"", response.getResponseHeaders().get("ETag"));
+        Assert.assertEquals(ResponseCache.DEFAULT_CACHE_CONTROL,
+                response.getResponseHeaders().get("Cache-Control"));
+        assertResponse(response, testHtmlContents);
+
+        response = assetLoader.shouldInterceptRequest(url);
+        assertResponse(response, testHtmlContents);
+
+        // Ranges of cached responses are served from the cache too.
+        response = assetLoader.shouldInterceptRequest(
+                rangeRequest(url.toString(), "bytes=0-5"));
+        Assert.assertEquals(206, response.getStatusCode());
+        assertResponse(response, "<body>");
+
+        Assert.assertEquals(1, openCount.get());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(testHtmlContents.length() + 6, cache.getBytesServedFromCache());
+        Assert.assertEquals(testHtmlContents.length(), cache.getSizeBytes());
+    }
+
+    @Test
+    @SmallTest
+    public void testResponseCache_modifiedFile() throws Throwable {
+        Context context = ApplicationProvider.getApplicationContext();
+        File testDir = new File(context.getFilesDir(), "cache_test");
+        try {
+            File file = createTestFile(testDir, "app.js", "var a = 1;");
+            ResponseCache cache = new ResponseCache(1024, "max-age=60");
+            WebViewAssetLoader assetLoader = new WebViewAssetLoader.Builder()
+                    .addPathHandler("/public/",
+                            new InternalStoragePathHandler(context, testDir, cache))
+                    .build();
+            Uri url = Uri.parse("https://appassets.androidplatform.net/public/app.js");
+
+            WebResourceResponse response = assetLoader.shouldInterceptRequest(url);
+            Assert.assertEquals("max-age=60", response.getResponseHeaders().get("Cache-Control"));
+            String eTag = response.getResponseHeaders().get("ETag");
+            assertResponse(response, "var a = 1;");
+            assertResponse(assetLoader.shouldInterceptRequest(url), "var a = 1;");
+            Assert.assertEquals(1, cache.getHitCount());
+
+            createTestFile(testDir, "app.js", "var a = 12;");
+            response = assetLoader.shouldInterceptRequest(url);
+            Assert.assertNotEquals(eTag, response.getResponseHeaders().get("ETag"));
+            assertResponse(response, "var a = 12;");
+            Assert.assertEquals(2, cache.getMissCount());
+            Assert.assertEquals(file.length(), cache.getSizeBytes());
+        } finally {
+            WebkitUtils.recursivelyDeleteFile(testDir);
+        }
+    }
+
+    @Test
+    @SmallTest
+    public void testResponseCache_largeResponsesNotCached() throws Throwable {
+        final String testContents = "This asset is larger than a quarter of the cache";
+
+        AssetHelper mockAssetHelper = new AssetHelper(ApplicationProvider.getApplicationContext()) {
+            @Override
+            public @NonNull InputStream openAsset(String path) throws IOException {
+                return new ByteArrayInputStream(testContents.getBytes(ENCODING));
+            }
+        };
+        ResponseCache cache = new ResponseCache(64);
+        WebViewAssetLoader assetLoader = new WebViewAssetLoader.Builder()
+                .addPathHandler("/assets/", new AssetsPathHandler(mockAssetHelper, cache))
+                .build();
+        Uri url = Uri.parse("https://appassets.androidplatform.net/assets/large.txt");
+
+        assertResponse(assetLoader.shouldInterceptRequest(url), testContents);
+        assertResponse(assetLoader.shouldInterceptRequest(url), testContents);
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(0, cache.getSizeBytes());
+    }
+
     private static void assertResponse(@Nullable WebResourceResponse response,
               @NonNull String expectedContent) throws IOException {
         Assert.assertNotNull("failed to match the URL and returned null response", response);
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.webkit.internal;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ByteRangeTest {
+    private static final long LENGTH = 100;
+
+    private static void assertRange(String header, long start, long end) {
+        ByteRange range = ByteRange.parse(header, LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(start, range.getStart());
+        Assert.assertEquals(end, range.getEnd());
+        Assert.assertEquals(end - start + 1, range.getLength());
+    }
+
+    @Test
+    @SmallTest
+    public void testParseRange() {
+        assertRange("bytes=0-9", 0, 9);
+        assertRange("bytes=10-", 10, 99);
+        assertRange("bytes=90-200", 90, 99);
+        assertRange("bytes=-10", 90, 99);
+        assertRange("bytes=-200", 0, 99);
+        assertRange("Bytes=5-6", 5, 6);
+    }
+
+    @Test
+    @SmallTest
+    public void testParseUnsatisfiableRange() {
+        Assert.assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=100-", LENGTH));
+        Assert.assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", LENGTH));
+        Assert.assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+        Assert.assertEquals("bytes */100", ByteRange.UNSATISFIABLE.toContentRange(LENGTH));
+    }
+
+    @Test
+    @SmallTest
+    public void testParseIgnoredRange() {
+        Assert.assertNull(ByteRange.parse(null, LENGTH));
+        Assert.assertNull(ByteRange.parse("bytes=0-1,5-6", LENGTH));
+        Assert.assertNull(ByteRange.parse("items=0-1", LENGTH));
+        Assert.assertNull(ByteRange.parse("bytes=5-1", LENGTH));
+        Assert.assertNull(ByteRange.parse("bytes=a-b", LENGTH));
+    }
+
+    @Test
+    @SmallTest
+    public void testContentRange() {
+        Assert.assertEquals("bytes 0-9/100",
+                ByteRange.parse("bytes=0-9", LENGTH).toContentRange(LENGTH));
+    }
+}
@@ -17,24 +17,37 @@
 package androidx.webkit;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.Resources;
 import android.net.Uri;
 import android.util.Log;
+import android.util.LruCache;
+import android.webkit.WebResourceRequest;
 import android.webkit.WebResourceResponse;
 
+import androidx.annotation.IntRange;
 import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 import androidx.core.util.Pair;
 import androidx.webkit.internal.AssetHelper;
+import androidx.webkit.internal.ByteRange;
+import androidx.webkit.internal.RandomAccessContent;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Helper class to load local files including application's static assets and resources using
@@ -67,7 +80,7 @@ import java.util.List;
  * webView.setWebViewClient(new WebViewClientCompat() {
  *     {@literal @}Override
  *     public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
- *         return assetLoader.shouldInterceptRequest(request.getUrl());
+ *         return assetLoader.shouldInterceptRequest(request);
  *     }
  * <p>
  *     {@literal @}Override
@@ -97,6 +110,14 @@ import java.util.List;
 public final class WebViewAssetLoader {
     private static final String TAG = "WebViewAssetLoader";
 
+    private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_RANGE = "Range";
+    private static final String BYTES_UNIT = "bytes";
+
     /**
      * An unused domain reserved for Android applications to intercept requests for app assets.
      * <p>
@@ -142,6 +163,168 @@ public final class WebViewAssetLoader {
          */
         @WorkerThread
         @Nullable WebResourceResponse handle(@NonNull String path);
+
+        /**
+         * Handles the requested URL by returning the appropriate response, given the headers of
+         * the request.
+         * <p>
+         * This method is invoked by {@link WebViewAssetLoader#shouldInterceptRequest(
+         * WebResourceRequest)}, for instance to respond to HTTP range requests. By default, the
+         * headers are ignored and the request is handled by {@link #handle(String)}.
+         *
+         * @param path the suffix path to be handled.
+         * @param requestHeaders the headers of the request.
+         * @return {@link WebResourceResponse} for the requested path or {@code null} if it can't
+         *                                     handle this path.
+         */
+        @WorkerThread
+        default @Nullable WebResourceResponse handle(@NonNull String path,
+                @NonNull Map<String, String> requestHeaders) {
+            return handle(path);
+        }
+    }
+
+    /**
+     * An in-memory LRU cache of the responses of {@link AssetsPathHandler} and
+     * {@link InternalStoragePathHandler}, for the assets and files requested repeatedly such as
+     * the scripts and style sheets of a web app.
+     * <p>
+     * Cached responses are validated with an entity tag, derived from the last update time of
+     * the application for assets and from the modification time and size of files, which is also
+     * sent to WebView in the {@code ETag} header along with a {@code Cache-Control} header.
+     * Responses larger than a quarter of the max size are not cached, so that a large media file
+     * doesn't evict all the other entries; those are better served with range requests.
+     * <p>
+     * A cache can be shared by several path handlers, and is safe to use from any thread.
+     */
+    public static final class ResponseCache {
+        /**
+         * The default value of the {@code Cache-Control} header, which lets WebView store the
+         * responses but revalidate them before each use.
+         */
+        public static final String DEFAULT_CACHE_CONTROL = "no-cache";
+
+        private static final int BUFFER_SIZE = 8192;
+
+        private final @NonNull LruCache<String, Entry> mEntries;
+        private final int mMaxEntrySizeBytes;
+        private final @NonNull String mCacheControl;
+        private final AtomicLong mHitCount = new AtomicLong();
+        private final AtomicLong mMissCount = new AtomicLong();
+        private final AtomicLong mBytesServedFromCache = new AtomicLong();
+
+        /**
+         * Creates a cache using the {@link #DEFAULT_CACHE_CONTROL} header.
+         *
+         * @param maxSizeBytes the max total size of the cached responses, in bytes.
+         */
+        public ResponseCache(@IntRange(from = 1) int maxSizeBytes) {
+            this(maxSizeBytes, DEFAULT_CACHE_CONTROL);
+        }
+
+        /**
+         * @param maxSizeBytes the max total size of the cached responses, in bytes.
+         * @param cacheControl the value of the {@code Cache-Control} header of the responses.
+         */
+        public ResponseCache(@IntRange(from = 1) int maxSizeBytes, @NonNull String cacheControl) {
+            if (maxSizeBytes <= 0) {
+                throw new IllegalArgumentException("maxSizeBytes must be positive");
+            }
+            mEntries = new LruCache<String, Entry>(maxSizeBytes) {
+                @Override
+                protected int sizeOf(@NonNull String key, @NonNull Entry entry) {
+                    return entry.mData.length;
+                }
+            };
+            mMaxEntrySizeBytes = maxSizeBytes / 4;
+            mCacheControl = cacheControl;
+        }
+
+        /** Returns the number of requests which were served from the cache. */
+        public long getHitCount() {
+            return mHitCount.get();
+        }
+
+        /** Returns the number of requests which couldn't be served from the cache. */
+        public long getMissCount() {
+            return mMissCount.get();
+        }
+
+        /** Returns the total number of bytes of the responses served from the cache. */
+        public long getBytesServedFromCache() {
+            return mBytesServedFromCache.get();
+        }
+
+        /** Returns the total size of the cached responses, in bytes. */
+        public int getSizeBytes() {
+            return mEntries.size();
+        }
+
+        /** Removes all the cached responses. */
+        public void clear() {
+            mEntries.evictAll();
+        }
+
+        /**
+         * Returns the cached content for the given key if its entity tag still matches, or
+         * {@code null} otherwise.
+         */
+        byte @Nullable [] get(@NonNull String key, @NonNull String eTag) {
+            Entry entry = mEntries.get(key);
+            if (entry != null && entry.mETag.equals(eTag)) {
+                mHitCount.incrementAndGet();
+                return entry.mData;
+            }
+            if (entry != null) {
+                mEntries.remove(key);
+            }
+            mMissCount.incrementAndGet();
+            return null;
+        }
+
+        void recordBytesServed(long length) {
+            mBytesServedFromCache.addAndGet(length);
+        }
+
+        /**
+         * Reads the given stream and caches its content if it's small enough. Returns a stream of
+         * the whole content, which continues reading the given stream if it wasn't cached.
+         */
+        @NonNull InputStream readThrough(@NonNull String key, @NonNull String eTag,
+                @NonNull InputStream is) throws IOException {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                while (os.size() <= mMaxEntrySizeBytes) {
+                    int len = Math.min(buffer.length, mMaxEntrySizeBytes + 1 - os.size());
+                    int read = is.read(buffer, 0, len);
+                    if (read == -1) {
+                        break;
+                    }
+                    os.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                is.close();
+                throw e;
+            }
+            if (os.size() > mMaxEntrySizeBytes) {
+                return new SequenceInputStream(new ByteArrayInputStream(os.toByteArray()), is);
+            }
+            is.close();
+            byte[] data = os.toByteArray();
+            mEntries.put(key, new Entry(data, eTag));
+            return new ByteArrayInputStream(data);
+        }
+
+        private static final class Entry {
+            final byte @NonNull [] mData;
+            final @NonNull String mETag;
+
+            Entry(byte @NonNull [] data, @NonNull String eTag) {
+                mData = data;
+                mETag = eTag;
+            }
+        }
     }
 
     /**
@@ -149,17 +332,37 @@ public final class WebViewAssetLoader {
      */
     public static final class AssetsPathHandler implements PathHandler {
         private final AssetHelper mAssetHelper;
+        private final @Nullable ResponseCache mCache;
+        private volatile @Nullable String mETag;
 
         /**
          * @param context {@link Context} used to resolve assets.
          */
         public AssetsPathHandler(@NonNull Context context) {
-            mAssetHelper = new AssetHelper(context);
+            this(context, null);
+        }
+
+        /**
+         * Creates a handler which caches the responses for the assets requested repeatedly.
+         *
+         * @param context {@link Context} used to resolve assets.
+         * @param cache {@link ResponseCache} storing the responses, or {@code null} to not cache
+         *              them.
+         */
+        public AssetsPathHandler(@NonNull Context context, @Nullable ResponseCache cache) {
+            this(new AssetHelper(context), cache);
         }
 
         @VisibleForTesting
         /*package*/ AssetsPathHandler(@NonNull AssetHelper assetHelper) {
+            this(assetHelper, null);
+        }
+
+        @VisibleForTesting
+        /*package*/ AssetsPathHandler(@NonNull AssetHelper assetHelper,
+                @Nullable ResponseCache cache) {
             mAssetHelper = assetHelper;
+            mCache = cache;
         }
 
         /**
@@ -183,15 +386,61 @@ public final class WebViewAssetLoader {
         @Override
         @WorkerThread
         public @Nullable WebResourceResponse handle(@NonNull String path) {
+            return handle(path, Collections.emptyMap());
+        }
+
+        /**
+         * Opens the requested file from the application's assets directory, as
+         * {@link #handle(String)} does.
+         * <p>
+         * A range request is answered with a {@code 206} response reading only the requested
+         * bytes, if the asset is stored uncompressed in the APK. Otherwise, the whole asset is
+         * returned.
+         *
+         * @param path the suffix path to be handled.
+         * @param requestHeaders the headers of the request.
+         * @return {@link WebResourceResponse} for the requested file.
+         */
+        @Override
+        @WorkerThread
+        public @Nullable WebResourceResponse handle(@NonNull String path,
+                @NonNull Map<String, String> requestHeaders) {
             try {
-                InputStream is = mAssetHelper.openAsset(path);
-                String mimeType = AssetHelper.guessMimeType(path);
-                return new WebResourceResponse(mimeType, null, is);
+                return createResponse(path, requestHeaders, mCache, "asset:" + path, getETag(),
+                        new ContentSource() {
+                            @Override
+                            public @NonNull InputStream open() throws IOException {
+                                return mAssetHelper.openAsset(path);
+                            }
+
+                            @Override
+                            public @Nullable RandomAccessContent openRandomAccess() {
+                                AssetFileDescriptor afd = mAssetHelper.openAssetFd(path);
+                                return afd == null ? null
+                                        : RandomAccessContent.openAssetFileDescriptor(afd);
+                            }
+                        });
             } catch (IOException e) {
                 Log.e(TAG, "Error opening asset path: " + path, e);
                 return new WebResourceResponse(null, null, null);
             }
         }
+
+        /**
+         * Returns the entity tag of all the assets, which change only when the application is
+         * updated, or {@code null} if responses aren't cached.
+         */
+        private @Nullable String getETag() {
+            if (mCache == null) {
+                return null;
+            }
+            String eTag = mETag;
+            if (eTag == null) {
+                eTag = "\"" + Long.toHexString(mAssetHelper.getPackageUpdateTime()) + "\"";
+                mETag = eTag;
+            }
+            return eTag;
+        }
     }
 
     /**
@@ -277,6 +526,7 @@ public final class WebViewAssetLoader {
                 new String[] {"app_webview/", "databases/", "lib/", "shared_prefs/", "code_cache/"};
 
         private final @NonNull File mDirectory;
+        private final @Nullable ResponseCache mCache;
 
         /**
          * Creates PathHandler for app's internal storage.
@@ -301,6 +551,24 @@ public final class WebViewAssetLoader {
          * @throws IllegalArgumentException if the directory is not allowed.
          */
         public InternalStoragePathHandler(@NonNull Context context, @NonNull File directory) {
+            this(context, directory, null);
+        }
+
+        /**
+         * Creates PathHandler for app's internal storage, which caches the responses for the files
+         * requested repeatedly. The directory must be allowed as described in
+         * {@link #InternalStoragePathHandler(Context, File)}.
+         *
+         * @param context {@link Context} that is used to access app's internal storage.
+         * @param directory the absolute path of the exposed app internal storage directory from
+         *                  which files can be loaded.
+         * @param cache {@link ResponseCache} storing the responses, or {@code null} to not cache
+         *              them.
+         * @throws IllegalArgumentException if the directory is not allowed.
+         */
+        public InternalStoragePathHandler(@NonNull Context context, @NonNull File directory,
+                @Nullable ResponseCache cache) {
+            mCache = cache;
             try {
                 mDirectory = new File(AssetHelper.getCanonicalDirPath(directory));
                 if (!isAllowedInternalStorageDir(context)) {
@@ -357,12 +625,45 @@ public final class WebViewAssetLoader {
         @Override
         @WorkerThread
         public @NonNull WebResourceResponse handle(@NonNull String path) {
+            return handle(path, Collections.emptyMap());
+        }
+
+        /**
+         * Opens the requested file from the exposed data directory, as {@link #handle(String)}
+         * does.
+         * <p>
+         * A range request is answered with a {@code 206} response reading only the requested
+         * bytes, unless the file is compressed. Otherwise, the whole file is returned.
+         *
+         * @param path the suffix path to be handled.
+         * @param requestHeaders the headers of the request.
+         * @return {@link WebResourceResponse} for the requested file.
+         */
+        @Override
+        @WorkerThread
+        public @NonNull WebResourceResponse handle(@NonNull String path,
+                @NonNull Map<String, String> requestHeaders) {
             try {
                 File file = AssetHelper.getCanonicalFileIfChild(mDirectory, path);
                 if (file != null) {
-                    InputStream is = AssetHelper.openFile(file);
-                    String mimeType = AssetHelper.guessMimeType(path);
-                    return new WebResourceResponse(mimeType, null, is);
+                    // Files can be replaced at any time, so the entity tag is checked each time.
+                    String eTag = mCache == null ? null : "\""
+                            + Long.toHexString(file.lastModified()) + "-"
+                            + Long.toHexString(file.length()) + "\"";
+                    return createResponse(path, requestHeaders, mCache, "file:" + file.getPath(),
+                            eTag, new ContentSource() {
+                                @Override
+                                public @NonNull InputStream open() throws IOException {
+                                    return AssetHelper.openFile(file);
+                                }
+
+                                @Override
+                                public @Nullable RandomAccessContent openRandomAccess()
+                                        throws IOException {
+                                    return AssetHelper.isGzippedFile(file) ? null
+                                            : RandomAccessContent.openFile(file);
+                                }
+                            });
                 } else {
                     Log.e(TAG, String.format(
                             "The requested file: %s is outside the mounted directory: %s", path,
@@ -552,12 +853,40 @@ public final class WebViewAssetLoader {
      */
     @WorkerThread
     public @Nullable WebResourceResponse shouldInterceptRequest(@NonNull Uri url) {
+        return shouldInterceptRequest(url, Collections.emptyMap());
+    }
+
+    /**
+     * Attempt to resolve the URL of the {@code request} to an application resource or asset, and
+     * return a {@link WebResourceResponse} for the content.
+     * <p>
+     * Unlike {@link #shouldInterceptRequest(Uri)}, the headers of the request are passed to the
+     * {@link PathHandler}, so that range requests, such as the ones for the media played by a
+     * web page, can be answered with the requested bytes only.
+     * <p>
+     * This method should be invoked from within
+     * {@link android.webkit.WebViewClient#shouldInterceptRequest(android.webkit.WebView,
+     * WebResourceRequest)}.
+     *
+     * @param request the request to process.
+     * @return {@link WebResourceResponse} if the request URL matches a registered URL,
+     *         {@code null} otherwise.
+     */
+    @WorkerThread
+    public @Nullable WebResourceResponse shouldInterceptRequest(
+            @NonNull WebResourceRequest request) {
+        return shouldInterceptRequest(request.getUrl(), request.getRequestHeaders());
+    }
+
+    @WorkerThread
+    private @Nullable WebResourceResponse shouldInterceptRequest(@NonNull Uri url,
+            @NonNull Map<String, String> requestHeaders) {
         for (PathMatcher matcher : mMatchers) {
             PathHandler handler = matcher.match(url);
             // The requested URL doesn't match the URL where this handler has been registered.
             if (handler == null) continue;
             String suffixPath = matcher.getSuffixPath(url.getPath());
-            WebResourceResponse response = handler.handle(suffixPath);
+            WebResourceResponse response = handler.handle(suffixPath, requestHeaders);
             // Handler doesn't want to intercept this request, try next handler.
             if (response == null) continue;
 
@@ -565,4 +894,113 @@ public final class WebViewAssetLoader {
         }
         return null;
     }
+
+    /**
+     * The content of an asset or a file served by {@link #createResponse}.
+     */
+    private interface ContentSource {
+        /** Opens a stream of the whole content, decompressed if needed. */
+        @NonNull InputStream open() throws IOException;
+
+        /** Opens the content for positional reads, or returns {@code null} if it's compressed. */
+        @Nullable RandomAccessContent openRandomAccess() throws IOException;
+    }
+
+    /**
+     * Creates the response for the given content, which is served from the cache if possible, and
+     * supports range requests if the content can be read from any position.
+     * <p>
+     * If there is no cache and the request isn't a range request, the response is the same as the
+     * one returned by the handlers before ranges and caching were supported.
+     */
+    @WorkerThread
+    private static @NonNull WebResourceResponse createResponse(@NonNull String path,
+            @NonNull Map<String, String> requestHeaders, @Nullable ResponseCache cache,
+            @NonNull String cacheKey, @Nullable String eTag, @NonNull ContentSource source)
+            throws IOException {
+        String mimeType = AssetHelper.guessMimeType(path);
+        String rangeHeader = getHeader(requestHeaders, HEADER_RANGE);
+        Map<String, String> responseHeaders = new HashMap<>();
+        if (cache != null && eTag != null) {
+            responseHeaders.put(HEADER_ETAG, eTag);
+            responseHeaders.put(HEADER_CACHE_CONTROL, cache.mCacheControl);
+            byte[] data = cache.get(cacheKey, eTag);
+            if (data != null) {
+                responseHeaders.put(HEADER_ACCEPT_RANGES, BYTES_UNIT);
+                ByteRange range = ByteRange.parse(rangeHeader, data.length);
+                if (range == ByteRange.UNSATISFIABLE) {
+                    return createUnsatisfiableResponse(mimeType, responseHeaders, data.length);
+                }
+                if (range == null) {
+                    cache.recordBytesServed(data.length);
+                    return createOkResponse(mimeType, responseHeaders,
+                            new ByteArrayInputStream(data));
+                }
+                cache.recordBytesServed(range.getLength());
+                return createPartialResponse(mimeType, responseHeaders, range, data.length,
+                        new ByteArrayInputStream(data, (int) range.getStart(),
+                                (int) range.getLength()));
+            }
+        }
+        if (rangeHeader != null) {
+            RandomAccessContent content = source.openRandomAccess();
+            if (content != null) {
+                responseHeaders.put(HEADER_ACCEPT_RANGES, BYTES_UNIT);
+                long length = content.getLength();
+                ByteRange range = ByteRange.parse(rangeHeader, length);
+                if (range == ByteRange.UNSATISFIABLE) {
+                    content.close();
+                    return createUnsatisfiableResponse(mimeType, responseHeaders, length);
+                }
+                if (range == null) {
+                    return createOkResponse(mimeType, responseHeaders,
+                            content.openRange(0, length));
+                }
+                return createPartialResponse(mimeType, responseHeaders, range, length,
+                        content.openRange(range.getStart(), range.getLength()));
+            }
+        }
+        InputStream is = source.open();
+        if (cache != null && eTag != null) {
+            is = cache.readThrough(cacheKey, eTag, is);
+        }
+        if (responseHeaders.isEmpty()) {
+            return new WebResourceResponse(mimeType, null, is);
+        }
+        return createOkResponse(mimeType, responseHeaders, is);
+    }
+
+    private static @NonNull WebResourceResponse createOkResponse(@NonNull String mimeType,
+            @NonNull Map<String, String> responseHeaders, @NonNull InputStream is) {
+        return new WebResourceResponse(mimeType, null, 200, "OK", responseHeaders, is);
+    }
+
+    private static @NonNull WebResourceResponse createPartialResponse(@NonNull String mimeType,
+            @NonNull Map<String, String> responseHeaders, @NonNull ByteRange range,
+            long contentLength, @NonNull InputStream is) {
+        responseHeaders.put(HEADER_CONTENT_RANGE, range.toContentRange(contentLength));
+        responseHeaders.put(HEADER_CONTENT_LENGTH, Long.toString(range.getLength()));
+        return new WebResourceResponse(mimeType, null, 206, "Partial Content", responseHeaders,
+                is);
+    }
+
+    private static @NonNull WebResourceResponse createUnsatisfiableResponse(
+            @NonNull String mimeType, @NonNull Map<String, String> responseHeaders,
+            long contentLength) {
+        responseHeaders.put(HEADER_CONTENT_RANGE,
+                ByteRange.UNSATISFIABLE.toContentRange(contentLength));
+        return new WebResourceResponse(mimeType, null, 416, "Range Not Satisfiable",
+                responseHeaders, new ByteArrayInputStream(new byte[0]));
+    }
+
+    /** Returns the value of a header, whose name is case-insensitive. */
+    private static @Nullable String getHeader(@NonNull Map<String, String> headers,
+            @NonNull String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
 }
@@ -17,6 +17,8 @@
 package androidx.webkit.internal;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
 import android.content.res.Resources;
 import android.os.Build;
@@ -117,6 +119,53 @@ public class AssetHelper {
         return handleSvgzStream(path, assets.open(path, AssetManager.ACCESS_STREAMING));
     }
 
+    /**
+     * Open an {@link AssetFileDescriptor} for an Android asset, to read it from any position.
+     * <p>
+     * Only assets stored uncompressed in the APK can be opened this way. Gzipped SVG files are
+     * not opened either, as their content is decompressed when read.
+     *
+     * @param path Path to the asset file to load.
+     * @return An {@link AssetFileDescriptor} for the Android asset, or {@code null} if the asset
+     *         is compressed or can't be found.
+     */
+    public @Nullable AssetFileDescriptor openAssetFd(@NonNull String path) {
+        path = removeLeadingSlash(path);
+        if (path.endsWith(".svgz")) {
+            return null;
+        }
+        try {
+            return mContext.getAssets().openFd(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the time at which the application was last updated, which changes whenever its
+     * assets and resources may have changed.
+     *
+     * @return the last update time in milliseconds, or {@code 0} if it can't be found.
+     */
+    @SuppressWarnings("deprecation")
+    public long getPackageUpdateTime() {
+        try {
+            return mContext.getPackageManager()
+                    .getPackageInfo(mContext.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns whether a file is gzipped and decompressed when opened with {@link #openFile}.
+     *
+     * @param file The file to be opened.
+     */
+    public static boolean isGzippedFile(@NonNull File file) {
+        return file.getPath().endsWith(".svgz");
+    }
+
     /**
      * Open an {@code InputStream} for a file in application data directories.
      *
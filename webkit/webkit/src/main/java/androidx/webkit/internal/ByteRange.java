@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.webkit.internal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A range of bytes requested with an HTTP {@code Range} header, as defined by
+ * <a href="https://www.rfc-editor.org/rfc/rfc7233">RFC 7233</a>.
+ */
+public final class ByteRange {
+    /** A range which doesn't overlap the content, to be answered with a status code 416. */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(0, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long mStart;
+    private final long mEnd;
+
+    private ByteRange(long start, long end) {
+        mStart = start;
+        mEnd = end;
+    }
+
+    /** Returns the position of the first byte of the range. */
+    public long getStart() {
+        return mStart;
+    }
+
+    /** Returns the position of the last byte of the range, inclusive. */
+    public long getEnd() {
+        return mEnd;
+    }
+
+    /** Returns the number of bytes in the range. */
+    public long getLength() {
+        return mEnd - mStart + 1;
+    }
+
+    /**
+     * Parses the value of a {@code Range} header for a content of the given length.
+     * <p>
+     * Only a single range in bytes is supported. Requests for several ranges are answered with
+     * the whole content, which is allowed by the specification.
+     *
+     * @param header the value of the {@code Range} header, if any.
+     * @param contentLength the length of the content in bytes.
+     * @return the requested range, {@link #UNSATISFIABLE} if it doesn't overlap the content, or
+     *         {@code null} if the whole content should be returned.
+     */
+    public static @Nullable ByteRange parse(@Nullable String header, long contentLength) {
+        if (header == null) {
+            return null;
+        }
+        header = header.trim();
+        if (!header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())
+                || header.indexOf(',') != -1) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dashIndex = spec.indexOf('-');
+        if (dashIndex == -1) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dashIndex).trim();
+            String last = spec.substring(dashIndex + 1).trim();
+            if (first.isEmpty()) {
+                // A suffix range, for the last bytes of the content.
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength < 0) {
+                    return null;
+                }
+                if (suffixLength == 0 || contentLength == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, contentLength - suffixLength),
+                        contentLength - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? contentLength - 1 : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= contentLength) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, contentLength - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Returns the value of the {@code Content-Range} header of a response for this range. */
+    public @NonNull String toContentRange(long contentLength) {
+        if (this == UNSATISFIABLE) {
+            return "bytes */" + contentLength;
+        }
+        return "bytes " + mStart + "-" + mEnd + "/" + contentLength;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.webkit.internal;
+
+import android.content.res.AssetFileDescriptor;
+import android.os.ParcelFileDescriptor;
+
+import org.jspecify.annotations.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The uncompressed content of a file or an asset, which can be read from any position with
+ * {@link FileChannel} positional reads, for instance to respond to HTTP range requests.
+ */
+public final class RandomAccessContent implements Closeable {
+    private final @NonNull FileInputStream mStream;
+    private final @NonNull FileChannel mChannel;
+    private final long mStartOffset;
+    private final long mLength;
+
+    private RandomAccessContent(@NonNull FileInputStream stream, long startOffset, long length) {
+        mStream = stream;
+        mChannel = stream.getChannel();
+        mStartOffset = startOffset;
+        mLength = length;
+    }
+
+    /**
+     * Opens the content of a file.
+     *
+     * @param file The file to be opened.
+     * @return A {@link RandomAccessContent} for the whole file.
+     */
+    public static @NonNull RandomAccessContent openFile(@NonNull File file) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            return new RandomAccessContent(stream, 0, stream.getChannel().size());
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the content of an uncompressed asset, which takes the ownership of the given
+     * {@link AssetFileDescriptor}.
+     *
+     * @param afd The file descriptor of the asset, as returned by
+     *            {@link android.content.res.AssetManager#openFd}.
+     * @return A {@link RandomAccessContent} for the asset.
+     */
+    public static @NonNull RandomAccessContent openAssetFileDescriptor(
+            @NonNull AssetFileDescriptor afd) {
+        // The stream of the parcel file descriptor is used instead of the one of the asset file
+        // descriptor, as the channel of the latter applies the start offset on some API levels.
+        return new RandomAccessContent(
+                new ParcelFileDescriptor.AutoCloseInputStream(afd.getParcelFileDescriptor()),
+                afd.getStartOffset(), afd.getLength());
+    }
+
+    /** Returns the length of the content in bytes. */
+    public long getLength() {
+        return mLength;
+    }
+
+    /**
+     * Opens a stream reading a range of the content. Closing the stream closes this content.
+     *
+     * @param start the position of the first byte to read.
+     * @param length the number of bytes to read.
+     * @return An {@link InputStream} for the range.
+     */
+    public @NonNull InputStream openRange(long start, long length) {
+        return new RangeInputStream(start, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        mStream.close();
+    }
+
+    private final class RangeInputStream extends InputStream {
+        private long mPosition;
+        private long mRemaining;
+
+        RangeInputStream(long start, long length) {
+            mPosition = mStartOffset + start;
+            mRemaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte @NonNull [] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (mRemaining <= 0) {
+                return -1;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, (int) Math.min(len, mRemaining));
+            // Positional reads don't depend on the offset of the file descriptor, which may be
+            // shared with other streams.
+            int read = mChannel.read(buffer, mPosition);
+            if (read == -1) {
+                mRemaining = 0;
+                return -1;
+            }
+            mPosition += read;
+            mRemaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, mRemaining));
+            mPosition += skipped;
+            mRemaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(mRemaining, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            RandomAccessContent.this.close();
+        }
+    }
+}